@@ -1,7 +1,13 @@
 package org.nakhan;
 
+import org.nakhan.config.FastStartupConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import java.util.Arrays;
 
 /**
  * Main Spring Boot application class for the Full Stack Java Developer Toolkit template.
@@ -13,9 +19,29 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @version 1.0.0
  */
 @SpringBootApplication
+@EnableScheduling
 public class SpringBootTemplateApplication {
 
+    private static final int DEFAULT_TIMELINE_CAPACITY = 10_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(SpringBootTemplateApplication.class, args);
+        SpringApplication application = new SpringApplication(SpringBootTemplateApplication.class);
+        recordStartupTimeline(application, args);
+        application.run(args);
+    }
+
+    /**
+     * Under the {@code fast-startup} profile, buffer the startup steps (bean creation, context
+     * refresh phases) for the actuator {@code startup} endpoint. The profile is read from the
+     * command line, system properties and environment, as the application's own configuration
+     * is not loaded yet.
+     */
+    private static void recordStartupTimeline(SpringApplication application, String[] args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        if (Arrays.asList(environment.getActiveProfiles()).contains(FastStartupConfiguration.PROFILE)) {
+            int capacity = environment.getProperty("app.startup.timeline-capacity", Integer.class, DEFAULT_TIMELINE_CAPACITY);
+            application.setApplicationStartup(new BufferingApplicationStartup(capacity));
+        }
     }
 }
@@ -0,0 +1,192 @@
+package org.nakhan.active;
+
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of active and inactive user ids.
+ *
+ * Ids are kept in 64-bit Roaring bitmaps: the high bits select a container through an adaptive
+ * radix tree, and each container holds the low 16 bits as a sorted array, a bitset or runs,
+ * whichever is smallest. Snowflake ids created close together share containers, and bulk
+ * imports become runs. Every operation is idempotent, so replaying an event is harmless, and
+ * the counts are maintained on write because Roaring counts cost one step per container.
+ *
+ * Thread-safe: reads share a lock, writes are exclusive.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class ActiveUserIndex {
+
+    private final Roaring64Bitmap active = new Roaring64Bitmap();
+    private final Roaring64Bitmap inactive = new Roaring64Bitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long activeCount;
+    private long inactiveCount;
+
+    /**
+     * Record a user's status, moving it between the bitmaps if it changed.
+     *
+     * @param id the user id
+     * @param isActive whether the user is active
+     */
+    public void set(long id, boolean isActive) {
+        lock.writeLock().lock();
+        try {
+            if (isActive) {
+                activeCount += add(active, id);
+                inactiveCount -= remove(inactive, id);
+            } else {
+                inactiveCount += add(inactive, id);
+                activeCount -= remove(active, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget a deleted or archived user.
+     *
+     * @param id the user id
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            activeCount -= remove(active, id);
+            inactiveCount -= remove(inactive, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isActive(long id) {
+        lock.readLock().lock();
+        try {
+            return active.contains(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active status of each id; unknown ids are reported inactive.
+     *
+     * @param ids user ids
+     * @return status per id, in the order given
+     */
+    public Map<Long, Boolean> activeStatus(Collection<Long> ids) {
+        Map<Long, Boolean> status = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                status.put(id, active.contains(id));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return status;
+    }
+
+    /**
+     * Active ids in ascending order, for keyset pagination.
+     *
+     * @param after the last id of the previous page, or {@code null} for the first page
+     * @param limit maximum number of ids
+     * @return the next page of active ids
+     */
+    public List<Long> activeIdsAfter(Long after, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+        if (after != null && after == Long.MAX_VALUE) {
+            return ids;
+        }
+        lock.readLock().lock();
+        try {
+            PeekableLongIterator iterator = after == null ? active.getLongIterator() : active.getLongIteratorFrom(after + 1);
+            while (ids.size() < limit && iterator.hasNext()) {
+                ids.add(iterator.next());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    public long count(boolean isActive) {
+        lock.readLock().lock();
+        try {
+            return isActive ? activeCount : inactiveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of ids in exactly one of the two indexes' active bitmaps.
+     *
+     * @param other the index to compare with
+     * @return size of the symmetric difference of the active ids
+     */
+    public long activeDifference(ActiveUserIndex other) {
+        Roaring64Bitmap difference;
+        lock.readLock().lock();
+        try {
+            difference = active.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+        other.lock.readLock().lock();
+        try {
+            difference.xor(other.active);
+        } finally {
+            other.lock.readLock().unlock();
+        }
+        return difference.getLongCardinality();
+    }
+
+    /**
+     * Convert containers to runs where that is smaller; worth doing after a bulk load.
+     */
+    public void optimize() {
+        lock.writeLock().lock();
+        try {
+            active.runOptimize();
+            inactive.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return active.getLongSizeInBytes() + inactive.getLongSizeInBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int add(Roaring64Bitmap bitmap, long id) {
+        if (bitmap.contains(id)) {
+            return 0;
+        }
+        bitmap.addLong(id);
+        return 1;
+    }
+
+    private static int remove(Roaring64Bitmap bitmap, long id) {
+        if (!bitmap.contains(id)) {
+            return 0;
+        }
+        bitmap.removeLong(id);
+        return 1;
+    }
+}
@@ -0,0 +1,36 @@
+package org.nakhan.active;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing cardinality and memory of the active user index
+ * ({@code GET /actuator/activeindex}) and triggering a reconciliation ({@code POST /actuator/activeindex}).
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@Endpoint(id = "activeindex")
+public class ActiveUserIndexEndpoint {
+
+    private final ActiveUserIndexService activeUserIndexService;
+
+    public ActiveUserIndexEndpoint(ActiveUserIndexService activeUserIndexService) {
+        this.activeUserIndexService = activeUserIndexService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return activeUserIndexService.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> reconcile() {
+        boolean started = activeUserIndexService.rebuildAsync().getNow(0L) != -1;
+        return Map.of("rebuildStarted", started);
+    }
+}
@@ -0,0 +1,260 @@
+package org.nakhan.active;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.nakhan.event.UserChangedEvent;
+import org.nakhan.event.UsersImportedEvent;
+import org.nakhan.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Service owning the in-memory bitmap index of active user ids.
+ *
+ * The index answers active/inactive counts, active checks for lists of ids and keyset pages of
+ * active ids without a database round trip. It is built in the background once the application
+ * is ready by streaming the ids of each status, kept current from {@link UserChangedEvent}s after
+ * each transaction commits, and rebuilt every {@code app.active-index.reconcile-interval} to
+ * repair drift from writes that bypass the service, such as manual SQL. Until the first build
+ * completes, or when disabled, every query returns empty and callers fall back to the database.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Service
+public class ActiveUserIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveUserIndexService.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Counter driftCounter;
+
+    private volatile ActiveUserIndex index = new ActiveUserIndex();
+    private volatile boolean ready;
+    private volatile long lastBuildMillis;
+    private volatile long lastDrift;
+    private List<UserChangedEvent> pendingDuringRebuild;
+
+    @Autowired
+    public ActiveUserIndexService(UserRepository userRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.active-index.enabled:true}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "active-user-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("user.active.index.users", this, service -> service.index.count(true))
+            .tag("status", "active")
+            .description("Active user ids in the bitmap index")
+            .register(meterRegistry);
+        Gauge.builder("user.active.index.users", this, service -> service.index.count(false))
+            .tag("status", "inactive")
+            .description("Inactive user ids in the bitmap index")
+            .register(meterRegistry);
+        Gauge.builder("user.active.index.bytes", this, service -> service.index.sizeInBytes())
+            .description("Memory used by the active user bitmaps")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.driftCounter = Counter.builder("user.active.index.drift")
+            .description("Active ids corrected by reconciliation with the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Number of users with the given status.
+     *
+     * @param active the active status
+     * @return the count, or empty if the index is not ready
+     */
+    public OptionalLong count(boolean active) {
+        return ready ? OptionalLong.of(index.count(active)) : OptionalLong.empty();
+    }
+
+    /**
+     * Active status of each id; ids of unknown users are reported inactive.
+     *
+     * @param ids user ids
+     * @return status per id, or empty if the index is not ready
+     */
+    public Optional<Map<Long, Boolean>> activeStatus(Collection<Long> ids) {
+        return ready ? Optional.of(index.activeStatus(ids)) : Optional.empty();
+    }
+
+    /**
+     * Page of active ids in ascending order.
+     *
+     * @param after the last id of the previous page, or {@code null} for the first page
+     * @param limit the page size
+     * @return the next page, or empty if the index is not ready
+     */
+    public Optional<List<Long>> activeIdsAfter(Long after, int limit) {
+        return ready ? Optional.of(index.activeIdsAfter(after, limit)) : Optional.empty();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Start a background rebuild unless one is already running or the index is disabled.
+     *
+     * @return future completing with the number of indexed users, or {@code -1} if no rebuild was started
+     */
+    public CompletableFuture<Long> rebuildAsync() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(-1L);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return rebuild();
+            } finally {
+                rebuilding.set(false);
+            }
+        }, rebuildExecutor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildAsync().exceptionally(e -> {
+            log.error("Initial active user index build failed", e);
+            return -1L;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.active-index.reconcile-interval:PT15M}",
+               initialDelayString = "${app.active-index.reconcile-interval:PT15M}")
+    public void reconcile() {
+        rebuildAsync().exceptionally(e -> {
+            log.warn("Active user index reconciliation failed: {}", e.getMessage());
+            return -1L;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            apply(index, event);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+        }
+    }
+
+    /**
+     * Bulk imports write rows without per-user events, so reload the index from the table.
+     */
+    @EventListener
+    public void onUsersImported(UsersImportedEvent event) {
+        rebuildAsync();
+    }
+
+    /**
+     * Cardinality, memory and reconciliation state of the live index.
+     *
+     * @return index statistics
+     */
+    public Map<String, Object> stats() {
+        ActiveUserIndex current = index;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        stats.put("rebuilding", rebuilding.get());
+        stats.put("activeUsers", current.count(true));
+        stats.put("inactiveUsers", current.count(false));
+        stats.put("bytes", current.sizeInBytes());
+        stats.put("lastBuildMillis", lastBuildMillis);
+        stats.put("lastDrift", lastDrift);
+        stats.put("totalDrift", (long) driftCounter.count());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private long rebuild() {
+        long start = System.currentTimeMillis();
+        ActiveUserIndex fresh = new ActiveUserIndex();
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                load(fresh, true);
+                load(fresh, false);
+            });
+            fresh.optimize();
+            synchronized (this) {
+                pendingDuringRebuild.forEach(event -> apply(fresh, event));
+                if (ready) {
+                    lastDrift = fresh.activeDifference(index);
+                    driftCounter.increment(lastDrift);
+                }
+                index = fresh;
+            }
+        } finally {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+        }
+        ready = true;
+        lastBuildMillis = System.currentTimeMillis() - start;
+        if (lastDrift > 0) {
+            log.warn("Active user index reconciled {} drifted ids", lastDrift);
+        }
+        log.debug("Active user index built with {} active and {} inactive users ({} bytes) in {} ms",
+                fresh.count(true), fresh.count(false), fresh.sizeInBytes(), lastBuildMillis);
+        return fresh.count(true) + fresh.count(false);
+    }
+
+    private void load(ActiveUserIndex target, boolean active) {
+        try (Stream<Long> ids = userRepository.streamIdsByActive(active)) {
+            ids.forEach(id -> target.set(id, active));
+        }
+    }
+
+    private static void apply(ActiveUserIndex target, UserChangedEvent event) {
+        if (event.isRemoval()) {
+            target.remove(event.getUserId());
+        } else {
+            target.set(event.getUserId(), Boolean.TRUE.equals(event.getUser().getActive()));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.nakhan.archive;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.nakhan.entity.User;
+import org.nakhan.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service moving long-inactive users from {@code users} to the {@code users_archive} table, so
+ * the hot table and its indexes only hold the working set.
+ *
+ * Users inactive (not updated) for longer than {@code app.archive.inactive-days} are moved in
+ * batches, each in its own short transaction that locks, copies and deletes the batch, with a
+ * pause between batches to leave room for the regular workload. Archived users remain reachable
+ * through the {@code UserRepository} archive lookups and are restored when reactivated.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserArchivalService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserArchivalService.class);
+
+    private static final String COLUMNS = "id, username, email, password, first_name, last_name, is_active, created_at, updated_at";
+
+    // Served by the partial index on inactive users, oldest change first
+    private static final String SELECT_BATCH = "SELECT id FROM users WHERE is_active = false AND updated_at < ? "
+            + "ORDER BY updated_at LIMIT ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int inactiveDays;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final int maxBatchesPerRun;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunArchived;
+    private volatile long lastRunMillis;
+
+    @Autowired
+    public UserArchivalService(JdbcTemplate jdbcTemplate,
+                               NamedParameterJdbcTemplate namedJdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               EntityManagerFactory entityManagerFactory,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${app.archive.inactive-days:365}") int inactiveDays,
+                               @Value("${app.archive.batch-size:500}") int batchSize,
+                               @Value("${app.archive.batch-pause:PT0.2S}") Duration batchPause,
+                               @Value("${app.archive.max-batches-per-run:2000}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.inactiveDays = inactiveDays;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        archiveInactiveUsers();
+    }
+
+    /**
+     * Archive users inactive for longer than the configured number of days.
+     *
+     * @return number of users archived, or {@code -1} if a run is already in progress
+     */
+    public long archiveInactiveUsers() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        long start = System.currentTimeMillis();
+        long archived = 0;
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(inactiveDays));
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<Long> ids = transactionTemplate.execute(status -> archiveBatch(cutoff));
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+                archived += ids.size();
+                evict(ids);
+                if (ids.size() < batchSize) {
+                    break;
+                }
+                Thread.sleep(batchPause.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (archived > 0) {
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictNaturalIdData(User.class);
+            }
+            lastRunAt = LocalDateTime.now();
+            lastRunArchived = archived;
+            lastRunMillis = System.currentTimeMillis() - start;
+            running.set(false);
+        }
+        log.info("Archived {} users inactive for more than {} days in {} ms", archived, inactiveDays, lastRunMillis);
+        return archived;
+    }
+
+    /**
+     * Row counts of the hot and archive tables and the state of the last run.
+     *
+     * @return archival statistics
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running.get());
+        stats.put("inactiveDays", inactiveDays);
+        stats.put("hotUsers", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+        stats.put("archivedUsers", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users_archive", Long.class));
+        stats.put("lastRunAt", lastRunAt == null ? null : lastRunAt.toString());
+        stats.put("lastRunArchived", lastRunArchived);
+        stats.put("lastRunMillis", lastRunMillis);
+        return stats;
+    }
+
+    /**
+     * Lock the next batch, copy it to the archive and remove it from users. Must run in a transaction.
+     */
+    private List<Long> archiveBatch(Timestamp cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_BATCH, Long.class, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+        namedJdbcTemplate.update("INSERT INTO users_archive (" + COLUMNS + ", archived_at) SELECT " + COLUMNS
+                + ", :archivedAt FROM users WHERE id IN (:ids)", parameters);
+        namedJdbcTemplate.update("DELETE FROM users WHERE id IN (:ids)", parameters);
+        ids.forEach(id -> eventPublisher.publishEvent(UserChangedEvent.archived(id)));
+        return ids;
+    }
+
+    /**
+     * Drop archived users from the second-level cache once their batch has committed.
+     */
+    private void evict(List<Long> ids) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        ids.forEach(id -> cache.evictEntityData(User.class, id));
+        cache.evictQueryRegions();
+    }
+}
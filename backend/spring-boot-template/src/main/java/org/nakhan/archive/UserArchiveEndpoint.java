@@ -0,0 +1,38 @@
+package org.nakhan.archive;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+
+/**
+ * Actuator endpoint showing hot and archived user counts ({@code GET /actuator/userarchive})
+ * and running the archival job on demand ({@code POST /actuator/userarchive}).
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Endpoint(id = "userarchive")
+public class UserArchiveEndpoint {
+
+    private final UserArchivalService userArchivalService;
+
+    public UserArchiveEndpoint(UserArchivalService userArchivalService) {
+        this.userArchivalService = userArchivalService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return userArchivalService.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> archive() {
+        long archived = userArchivalService.archiveInactiveUsers();
+        return Map.of("started", archived >= 0, "archived", Math.max(archived, 0));
+    }
+}
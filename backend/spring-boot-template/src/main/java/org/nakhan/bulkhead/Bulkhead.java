@@ -0,0 +1,26 @@
+package org.nakhan.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a controller method, or every method of a controller, in a named {@link Compartment}.
+ * Handlers without it run in {@code read} for GET, HEAD and OPTIONS and in {@code write} otherwise.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ * @see BulkheadInterceptor
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    /**
+     * @return the compartment name: {@code read}, {@code write} or {@code heavy}
+     */
+    String value();
+}
@@ -0,0 +1,56 @@
+package org.nakhan.bulkhead;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import javax.sql.DataSource;
+
+/**
+ * Registers {@link BulkheadInterceptor} for the controllers and wraps every {@link DataSource}
+ * bean in a {@link BulkheadDataSource}. The wrapper goes directly around the pool, inside the
+ * query statistics proxy, so statements are still reported per data source bean.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfiguration implements WebMvcConfigurer {
+
+    private final BulkheadRegistry registry;
+
+    public BulkheadConfiguration(BulkheadRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new BulkheadInterceptor(registry)).order(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    // Declared with its own type so the bean factory sees it is Ordered before creating it
+    @Bean
+    static DataSourcePostProcessor bulkheadDataSourcePostProcessor() {
+        return new DataSourcePostProcessor();
+    }
+
+    static final class DataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                return new BulkheadDataSource(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.nakhan.bulkhead;
+
+/**
+ * The compartment of the request the current thread is handling, for the connection budget in
+ * {@link BulkheadDataSource}. Set by {@link BulkheadInterceptor} around each dispatch; work handed
+ * to other threads runs outside any compartment.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class BulkheadContext {
+
+    private static final ThreadLocal<Compartment> CURRENT = new ThreadLocal<>();
+
+    private BulkheadContext() {
+    }
+
+    static Compartment current() {
+        return CURRENT.get();
+    }
+
+    static void set(Compartment compartment) {
+        CURRENT.set(compartment);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,109 @@
+package org.nakhan.bulkhead;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds connections taken while handling a request to the connection budget of the request's
+ * {@link Compartment}. A connection counts against the budget from {@code getConnection()} until it
+ * is closed, that is returned to the pool. Connections taken outside a request, such as by
+ * scheduled jobs and imports, are not limited.
+ *
+ * When the budget is used up the caller waits up to {@code app.bulkhead.connection-timeout} and
+ * then gets a {@link ConnectionBudgetExhaustedException}, a {@link SQLTransientConnectionException}
+ * as it would get from an exhausted pool.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    public BulkheadDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Compartment compartment = BulkheadContext.current();
+        if (compartment == null) {
+            return super.getConnection();
+        }
+        acquire(compartment);
+        try {
+            return budgeted(super.getConnection(), compartment);
+        } catch (SQLException | RuntimeException e) {
+            compartment.releaseConnection();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Compartment compartment = BulkheadContext.current();
+        if (compartment == null) {
+            return super.getConnection(username, password);
+        }
+        acquire(compartment);
+        try {
+            return budgeted(super.getConnection(username, password), compartment);
+        } catch (SQLException | RuntimeException e) {
+            compartment.releaseConnection();
+            throw e;
+        }
+    }
+
+    private static void acquire(Compartment compartment) throws SQLException {
+        try {
+            if (!compartment.acquireConnection()) {
+                throw new ConnectionBudgetExhaustedException(compartment.getName());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    /**
+     * Wrap a connection so that closing it returns its place in the budget, once.
+     */
+    private static Connection budgeted(Connection target, Compartment compartment) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(BulkheadDataSource.class.getClassLoader(),
+                new Class<?>[] {ConnectionProxy.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getTargetConnection":
+                            return target;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "unwrap":
+                            return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                        case "isWrapperFor":
+                            return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                        case "close":
+                            try {
+                                target.close();
+                            } finally {
+                                if (closed.compareAndSet(false, true)) {
+                                    compartment.releaseConnection();
+                                }
+                            }
+                            return null;
+                        default:
+                            try {
+                                return method.invoke(target, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+}
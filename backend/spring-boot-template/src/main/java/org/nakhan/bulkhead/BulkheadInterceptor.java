@@ -0,0 +1,113 @@
+package org.nakhan.bulkhead;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import java.util.Set;
+
+/**
+ * Runs each controller request in its {@link Compartment}: takes a permit before the handler, or
+ * answers {@code 503 Service Unavailable} with {@code Retry-After} when the request is shed, and
+ * returns it once the response is complete. Requests from admins are served first and not shed.
+ *
+ * An async request keeps its permit until the async cycle completes. While a dispatch runs, the
+ * compartment is also the thread's {@link BulkheadContext}, so the connections it takes count
+ * against the compartment's budget.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".permit";
+    // Admin API tokens and the admin Basic account
+    private static final Set<String> ADMIN_AUTHORITIES = Set.of("SCOPE_admin", "ROLE_ADMIN");
+
+    private final BulkheadRegistry registry;
+
+    public BulkheadInterceptor(BulkheadRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                && request.getAttribute(PERMIT_ATTRIBUTE) instanceof Compartment.Permit permit) {
+            BulkheadContext.set(permit.compartment());
+            return true;
+        }
+        Compartment compartment = registry.forHandler(handlerMethod, request.getMethod());
+        Compartment.Permit permit = compartment.acquire(isAdmin());
+        if (permit == null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        BulkheadContext.set(compartment);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        BulkheadContext.clear();
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Compartment.Permit permit) {
+            request.getAsyncContext().addListener(new ReleaseListener(permit));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        BulkheadContext.clear();
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Compartment.Permit permit) {
+            permit.release();
+        }
+    }
+
+    private static boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (ADMIN_AUTHORITIES.contains(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the permit of an async request however its async cycle ends.
+     */
+    private record ReleaseListener(Compartment.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
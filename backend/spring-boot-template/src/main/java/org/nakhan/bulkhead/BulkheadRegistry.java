@@ -0,0 +1,94 @@
+package org.nakhan.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code read}, {@code write} and {@code heavy} compartments, configured by
+ * {@code app.bulkhead.<compartment>.permits} and {@code .connections}, and the compartment of
+ * each handler method.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadRegistry {
+
+    public static final String READ = "read";
+    public static final String WRITE = "write";
+    public static final String HEAVY = "heavy";
+
+    // Handlers without an annotation; mappings without an explicit method take any method
+    private static final String BY_REQUEST_METHOD = "";
+
+    private final Map<String, Compartment> compartments;
+    private final Map<Method, String> byHandler = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BulkheadRegistry(MeterRegistry meterRegistry,
+                            @Value("${app.bulkhead.target-delay:5ms}") Duration target,
+                            @Value("${app.bulkhead.interval:100ms}") Duration interval,
+                            @Value("${app.bulkhead.admin-max-wait:1s}") Duration adminMaxWait,
+                            @Value("${app.bulkhead.connection-timeout:2s}") Duration connectionTimeout,
+                            @Value("${app.bulkhead.read.permits:100}") int readPermits,
+                            @Value("${app.bulkhead.read.connections:5}") int readConnections,
+                            @Value("${app.bulkhead.write.permits:20}") int writePermits,
+                            @Value("${app.bulkhead.write.connections:2}") int writeConnections,
+                            @Value("${app.bulkhead.heavy.permits:4}") int heavyPermits,
+                            @Value("${app.bulkhead.heavy.connections:2}") int heavyConnections) {
+        this.compartments = Map.of(
+            READ, new Compartment(READ, readPermits, readConnections, target, interval, adminMaxWait,
+                    connectionTimeout, meterRegistry, System::nanoTime),
+            WRITE, new Compartment(WRITE, writePermits, writeConnections, target, interval, adminMaxWait,
+                    connectionTimeout, meterRegistry, System::nanoTime),
+            HEAVY, new Compartment(HEAVY, heavyPermits, heavyConnections, target, interval, adminMaxWait,
+                    connectionTimeout, meterRegistry, System::nanoTime));
+    }
+
+    /**
+     * The compartment of a handler: from its {@link Bulkhead} annotation, or else from the
+     * request method.
+     *
+     * @param handler the handler method
+     * @param requestMethod the HTTP method of the request
+     * @return the compartment
+     * @throws IllegalStateException if the annotation names an unknown compartment
+     */
+    public Compartment forHandler(HandlerMethod handler, String requestMethod) {
+        String name = byHandler.computeIfAbsent(handler.getMethod(), method -> {
+            Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(method, Bulkhead.class);
+            if (bulkhead == null) {
+                bulkhead = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), Bulkhead.class);
+            }
+            if (bulkhead == null) {
+                return BY_REQUEST_METHOD;
+            }
+            if (!compartments.containsKey(bulkhead.value())) {
+                throw new IllegalStateException("Unknown bulkhead compartment " + bulkhead.value() + " on " + handler);
+            }
+            return bulkhead.value();
+        });
+        if (name.isEmpty()) {
+            return compartments.get(isRead(requestMethod) ? READ : WRITE);
+        }
+        return compartments.get(name);
+    }
+
+    public Compartment get(String name) {
+        return compartments.get(name);
+    }
+
+    private static boolean isRead(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+}
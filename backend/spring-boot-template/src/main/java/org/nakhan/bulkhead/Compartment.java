@@ -0,0 +1,249 @@
+package org.nakhan.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A concurrency compartment: a number of request permits and a budget of database connections
+ * that requests of one endpoint class share, so a storm in one class cannot use up the threads and
+ * connections the others need.
+ *
+ * Requests that find no free permit wait in a queue, and are shed by queueing delay rather than
+ * queue length (CoDel). While the queue has been empty at some point in the last
+ * {@code interval}, a request may wait up to {@code interval}, which absorbs short bursts. Once
+ * the queue has stayed non-empty for a whole interval, the compartment is overloaded and new
+ * requests wait at most {@code target}, so they are rejected within a few milliseconds instead of
+ * adding to a standing queue. Priority (admin) requests are served before queued ones and are
+ * never shed by delay; they wait up to {@code priorityMaxWait}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class Compartment {
+
+    private final String name;
+    private final long targetNanos;
+    private final long intervalNanos;
+    private final long priorityMaxWaitNanos;
+    private final long connectionTimeoutNanos;
+    private final int permits;
+    private final int connections;
+    private final Semaphore connectionBudget;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+    private final ArrayDeque<Waiter> priorityQueue = new ArrayDeque<>();
+    private int available;
+    private long lastEmptyNanos;
+
+    private final Timer queueTimer;
+    private final Counter delayRejections;
+    private final Counter connectionRejections;
+
+    /**
+     * @param name the compartment name, used as the {@code compartment} tag
+     * @param permits requests that may run at once
+     * @param connections database connections its requests may hold at once
+     * @param target queueing delay allowed while overloaded
+     * @param interval queueing delay allowed otherwise, and the window for detecting overload
+     * @param priorityMaxWait queueing delay allowed for priority requests
+     * @param connectionTimeout how long a request waits for a connection within the budget
+     * @param meterRegistry where the compartment's metrics are registered
+     * @param nanoClock source of {@link System#nanoTime()}-like timestamps
+     */
+    public Compartment(String name, int permits, int connections, Duration target, Duration interval,
+                       Duration priorityMaxWait, Duration connectionTimeout, MeterRegistry meterRegistry,
+                       LongSupplier nanoClock) {
+        this.name = name;
+        this.permits = permits;
+        this.available = permits;
+        this.connections = connections;
+        this.connectionBudget = new Semaphore(connections, true);
+        this.targetNanos = target.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.priorityMaxWaitNanos = priorityMaxWait.toNanos();
+        this.connectionTimeoutNanos = connectionTimeout.toNanos();
+        this.nanoClock = nanoClock;
+        this.lastEmptyNanos = nanoClock.getAsLong();
+        this.queueTimer = Timer.builder("bulkhead.queue")
+            .tag("compartment", name)
+            .description("Time requests waited for a permit")
+            .register(meterRegistry);
+        this.delayRejections = rejections(meterRegistry, "queue-delay");
+        this.connectionRejections = rejections(meterRegistry, "connection-budget");
+        Gauge.builder("bulkhead.active", this, Compartment::active)
+            .tag("compartment", name)
+            .description("Requests holding a permit")
+            .register(meterRegistry);
+        Gauge.builder("bulkhead.queued", this, Compartment::queued)
+            .tag("compartment", name)
+            .description("Requests waiting for a permit")
+            .register(meterRegistry);
+        Gauge.builder("bulkhead.connections.active", this, compartment -> compartment.connections - compartment.connectionBudget.availablePermits())
+            .tag("compartment", name)
+            .description("Database connections held by the compartment's requests")
+            .register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Take a permit, waiting as long as the queueing delay allows.
+     *
+     * @param priority whether the request is served before queued ones and exempt from shedding
+     * @return the permit, or {@code null} if the request is shed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Permit acquire(boolean priority) throws InterruptedException {
+        long now = nanoClock.getAsLong();
+        Waiter waiter;
+        lock.lock();
+        try {
+            if (available > 0 && queue.isEmpty() && priorityQueue.isEmpty()) {
+                available--;
+                lastEmptyNanos = now;
+                queueTimer.record(0, TimeUnit.NANOSECONDS);
+                return new Permit();
+            }
+            if (queue.isEmpty()) {
+                lastEmptyNanos = now;
+            }
+            long maxWait = priority ? priorityMaxWaitNanos
+                    : now - lastEmptyNanos > intervalNanos ? targetNanos : intervalNanos;
+            waiter = new Waiter(lock.newCondition());
+            (priority ? priorityQueue : queue).add(waiter);
+            long remaining = maxWait;
+            try {
+                while (!waiter.granted && remaining > 0) {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    release();
+                }
+                throw e;
+            } finally {
+                if (!waiter.granted) {
+                    (priority ? priorityQueue : queue).remove(waiter);
+                    if (queue.isEmpty()) {
+                        lastEmptyNanos = nanoClock.getAsLong();
+                    }
+                }
+            }
+            if (!waiter.granted) {
+                delayRejections.increment();
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        queueTimer.record(nanoClock.getAsLong() - now, TimeUnit.NANOSECONDS);
+        return new Permit();
+    }
+
+    /**
+     * Take a connection from the budget, for a request of this compartment.
+     *
+     * @return whether one was free within the connection timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean acquireConnection() throws InterruptedException {
+        if (connectionBudget.tryAcquire(connectionTimeoutNanos, TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        connectionRejections.increment();
+        return false;
+    }
+
+    void releaseConnection() {
+        connectionBudget.release();
+    }
+
+    int active() {
+        lock.lock();
+        try {
+            return permits - available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int queued() {
+        lock.lock();
+        try {
+            return queue.size() + priorityQueue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            Waiter next = priorityQueue.poll();
+            if (next == null) {
+                next = queue.poll();
+                if (queue.isEmpty()) {
+                    lastEmptyNanos = nanoClock.getAsLong();
+                }
+            }
+            if (next == null) {
+                available++;
+            } else {
+                next.granted = true;
+                next.condition.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("bulkhead.rejected")
+            .tag("compartment", name)
+            .tag("reason", reason)
+            .description("Requests shed by the compartment")
+            .register(meterRegistry);
+    }
+
+    /**
+     * A request permit, returned to the compartment by {@link #release()} once. Further calls do nothing.
+     */
+    public final class Permit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        public Compartment compartment() {
+            return Compartment.this;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                Compartment.this.release();
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        final Condition condition;
+        boolean granted;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
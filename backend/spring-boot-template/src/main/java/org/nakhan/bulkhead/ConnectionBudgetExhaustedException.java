@@ -0,0 +1,19 @@
+package org.nakhan.bulkhead;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown by {@link BulkheadDataSource} when a compartment's connection budget stays used up for
+ * {@code app.bulkhead.connection-timeout}. Spring and Hibernate wrap it, for instance in a
+ * {@code CannotCreateTransactionException}; a request failing with it in its cause chain is
+ * answered with {@code 503 Service Unavailable}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class ConnectionBudgetExhaustedException extends SQLTransientConnectionException {
+
+    public ConnectionBudgetExhaustedException(String compartment) {
+        super("Connection budget of the " + compartment + " compartment is used up");
+    }
+}
@@ -0,0 +1,33 @@
+package org.nakhan.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Settings for the {@code fast-startup} profile, which creates beans on first use.
+ *
+ * Beans with {@code @Scheduled} methods stay eager: their jobs are only registered once the
+ * bean exists, and nothing else would create them.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile(FastStartupConfiguration.PROFILE)
+public class FastStartupConfiguration {
+
+    public static final String PROFILE = "fast-startup";
+
+    @Bean
+    static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                    AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null)
+            .isEmpty();
+    }
+}
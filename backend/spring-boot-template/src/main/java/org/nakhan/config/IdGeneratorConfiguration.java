@@ -0,0 +1,49 @@
+package org.nakhan.config;
+
+import org.nakhan.id.NodeIdAllocator;
+import org.nakhan.id.NodeIdLeaseService;
+import org.nakhan.id.SnowflakeIdGenerator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.time.Clock;
+
+/**
+ * Configuration of the Snowflake id generator used for entity ids.
+ *
+ * The node id comes from {@code app.id.node-allocation}:
+ * <ul>
+ *   <li>{@code lease} (default): claimed from the {@code id_node_leases} table</li>
+ *   <li>{@code ordinal}: the StatefulSet pod ordinal in the hostname</li>
+ *   <li>{@code explicit}: the value of {@code app.id.node-id}</li>
+ * </ul>
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Configuration
+public class IdGeneratorConfiguration {
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(@Value("${app.id.node-allocation:lease}") String allocation,
+                                                     @Value("${app.id.node-id:-1}") long nodeId,
+                                                     @Value("${app.id.max-clock-drift-ms:5000}") long maxClockDriftMillis,
+                                                     ObjectProvider<NodeIdLeaseService> leaseService) {
+        long resolvedNodeId = switch (allocation) {
+            case "explicit" -> NodeIdAllocator.checked(nodeId);
+            case "ordinal" -> NodeIdAllocator.fromHostnameOrdinal(NodeIdAllocator.hostname())
+                    .orElseThrow(() -> new IllegalStateException("Hostname has no ordinal suffix: "
+                            + NodeIdAllocator.hostname()));
+            case "lease" -> leaseService.getObject().claim();
+            default -> throw new IllegalArgumentException("Unknown app.id.node-allocation: " + allocation);
+        };
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(resolvedNodeId,
+                SnowflakeIdGenerator.DEFAULT_EPOCH, maxClockDriftMillis, Clock.systemUTC());
+        if ("lease".equals(allocation)) {
+            leaseService.getObject().attach(generator);
+        }
+        SnowflakeIdGenerator.installShared(generator);
+        return generator;
+    }
+}
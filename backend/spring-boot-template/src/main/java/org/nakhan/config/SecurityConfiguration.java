@@ -0,0 +1,162 @@
+package org.nakhan.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.nakhan.security.JwtTokenService;
+import org.nakhan.security.SecurityOverheadFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+/**
+ * Security configuration with three filter chains, tried in order:
+ * <ol>
+ *   <li>{@code public}: actuator health and info and the GET paths in
+ *       {@code app.security.public-get-paths}. No authentication, session, request cache or
+ *       CSRF filters, only the response headers and a permit-all check.</li>
+ *   <li>{@code basic}: actuator, the H2 console and {@code POST /api/auth/token}, with HTTP Basic
+ *       against {@code spring.security.user.*}.</li>
+ *   <li>{@code api}: everything else, stateless with bearer tokens from {@link JwtTokenService}.
+ *       A {@code user} token can only read its own user, by id or username; every other request,
+ *       including lists, searches and lookups of other users, needs the {@code admin} scope.</li>
+ * </ol>
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Configuration
+@EnableWebSecurity
+public class SecurityConfiguration {
+
+    private final SecurityOverheadFilter overheadFilter;
+
+    public SecurityConfiguration(MeterRegistry meterRegistry) {
+        this.overheadFilter = new SecurityOverheadFilter(meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SecurityOverheadFilter> securityOverheadFilterRegistration() {
+        FilterRegistrationBean<SecurityOverheadFilter> registration = new FilterRegistrationBean<>(overheadFilter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    /**
+     * The administrator from {@code spring.security.user.*}. Boot stops creating this user once
+     * the resource server is on the classpath, so it is declared here for the {@code basic} chain.
+     */
+    @Bean
+    public InMemoryUserDetailsManager adminUserDetailsService(SecurityProperties properties) {
+        SecurityProperties.User admin = properties.getUser();
+        return new InMemoryUserDetailsManager(User.withUsername(admin.getName())
+            .password("{noop}" + admin.getPassword())
+            .roles(admin.getRoles().toArray(new String[0]))
+            .build());
+    }
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain publicFilterChain(HttpSecurity http,
+                                                 @Value("${app.security.public-get-paths:}") List<String> publicGetPaths)
+            throws Exception {
+        List<RequestMatcher> matchers = new ArrayList<>(List.of(
+            antMatcher(HttpMethod.GET, "/actuator/health"),
+            antMatcher(HttpMethod.GET, "/actuator/health/**"),
+            antMatcher(HttpMethod.GET, "/actuator/info")));
+        publicGetPaths.stream().filter(path -> !path.isBlank()).forEach(path -> matchers.add(antMatcher(HttpMethod.GET, path)));
+
+        return http
+            .securityMatcher(new OrRequestMatcher(matchers))
+            .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+            .csrf(AbstractHttpConfigurer::disable)
+            .requestCache(AbstractHttpConfigurer::disable)
+            .securityContext(AbstractHttpConfigurer::disable)
+            .sessionManagement(AbstractHttpConfigurer::disable)
+            .anonymous(AbstractHttpConfigurer::disable)
+            .logout(AbstractHttpConfigurer::disable)
+            .addFilterAfter(overheadFilter.marker("public"), AuthorizationFilter.class)
+            .build();
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityFilterChain basicAuthFilterChain(HttpSecurity http) throws Exception {
+        return http
+            .securityMatcher(new OrRequestMatcher(
+                antMatcher("/actuator/**"),
+                antMatcher("/h2-console/**"),
+                antMatcher(HttpMethod.POST, "/api/auth/token")))
+            .authorizeHttpRequests(authorize -> authorize.anyRequest().hasRole("ADMIN"))
+            .httpBasic(basic -> { })
+            .csrf(AbstractHttpConfigurer::disable)
+            .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.sameOrigin()))
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .requestCache(AbstractHttpConfigurer::disable)
+            .addFilterAfter(overheadFilter.marker("basic"), AuthorizationFilter.class)
+            .build();
+    }
+
+    @Bean
+    @Order(3)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http, JwtTokenService jwtTokenService) throws Exception {
+        return http
+            .authorizeHttpRequests(authorize -> authorize
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                .requestMatchers(antMatcher(HttpMethod.POST, "/api/auth/login")).permitAll()
+                .requestMatchers(antMatcher(HttpMethod.GET, "/api/users/{id:\\d+}")).access(adminOrOwn("id", "sub"))
+                .requestMatchers(antMatcher(HttpMethod.GET, "/api/users/username/{username}"))
+                    .access(adminOrOwn("username", "preferred_username"))
+                .anyRequest().hasAuthority("SCOPE_admin"))
+            .oauth2ResourceServer(resourceServer -> resourceServer.jwt(jwt -> jwt.decoder(jwtTokenService.getDecoder())))
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .requestCache(AbstractHttpConfigurer::disable)
+            .addFilterAfter(overheadFilter.marker("api"), AuthorizationFilter.class)
+            .build();
+    }
+
+    /**
+     * Grants admin tokens, and user tokens whose claim equals the path variable, so a user can
+     * read their own record and no one else's.
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> adminOrOwn(String variable, String claim) {
+        return (authentication, context) -> {
+            Authentication auth = authentication.get();
+            boolean granted = hasAuthority(auth, "SCOPE_admin")
+                || hasAuthority(auth, "SCOPE_user") && auth.getPrincipal() instanceof Jwt jwt
+                    && Objects.equals(jwt.getClaimAsString(claim), context.getVariables().get(variable));
+            return new AuthorizationDecision(granted);
+        };
+    }
+
+    private static boolean hasAuthority(Authentication authentication, String authority) {
+        return authentication != null && authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .anyMatch(authority::equals);
+    }
+}
@@ -0,0 +1,69 @@
+package org.nakhan.controller;
+
+import jakarta.validation.Valid;
+import org.nakhan.dto.LoginRequest;
+import org.nakhan.dto.TokenResponse;
+import org.nakhan.security.JwtTokenService;
+import org.nakhan.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST Controller issuing access tokens.
+ * Passwords are verified on the credential executor, so the request thread is released while
+ * BCrypt runs; every other request then authenticates with the token alone.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "*") // Configure appropriately for production
+public class AuthController {
+
+    private final UserService userService;
+    private final JwtTokenService jwtTokenService;
+
+    @Autowired
+    public AuthController(UserService userService, JwtTokenService jwtTokenService) {
+        this.userService = userService;
+        this.jwtTokenService = jwtTokenService;
+    }
+
+    /**
+     * Log a user in with username and password.
+     *
+     * @param request the username and password
+     * @return ResponseEntity with a {@code user}-scoped token, 401 if the credentials are wrong,
+     *         or 429 when verification capacity is exhausted
+     */
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<TokenResponse>> login(@Valid @RequestBody LoginRequest request) {
+        return userService.authenticate(request.getUsername(), request.getPassword())
+                .thenApply(user -> user
+                        .map(found -> ResponseEntity.ok(token(String.valueOf(found.getId()), found.getUsername(), "user")))
+                        .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build()))
+                .exceptionally(e -> UserController.errorResponse(e, HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
+    /**
+     * Exchange the administrator's HTTP Basic credentials for an {@code admin}-scoped token.
+     *
+     * @param authentication the authenticated administrator
+     * @return ResponseEntity with the token
+     */
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponse> adminToken(Authentication authentication) {
+        return ResponseEntity.ok(token(authentication.getName(), authentication.getName(), "admin"));
+    }
+
+    private TokenResponse token(String subject, String username, String scope) {
+        return new TokenResponse(jwtTokenService.issue(subject, username, List.of(scope)),
+                jwtTokenService.getTtl().toSeconds());
+    }
+}
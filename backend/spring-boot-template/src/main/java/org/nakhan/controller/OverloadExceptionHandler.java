@@ -0,0 +1,33 @@
+package org.nakhan.controller;
+
+import org.nakhan.credential.CredentialServiceBusyException;
+import org.nakhan.limiter.DatabaseOverloadedException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers requests shed while their handler runs, which do not catch the failure themselves, the
+ * way {@link UserController#errorResponse} does: {@code 503} or {@code 429} with
+ * {@code Retry-After}. A connection that could not be taken for another reason is rethrown and
+ * left to the default error handling.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@RestControllerAdvice
+public class OverloadExceptionHandler {
+
+    @ExceptionHandler({DatabaseOverloadedException.class, CredentialServiceBusyException.class,
+            CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Void> handleOverload(RuntimeException e) {
+        ResponseEntity<Void> response = UserController.errorResponse(e, HttpStatus.INTERNAL_SERVER_ERROR);
+        if (response.getStatusCode() == HttpStatus.INTERNAL_SERVER_ERROR) {
+            throw e;
+        }
+        return response;
+    }
+}
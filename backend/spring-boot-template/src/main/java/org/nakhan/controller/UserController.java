@@ -1,15 +1,26 @@
 package org.nakhan.controller;
 
+import org.nakhan.bulkhead.Bulkhead;
+import org.nakhan.bulkhead.BulkheadRegistry;
+import org.nakhan.bulkhead.ConnectionBudgetExhaustedException;
+import org.nakhan.credential.CredentialServiceBusyException;
 import org.nakhan.dto.UserDto;
+import org.nakhan.dto.UserSummary;
 import org.nakhan.entity.User;
+import org.nakhan.json.LeanJson;
+import org.nakhan.limiter.DatabaseOverloadedException;
 import org.nakhan.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for User operations.
@@ -23,6 +34,8 @@ import java.util.Optional;
 @CrossOrigin(origins = "*") // Configure appropriately for production
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UserService userService;
 
     @Autowired
@@ -31,25 +44,22 @@ public class UserController {
     }
 
     /**
-     * Create a new user.
+     * Create a new user. The password is hashed off the request thread.
      *
-     * @param userDto the user data to create
-     * @return ResponseEntity with created user
+     * @param userDto the user data to create, including the password
+     * @return ResponseEntity with created user, or 429 when hashing capacity is exhausted
      */
     @PostMapping
-    public ResponseEntity<User> createUser(@Valid @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<User>> createUser(@Valid @RequestBody UserDto userDto) {
+        if (userDto.getPassword() == null || userDto.getPassword().isBlank()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
         try {
-            User user = new User();
-            user.setUsername(userDto.getUsername());
-            user.setEmail(userDto.getEmail());
-            user.setFirstName(userDto.getFirstName());
-            user.setLastName(userDto.getLastName());
-            user.setActive(userDto.getActive());
-
-            User createdUser = userService.createUser(user);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+            return userService.registerUser(toUser(userDto), userDto.getPassword())
+                    .thenApply(createdUser -> ResponseEntity.status(HttpStatus.CREATED).body(createdUser))
+                    .exceptionally(e -> errorResponse(e, HttpStatus.BAD_REQUEST));
         } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(errorResponse(e, HttpStatus.BAD_REQUEST));
         }
     }
 
@@ -97,6 +107,8 @@ public class UserController {
      *
      * @return ResponseEntity with list of all users
      */
+    @Bulkhead(BulkheadRegistry.HEAVY)
+    @LeanJson
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers() {
         List<User> users = userService.getAllUsers();
@@ -108,18 +120,68 @@ public class UserController {
      *
      * @return ResponseEntity with list of active users
      */
+    @Bulkhead(BulkheadRegistry.HEAVY)
+    @LeanJson
     @GetMapping("/active")
     public ResponseEntity<List<User>> getActiveUsers() {
         List<User> users = userService.getActiveUsers();
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Get a page of active users in username order.
+     * Pass the last username of a page as {@code after} to get the next one.
+     *
+     * @param after the last username of the previous page
+     * @param limit the page size
+     * @return ResponseEntity with the page of active users
+     */
+    @GetMapping("/active/page")
+    public ResponseEntity<List<UserSummary>> getActiveUserPage(@RequestParam(required = false) String after,
+                                                               @RequestParam(defaultValue = "50") int limit) {
+        List<UserSummary> page = userService.getActiveUserPage(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Get a page of active user IDs in ascending order, as strings.
+     * Pass the last ID of a page as {@code after} to get the next one.
+     *
+     * @param after the last ID of the previous page
+     * @param limit the page size
+     * @return ResponseEntity with the page of active user IDs
+     */
+    @GetMapping("/active/ids")
+    public ResponseEntity<List<String>> getActiveUserIds(@RequestParam(required = false) Long after,
+                                                         @RequestParam(defaultValue = "100") int limit) {
+        List<Long> ids = userService.getActiveUserIds(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(ids.stream().map(String::valueOf).toList());
+    }
+
+    /**
+     * Check which of the given users are active.
+     *
+     * @param ids the user IDs
+     * @return ResponseEntity with the active status of each ID
+     */
+    @GetMapping("/active/status")
+    public ResponseEntity<Map<String, Boolean>> getActiveStatus(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        userService.getActiveStatus(ids).forEach((id, active) -> status.put(String.valueOf(id), active));
+        return ResponseEntity.ok(status);
+    }
+
     /**
      * Search users by first name.
      *
      * @param firstName the first name to search for
      * @return ResponseEntity with matching users
      */
+    @Bulkhead(BulkheadRegistry.HEAVY)
+    @LeanJson
     @GetMapping("/search")
     public ResponseEntity<List<User>> searchUsersByFirstName(@RequestParam String firstName) {
         List<User> users = userService.searchUsersByFirstName(firstName);
@@ -130,24 +192,23 @@ public class UserController {
      * Update user.
      *
      * @param id the user ID
-     * @param userDto the updated user data
-     * @return ResponseEntity with updated user
+     * @param userDto the updated user data, with a new password if it should change
+     * @return ResponseEntity with updated user, or 429 when hashing capacity is exhausted
      */
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @Valid @RequestBody UserDto userDto) {
-        try {
-            User userDetails = new User();
-            userDetails.setUsername(userDto.getUsername());
-            userDetails.setEmail(userDto.getEmail());
-            userDetails.setFirstName(userDto.getFirstName());
-            userDetails.setLastName(userDto.getLastName());
-            userDetails.setActive(userDto.getActive());
-
-            User updatedUser = userService.updateUser(id, userDetails);
-            return ResponseEntity.ok(updatedUser);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+    public CompletableFuture<ResponseEntity<User>> updateUser(@PathVariable Long id, @Valid @RequestBody UserDto userDto) {
+        User userDetails = toUser(userDto);
+
+        if (userDto.getPassword() == null) {
+            try {
+                return CompletableFuture.completedFuture(ResponseEntity.ok(userService.updateUser(id, userDetails)));
+            } catch (RuntimeException e) {
+                return CompletableFuture.completedFuture(errorResponse(e, HttpStatus.NOT_FOUND));
+            }
         }
+        return userService.updateUser(id, userDetails, userDto.getPassword())
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> errorResponse(e, HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -162,7 +223,7 @@ public class UserController {
             userService.deleteUser(id);
             return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+            return errorResponse(e, HttpStatus.NOT_FOUND);
         }
     }
 
@@ -178,7 +239,7 @@ public class UserController {
             User user = userService.activateUser(id);
             return ResponseEntity.ok(user);
         } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+            return errorResponse(e, HttpStatus.NOT_FOUND);
         }
     }
 
@@ -194,7 +255,7 @@ public class UserController {
             User user = userService.deactivateUser(id);
             return ResponseEntity.ok(user);
         } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+            return errorResponse(e, HttpStatus.NOT_FOUND);
         }
     }
 
@@ -209,4 +270,40 @@ public class UserController {
         long count = userService.getUserCountByStatus(active);
         return ResponseEntity.ok(count);
     }
+
+    /**
+     * Map a request body to a new, unsaved user. The password is left out; it is only ever
+     * stored hashed.
+     *
+     * @param userDto the request body
+     * @return the user with the body's profile fields
+     */
+    public static User toUser(UserDto userDto) {
+        User user = new User();
+        user.setUsername(userDto.getUsername());
+        user.setEmail(userDto.getEmail());
+        user.setFirstName(userDto.getFirstName());
+        user.setLastName(userDto.getLastName());
+        user.setActive(userDto.getActive());
+        return user;
+    }
+
+    /**
+     * Map a failed operation to a response: {@code 429} with {@code Retry-After} when the
+     * credential executor is saturated, {@code 503} with {@code Retry-After} when the database
+     * concurrency limit is reached or the request's compartment has no connection left, the given
+     * status otherwise. Shed load is never reported as the given status, so clients know to retry.
+     * The whole cause chain is checked, as these failures usually arrive wrapped.
+     */
+    static <T> ResponseEntity<T> errorResponse(Throwable error, HttpStatus status) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CredentialServiceBusyException) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+            }
+            if (cause instanceof DatabaseOverloadedException || cause instanceof ConnectionBudgetExhaustedException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+            }
+        }
+        return ResponseEntity.status(status).build();
+    }
 }
@@ -0,0 +1,93 @@
+package org.nakhan.controller;
+
+import org.nakhan.entity.UserImportJob;
+import org.nakhan.imports.UserImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * REST Controller for bulk user imports from CSV files.
+ * Uploads are accepted immediately and imported in the background; poll the job for progress.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@RestController
+@ConditionalOnProperty(prefix = "app.import", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("/api/users/imports")
+@CrossOrigin(origins = "*") // Configure appropriately for production
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    @Autowired
+    public UserImportController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    /**
+     * Upload a CSV file (request body, header row required) and queue its import.
+     *
+     * @param fileName name to show for the import
+     * @param content the CSV content, streamed to disk without buffering in memory
+     * @return ResponseEntity with the queued job, or 400 if the header is invalid
+     */
+    @PostMapping(consumes = {"text/csv", "application/octet-stream"})
+    public ResponseEntity<UserImportJob> submitImport(@RequestParam(defaultValue = "users.csv") String fileName,
+                                                      InputStream content) {
+        try {
+            UserImportJob job = userImportService.submit(fileName, content);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/users/imports/" + job.getId()))
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get an import job with its progress and throughput.
+     *
+     * @param id the job ID
+     * @return ResponseEntity with the job
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<UserImportJob> getImport(@PathVariable Long id) {
+        return userImportService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get the most recent import jobs.
+     *
+     * @return ResponseEntity with up to 20 jobs, newest first
+     */
+    @GetMapping
+    public ResponseEntity<List<UserImportJob>> getRecentImports() {
+        return ResponseEntity.ok(userImportService.getRecentJobs());
+    }
+
+    /**
+     * Resume a failed import from its last checkpoint.
+     *
+     * @param id the job ID
+     * @return ResponseEntity with the queued job, or 409 if the job has not failed
+     */
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<UserImportJob> resumeImport(@PathVariable Long id) {
+        try {
+            return userImportService.resume(id)
+                    .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
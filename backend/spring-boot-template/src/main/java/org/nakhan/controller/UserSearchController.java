@@ -0,0 +1,50 @@
+package org.nakhan.controller;
+
+import org.nakhan.search.UserSearchHit;
+import org.nakhan.search.UserSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+/**
+ * REST Controller for typo-tolerant search-as-you-type over users.
+ * Served entirely from the in-memory search index, without database access.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/users/search")
+@CrossOrigin(origins = "*") // Configure appropriately for production
+@ConditionalOnProperty(prefix = "app.search.index", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserSearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final UserSearchService userSearchService;
+
+    @Autowired
+    public UserSearchController(UserSearchService userSearchService) {
+        this.userSearchService = userSearchService;
+    }
+
+    /**
+     * Search users by username, email or name with prefix and single-typo tolerance.
+     *
+     * @param q the query as typed
+     * @param limit maximum number of results
+     * @return ResponseEntity with ranked hits, or 503 while the index is still building
+     */
+    @GetMapping("/instant")
+    public ResponseEntity<List<UserSearchHit>> instantSearch(@RequestParam String q,
+                                                             @RequestParam(defaultValue = "10") int limit) {
+        if (!userSearchService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        List<UserSearchHit> hits = userSearchService.search(q, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return ResponseEntity.ok(hits);
+    }
+}
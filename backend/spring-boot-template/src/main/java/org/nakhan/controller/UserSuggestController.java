@@ -0,0 +1,50 @@
+package org.nakhan.controller;
+
+import org.nakhan.suggest.UserSuggestService;
+import org.nakhan.suggest.UserSuggestion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+/**
+ * REST Controller for username and email autocomplete.
+ * Served entirely from the in-memory suggest index, without database access.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/users/suggest")
+@CrossOrigin(origins = "*") // Configure appropriately for production
+@ConditionalOnProperty(prefix = "app.suggest", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserSuggestController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final UserSuggestService userSuggestService;
+
+    @Autowired
+    public UserSuggestController(UserSuggestService userSuggestService) {
+        this.userSuggestService = userSuggestService;
+    }
+
+    /**
+     * Suggest usernames and emails starting with a prefix, ignoring case.
+     *
+     * @param prefix the prefix as typed
+     * @param limit maximum number of suggestions
+     * @return ResponseEntity with the first matches in order, or 503 while the index is still building
+     */
+    @GetMapping
+    public ResponseEntity<List<UserSuggestion>> suggest(@RequestParam String prefix,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        if (!userSuggestService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        List<UserSuggestion> suggestions = userSuggestService.suggest(prefix, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return ResponseEntity.ok(suggestions);
+    }
+}
@@ -0,0 +1,270 @@
+package org.nakhan.credential;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Service hashing and verifying passwords with BCrypt on a dedicated, bounded executor.
+ *
+ * Hashing is deliberately slow, so it never runs on request threads: callers get a future, and
+ * when all {@code app.credentials.threads} are busy and {@code app.credentials.queue-capacity}
+ * operations are waiting, new ones fail at once with {@link CredentialServiceBusyException}
+ * instead of piling up. The BCrypt cost is calibrated at startup and every
+ * {@code app.credentials.recalibrate-interval} so one hash takes about
+ * {@code app.credentials.target-hash-time} on this hardware, within the configured bounds.
+ * Hashes made at a lower cost, and legacy plain-text passwords, report {@link #needsUpgrade}
+ * so they can be re-hashed after the next successful verification.
+ *
+ * Only values marked with {@value #LEGACY_PREFIX} are taken as plain text; migration
+ * {@code V4__mark_legacy_passwords} marks the ones stored before hashing was introduced. Any
+ * other value that is not a well-formed BCrypt hash, such as {@value #UNUSABLE_PASSWORD} or a
+ * truncated hash, never matches.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Service
+public class CredentialService {
+
+    private static final Logger log = LoggerFactory.getLogger(CredentialService.class);
+
+    /** Marks a stored password as legacy plain text. */
+    public static final String LEGACY_PREFIX = "{noop}";
+    /** A stored password no input matches, for accounts that cannot log in with a password. */
+    public static final String UNUSABLE_PASSWORD = "!";
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]\\$\\d\\d\\$[./A-Za-z0-9]{53}");
+    private static final int CALIBRATION_STRENGTH = 8;
+    private static final int CALIBRATION_ROUNDS = 5;
+
+    private final ThreadPoolExecutor executor;
+    private final Duration targetHashTime;
+    private final int minStrength;
+    private final int maxStrength;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    private volatile int strength;
+    private volatile String dummyHash;
+
+    @Autowired
+    public CredentialService(MeterRegistry meterRegistry,
+                             @Value("${app.credentials.threads:0}") int threads,
+                             @Value("${app.credentials.queue-capacity:100}") int queueCapacity,
+                             @Value("${app.credentials.target-hash-time:PT0.25S}") Duration targetHashTime,
+                             @Value("${app.credentials.min-strength:10}") int minStrength,
+                             @Value("${app.credentials.max-strength:16}") int maxStrength) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "credential-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.targetHashTime = targetHashTime;
+        this.minStrength = minStrength;
+        this.maxStrength = maxStrength;
+        this.strength = minStrength;
+        this.dummyHash = BCrypt.hashpw("dummy", BCrypt.gensalt(CALIBRATION_STRENGTH));
+
+        this.hashTimer = Timer.builder("credentials.operation")
+            .tag("operation", "hash")
+            .description("Time to hash a password")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.verifyTimer = Timer.builder("credentials.operation")
+            .tag("operation", "verify")
+            .description("Time to verify a password")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("credentials.queue.wait")
+            .description("Time credential operations wait for a thread")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("credentials.rejected")
+            .description("Credential operations refused because the queue was full")
+            .register(meterRegistry);
+        Gauge.builder("credentials.queue.depth", executor, pool -> pool.getQueue().size())
+            .description("Credential operations waiting for a thread")
+            .register(meterRegistry);
+        Gauge.builder("credentials.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Credential operations running")
+            .register(meterRegistry);
+        Gauge.builder("credentials.bcrypt.strength", this, service -> service.strength)
+            .description("BCrypt cost used for new hashes")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void calibrateOnStartup() {
+        recalibrate();
+    }
+
+    /**
+     * Hash a password at the current cost.
+     *
+     * @param rawPassword the password
+     * @return future completing with the BCrypt hash, or failing with
+     *         {@link CredentialServiceBusyException} if the queue is full
+     */
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(hashTimer, () -> BCrypt.hashpw(rawPassword, BCrypt.gensalt(strength)));
+    }
+
+    /**
+     * Check a password against a stored credential. Legacy plain-text passwords, marked with
+     * {@value #LEGACY_PREFIX}, are compared in constant time. Malformed values never match, but
+     * still cost a BCrypt check, so they cannot be told apart by timing.
+     *
+     * @param rawPassword the password
+     * @param storedPassword the stored hash or marked legacy password
+     * @return future completing with whether they match, or failing with
+     *         {@link CredentialServiceBusyException} if the queue is full
+     */
+    public CompletableFuture<Boolean> verify(String rawPassword, String storedPassword) {
+        return submit(verifyTimer, () -> {
+            if (rawPassword == null || storedPassword == null) {
+                return false;
+            }
+            if (isHash(storedPassword)) {
+                try {
+                    return BCrypt.checkpw(rawPassword, storedPassword);
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            }
+            if (storedPassword.startsWith(LEGACY_PREFIX)) {
+                return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                        storedPassword.substring(LEGACY_PREFIX.length()).getBytes(StandardCharsets.UTF_8));
+            }
+            BCrypt.checkpw(rawPassword, dummyHash);
+            return false;
+        });
+    }
+
+    /**
+     * Spend the time of a real verification without a stored credential, so a login for an
+     * unknown user takes as long as one with a wrong password.
+     *
+     * @param rawPassword the password
+     * @return future completing with {@code false}
+     */
+    public CompletableFuture<Boolean> verifyUnknown(String rawPassword) {
+        return verify(rawPassword == null ? "" : rawPassword, dummyHash).thenApply(ignored -> false);
+    }
+
+    /**
+     * Whether a stored credential should be re-hashed: it is marked plain text, or a BCrypt hash
+     * made at a lower cost than the current one. Malformed values never match, so never need it.
+     *
+     * @param storedPassword the stored hash or marked legacy password
+     * @return true if the credential should be replaced after the next successful verification
+     */
+    public boolean needsUpgrade(String storedPassword) {
+        if (storedPassword == null) {
+            return false;
+        }
+        if (storedPassword.startsWith(LEGACY_PREFIX)) {
+            return true;
+        }
+        return isHash(storedPassword) && cost(storedPassword) < strength;
+    }
+
+    /**
+     * Whether a value is a well-formed BCrypt hash, as bulk imports must supply.
+     *
+     * @param value the value
+     * @return true for a {@code $2a$}, {@code $2b$} or {@code $2y$} hash of 60 characters
+     */
+    public static boolean isHash(String value) {
+        return value != null && BCRYPT_HASH.matcher(value).matches();
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Re-measure the hashing speed in the background and adjust the cost of new hashes.
+     */
+    @Scheduled(fixedDelayString = "${app.credentials.recalibrate-interval:PT1H}",
+               initialDelayString = "${app.credentials.recalibrate-interval:PT1H}")
+    public void recalibrate() {
+        try {
+            executor.execute(this::calibrate);
+        } catch (RejectedExecutionException e) {
+            log.debug("Skipping BCrypt calibration while the credential queue is full");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> operation) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.record(operation);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(new CredentialServiceBusyException());
+        }
+    }
+
+    /**
+     * Each step of the BCrypt cost doubles the work, so time a cheap cost and extrapolate.
+     */
+    private void calibrate() {
+        long[] nanos = new long[CALIBRATION_ROUNDS];
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", BCrypt.gensalt(CALIBRATION_STRENGTH));
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        double ratio = (double) targetHashTime.toNanos() / Math.max(1, nanos[CALIBRATION_ROUNDS / 2]);
+        int calibrated = CALIBRATION_STRENGTH + (int) Math.round(Math.log(ratio) / Math.log(2));
+        calibrated = Math.max(minStrength, Math.min(maxStrength, calibrated));
+        if (cost(dummyHash) != calibrated) {
+            dummyHash = BCrypt.hashpw("dummy", BCrypt.gensalt(calibrated));
+        }
+        if (calibrated != strength) {
+            log.info("BCrypt cost set to {} for a target hash time of {}", calibrated, targetHashTime);
+            strength = calibrated;
+        }
+    }
+
+    private static int cost(String bcryptHash) {
+        return Integer.parseInt(bcryptHash.substring(4, 6));
+    }
+}
@@ -0,0 +1,15 @@
+package org.nakhan.credential;
+
+/**
+ * Thrown when the credential executor's queue is full and a hash or verification is refused.
+ * Callers should answer {@code 429 Too Many Requests}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class CredentialServiceBusyException extends RuntimeException {
+
+    public CredentialServiceBusyException() {
+        super("Too many credential operations in progress");
+    }
+}
@@ -0,0 +1,34 @@
+package org.nakhan.dto;
+
+/**
+ * Access token issued by {@code /api/auth/login} and {@code /api/auth/token}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class TokenResponse {
+
+    private final String accessToken;
+    private final String tokenType = "Bearer";
+    private final long expiresIn;
+
+    public TokenResponse(String accessToken, long expiresIn) {
+        this.accessToken = accessToken;
+        this.expiresIn = expiresIn;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    /**
+     * @return seconds until the token expires
+     */
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+}
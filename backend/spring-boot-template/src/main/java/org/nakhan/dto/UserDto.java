@@ -1,5 +1,8 @@
 package org.nakhan.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -14,6 +17,7 @@ import java.time.LocalDateTime;
  */
 public class UserDto {
 
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
 
     @NotBlank(message = "Username is required")
@@ -24,6 +28,11 @@ public class UserDto {
     @Email(message = "Email should be valid")
     private String email;
 
+    // Accepted on requests only; BCrypt reads at most 72 bytes
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Size(min = 6, max = 72, message = "Password must be between 6 and 72 characters")
+    private String password;
+
     @Size(max = 100, message = "First name must not exceed 100 characters")
     private String firstName;
 
@@ -73,6 +82,14 @@ public class UserDto {
         this.email = email;
     }
 
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
     public String getFirstName() {
         return firstName;
     }
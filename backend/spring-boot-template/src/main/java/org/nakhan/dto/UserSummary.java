@@ -0,0 +1,26 @@
+package org.nakhan.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+/**
+ * Projection of the user columns needed for listings.
+ * Every column is in the covering index {@code idx_users_active_username}, so listing pages
+ * are answered from the index without visiting the table.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public interface UserSummary {
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+}
@@ -1,28 +1,43 @@
 package org.nakhan.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.nakhan.id.SnowflakeId;
 import java.time.LocalDateTime;
 
 /**
  * User entity representing a user in the system.
  * This is a boilerplate entity class demonstrating JPA annotations and validation.
+ * Users are held in the second-level cache, and {@code username} is the natural id so lookups
+ * by username resolve through the natural-id cache instead of a query.
  *
  * @author Full Stack Java Developer Toolkit
  * @version 1.0.0
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
+    @JsonSerialize(using = ToStringSerializer.class) // 64-bit ids exceed JavaScript's safe integer range
     private Long id;
 
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String username;
 
@@ -34,6 +49,7 @@ public class User {
     @NotBlank(message = "Password is required")
     @Size(min = 6, message = "Password must be at least 6 characters")
     @Column(nullable = false)
+    @JsonIgnore // BCrypt hash, never returned by the API
     private String password;
 
     @Column(name = "first_name")
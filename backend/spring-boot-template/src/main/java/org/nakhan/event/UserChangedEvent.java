@@ -0,0 +1,85 @@
+package org.nakhan.event;
+
+import org.nakhan.entity.User;
+
+/**
+ * Application event published by the service layer whenever a user is written.
+ * In-memory structures derived from the users table (search index, caches, bitmaps)
+ * listen to this event instead of polling the database.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class UserChangedEvent {
+
+    /**
+     * Kind of write that produced the event.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /** Moved to the archive table: gone from {@code users}, but still retrievable. */
+        ARCHIVED
+    }
+
+    private final Type type;
+    private final Long userId;
+    private final User user;
+
+    private UserChangedEvent(Type type, Long userId, User user) {
+        this.type = type;
+        this.userId = userId;
+        this.user = user;
+    }
+
+    public static UserChangedEvent created(User user) {
+        return new UserChangedEvent(Type.CREATED, user.getId(), user);
+    }
+
+    public static UserChangedEvent updated(User user) {
+        return new UserChangedEvent(Type.UPDATED, user.getId(), user);
+    }
+
+    public static UserChangedEvent deleted(Long userId) {
+        return new UserChangedEvent(Type.DELETED, userId, null);
+    }
+
+    public static UserChangedEvent archived(Long userId) {
+        return new UserChangedEvent(Type.ARCHIVED, userId, null);
+    }
+
+    /**
+     * Whether the user left the users table, by deletion or archival.
+     *
+     * @return true for {@link Type#DELETED} and {@link Type#ARCHIVED} events
+     */
+    public boolean isRemoval() {
+        return type == Type.DELETED || type == Type.ARCHIVED;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * The user state after the write, or {@code null} for removal events.
+     *
+     * @return the written user
+     */
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangedEvent{" +
+                "type=" + type +
+                ", userId=" + userId +
+                '}';
+    }
+}
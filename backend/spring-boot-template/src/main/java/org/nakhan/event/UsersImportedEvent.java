@@ -0,0 +1,28 @@
+package org.nakhan.event;
+
+/**
+ * Application event published after a bulk import has written users directly with SQL.
+ * Imported rows do not produce {@link UserChangedEvent}s, so in-memory structures derived from
+ * the users table reload from the database when they receive this event.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class UsersImportedEvent {
+
+    private final Long jobId;
+    private final long rowsImported;
+
+    public UsersImportedEvent(Long jobId, long rowsImported) {
+        this.jobId = jobId;
+        this.rowsImported = rowsImported;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+}
@@ -0,0 +1,109 @@
+package org.nakhan.id;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Node id resolution strategies that need no coordination service.
+ *
+ * <ul>
+ *   <li>explicit: {@code APP_ID_NODE_ID} environment variable or {@code app.id.node-id} system property</li>
+ *   <li>ordinal: the trailing {@code -N} of a Kubernetes StatefulSet pod hostname</li>
+ * </ul>
+ * Multi-instance deployments without stable ordinals should use {@link NodeIdLeaseService} instead.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class NodeIdAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(NodeIdAllocator.class);
+    private static final Pattern ORDINAL_SUFFIX = Pattern.compile("-(\\d+)$");
+
+    private NodeIdAllocator() {
+    }
+
+    /**
+     * Resolve a node id from explicit configuration, then the hostname ordinal, falling back to a
+     * hash of hostname and process id. The fallback can collide and is only meant for single-node use.
+     *
+     * @return node id between 0 and {@link SnowflakeIdGenerator#MAX_NODE_ID}
+     */
+    public static long fromEnvironment() {
+        OptionalLong explicit = explicitNodeId();
+        if (explicit.isPresent()) {
+            return explicit.getAsLong();
+        }
+        String hostname = hostname();
+        OptionalLong ordinal = fromHostnameOrdinal(hostname);
+        if (ordinal.isPresent()) {
+            return ordinal.getAsLong();
+        }
+        long hashed = (hostname + ManagementFactory.getRuntimeMXBean().getName()).hashCode()
+                & SnowflakeIdGenerator.MAX_NODE_ID;
+        log.warn("No node id configured, using hashed node id {}; configure app.id.node-allocation for multiple instances", hashed);
+        return hashed;
+    }
+
+    /**
+     * The node id set with {@code app.id.node-id} or {@code APP_ID_NODE_ID}; negative values mean
+     * none is set.
+     *
+     * @return the configured node id, if any
+     * @throws IllegalArgumentException if the value is not a number or above {@link SnowflakeIdGenerator#MAX_NODE_ID}
+     */
+    public static OptionalLong explicitNodeId() {
+        String value = System.getProperty("app.id.node-id", System.getenv("APP_ID_NODE_ID"));
+        if (value == null || value.isBlank()) {
+            return OptionalLong.empty();
+        }
+        long nodeId;
+        try {
+            nodeId = Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("app.id.node-id must be a number between 0 and "
+                    + SnowflakeIdGenerator.MAX_NODE_ID + ": '" + value + "'", e);
+        }
+        return nodeId < 0 ? OptionalLong.empty() : OptionalLong.of(checked(nodeId));
+    }
+
+    /**
+     * Parse the ordinal of a StatefulSet pod name such as {@code backend-3}.
+     *
+     * @param hostname the pod hostname
+     * @return the ordinal, if the hostname has one
+     */
+    public static OptionalLong fromHostnameOrdinal(String hostname) {
+        if (hostname == null) {
+            return OptionalLong.empty();
+        }
+        Matcher matcher = ORDINAL_SUFFIX.matcher(hostname);
+        return matcher.find() ? OptionalLong.of(checked(Long.parseLong(matcher.group(1)))) : OptionalLong.empty();
+    }
+
+    public static String hostname() {
+        String hostname = System.getenv("HOSTNAME");
+        if (hostname != null && !hostname.isBlank()) {
+            return hostname;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    public static long checked(long nodeId) {
+        if (nodeId < 0 || nodeId > SnowflakeIdGenerator.MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and "
+                    + SnowflakeIdGenerator.MAX_NODE_ID + ": " + nodeId);
+        }
+        return nodeId;
+    }
+}
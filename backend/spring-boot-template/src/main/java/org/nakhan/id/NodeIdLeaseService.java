@@ -0,0 +1,185 @@
+package org.nakhan.id;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Allocates node ids to application instances through leases in the {@code id_node_leases} table.
+ *
+ * An instance claims the first free or expired node id, renews its lease on a heartbeat and
+ * releases it on shutdown. The lease TTL must be much longer than the heartbeat interval so that
+ * a node id is only reassigned after its previous owner has really stopped issuing ids.
+ *
+ * When the lease is found taken by another instance, or cannot be renewed before it expires, the
+ * {@link #attach attached} generator is suspended and a new node id is claimed on this and later
+ * heartbeats; ids are refused until one is.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(name = "app.id.node-allocation", havingValue = "lease", matchIfMissing = true)
+public class NodeIdLeaseService {
+
+    private static final Logger log = LoggerFactory.getLogger(NodeIdLeaseService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner;
+    private final Duration leaseTtl;
+    private final Duration renewInterval;
+    private volatile long nodeId = -1;
+    private volatile Instant expiresAt = Instant.MIN;
+    private volatile SnowflakeIdGenerator generator;
+
+    @Autowired
+    public NodeIdLeaseService(JdbcTemplate jdbcTemplate, @Value("${app.id.lease-ttl:PT10M}") Duration leaseTtl,
+                              @Value("${app.id.lease-renew-interval:PT30S}") Duration renewInterval) {
+        this(jdbcTemplate, NodeIdAllocator.hostname() + ":" + ManagementFactory.getRuntimeMXBean().getPid()
+                + ":" + UUID.randomUUID().toString().substring(0, 8), leaseTtl, renewInterval);
+    }
+
+    public NodeIdLeaseService(JdbcTemplate jdbcTemplate, String owner, Duration leaseTtl, Duration renewInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.owner = owner;
+        this.leaseTtl = leaseTtl;
+        this.renewInterval = renewInterval;
+    }
+
+    /**
+     * Attach the generator issuing ids under the leased node id, so it is suspended when the
+     * lease is lost and resumed with the next node id claimed.
+     *
+     * @param generator the generator
+     */
+    public void attach(SnowflakeIdGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Claim a node id, starting the scan at a position derived from the owner name to keep
+     * concurrent starters from contending for the same rows.
+     *
+     * @return the claimed node id
+     * @throws IllegalStateException if all node ids are leased
+     */
+    public long claim() {
+        long slots = SnowflakeIdGenerator.MAX_NODE_ID + 1;
+        long start = Math.floorMod(owner.hashCode(), slots);
+        for (long i = 0; i < slots; i++) {
+            long candidate = (start + i) % slots;
+            Instant expiry = expiry();
+            if (tryClaim(candidate, expiry)) {
+                expiresAt = expiry;
+                nodeId = candidate;
+                log.info("Claimed id node lease {} for {}", candidate, owner);
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("All " + slots + " id node leases are taken");
+    }
+
+    /**
+     * Extend the lease. If it was lost, or is about to expire because the database cannot be
+     * reached, the generator is suspended and a new node id claimed.
+     *
+     * @return whether a lease is held after the heartbeat
+     */
+    @Scheduled(fixedDelayString = "${app.id.lease-renew-interval:PT30S}")
+    public boolean renew() {
+        if (nodeId < 0) {
+            return reclaim();
+        }
+        try {
+            Instant expiry = expiry();
+            int updated = jdbcTemplate.update(
+                    "UPDATE id_node_leases SET expires_at = ? WHERE node_id = ? AND owner = ?",
+                    Timestamp.from(expiry), nodeId, owner);
+            if (updated == 1) {
+                expiresAt = expiry;
+                return true;
+            }
+            log.error("Lost id node lease {} held by {}; refusing ids until a new node id is claimed", nodeId, owner);
+        } catch (DataAccessException e) {
+            if (Instant.now().plus(renewInterval).isBefore(expiresAt)) {
+                log.warn("Could not renew id node lease {}, retrying before it expires at {}", nodeId, expiresAt, e);
+                return true;
+            }
+            log.error("Could not renew id node lease {} before it expires; refusing ids until a new node id is claimed",
+                    nodeId, e);
+        }
+        nodeId = -1;
+        SnowflakeIdGenerator current = generator;
+        if (current != null) {
+            current.suspend();
+        }
+        return reclaim();
+    }
+
+    @PreDestroy
+    public void release() {
+        if (nodeId >= 0) {
+            jdbcTemplate.update("DELETE FROM id_node_leases WHERE node_id = ? AND owner = ?", nodeId, owner);
+            log.info("Released id node lease {}", nodeId);
+            nodeId = -1;
+        }
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private boolean reclaim() {
+        try {
+            long claimed = claim();
+            SnowflakeIdGenerator current = generator;
+            if (current != null) {
+                current.resume(claimed);
+            }
+            return true;
+        } catch (IllegalStateException | DataAccessException e) {
+            log.error("Could not claim a new id node lease for {}; ids stay refused", owner, e);
+            return false;
+        }
+    }
+
+    private boolean tryClaim(long candidate, Instant expiry) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int updated = jdbcTemplate.update(
+                "UPDATE id_node_leases SET owner = ?, expires_at = ? WHERE node_id = ? AND (owner = ? OR expires_at < ?)",
+                owner, Timestamp.from(expiry), candidate, owner, now);
+        if (updated == 1) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO id_node_leases (node_id, owner, expires_at) VALUES (?, ?, ?)",
+                    candidate, owner, Timestamp.from(expiry));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private Instant expiry() {
+        return Instant.now().plus(leaseTtl);
+    }
+}
@@ -0,0 +1,177 @@
+package org.nakhan.id;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coordination-free 64-bit id generator in the Snowflake layout.
+ *
+ * <pre>
+ *  0 | 41 bits: milliseconds since {@link #DEFAULT_EPOCH} | 10 bits: node id | 12 bits: sequence
+ * </pre>
+ *
+ * The last timestamp and sequence are packed into a single {@link AtomicLong}, so the hot path
+ * is one compare-and-set without locks. When the wall clock steps backwards, the generator keeps
+ * counting sequence numbers on the last timestamp instead of failing, and only waits for the clock
+ * once those are exhausted: it spins within the current millisecond and parks for longer waits, so
+ * callers stuck behind a backwards step do not burn a core each. A backwards step larger than {@code maxClockDriftMillis} makes the
+ * generator refuse ids rather than wait that long or risk duplicates. It also refuses ids while
+ * {@link #suspend() suspended}, which {@link NodeIdLeaseService} does when it loses its node id.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class SnowflakeIdGenerator {
+
+    public static final long DEFAULT_EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static volatile SnowflakeIdGenerator shared;
+
+    // -1 while suspended
+    private volatile long nodeId;
+    private final long epoch;
+    private final long maxClockDriftMillis;
+    private final Clock clock;
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, DEFAULT_EPOCH, 5_000, Clock.systemUTC());
+    }
+
+    public SnowflakeIdGenerator(long nodeId, long epoch, long maxClockDriftMillis, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.epoch = epoch;
+        this.maxClockDriftMillis = maxClockDriftMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Install the generator used by {@link SnowflakeIdentifierGenerator} for entity ids.
+     *
+     * @param generator the process-wide generator
+     */
+    public static void installShared(SnowflakeIdGenerator generator) {
+        shared = generator;
+    }
+
+    /**
+     * The process-wide generator. Falls back to a node id derived from the environment when
+     * nothing was installed, which only happens outside the Spring context (tools, tests).
+     *
+     * @return the shared generator
+     */
+    public static SnowflakeIdGenerator shared() {
+        SnowflakeIdGenerator generator = shared;
+        if (generator == null) {
+            synchronized (SnowflakeIdGenerator.class) {
+                if (shared == null) {
+                    shared = new SnowflakeIdGenerator(NodeIdAllocator.fromEnvironment());
+                }
+                generator = shared;
+            }
+        }
+        return generator;
+    }
+
+    /**
+     * Issue the next id.
+     *
+     * @return a unique, per-node monotonic id
+     * @throws IllegalStateException if the logical clock ran too far ahead of the wall clock, or
+     *         the generator is suspended
+     */
+    public long nextId() {
+        long nodeId = this.nodeId;
+        if (nodeId < 0) {
+            throw new IllegalStateException("Id generator is suspended until a node id is claimed again");
+        }
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long now = clock.millis() - epoch;
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                if (lastTimestamp - now > maxClockDriftMillis) {
+                    throw new IllegalStateException("Clock is " + (lastTimestamp - now)
+                            + " ms behind the last issued id on node " + nodeId);
+                }
+                // same millisecond, or the clock stepped back: keep counting on the last timestamp
+                next = current + 1;
+                if ((next & SEQUENCE_MASK) == 0) {
+                    // sequence exhausted; wait for the wall clock to pass the last timestamp
+                    awaitClock(lastTimestamp - now);
+                    continue;
+                }
+            }
+            if (state.compareAndSet(current, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                        | nodeId << SEQUENCE_BITS
+                        | next & SEQUENCE_MASK;
+            }
+        }
+    }
+
+    /**
+     * Wait a little for the wall clock to catch up with the last timestamp. Within the same
+     * millisecond the next one is close, so spin; when the clock is behind, park a millisecond
+     * at a time rather than spin for up to {@code maxClockDriftMillis}.
+     */
+    private static void awaitClock(long millisBehind) {
+        if (millisBehind < 1) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Stop issuing ids, because another instance may now hold this generator's node id.
+     * {@link #nextId()} throws until {@link #resume} is called.
+     */
+    public void suspend() {
+        nodeId = -1;
+    }
+
+    /**
+     * Issue ids again, under a newly claimed node id.
+     *
+     * @param nodeId the node id now held by this instance
+     */
+    public void resume(long nodeId) {
+        this.nodeId = NodeIdAllocator.checked(nodeId);
+    }
+
+    /**
+     * @return the node id, or {@code -1} while suspended
+     */
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Extract the creation time encoded in an id issued with the given epoch.
+     *
+     * @param id the id
+     * @return creation instant
+     */
+    public Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + epoch);
+    }
+
+    public static long nodeIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
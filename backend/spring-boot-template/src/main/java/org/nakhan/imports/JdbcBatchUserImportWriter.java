@@ -0,0 +1,55 @@
+package org.nakhan.imports;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Portable writer for databases without a bulk-load API (H2 in development): one batched
+ * conditional insert per row, which skips rows whose username or email already exists.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class JdbcBatchUserImportWriter implements UserImportWriter {
+
+    private static final String INSERT = "INSERT INTO users "
+            + "(id, username, email, password, first_name, last_name, is_active, created_at, updated_at) "
+            + "SELECT ?, ?, ?, ?, ?, ?, ?, ?, ? FROM (VALUES (0)) AS one(x) "
+            + "WHERE NOT EXISTS (SELECT 1 FROM users WHERE username = ?) "
+            + "AND NOT EXISTS (SELECT 1 FROM users WHERE email = ?) "
+            + "AND NOT EXISTS (SELECT 1 FROM users_archive WHERE username = ?) "
+            + "AND NOT EXISTS (SELECT 1 FROM users_archive WHERE email = ?)";
+
+    @Override
+    public int write(Connection connection, List<UserImportRow> rows) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (UserImportRow row : rows) {
+                statement.setLong(1, row.id);
+                statement.setString(2, row.username);
+                statement.setString(3, row.email);
+                statement.setString(4, row.password);
+                statement.setString(5, row.firstName);
+                statement.setString(6, row.lastName);
+                statement.setBoolean(7, row.active);
+                statement.setTimestamp(8, now);
+                statement.setTimestamp(9, now);
+                statement.setString(10, row.username);
+                statement.setString(11, row.email);
+                statement.setString(12, row.username);
+                statement.setString(13, row.email);
+                statement.addBatch();
+            }
+            int inserted = 0;
+            for (int count : statement.executeBatch()) {
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+            return inserted;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.nakhan.imports;
+
+import org.postgresql.PGConnection;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * PostgreSQL writer: streams the chunk into a temporary staging table with
+ * {@code COPY ... FROM STDIN} and merges it into {@code users} with {@code ON CONFLICT DO NOTHING}.
+ *
+ * The staging table lives per connection and is emptied on commit, so pooled connections reuse it.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class PostgresCopyUserImportWriter implements UserImportWriter {
+
+    private static final String CREATE_STAGING = "CREATE TEMP TABLE IF NOT EXISTS user_import_staging ("
+            + "id BIGINT, username VARCHAR(50), email VARCHAR(255), password VARCHAR(255), "
+            + "first_name VARCHAR(100), last_name VARCHAR(100), is_active BOOLEAN) ON COMMIT DELETE ROWS";
+
+    private static final String COPY = "COPY user_import_staging "
+            + "(id, username, email, password, first_name, last_name, is_active) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String MERGE = "INSERT INTO users "
+            + "(id, username, email, password, first_name, last_name, is_active, created_at, updated_at) "
+            + "SELECT id, username, email, password, first_name, last_name, is_active, now(), now() "
+            + "FROM user_import_staging s "
+            + "WHERE NOT EXISTS (SELECT 1 FROM users_archive a WHERE a.username = s.username) "
+            + "AND NOT EXISTS (SELECT 1 FROM users_archive a WHERE a.email = s.email) "
+            + "ORDER BY id ON CONFLICT DO NOTHING";
+
+    @Override
+    public int write(Connection connection, List<UserImportRow> rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING);
+        }
+        StringBuilder csv = new StringBuilder(rows.size() * 96);
+        for (UserImportRow row : rows) {
+            csv.append(row.id).append(',');
+            appendQuoted(csv, row.username).append(',');
+            appendQuoted(csv, row.email).append(',');
+            appendQuoted(csv, row.password).append(',');
+            appendQuoted(csv, row.firstName).append(',');
+            appendQuoted(csv, row.lastName).append(',');
+            csv.append(row.active).append('\n');
+        }
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into user_import_staging failed", e);
+        }
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(MERGE);
+        }
+    }
+
+    /**
+     * Quote a value for COPY's CSV format; {@code null} stays an unquoted empty field.
+     */
+    private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv;
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+}
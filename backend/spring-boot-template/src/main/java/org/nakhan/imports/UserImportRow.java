@@ -0,0 +1,53 @@
+package org.nakhan.imports;
+
+/**
+ * A validated CSV record ready to be written to {@code users}, or the reason it was rejected.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class UserImportRow {
+
+    final long recordNumber;
+    final long id;
+    final String username;
+    final String email;
+    final String password;
+    final String firstName;
+    final String lastName;
+    final boolean active;
+    final String rejection;
+
+    UserImportRow(long recordNumber, long id, String username, String email, String password,
+                  String firstName, String lastName, boolean active) {
+        this.recordNumber = recordNumber;
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.password = password;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.active = active;
+        this.rejection = null;
+    }
+
+    private UserImportRow(long recordNumber, String rejection) {
+        this.recordNumber = recordNumber;
+        this.id = 0;
+        this.username = null;
+        this.email = null;
+        this.password = null;
+        this.firstName = null;
+        this.lastName = null;
+        this.active = false;
+        this.rejection = rejection;
+    }
+
+    static UserImportRow rejected(long recordNumber, String reason) {
+        return new UserImportRow(recordNumber, reason);
+    }
+
+    boolean isRejected() {
+        return rejection != null;
+    }
+}
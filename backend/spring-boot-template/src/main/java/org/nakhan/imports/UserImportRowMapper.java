@@ -0,0 +1,134 @@
+package org.nakhan.imports;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.nakhan.credential.CredentialService;
+import org.nakhan.dto.UserDto;
+import org.nakhan.id.SnowflakeIdGenerator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maps CSV records to {@link UserImportRow}s, validating them with the {@link UserDto} rules.
+ *
+ * Columns are matched by header name ({@code username}, {@code email}, {@code password},
+ * {@code firstName}/{@code first_name}, {@code lastName}/{@code last_name},
+ * {@code active}/{@code is_active}); unknown columns are ignored. Passwords must already be
+ * BCrypt hashes, since hashing at import rates would take the credential executor for hours;
+ * any other value rejects the row. Rows without a password get one that never verifies, so
+ * those accounts must have a password set before signing in.
+ * Instances are thread-safe and used from the parallel validation workers.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class UserImportRowMapper {
+
+    static final String USERNAME = "username";
+    static final String EMAIL = "email";
+    static final String PASSWORD = "password";
+    static final String FIRST_NAME = "firstName";
+    static final String LAST_NAME = "lastName";
+    static final String ACTIVE = "active";
+
+    private final int username;
+    private final int email;
+    private final int password;
+    private final int firstName;
+    private final int lastName;
+    private final int active;
+    private final Validator validator;
+    private final SnowflakeIdGenerator idGenerator;
+
+    private UserImportRowMapper(List<String> columns, Validator validator, SnowflakeIdGenerator idGenerator) {
+        this.username = columns.indexOf(USERNAME);
+        this.email = columns.indexOf(EMAIL);
+        this.password = columns.indexOf(PASSWORD);
+        this.firstName = columns.indexOf(FIRST_NAME);
+        this.lastName = columns.indexOf(LAST_NAME);
+        this.active = columns.indexOf(ACTIVE);
+        this.validator = validator;
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * Canonical column list for a CSV header, as stored on the import job.
+     *
+     * @param header the header record
+     * @return comma-separated canonical names, empty for ignored columns
+     * @throws IllegalArgumentException if the username or email column is missing
+     */
+    static String columnsOf(String[] header) {
+        List<String> columns = new ArrayList<>(header.length);
+        for (String name : header) {
+            columns.add(canonical(name));
+        }
+        if (!columns.contains(USERNAME) || !columns.contains(EMAIL)) {
+            throw new IllegalArgumentException("CSV header must contain username and email columns");
+        }
+        return String.join(",", columns);
+    }
+
+    static UserImportRowMapper forColumns(String columns, Validator validator, SnowflakeIdGenerator idGenerator) {
+        return new UserImportRowMapper(List.of(columns.split(",", -1)), validator, idGenerator);
+    }
+
+    UserImportRow map(String[] fields, long recordNumber) {
+        UserDto dto = new UserDto(field(fields, username), field(fields, email),
+                emptyToNull(field(fields, firstName)), emptyToNull(field(fields, lastName)));
+        Set<ConstraintViolation<UserDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return UserImportRow.rejected(recordNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted(Comparator.naturalOrder())
+                    .collect(Collectors.joining("; ")));
+        }
+        String passwordHash = emptyToNull(field(fields, password));
+        if (passwordHash != null && !CredentialService.isHash(passwordHash)) {
+            return UserImportRow.rejected(recordNumber, "Password must be a BCrypt hash");
+        }
+        Boolean isActive = parseBoolean(field(fields, active));
+        if (isActive == null) {
+            return UserImportRow.rejected(recordNumber, "Active must be true or false");
+        }
+        return new UserImportRow(recordNumber, idGenerator.nextId(), dto.getUsername(), dto.getEmail(),
+                passwordHash != null ? passwordHash : CredentialService.UNUSABLE_PASSWORD,
+                dto.getFirstName(), dto.getLastName(), isActive);
+    }
+
+    private static String canonical(String name) {
+        String key = name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+        return switch (key) {
+            case "username" -> USERNAME;
+            case "email" -> EMAIL;
+            case "password" -> PASSWORD;
+            case "firstname" -> FIRST_NAME;
+            case "lastname" -> LAST_NAME;
+            case "active", "isactive" -> ACTIVE;
+            default -> "";
+        };
+    }
+
+    private static String field(String[] fields, int index) {
+        return index >= 0 && index < fields.length ? fields[index].trim() : null;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value == null || value.isEmpty()) {
+            return Boolean.TRUE;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes", "y" -> Boolean.TRUE;
+            case "false", "0", "no", "n" -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,359 @@
+package org.nakhan.imports;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.nakhan.entity.UserImportJob;
+import org.nakhan.event.UsersImportedEvent;
+import org.nakhan.id.SnowflakeIdGenerator;
+import org.nakhan.repository.UserImportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Service running bulk user imports from CSV files.
+ *
+ * An upload is streamed to disk and queued as a {@link UserImportJob}. A single worker then reads
+ * the file in chunks through NIO, validates each chunk in parallel, and writes it with the
+ * database's bulk path ({@code COPY} on PostgreSQL, batched inserts elsewhere). The chunk's rows
+ * and the job checkpoint commit in one transaction, so an import interrupted by a crash resumes
+ * at startup from the first uncommitted row without duplicating or losing any.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.import", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int REJECTION_SAMPLE_SIZE = 20;
+
+    private final UserImportJobRepository jobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final SnowflakeIdGenerator idGenerator;
+    private final Path directory;
+    private final int chunkSize;
+    private final String loader;
+    private final ExecutorService importExecutor;
+    private final ForkJoinPool validationPool;
+    private final Counter rowsImported;
+    private final Counter rowsSkipped;
+    private final Counter rowsRejected;
+    private volatile UserImportWriter writer;
+
+    @Autowired
+    public UserImportService(UserImportJobRepository jobRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             EntityManagerFactory entityManagerFactory,
+                             ApplicationEventPublisher eventPublisher,
+                             Validator validator,
+                             SnowflakeIdGenerator idGenerator,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.import.directory:${java.io.tmpdir}/user-imports}") String directory,
+                             @Value("${app.import.chunk-size:5000}") int chunkSize,
+                             @Value("${app.import.validation-parallelism:0}") int validationParallelism,
+                             @Value("${app.import.loader:auto}") String loader) {
+        this.jobRepository = jobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.idGenerator = idGenerator;
+        this.directory = Paths.get(directory);
+        this.chunkSize = chunkSize;
+        this.loader = loader.toLowerCase(Locale.ROOT);
+        this.importExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.validationPool = new ForkJoinPool(validationParallelism > 0
+                ? validationParallelism : Runtime.getRuntime().availableProcessors());
+        this.rowsImported = rowCounter(meterRegistry, "imported");
+        this.rowsSkipped = rowCounter(meterRegistry, "skipped");
+        this.rowsRejected = rowCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * Store an uploaded CSV file and queue its import.
+     *
+     * @param fileName original file name, for display
+     * @param content CSV content with a header row
+     * @return the queued job
+     * @throws IllegalArgumentException if the file is empty or the header lacks required columns
+     */
+    public UserImportJob submit(String fileName, InputStream content) {
+        Path file;
+        try {
+            Files.createDirectories(directory);
+            file = Files.createTempFile(directory, "import-", ".csv");
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store import file", e);
+        }
+        try (CsvRecordReader reader = new CsvRecordReader(file, 0, READ_BUFFER_SIZE)) {
+            String[] header = reader.next();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            UserImportJob job = new UserImportJob(fileName, file.toString(), UserImportRowMapper.columnsOf(header),
+                    Files.size(file), reader.position());
+            job = jobRepository.save(job);
+            enqueue(job.getId());
+            return job;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Could not read import file", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    public Optional<UserImportJob> getJob(Long id) {
+        return jobRepository.findById(id);
+    }
+
+    public List<UserImportJob> getRecentJobs() {
+        return jobRepository.findTop20ByOrderByCreatedAtDesc();
+    }
+
+    /**
+     * Queue a failed import again; it continues from its last checkpoint.
+     *
+     * @param id the job id
+     * @return the job
+     * @throws IllegalStateException if the job has completed or is still running
+     */
+    public Optional<UserImportJob> resume(Long id) {
+        return jobRepository.findById(id).map(job -> {
+            if (job.getStatus() != UserImportJob.Status.FAILED) {
+                throw new IllegalStateException("Import job " + id + " is " + job.getStatus());
+            }
+            job.setStatus(UserImportJob.Status.QUEUED);
+            job.setLastError(null);
+            job = jobRepository.save(job);
+            enqueue(job.getId());
+            return job;
+        });
+    }
+
+    /**
+     * Resume imports that were queued or running when the application last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        List<UserImportJob> interrupted = jobRepository.findByStatusInOrderByCreatedAtAsc(
+                List.of(UserImportJob.Status.QUEUED, UserImportJob.Status.RUNNING));
+        for (UserImportJob job : interrupted) {
+            log.info("Resuming user import {} at byte {} of {}", job.getId(), job.getCommittedBytes(), job.getTotalBytes());
+            enqueue(job.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+        validationPool.shutdownNow();
+    }
+
+    private void enqueue(Long jobId) {
+        importExecutor.execute(() -> {
+            try {
+                run(jobId);
+            } catch (RuntimeException e) {
+                log.error("User import {} failed", jobId, e);
+                jobRepository.findById(jobId).ifPresent(job -> {
+                    job.setStatus(UserImportJob.Status.FAILED);
+                    job.setLastError(truncate(String.valueOf(e.getMessage()), 1000));
+                    jobRepository.save(job);
+                });
+            }
+        });
+    }
+
+    private void run(Long jobId) {
+        UserImportJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() == UserImportJob.Status.COMPLETED) {
+            return;
+        }
+        job.setStatus(UserImportJob.Status.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(LocalDateTime.now());
+        }
+        job = jobRepository.save(job);
+
+        UserImportRowMapper mapper = UserImportRowMapper.forColumns(job.getColumns(), validator, idGenerator);
+        UserImportWriter chunkWriter = writer();
+        long importedBefore = job.getRowsImported();
+        Path file = Paths.get(job.getFilePath());
+        try (CsvRecordReader reader = new CsvRecordReader(file, job.getCommittedBytes(), READ_BUFFER_SIZE)) {
+            while (true) {
+                long chunkStart = System.nanoTime();
+                List<String[]> records = new ArrayList<>(chunkSize);
+                String[] record;
+                while (records.size() < chunkSize && (record = reader.next()) != null) {
+                    records.add(record);
+                }
+                if (records.isEmpty()) {
+                    break;
+                }
+                job = commitChunk(job, mapper, chunkWriter, records, reader.position(), chunkStart);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read import file " + file, e);
+        } finally {
+            if (job.getRowsImported() > importedBefore) {
+                eventPublisher.publishEvent(new UsersImportedEvent(jobId, job.getRowsImported()));
+            }
+        }
+
+        job.setStatus(UserImportJob.Status.COMPLETED);
+        job.setFinishedAt(LocalDateTime.now());
+        jobRepository.save(job);
+        deleteQuietly(file);
+        log.info("User import {} completed: {} imported, {} skipped, {} rejected, {} rows/s", jobId,
+                job.getRowsImported(), job.getRowsSkipped(), job.getRowsRejected(), job.getRowsPerSecond());
+    }
+
+    /**
+     * Validate and write one chunk, then advance the checkpoint in the same transaction.
+     */
+    private UserImportJob commitChunk(UserImportJob job, UserImportRowMapper mapper, UserImportWriter chunkWriter,
+                                      List<String[]> records, long endOffset, long chunkStart) {
+        long firstRecord = job.getRowsRead() + 1;
+        List<UserImportRow> mapped = validationPool.submit(() -> IntStream.range(0, records.size())
+                .parallel()
+                .mapToObj(i -> mapper.map(records.get(i), firstRecord + i))
+                .toList()).join();
+
+        List<UserImportRow> valid = new ArrayList<>(mapped.size());
+        List<String> rejections = new ArrayList<>();
+        for (UserImportRow row : mapped) {
+            if (row.isRejected()) {
+                rejections.add("record " + row.recordNumber + ": " + row.rejection);
+            } else {
+                valid.add(row);
+            }
+        }
+
+        UserImportJob current = job;
+        UserImportJob saved = transactionTemplate.execute(status -> {
+            int inserted = valid.isEmpty() ? 0
+                    : jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> chunkWriter.write(connection, valid));
+            current.setCommittedBytes(endOffset);
+            current.setRowsRead(current.getRowsRead() + records.size());
+            current.setRowsImported(current.getRowsImported() + inserted);
+            current.setRowsSkipped(current.getRowsSkipped() + valid.size() - inserted);
+            current.setRowsRejected(current.getRowsRejected() + rejections.size());
+            current.setRejectionSample(appendSample(current.getRejectionSample(), rejections));
+            current.setProcessingMillis(current.getProcessingMillis() + (System.nanoTime() - chunkStart) / 1_000_000);
+            return jobRepository.save(current);
+        });
+
+        long inserted = saved.getRowsImported() - job.getRowsImported();
+        rowsImported.increment(inserted);
+        rowsSkipped.increment(valid.size() - inserted);
+        rowsRejected.increment(rejections.size());
+        evictQueryCache();
+        return saved;
+    }
+
+    /**
+     * Rows written with plain SQL bypass Hibernate's query cache invalidation, so cached
+     * "not found" results for imported usernames or emails must be dropped.
+     */
+    private void evictQueryCache() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    private UserImportWriter writer() {
+        UserImportWriter current = writer;
+        if (current == null) {
+            boolean copy = switch (loader) {
+                case "copy" -> true;
+                case "batch" -> false;
+                default -> jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                        "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            };
+            current = copy ? new PostgresCopyUserImportWriter() : new JdbcBatchUserImportWriter();
+            log.info("User imports use {}", current.getClass().getSimpleName());
+            writer = current;
+        }
+        return current;
+    }
+
+    private static String appendSample(String sample, List<String> rejections) {
+        if (rejections.isEmpty()) {
+            return sample;
+        }
+        List<String> lines = new ArrayList<>();
+        if (sample != null) {
+            lines.addAll(List.of(sample.split("\n")));
+        }
+        for (String rejection : rejections) {
+            if (lines.size() >= REJECTION_SAMPLE_SIZE) {
+                break;
+            }
+            lines.add(truncate(rejection, 190));
+        }
+        return String.join("\n", lines);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("user.import.rows")
+                .description("Rows processed by bulk user imports")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.nakhan.imports;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Writes a chunk of imported rows to {@code users}, skipping rows whose username or email is
+ * already taken, in {@code users}, in {@code users_archive} or by an earlier row of the same chunk.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+interface UserImportWriter {
+
+    /**
+     * Write rows on the given connection, inside the caller's transaction.
+     *
+     * @param connection the transactional connection
+     * @param rows valid rows to write
+     * @return number of rows inserted; the rest conflicted with existing users
+     * @throws SQLException if the database rejects the chunk
+     */
+    int write(Connection connection, List<UserImportRow> rows) throws SQLException;
+}
@@ -0,0 +1,170 @@
+package org.nakhan.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for an on-demand Java Flight Recorder recording with the application's
+ * {@link UserOperationEvent} and {@link HttpRequestEvent} enabled, alongside the JVM's GC,
+ * lock contention, socket and thread events:
+ * <ul>
+ *   <li>{@code POST /actuator/flightrecording} starts a recording with the given {@code settings}
+ *       ({@code default} or {@code profile}) and {@code duration} after which it stops itself,
+ *       {@code 0} for none; does nothing while a recording is running</li>
+ *   <li>{@code GET /actuator/flightrecording} shows its state</li>
+ *   <li>{@code DELETE /actuator/flightrecording} stops it</li>
+ *   <li>{@code GET /actuator/flightrecording/{file}} downloads it as a {@code .jfr} file, also
+ *       while it is still running</li>
+ * </ul>
+ * One recording is kept at a time; starting a new one discards the previous one.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint implements DisposableBean {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Duration eventThreshold;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private Recording recording;
+    private String settings;
+
+    @Autowired
+    public FlightRecordingEndpoint(@Value("${app.jfr.event-threshold:0ms}") Duration eventThreshold,
+                                   @Value("${app.jfr.max-age:30m}") Duration maxAge,
+                                   @Value("${app.jfr.max-size:250MB}") DataSize maxSize) {
+        this.eventThreshold = eventThreshold;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("name", recording.getName());
+        status.put("settings", settings);
+        status.put("startTime", recording.getStartTime());
+        status.put("stopTime", recording.getStopTime());
+        status.put("duration", recording.getDuration());
+        status.put("sizeBytes", recording.getSize());
+        status.put("download", "/actuator/flightrecording/" + fileName());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(String settings, Duration duration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        String configurationName = settings;
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(configurationName);
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Unknown JFR settings " + configurationName, "Unknown settings");
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        FlightRecorder.register(UserOperationEvent.class);
+        FlightRecorder.register(HttpRequestEvent.class);
+        Recording started = new Recording(configuration);
+        started.setName("user-api-" + LocalDateTime.now().format(FILE_TIMESTAMP));
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSize.toBytes());
+        started.setDuration(duration.isZero() || duration.isNegative() ? null : duration);
+        started.enable(UserOperationEvent.NAME).withThreshold(eventThreshold);
+        started.enable(HttpRequestEvent.NAME).withThreshold(eventThreshold);
+        started.start();
+        this.recording = started;
+        this.settings = configurationName;
+        return status();
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return status();
+    }
+
+    /**
+     * Dump the recording to a temporary file that is deleted once it has been streamed.
+     *
+     * @param file the file name shown by {@link #status()}
+     * @return the recording, or {@code null} (404) if there is no recording by that name
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized Resource download(@Selector String file) {
+        if (recording == null || recording.getState() == RecordingState.NEW || !fileName().equals(file)) {
+            return null;
+        }
+        try {
+            Path dump = Files.createTempFile(recording.getName() + "-", ".jfr");
+            recording.dump(dump);
+            return new FileSystemResource(dump) {
+
+                @Override
+                public String getFilename() {
+                    return file;
+                }
+
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    return Files.newInputStream(dump, StandardOpenOption.DELETE_ON_CLOSE);
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump recording " + recording.getName(), e);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private String fileName() {
+        return recording.getName() + ".jfr";
+    }
+}
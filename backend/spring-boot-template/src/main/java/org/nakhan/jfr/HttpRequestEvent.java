@@ -0,0 +1,39 @@
+package org.nakhan.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one HTTP request. Disabled unless a recording enables it.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Name(HttpRequestEvent.NAME)
+@Label("HTTP Request")
+@Category("User API")
+@Description("An HTTP request, from the first filter until the response is complete")
+@Enabled(false)
+@StackTrace(false)
+final class HttpRequestEvent extends Event {
+
+    static final String NAME = "org.nakhan.HttpRequest";
+
+    @Label("Method")
+    String method;
+
+    @Label("Route")
+    @Description("Matched route pattern, or empty when no handler matched")
+    String route;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+}
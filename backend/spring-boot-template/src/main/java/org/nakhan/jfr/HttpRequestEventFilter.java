@@ -0,0 +1,93 @@
+package org.nakhan.jfr;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+
+/**
+ * Emits an {@link HttpRequestEvent} per request while a recording has the event enabled, and
+ * only checks the event's enabled flag otherwise. Async requests are committed when the async
+ * cycle completes.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class HttpRequestEventFilter extends OncePerRequestFilter {
+
+    private static final HttpRequestEvent PROBE = new HttpRequestEvent();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!PROBE.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(event, request, response));
+            } else {
+                commit(event, request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus());
+            }
+        }
+    }
+
+    private static void commit(HttpRequestEvent event, HttpServletRequest request, int status) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        event.method = request.getMethod();
+        event.route = route == null ? "" : route.toString();
+        event.path = request.getRequestURI();
+        event.status = status;
+        event.commit();
+    }
+
+    /**
+     * Commits the event of an async request once its response is complete.
+     */
+    private static final class CompletionListener implements AsyncListener {
+
+        private final HttpRequestEvent event;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+
+        CompletionListener(HttpRequestEvent event, HttpServletRequest request, HttpServletResponse response) {
+            this.event = event;
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent asyncEvent) {
+            commit(event, request, response.getStatus());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent asyncEvent) {
+        }
+
+        @Override
+        public void onError(AsyncEvent asyncEvent) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent asyncEvent) {
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.nakhan.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one {@code UserService} call. Disabled unless a recording enables it, for
+ * example one started through {@link FlightRecordingEndpoint}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Name(UserOperationEvent.NAME)
+@Label("User Operation")
+@Category("User API")
+@Description("A UserService call; for async operations the duration runs until the returned future completes")
+@Enabled(false)
+@StackTrace(false)
+final class UserOperationEvent extends Event {
+
+    static final String NAME = "org.nakhan.UserOperation";
+    static final long NO_USERS = -1;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Key Type")
+    @Description("Name of the first parameter (id, username, email, ...), or none")
+    String keyType;
+
+    @Label("Rows")
+    @Description("Users returned: 0 or 1 for a single user, the size of a returned list or map; "
+        + "-1 for calls that return no users, such as deletes and counts, and for failed calls")
+    long rows;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
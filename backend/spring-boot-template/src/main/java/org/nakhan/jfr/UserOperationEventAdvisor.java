@@ -0,0 +1,104 @@
+package org.nakhan.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.nakhan.metrics.TimedService;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits a {@link UserOperationEvent} for every public method of {@link TimedService} beans.
+ *
+ * While no recording has the event enabled, a call costs one check of the event's enabled
+ * flag; nothing is allocated. Rows are only recorded for calls that return users; deletes,
+ * counts and failed calls record {@link UserOperationEvent#NO_USERS}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+public class UserOperationEventAdvisor extends StaticMethodMatcherPointcutAdvisor {
+
+    private static final UserOperationEvent PROBE = new UserOperationEvent();
+
+    private final Map<Method, String> keyTypes = new ConcurrentHashMap<>();
+
+    public UserOperationEventAdvisor() {
+        setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        setAdvice((MethodInterceptor) this::invoke);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return AnnotatedElementUtils.hasAnnotation(targetClass, TimedService.class)
+            && method.getDeclaringClass() == targetClass
+            && Modifier.isPublic(method.getModifiers());
+    }
+
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!PROBE.isEnabled()) {
+            return invocation.proceed();
+        }
+        UserOperationEvent event = new UserOperationEvent();
+        event.begin();
+        Method method = invocation.getMethod();
+        event.operation = method.getName();
+        event.keyType = keyTypes.computeIfAbsent(method, UserOperationEventAdvisor::keyType);
+        event.rows = UserOperationEvent.NO_USERS;
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            event.commit();
+            throw e;
+        }
+        if (result instanceof CompletableFuture<?> future) {
+            future.whenComplete((value, failure) -> {
+                event.succeeded = failure == null;
+                if (failure == null) {
+                    event.rows = rows(value);
+                }
+                event.commit();
+            });
+        } else {
+            event.succeeded = true;
+            event.rows = rows(result);
+            event.commit();
+        }
+        return result;
+    }
+
+    private static String keyType(Method method) {
+        if (method.getParameterCount() == 0) {
+            return "none";
+        }
+        Parameter first = method.getParameters()[0];
+        return first.isNamePresent() ? first.getName() : first.getType().getSimpleName();
+    }
+
+    private static long rows(Object result) {
+        if (result == null || result instanceof Number || result instanceof Boolean) {
+            return UserOperationEvent.NO_USERS;
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        return 1;
+    }
+}
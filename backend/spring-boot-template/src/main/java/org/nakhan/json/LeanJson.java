@@ -0,0 +1,21 @@
+package org.nakhan.json;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller method, or every method of a controller, whose {@code User} and
+ * {@code UserDto} responses are written by {@link LeanUserJsonHttpMessageConverter} instead of
+ * the application's {@code ObjectMapper}. Other response types are unaffected.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LeanJson {
+}
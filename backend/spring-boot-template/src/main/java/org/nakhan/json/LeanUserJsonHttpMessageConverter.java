@@ -0,0 +1,84 @@
+package org.nakhan.json;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Writes {@code User} and {@code UserDto} responses of {@link LeanJson} handlers with a
+ * {@link UserJsonWriter}, straight to the response stream through a per-thread buffer.
+ *
+ * Spring Boot registers converter beans ahead of its defaults, so this converter is asked first;
+ * it only accepts a response when the handler chosen for the current request is annotated, and
+ * leaves everything else, including all request bodies, to the {@code ObjectMapper}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.json.lean", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LeanUserJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    public LeanUserJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType)
+                && UserJsonWriter.supports(type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz))
+                && isLeanHandler();
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        UserJsonWriter writer = new UserJsonWriter(outputMessage.getBody(), BUFFERS.get());
+        writer.writeValue(value);
+        writer.flush();
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Lean JSON is write-only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Lean JSON is write-only", inputMessage);
+    }
+
+    private static boolean isLeanHandler() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        Object handler = attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return handler instanceof HandlerMethod method
+                && (method.hasMethodAnnotation(LeanJson.class) || method.getBeanType().isAnnotationPresent(LeanJson.class));
+    }
+}
@@ -0,0 +1,345 @@
+package org.nakhan.json;
+
+import org.nakhan.dto.UserDto;
+import org.nakhan.entity.User;
+import org.springframework.core.ResolvableType;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Hand-written JSON encoder for {@link User} and {@link UserDto}, producing the same bytes as the
+ * application's {@code ObjectMapper}: the same property order, ids as strings, passwords left
+ * out, nulls included, timestamps in {@code ISO_LOCAL_DATE_TIME} and Jackson's string escapes.
+ *
+ * Property names are encoded once into static byte arrays, and strings, numbers and timestamps
+ * are encoded straight into a caller-supplied buffer that is flushed to the stream whenever it
+ * fills up, so writing a list of users allocates nothing per user. Not thread-safe; create one
+ * per response.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class UserJsonWriter {
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] USERNAME = ascii(",\"username\":");
+    private static final byte[] EMAIL = ascii(",\"email\":");
+    private static final byte[] FIRST_NAME = ascii(",\"firstName\":");
+    private static final byte[] LAST_NAME = ascii(",\"lastName\":");
+    private static final byte[] ACTIVE = ascii(",\"active\":");
+    private static final byte[] CREATED_AT = ascii(",\"createdAt\":");
+    private static final byte[] UPDATED_AT = ascii(",\"updatedAt\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    /** Longest single write: a four-digit-year timestamp with nanoseconds, quoted. */
+    private static final int MAX_TOKEN = 32;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+
+    /**
+     * @param out the stream to write to
+     * @param buffer reusable scratch buffer of at least 64 bytes
+     */
+    public UserJsonWriter(OutputStream out, byte[] buffer) {
+        if (buffer.length < 2 * MAX_TOKEN) {
+            throw new IllegalArgumentException("Buffer too small: " + buffer.length);
+        }
+        this.out = out;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Whether values of the given type can be written: {@code User}, {@code UserDto}, or an
+     * {@code Iterable} of either.
+     *
+     * @param type the declared type of the value
+     * @return true if supported
+     */
+    public static boolean supports(ResolvableType type) {
+        Class<?> raw = type.resolve();
+        if (raw == null) {
+            return false;
+        }
+        if (Iterable.class.isAssignableFrom(raw)) {
+            Class<?> element = type.as(Iterable.class).getGeneric(0).resolve();
+            return element != null && isUserType(element);
+        }
+        return isUserType(raw);
+    }
+
+    private static boolean isUserType(Class<?> type) {
+        return User.class.isAssignableFrom(type) || UserDto.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Write a user, a user DTO, an {@code Iterable} of them, or {@code null}.
+     *
+     * @param value the value to write
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writeRaw(NULL);
+        } else if (value instanceof User user) {
+            writeUser(user);
+        } else if (value instanceof UserDto dto) {
+            writeUserDto(dto);
+        } else if (value instanceof Iterable<?> values) {
+            ensure(1);
+            buffer[position++] = '[';
+            boolean first = true;
+            for (Object element : values) {
+                if (!first) {
+                    ensure(1);
+                    buffer[position++] = ',';
+                }
+                first = false;
+                if (element instanceof Iterable<?>) {
+                    throw new IllegalArgumentException("Nested collections are not supported");
+                }
+                writeValue(element);
+            }
+            ensure(1);
+            buffer[position++] = ']';
+        } else {
+            throw new IllegalArgumentException("Cannot write " + value.getClass().getName() + " as lean JSON");
+        }
+    }
+
+    public void writeUser(User user) throws IOException {
+        writeRaw(ID);
+        writeId(user.getId());
+        writeRaw(USERNAME);
+        writeString(user.getUsername());
+        writeRaw(EMAIL);
+        writeString(user.getEmail());
+        writeRaw(FIRST_NAME);
+        writeString(user.getFirstName());
+        writeRaw(LAST_NAME);
+        writeString(user.getLastName());
+        writeRaw(ACTIVE);
+        writeBoolean(user.getActive());
+        writeRaw(CREATED_AT);
+        writeTimestamp(user.getCreatedAt());
+        writeRaw(UPDATED_AT);
+        writeTimestamp(user.getUpdatedAt());
+        ensure(1);
+        buffer[position++] = '}';
+    }
+
+    public void writeUserDto(UserDto dto) throws IOException {
+        writeRaw(ID);
+        writeId(dto.getId());
+        writeRaw(USERNAME);
+        writeString(dto.getUsername());
+        writeRaw(EMAIL);
+        writeString(dto.getEmail());
+        writeRaw(FIRST_NAME);
+        writeString(dto.getFirstName());
+        writeRaw(LAST_NAME);
+        writeString(dto.getLastName());
+        writeRaw(ACTIVE);
+        writeBoolean(dto.getActive());
+        writeRaw(CREATED_AT);
+        writeTimestamp(dto.getCreatedAt());
+        writeRaw(UPDATED_AT);
+        writeTimestamp(dto.getUpdatedAt());
+        ensure(1);
+        buffer[position++] = '}';
+    }
+
+    /**
+     * Write out the buffered bytes and flush the stream.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    /** Ids are written as strings, as 64-bit ids exceed JavaScript's safe integer range. */
+    private void writeId(Long id) throws IOException {
+        if (id == null) {
+            writeRaw(NULL);
+            return;
+        }
+        ensure(MAX_TOKEN);
+        buffer[position++] = '"';
+        long value = id;
+        if (value == Long.MIN_VALUE) {
+            byte[] digits = ascii(Long.toString(value));
+            System.arraycopy(digits, 0, buffer, position, digits.length);
+            position += digits.length;
+        } else {
+            if (value < 0) {
+                buffer[position++] = '-';
+                value = -value;
+            }
+            int end = position + digitCount(value);
+            for (int i = end - 1; i >= position; i--) {
+                buffer[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            position = end;
+        }
+        buffer[position++] = '"';
+    }
+
+    private void writeBoolean(Boolean value) throws IOException {
+        writeRaw(value == null ? NULL : value ? TRUE : FALSE);
+    }
+
+    /**
+     * Write a timestamp exactly as {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} formats it: seconds
+     * always, fractional seconds only when non-zero and without trailing zeros.
+     */
+    private void writeTimestamp(LocalDateTime value) throws IOException {
+        if (value == null) {
+            writeRaw(NULL);
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            return;
+        }
+        ensure(MAX_TOKEN);
+        byte[] b = buffer;
+        int p = position;
+        b[p++] = '"';
+        p = digits(b, p, year / 100);
+        p = digits(b, p, year % 100);
+        b[p++] = '-';
+        p = digits(b, p, value.getMonthValue());
+        b[p++] = '-';
+        p = digits(b, p, value.getDayOfMonth());
+        b[p++] = 'T';
+        p = digits(b, p, value.getHour());
+        b[p++] = ':';
+        p = digits(b, p, value.getMinute());
+        b[p++] = ':';
+        p = digits(b, p, value.getSecond());
+        int nano = value.getNano();
+        if (nano != 0) {
+            b[p++] = '.';
+            int width = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                width--;
+            }
+            for (int i = p + width - 1; i >= p; i--) {
+                b[i] = (byte) ('0' + nano % 10);
+                nano /= 10;
+            }
+            p += width;
+        }
+        b[p++] = '"';
+        position = p;
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeRaw(NULL);
+            return;
+        }
+        ensure(1);
+        buffer[position++] = '"';
+        for (int i = 0, length = value.length(); i < length; i++) {
+            if (position > buffer.length - 6) {
+                flushBuffer();
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    buffer[position++] = (byte) c;
+                } else {
+                    escape(c);
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        ensure(1);
+        buffer[position++] = '"';
+    }
+
+    private void escape(char c) {
+        buffer[position++] = '\\';
+        switch (c) {
+            case '"' -> buffer[position++] = '"';
+            case '\\' -> buffer[position++] = '\\';
+            case '\b' -> buffer[position++] = 'b';
+            case '\t' -> buffer[position++] = 't';
+            case '\n' -> buffer[position++] = 'n';
+            case '\f' -> buffer[position++] = 'f';
+            case '\r' -> buffer[position++] = 'r';
+            default -> {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    private void writeRaw(byte[] bytes) throws IOException {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static int digits(byte[] b, int p, int twoDigits) {
+        b[p] = (byte) ('0' + twoDigits / 10);
+        b[p + 1] = (byte) ('0' + twoDigits % 10);
+        return p + 2;
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
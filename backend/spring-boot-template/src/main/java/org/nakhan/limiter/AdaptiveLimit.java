@@ -0,0 +1,126 @@
+package org.nakhan.limiter;
+
+/**
+ * A gradient concurrency limit: the number of calls allowed in flight, estimated from their
+ * round-trip times (RTT).
+ *
+ * The limit is compared against the no-load RTT, the fastest call seen since the last probe. While
+ * the recent RTT stays within {@code tolerance} of it the limit grows by its square root, scaled
+ * by {@code smoothing}; as the RTT climbs the limit is multiplied by the gradient
+ * {@code tolerance * noLoadRtt / rtt}, but never by less than one half. A dropped call (a timeout or
+ * transient failure) multiplies it by {@code backoffRatio}. The limit does not change while fewer
+ * than half of it are in flight, since those samples say nothing about the limit.
+ *
+ * Every {@code probeInterval} samples the no-load RTT is forgotten and the limit cut to its square
+ * root, so the baseline is measured again near idle and follows changes of the database itself.
+ * Until then, calls admitted before the cut are not samples.
+ *
+ * Not thread-safe; {@link ConcurrencyLimiter} calls it under its lock.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class AdaptiveLimit {
+
+    // Weight of a new sample in the recent RTT, about the mean of the last 10 samples
+    private static final double RTT_SMOOTHING = 2.0 / 11;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final int probeInterval;
+
+    private double limit;
+    private double rtt;
+    private long noLoadRtt;
+    private int samplesUntilProbe;
+
+    /**
+     * @param initialLimit the limit before the first sample
+     * @param minLimit the lowest limit
+     * @param maxLimit the highest limit
+     * @param tolerance how much slower than the no-load RTT calls may get before the limit falls
+     * @param smoothing how far the limit moves towards each new estimate, between 0 and 1
+     * @param backoffRatio factor applied to the limit on a dropped call
+     * @param probeInterval samples between measurements of the no-load RTT
+     */
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                         double backoffRatio, int probeInterval) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max: " + minLimit + ", " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.probeInterval = probeInterval;
+        this.limit = clamp(initialLimit);
+        this.samplesUntilProbe = probeInterval;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return the no-load RTT in nanoseconds, or 0 before the first sample after a probe
+     */
+    public long getNoLoadRtt() {
+        return noLoadRtt;
+    }
+
+    /**
+     * @return the smoothed RTT of recent calls in nanoseconds
+     */
+    public long getRtt() {
+        return (long) rtt;
+    }
+
+    /**
+     * Update the limit with the RTT of a completed call.
+     *
+     * @param rttNanos the call's round-trip time
+     * @param inFlight calls in flight when it started, itself included
+     * @return the new limit
+     */
+    public int onSample(long rttNanos, int inFlight) {
+        rtt = rtt == 0 ? rttNanos : rtt + (rttNanos - rtt) * RTT_SMOOTHING;
+        if (--samplesUntilProbe <= 0) {
+            samplesUntilProbe = probeInterval;
+            noLoadRtt = 0;
+            limit = clamp(Math.sqrt(limit));
+            return getLimit();
+        }
+        if (noLoadRtt == 0 && inFlight > limit) {
+            // admitted before the probe cut the limit, so not a no-load time
+            return getLimit();
+        }
+        if (noLoadRtt == 0 || rttNanos < noLoadRtt) {
+            noLoadRtt = rttNanos;
+        }
+        if (inFlight < limit / 2) {
+            return getLimit();
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * noLoadRtt / rtt));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit + (estimate - limit) * smoothing);
+        return getLimit();
+    }
+
+    /**
+     * Back off after a dropped call.
+     *
+     * @return the new limit
+     */
+    public int onDrop() {
+        limit = clamp(limit * backoffRatio);
+        return getLimit();
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,216 @@
+package org.nakhan.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Admits calls while fewer than an {@link AdaptiveLimit} are in flight, and feeds the limit with
+ * the round-trip time of each call that completes.
+ *
+ * A call over the limit waits up to {@code maxQueueWait} for one to finish and is rejected after
+ * that, so callers find out within milliseconds instead of piling up behind a slow database.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class ConcurrencyLimiter {
+
+    private final AdaptiveLimit limit;
+    private final long maxQueueWaitNanos;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private int inFlight;
+    private int queued;
+
+    private final Counter rejections;
+    private final Counter drops;
+
+    /**
+     * @param name the limiter name, used as the {@code limiter} tag
+     * @param limit the limit and its estimator
+     * @param maxQueueWait how long a call over the limit waits before it is rejected
+     * @param meterRegistry where the limiter's metrics are registered
+     * @param nanoClock source of {@link System#nanoTime()}-like timestamps
+     */
+    public ConcurrencyLimiter(String name, AdaptiveLimit limit, Duration maxQueueWait, MeterRegistry meterRegistry,
+                              LongSupplier nanoClock) {
+        this.limit = limit;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.nanoClock = nanoClock;
+        this.rejections = Counter.builder("db.limiter.rejected")
+            .tag("limiter", name)
+            .description("Calls rejected over the concurrency limit")
+            .register(meterRegistry);
+        this.drops = Counter.builder("db.limiter.dropped")
+            .tag("limiter", name)
+            .description("Calls that timed out or failed transiently, each lowering the limit")
+            .register(meterRegistry);
+        Gauge.builder("db.limiter.limit", this, locked(limiter -> limiter.limit.getLimit()))
+            .tag("limiter", name)
+            .description("Calls allowed in flight")
+            .register(meterRegistry);
+        Gauge.builder("db.limiter.inflight", this, locked(limiter -> limiter.inFlight))
+            .tag("limiter", name)
+            .description("Calls in flight")
+            .register(meterRegistry);
+        Gauge.builder("db.limiter.queued", this, locked(limiter -> limiter.queued))
+            .tag("limiter", name)
+            .description("Calls waiting for the limit")
+            .register(meterRegistry);
+        TimeGauge.builder("db.limiter.rtt", this, TimeUnit.NANOSECONDS, locked(limiter -> limiter.limit.getRtt()))
+            .tag("limiter", name)
+            .tag("estimate", "recent")
+            .description("Smoothed round-trip time of recent calls")
+            .register(meterRegistry);
+        TimeGauge.builder("db.limiter.rtt", this, TimeUnit.NANOSECONDS, locked(limiter -> limiter.limit.getNoLoadRtt()))
+            .tag("limiter", name)
+            .tag("estimate", "no-load")
+            .description("Fastest round-trip time since the last probe")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Admit a call, waiting up to the queue wait for the limit.
+     *
+     * @return the permit, or {@code null} if the call is rejected
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Permit acquire() throws InterruptedException {
+        return acquire(maxQueueWaitNanos);
+    }
+
+    /**
+     * Admit a call, waiting up to the given time for the limit.
+     *
+     * @param maxWait how long to wait instead of the queue wait
+     * @return the permit, or {@code null} if the call is rejected
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Permit acquire(Duration maxWait) throws InterruptedException {
+        return acquire(maxWait.toNanos());
+    }
+
+    private Permit acquire(long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight >= limit.getLimit()) {
+                long remaining = maxWaitNanos;
+                queued++;
+                try {
+                    while (inFlight >= limit.getLimit()) {
+                        if (remaining <= 0) {
+                            rejections.increment();
+                            return null;
+                        }
+                        remaining = released.awaitNanos(remaining);
+                    }
+                } finally {
+                    queued--;
+                }
+            }
+            inFlight++;
+            return new Permit(inFlight, nanoClock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit.getLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Permit permit, Outcome outcome) {
+        long rtt = nanoClock.getAsLong() - permit.startNanos;
+        lock.lock();
+        try {
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> limit.onSample(rtt, permit.inFlight);
+                case DROPPED -> {
+                    drops.increment();
+                    limit.onDrop();
+                }
+                case IGNORED -> {
+                }
+            }
+            for (int free = Math.min(queued, limit.getLimit() - inFlight); free > 0; free--) {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ToDoubleFunction<ConcurrencyLimiter> locked(ToDoubleFunction<ConcurrencyLimiter> value) {
+        return limiter -> {
+            lock.lock();
+            try {
+                return value.applyAsDouble(limiter);
+            } finally {
+                lock.unlock();
+            }
+        };
+    }
+
+    private enum Outcome { SUCCESS, DROPPED, IGNORED }
+
+    /**
+     * An admitted call. Exactly one of its methods should be called when the call ends; later
+     * calls do nothing.
+     */
+    public final class Permit {
+
+        private final int inFlight;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlight, long startNanos) {
+            this.inFlight = inFlight;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * The call completed; its round-trip time is a sample of the limit.
+         */
+        public void success() {
+            release(Outcome.SUCCESS);
+        }
+
+        /**
+         * The call timed out or failed transiently; the limit backs off.
+         */
+        public void dropped() {
+            release(Outcome.DROPPED);
+        }
+
+        /**
+         * The call ended without telling anything about the limit, such as a cache hit or a
+         * failure unrelated to load.
+         */
+        public void ignore() {
+            release(Outcome.IGNORED);
+        }
+
+        private void release(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                ConcurrencyLimiter.this.release(this, outcome);
+            }
+        }
+    }
+}
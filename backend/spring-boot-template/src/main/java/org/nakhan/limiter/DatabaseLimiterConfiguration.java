@@ -0,0 +1,35 @@
+package org.nakhan.limiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.time.Duration;
+
+/**
+ * The adaptive concurrency limit of {@link org.nakhan.repository.UserRepository} calls, configured
+ * by {@code app.db-limiter.*}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.db-limiter", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseLimiterConfiguration {
+
+    @Bean
+    public ConcurrencyLimiter userRepositoryLimiter(MeterRegistry meterRegistry,
+                                                    @Value("${app.db-limiter.initial-limit:10}") int initialLimit,
+                                                    @Value("${app.db-limiter.min-limit:2}") int minLimit,
+                                                    @Value("${app.db-limiter.max-limit:20}") int maxLimit,
+                                                    @Value("${app.db-limiter.rtt-tolerance:1.5}") double tolerance,
+                                                    @Value("${app.db-limiter.smoothing:0.2}") double smoothing,
+                                                    @Value("${app.db-limiter.backoff-ratio:0.9}") double backoffRatio,
+                                                    @Value("${app.db-limiter.probe-interval:1000}") int probeInterval,
+                                                    @Value("${app.db-limiter.max-queue-wait:10ms}") Duration maxQueueWait) {
+        AdaptiveLimit limit = new AdaptiveLimit(initialLimit, minLimit, maxLimit, tolerance, smoothing,
+                backoffRatio, probeInterval);
+        return new ConcurrencyLimiter("user-repository", limit, maxQueueWait, meterRegistry, System::nanoTime);
+    }
+}
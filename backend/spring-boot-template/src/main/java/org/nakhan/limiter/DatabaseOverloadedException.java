@@ -0,0 +1,19 @@
+package org.nakhan.limiter;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a repository call is rejected by the database concurrency limit.
+ * Answered with {@code 503 Service Unavailable}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DatabaseOverloadedException extends RuntimeException {
+
+    public DatabaseOverloadedException() {
+        super("Too many database calls in progress");
+    }
+}
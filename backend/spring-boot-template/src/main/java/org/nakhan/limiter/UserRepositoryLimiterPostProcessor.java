@@ -0,0 +1,122 @@
+package org.nakhan.limiter;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.nakhan.persistence.QueryContext;
+import org.nakhan.repository.UserRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+/**
+ * Puts every call of the JPA {@link UserRepository} behind the {@code userRepositoryLimiter}
+ * {@link ConcurrencyLimiter}. A rejected call throws {@link DatabaseOverloadedException}. Calls
+ * outside an HTTP request, such as startup index builds, scheduled jobs and async completions,
+ * wait up to {@code app.db-limiter.background-max-wait} instead of the short queue wait.
+ *
+ * A call's time is a sample of the limit only if it ran a statement; second-level cache hits
+ * would otherwise pull the no-load round-trip time down to microseconds. Statements are counted
+ * by the query statistics proxy, so without {@code app.query-stats.enabled} every call is a
+ * sample. Transient failures lower the limit. A returned {@code Stream} keeps its permit until it
+ * is closed, and is not a sample. Repository calls made inside another one are not limited again.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.db-limiter", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserRepositoryLimiterPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ConcurrencyLimiter> limiter;
+    private final Duration backgroundMaxWait;
+    private final boolean statementsCounted;
+
+    public UserRepositoryLimiterPostProcessor(ObjectProvider<ConcurrencyLimiter> limiter,
+                                              @Value("${app.db-limiter.background-max-wait:30s}") Duration backgroundMaxWait,
+                                              @Value("${app.query-stats.enabled:true}") boolean statementsCounted) {
+        this.limiter = limiter;
+        this.backgroundMaxWait = backgroundMaxWait;
+        this.statementsCounted = statementsCounted;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> {
+                        if (repositoryInformation.getRepositoryInterface() == UserRepository.class) {
+                            proxyFactory.addAdvice(new LimitingInterceptor());
+                        }
+                    }));
+        }
+        return bean;
+    }
+
+    private final class LimitingInterceptor implements MethodInterceptor {
+
+        private final ThreadLocal<Boolean> inCall = new ThreadLocal<>();
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (inCall.get() != null) {
+                return invocation.proceed();
+            }
+            ConcurrencyLimiter.Permit permit = acquire();
+            long statements = QueryContext.statementCount();
+            Object result;
+            inCall.set(Boolean.TRUE);
+            try {
+                result = invocation.proceed();
+            } catch (Throwable e) {
+                if (isTransient(e)) {
+                    permit.dropped();
+                } else {
+                    permit.ignore();
+                }
+                throw e;
+            } finally {
+                inCall.remove();
+            }
+            if (result instanceof Stream<?> stream) {
+                return stream.onClose(permit::ignore);
+            }
+            if (statementsCounted && QueryContext.statementCount() == statements) {
+                permit.ignore();
+            } else {
+                permit.success();
+            }
+            return result;
+        }
+
+        private ConcurrencyLimiter.Permit acquire() {
+            try {
+                ConcurrencyLimiter.Permit permit = RequestContextHolder.getRequestAttributes() != null
+                        ? limiter.getObject().acquire()
+                        : limiter.getObject().acquire(backgroundMaxWait);
+                if (permit != null) {
+                    return permit;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new DatabaseOverloadedException();
+        }
+    }
+
+    private static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof SQLTransientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,95 @@
+package org.nakhan.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-route meter holders keyed by a bounded {@code uri} tag value.
+ *
+ * The value is the handler's pattern ({@code /api/users/{id}}), never the raw path, so path
+ * variables do not create series. Requests no handler matched, or only the static resource
+ * catch-all {@code /**}, share the holders for {@code NOT_FOUND}, {@code REDIRECTION} or
+ * {@code UNKNOWN} (which includes requests Spring Security answered before routing), and once
+ * {@code maxRoutes} patterns have been seen further ones share {@code OTHER}.
+ *
+ * @param <T> the holder type
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class BoundedRoutes<T> {
+
+    /**
+     * Values of the {@code method} tag; methods outside the standard set are tagged {@code OTHER}.
+     */
+    static final String[] METHODS = {"GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE", "OTHER"};
+
+    private static final String CATCH_ALL = "/**";
+
+    private final int maxRoutes;
+    private final Function<String, T> factory;
+    private final Map<String, T> routes = new ConcurrentHashMap<>();
+    private final T notFound;
+    private final T redirection;
+    private final T unknown;
+    private final T other;
+
+    /**
+     * @param maxRoutes the number of distinct patterns to track
+     * @param factory creates the holder for a {@code uri} tag value
+     */
+    BoundedRoutes(int maxRoutes, Function<String, T> factory) {
+        this.maxRoutes = maxRoutes;
+        this.factory = factory;
+        this.notFound = factory.apply("NOT_FOUND");
+        this.redirection = factory.apply("REDIRECTION");
+        this.unknown = factory.apply("UNKNOWN");
+        this.other = factory.apply("OTHER");
+    }
+
+    /**
+     * Find the holder for a request once the handler has run.
+     *
+     * @param request the request
+     * @param status the response status
+     * @return the holder for the request's route
+     */
+    T forRequest(HttpServletRequest request, int status) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null || CATCH_ALL.equals(pattern)) {
+            if (status == HttpServletResponse.SC_NOT_FOUND) {
+                return notFound;
+            }
+            return status >= 300 && status < 400 ? redirection : unknown;
+        }
+        T route = routes.get(pattern);
+        if (route != null) {
+            return route;
+        }
+        if (routes.size() >= maxRoutes) {
+            return other;
+        }
+        return routes.computeIfAbsent(pattern.toString(), factory);
+    }
+
+    /**
+     * @param method the request method
+     * @return the index of its tag value in {@link #METHODS}
+     */
+    static int methodIndex(String method) {
+        return switch (method) {
+            case "GET" -> 0;
+            case "HEAD" -> 1;
+            case "POST" -> 2;
+            case "PUT" -> 3;
+            case "PATCH" -> 4;
+            case "DELETE" -> 5;
+            case "OPTIONS" -> 6;
+            case "TRACE" -> 7;
+            default -> 8;
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package org.nakhan.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+/**
+ * Builds the request and service latency timers with the SLO buckets from
+ * {@code app.metrics.slo}, which the Prometheus endpoint publishes as cumulative
+ * {@code _bucket{le="..."}} series.
+ *
+ * Timers are built once per tag combination and cached by their callers, so recording a
+ * latency is a lookup and an update of existing counters.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+public class LatencyTimers {
+
+    private final MeterRegistry meterRegistry;
+    private final Duration[] serviceLevelObjectives;
+
+    @Autowired
+    public LatencyTimers(MeterRegistry meterRegistry,
+                         @Value("${app.metrics.slo:5ms,10ms,25ms,50ms,100ms,250ms,500ms,1s,2500ms,5s}")
+                         Duration[] serviceLevelObjectives) {
+        this.meterRegistry = meterRegistry;
+        this.serviceLevelObjectives = serviceLevelObjectives.clone();
+    }
+
+    /**
+     * Find or register a timer with the SLO buckets.
+     *
+     * @param name the meter name
+     * @param description the meter description
+     * @param tags the tags, as name/value pairs
+     * @return the timer
+     */
+    public Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+            .tags(Tags.of(tags))
+            .description(description)
+            .serviceLevelObjectives(serviceLevelObjectives)
+            .minimumExpectedValue(serviceLevelObjectives[0])
+            .maximumExpectedValue(serviceLevelObjectives[serviceLevelObjectives.length - 1])
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,189 @@
+package org.nakhan.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap bytes allocated and the CPU time used by each request with the JVM's
+ * per-thread counters, and aggregates them per route as {@code http.server.requests.allocation}
+ * (bytes) and {@code http.server.requests.cpu}, tagged with the method and route pattern as
+ * bounded by {@link BoundedRoutes}.
+ *
+ * Only the servlet threads are measured: the initial dispatch and, for async requests, the
+ * dispatch that writes the result. Work handed to other executors, such as password hashing,
+ * is not attributed to the request.
+ *
+ * With {@code app.request-cost.debug-header=true}, responses carry their own cost in
+ * {@code X-Request-Cost} and the costliest requests seen so far in {@code X-Request-Cost-Worst}.
+ * The response body is buffered for that, so the header is for debugging only.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@ConditionalOnProperty(prefix = "app.request-cost", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestCostFilter extends OncePerRequestFilter {
+
+    static final String COST_HEADER = "X-Request-Cost";
+    static final String WORST_HEADER = "X-Request-Cost-Worst";
+
+    private static final String COST_ATTRIBUTE = RequestCostFilter.class.getName() + ".COST";
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final boolean allocationSupported;
+    private final boolean cpuSupported;
+    private final MeterRegistry meterRegistry;
+    private final BoundedRoutes<RouteCosts> routes;
+    private final boolean debugHeader;
+    private final WorstRequests worst;
+
+    @Autowired
+    public RequestCostFilter(MeterRegistry meterRegistry,
+                             @Value("${app.metrics.max-routes:100}") int maxRoutes,
+                             @Value("${app.request-cost.debug-header:false}") boolean debugHeader,
+                             @Value("${app.request-cost.worst-size:5}") int worstSize) {
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (threads.isThreadAllocatedMemorySupported() && !threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        if (threads.isCurrentThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        this.allocationSupported = threads.isThreadAllocatedMemorySupported();
+        this.cpuSupported = threads.isCurrentThreadCpuTimeSupported();
+        this.meterRegistry = meterRegistry;
+        this.routes = new BoundedRoutes<>(maxRoutes, RouteCosts::new);
+        this.debugHeader = debugHeader;
+        this.worst = new WorstRequests(worstSize);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpServletResponse filteredResponse = response;
+        if (debugHeader && WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+            filteredResponse = new ContentCachingResponseWrapper(response);
+        }
+        long allocatedAtStart = allocatedBytes();
+        long cpuAtStart = cpuNanos();
+        try {
+            filterChain.doFilter(request, filteredResponse);
+        } finally {
+            long allocated = allocatedBytes() - allocatedAtStart;
+            long cpu = cpuNanos() - cpuAtStart;
+            RequestCost earlier = (RequestCost) request.getAttribute(COST_ATTRIBUTE);
+            if (earlier != null) {
+                allocated += earlier.allocatedBytes;
+                cpu += earlier.cpuNanos;
+            }
+            if (request.isAsyncStarted()) {
+                // Finished by the async dispatch, which adds its own share
+                request.setAttribute(COST_ATTRIBUTE, new RequestCost(allocated, cpu));
+            } else {
+                record(request, filteredResponse, allocated, cpu);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long allocated, long cpu)
+            throws IOException {
+        int method = BoundedRoutes.methodIndex(request.getMethod());
+        RouteCosts route = routes.forRequest(request, response.getStatus());
+        route.allocation(method).record(allocated);
+        route.cpu(method).record(cpu, TimeUnit.NANOSECONDS);
+        if (!debugHeader) {
+            return;
+        }
+        worst.offer(BoundedRoutes.METHODS[method] + " " + route.uri, allocated, cpu);
+        ContentCachingResponseWrapper buffered =
+            WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (buffered != null) {
+            if (!buffered.isCommitted()) {
+                buffered.setHeader(COST_HEADER, WorstRequests.format(allocated, cpu));
+                buffered.setHeader(WORST_HEADER, worst.toString());
+            }
+            buffered.copyBodyToResponse();
+        }
+    }
+
+    private long allocatedBytes() {
+        return allocationSupported ? threads.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private long cpuNanos() {
+        return cpuSupported ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Cost of the dispatches of an async request so far.
+     */
+    private record RequestCost(long allocatedBytes, long cpuNanos) {
+    }
+
+    /**
+     * Meters of one route, one per method, created on first use. Creating one twice is harmless
+     * because the registry returns the same meter for the same tags.
+     */
+    private final class RouteCosts {
+
+        private final String uri;
+        private final DistributionSummary[] allocations = new DistributionSummary[BoundedRoutes.METHODS.length];
+        private final Timer[] cpuTimers = new Timer[BoundedRoutes.METHODS.length];
+
+        RouteCosts(String uri) {
+            this.uri = uri;
+        }
+
+        DistributionSummary allocation(int method) {
+            DistributionSummary summary = allocations[method];
+            if (summary == null) {
+                summary = DistributionSummary.builder("http.server.requests.allocation")
+                    .tag("method", BoundedRoutes.METHODS[method])
+                    .tag("uri", uri)
+                    .baseUnit("bytes")
+                    .description("Heap bytes allocated by the request's servlet threads")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+                allocations[method] = summary;
+            }
+            return summary;
+        }
+
+        Timer cpu(int method) {
+            Timer timer = cpuTimers[method];
+            if (timer == null) {
+                timer = Timer.builder("http.server.requests.cpu")
+                    .tag("method", BoundedRoutes.METHODS[method])
+                    .tag("uri", uri)
+                    .description("CPU time used by the request's servlet threads")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+                cpuTimers[method] = timer;
+            }
+            return timer;
+        }
+    }
+}
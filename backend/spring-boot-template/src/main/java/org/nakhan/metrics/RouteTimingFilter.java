@@ -0,0 +1,158 @@
+package org.nakhan.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every HTTP request as {@code http.server.requests}, tagged with the method, the
+ * matched route pattern, the response status and its outcome class, with the SLO buckets from
+ * {@link LatencyTimers}.
+ *
+ * Route tags are bounded as described in {@link BoundedRoutes}.
+ *
+ * Timers are cached per route in arrays indexed by method and status, so a request that hits
+ * a combination seen before records without allocating. Async requests are recorded when the
+ * async cycle completes.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RouteTimingFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "http.server.requests";
+
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 599;
+
+    private final LatencyTimers timers;
+    private final BoundedRoutes<RouteTimers> routes;
+
+    @Autowired
+    public RouteTimingFilter(LatencyTimers timers, @Value("${app.metrics.max-routes:100}") int maxRoutes) {
+        this.timers = timers;
+        this.routes = new BoundedRoutes<>(maxRoutes, RouteTimers::new);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, startedAt));
+            } else {
+                record(request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(),
+                        System.nanoTime() - startedAt);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, int status, long elapsedNanos) {
+        routes.forRequest(request, status).timer(BoundedRoutes.methodIndex(request.getMethod()), status)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String outcome(int status) {
+        if (status < 200) {
+            return "INFORMATIONAL";
+        }
+        if (status < 300) {
+            return "SUCCESS";
+        }
+        if (status < 400) {
+            return "REDIRECTION";
+        }
+        if (status < 500) {
+            return "CLIENT_ERROR";
+        }
+        return status <= MAX_STATUS ? "SERVER_ERROR" : "UNKNOWN";
+    }
+
+    /**
+     * Timers of one route, filled in as method and status combinations occur. Filling a slot
+     * twice is harmless because the registry returns the same timer for the same tags.
+     */
+    private final class RouteTimers {
+
+        private final String uri;
+        private final Timer[][] byMethodAndStatus = new Timer[BoundedRoutes.METHODS.length][];
+
+        RouteTimers(String uri) {
+            this.uri = uri;
+        }
+
+        Timer timer(int method, int status) {
+            if (status < MIN_STATUS || status > MAX_STATUS) {
+                return build(method, status);
+            }
+            Timer[] byStatus = byMethodAndStatus[method];
+            if (byStatus == null) {
+                byStatus = new Timer[MAX_STATUS - MIN_STATUS + 1];
+                byMethodAndStatus[method] = byStatus;
+            }
+            Timer timer = byStatus[status - MIN_STATUS];
+            if (timer == null) {
+                timer = build(method, status);
+                byStatus[status - MIN_STATUS] = timer;
+            }
+            return timer;
+        }
+
+        private Timer build(int method, int status) {
+            return timers.timer(METRIC, "HTTP request latency per route",
+                    "method", BoundedRoutes.METHODS[method], "uri", uri, "status", String.valueOf(status), "outcome", outcome(status));
+        }
+    }
+
+    /**
+     * Records an async request once its response is complete, including after a timeout or error.
+     */
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long startedAt;
+
+        CompletionListener(HttpServletRequest request, HttpServletResponse response, long startedAt) {
+            this.request = request;
+            this.response = response;
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, response.getStatus(), System.nanoTime() - startedAt);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
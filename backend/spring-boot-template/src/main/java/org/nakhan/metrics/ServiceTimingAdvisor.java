@@ -0,0 +1,88 @@
+package org.nakhan.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advises the public methods of {@link TimedService} beans with a timer per method and outcome
+ * ({@code success} or {@code failure}), with the SLO buckets from {@link LatencyTimers}.
+ *
+ * The advisor runs outside the transaction advisor, so the time includes the commit. Methods
+ * returning a {@link CompletableFuture} are timed until the future completes, and their outcome
+ * is the future's; the caller still gets the original future. The two timers of a method are resolved on its first call and then read
+ * from a map keyed by {@link Method}, so a synchronous call records without allocating.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+public class ServiceTimingAdvisor extends StaticMethodMatcherPointcutAdvisor {
+
+    static final String METRIC = "service.method";
+
+    private static final int SUCCESS = 0;
+    private static final int FAILURE = 1;
+
+    private final ObjectProvider<LatencyTimers> timers;
+    private final Map<Method, Timer[]> methodTimers = new ConcurrentHashMap<>();
+
+    public ServiceTimingAdvisor(ObjectProvider<LatencyTimers> timers) {
+        this.timers = timers;
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+        setAdvice((MethodInterceptor) this::invoke);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return AnnotatedElementUtils.hasAnnotation(targetClass, TimedService.class)
+            && method.getDeclaringClass() == targetClass
+            && Modifier.isPublic(method.getModifiers());
+    }
+
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        Timer[] outcomes = timersFor(invocation.getMethod());
+        long startedAt = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            outcomes[FAILURE].record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        if (result instanceof CompletableFuture<?> future && !future.isDone()) {
+            future.whenComplete((value, failure) -> outcomes[failure == null ? SUCCESS : FAILURE]
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS));
+            return result;
+        }
+        boolean failed = result instanceof CompletableFuture<?> future && future.isCompletedExceptionally();
+        outcomes[failed ? FAILURE : SUCCESS].record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private Timer[] timersFor(Method method) {
+        Timer[] existing = methodTimers.get(method);
+        if (existing != null) {
+            return existing;
+        }
+        return methodTimers.computeIfAbsent(method, key -> {
+            LatencyTimers latencyTimers = timers.getObject();
+            String className = key.getDeclaringClass().getSimpleName();
+            return new Timer[] {
+                latencyTimers.timer(METRIC, "Service method latency", "class", className, "method", key.getName(), "outcome", "success"),
+                latencyTimers.timer(METRIC, "Service method latency", "class", className, "method", key.getName(), "outcome", "failure")
+            };
+        });
+    }
+}
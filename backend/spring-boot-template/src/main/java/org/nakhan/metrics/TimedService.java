@@ -0,0 +1,23 @@
+package org.nakhan.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Times every public method declared by the annotated bean class as {@code service.method},
+ * tagged with the class, the method and whether it succeeded, and records a JFR
+ * {@code org.nakhan.UserOperation} event per call while a recording has it enabled.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ * @see ServiceTimingAdvisor
+ * @see org.nakhan.jfr.UserOperationEventAdvisor
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TimedService {
+}
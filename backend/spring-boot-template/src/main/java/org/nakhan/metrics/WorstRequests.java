@@ -0,0 +1,71 @@
+package org.nakhan.metrics;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * The costliest requests seen so far, by allocated bytes.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class WorstRequests {
+
+    private final Entry[] entries;
+    private volatile long threshold;
+
+    WorstRequests(int size) {
+        this.entries = new Entry[Math.max(1, size)];
+    }
+
+    /**
+     * Keep a request if it allocated more than the cheapest one kept.
+     */
+    void offer(String route, long allocatedBytes, long cpuNanos) {
+        if (allocatedBytes <= threshold) {
+            return;
+        }
+        synchronized (this) {
+            int cheapest = 0;
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i] == null) {
+                    cheapest = i;
+                    break;
+                }
+                if (entries[i].allocatedBytes < entries[cheapest].allocatedBytes) {
+                    cheapest = i;
+                }
+            }
+            if (entries[cheapest] != null && entries[cheapest].allocatedBytes >= allocatedBytes) {
+                return;
+            }
+            entries[cheapest] = new Entry(route, allocatedBytes, cpuNanos);
+            long minimum = Long.MAX_VALUE;
+            for (Entry entry : entries) {
+                minimum = Math.min(minimum, entry == null ? 0 : entry.allocatedBytes);
+            }
+            threshold = minimum;
+        }
+    }
+
+    /**
+     * The kept requests, costliest first: {@code GET /api/users bytes=123456;cpu-us=789, ...}.
+     */
+    @Override
+    public synchronized String toString() {
+        return Arrays.stream(entries)
+            .filter(entry -> entry != null)
+            .sorted(Comparator.comparingLong(Entry::allocatedBytes).reversed())
+            .map(entry -> entry.route + " " + format(entry.allocatedBytes, entry.cpuNanos))
+            .collect(Collectors.joining(", "));
+    }
+
+    static String format(long allocatedBytes, long cpuNanos) {
+        return String.format(Locale.ROOT, "bytes=%d;cpu-us=%d", allocatedBytes, cpuNanos / 1000);
+    }
+
+    private record Entry(String route, long allocatedBytes, long cpuNanos) {
+    }
+}
@@ -0,0 +1,30 @@
+package org.nakhan.mutation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The mailboxes of {@link SerializedMutation} user changes, configured by
+ * {@code app.user-mutations.*}. A merged batch runs in one transaction.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.user-mutations", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MutationMailboxConfiguration {
+
+    @Bean
+    public MutationMailboxes userMutationMailboxes(PlatformTransactionManager transactionManager,
+                                                   MeterRegistry meterRegistry,
+                                                   @Value("${app.user-mutations.max-batch:32}") int maxBatch) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return new MutationMailboxes("user", maxBatch, batch -> transaction.executeWithoutResult(status -> batch.run()),
+                meterRegistry);
+    }
+}
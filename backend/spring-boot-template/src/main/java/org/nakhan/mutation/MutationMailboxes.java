@@ -0,0 +1,272 @@
+package org.nakhan.mutation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A mailbox per key that runs the mutations of one key one at a time, while mutations of
+ * different keys run in parallel. Mailboxes exist only while a mutation of their key is pending.
+ *
+ * Mutations that queue up behind each other are merged: whichever caller gets the mailbox next
+ * runs all pending mutations of the key, up to {@code maxBatch}, in one {@link BatchScope}, such
+ * as one transaction, and hands every caller its own result. The database then sees one row lock
+ * and one update per batch instead of one per mutation waiting on the previous one's lock. If the
+ * batch fails, its mutations are run again one by one, so a failing mutation fails only its own
+ * caller. A batch of one runs outside the scope.
+ *
+ * Mutations may therefore run on another caller's thread and more than once, and must not depend
+ * on thread-bound state such as the security context. A mutation must not submit another key.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class MutationMailboxes {
+
+    private final int maxBatch;
+    private final BatchScope batchScope;
+    private final ConcurrentMap<Object, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Counter contended;
+    private final Counter retried;
+    private final DistributionSummary batchSize;
+
+    /**
+     * @param name the mailbox name, used as the {@code mailbox} tag
+     * @param maxBatch the most mutations merged into one batch
+     * @param batchScope runs a batch of several mutations together
+     * @param meterRegistry where the contention metrics are registered
+     */
+    public MutationMailboxes(String name, int maxBatch, BatchScope batchScope, MeterRegistry meterRegistry) {
+        this.maxBatch = maxBatch;
+        this.batchScope = batchScope;
+        this.waitTimer = Timer.builder("mutation.mailbox.wait")
+            .tag("mailbox", name)
+            .description("Time mutations waited for their key's mailbox")
+            .register(meterRegistry);
+        this.contended = Counter.builder("mutation.mailbox.contended")
+            .tag("mailbox", name)
+            .description("Mutations that found their key's mailbox busy")
+            .register(meterRegistry);
+        this.retried = Counter.builder("mutation.mailbox.retried")
+            .tag("mailbox", name)
+            .description("Mutations run again on their own after their batch failed")
+            .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("mutation.mailbox.batch")
+            .tag("mailbox", name)
+            .description("Mutations merged into one batch")
+            .register(meterRegistry);
+        Gauge.builder("mutation.mailbox.queued", queued, AtomicInteger::get)
+            .tag("mailbox", name)
+            .description("Mutations waiting to run")
+            .register(meterRegistry);
+        Gauge.builder("mutation.mailbox.keys", mailboxes, ConcurrentMap::size)
+            .tag("mailbox", name)
+            .description("Keys with a pending mutation")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Run a mutation after the earlier mutations of its key, possibly merged with others.
+     *
+     * @param key the key, such as a user id
+     * @param mutation the mutation
+     * @return the mutation's result
+     * @throws Throwable what the mutation threw
+     */
+    public <T> T submit(Object key, Mutation<T> mutation) throws Throwable {
+        Pending<T> pending = new Pending<>(mutation);
+        Mailbox mailbox = mailboxes.compute(key, (k, existing) -> {
+            Mailbox enlisted = existing == null ? new Mailbox() : existing;
+            enlisted.users++;
+            return enlisted;
+        });
+        try {
+            if (enqueue(mailbox, pending)) {
+                combine(mailbox, pending);
+            }
+        } finally {
+            mailboxes.compute(key, (k, existing) -> --existing.users == 0 ? null : existing);
+        }
+        return pending.result();
+    }
+
+    /**
+     * Queue a mutation and wait until it is done or no one is running the key's mutations.
+     *
+     * @return whether the caller is now the one to run them
+     */
+    private boolean enqueue(Mailbox mailbox, Pending<?> pending) {
+        long start = System.nanoTime();
+        boolean waited = false;
+        boolean interrupted = false;
+        try {
+            synchronized (mailbox) {
+                mailbox.queue.add(pending);
+                queued.incrementAndGet();
+                while (mailbox.combining && !pending.done) {
+                    waited = true;
+                    try {
+                        mailbox.wait();
+                    } catch (InterruptedException e) {
+                        // the mutation is queued and may already be running, so wait it out
+                        interrupted = true;
+                    }
+                }
+                if (pending.done) {
+                    return false;
+                }
+                mailbox.combining = true;
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (waited) {
+                contended.increment();
+            }
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Run batches of the key's pending mutations until the caller's own is done.
+     */
+    private void combine(Mailbox mailbox, Pending<?> pending) {
+        try {
+            while (!pending.done) {
+                List<Pending<?>> batch = new ArrayList<>();
+                synchronized (mailbox) {
+                    while (batch.size() < maxBatch && !mailbox.queue.isEmpty()) {
+                        batch.add(mailbox.queue.poll());
+                    }
+                }
+                queued.addAndGet(-batch.size());
+                run(batch);
+                synchronized (mailbox) {
+                    for (Pending<?> done : batch) {
+                        done.done = true;
+                    }
+                    mailbox.notifyAll();
+                }
+            }
+        } finally {
+            synchronized (mailbox) {
+                mailbox.combining = false;
+                mailbox.notifyAll();
+            }
+        }
+    }
+
+    private void run(List<Pending<?>> batch) {
+        batchSize.record(batch.size());
+        if (batch.size() == 1) {
+            batch.get(0).runAlone();
+            return;
+        }
+        try {
+            batchScope.run(() -> {
+                for (Pending<?> pending : batch) {
+                    pending.runInBatch();
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            for (Pending<?> pending : batch) {
+                retried.increment();
+                pending.runAlone();
+            }
+        }
+    }
+
+    /**
+     * A mutation of one key.
+     */
+    @FunctionalInterface
+    public interface Mutation<T> {
+
+        T run() throws Throwable;
+    }
+
+    /**
+     * Runs a batch of mutations together, such as in one transaction. It must not commit any of
+     * them if the batch throws.
+     */
+    @FunctionalInterface
+    public interface BatchScope {
+
+        void run(Runnable batch);
+    }
+
+    /**
+     * The pending mutations of a key. {@code users} is guarded by the map entry, the rest by the
+     * mailbox's monitor.
+     */
+    private static final class Mailbox {
+
+        final ArrayDeque<Pending<?>> queue = new ArrayDeque<>();
+        boolean combining;
+        int users;
+    }
+
+    /**
+     * A submitted mutation and its outcome. The outcome is written before {@code done} is set
+     * under the mailbox's monitor, and read after {@code done} is seen there.
+     */
+    private static final class Pending<T> {
+
+        final Mutation<T> mutation;
+        boolean done;
+        T result;
+        Throwable failure;
+
+        Pending(Mutation<T> mutation) {
+            this.mutation = mutation;
+        }
+
+        void runInBatch() {
+            try {
+                result = mutation.run();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new BatchAbortedException(e);
+            }
+        }
+
+        void runAlone() {
+            try {
+                result = mutation.run();
+                failure = null;
+            } catch (Throwable e) {
+                result = null;
+                failure = e;
+            }
+        }
+
+        T result() throws Throwable {
+            if (failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+    }
+
+    private static final class BatchAbortedException extends RuntimeException {
+
+        BatchAbortedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
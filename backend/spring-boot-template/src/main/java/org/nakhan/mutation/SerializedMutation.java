@@ -0,0 +1,21 @@
+package org.nakhan.mutation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that changes one entity, identified by its first argument. Calls for
+ * the same entity are run one at a time in a {@link MutationMailboxes} mailbox, and merged into
+ * one transaction when they queue up; see {@link SerializedMutationAdvisor}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SerializedMutation {
+}
@@ -0,0 +1,55 @@
+package org.nakhan.mutation;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.lang.reflect.Method;
+
+/**
+ * Runs {@link SerializedMutation} methods through the {@code userMutationMailboxes}, keyed by
+ * their first argument.
+ *
+ * The advisor is ordered before the transaction advisor, so a call waits for its mailbox before
+ * its transaction begins and holds the mailbox until the transaction commits, covering the time
+ * the database holds the row lock. A merged batch runs each call's own transactional invocation
+ * inside one surrounding transaction. Calls already in a transaction, or with a {@code null}
+ * key, run directly.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.user-mutations", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SerializedMutationAdvisor extends StaticMethodMatcherPointcutAdvisor {
+
+    private final ObjectProvider<MutationMailboxes> mailboxes;
+
+    public SerializedMutationAdvisor(ObjectProvider<MutationMailboxes> mailboxes) {
+        this.mailboxes = mailboxes;
+        setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        setAdvice((MethodInterceptor) this::invoke);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return method.getParameterCount() > 0
+            && AnnotatedElementUtils.hasAnnotation(method, SerializedMutation.class);
+    }
+
+    private Object invoke(MethodInvocation invocation) throws Throwable {
+        Object key = invocation.getArguments()[0];
+        if (key == null || TransactionSynchronizationManager.isActualTransactionActive()
+                || !(invocation instanceof ProxyMethodInvocation proxyInvocation)) {
+            return invocation.proceed();
+        }
+        // a clone per run, since a mutation is run again on its own when its batch fails
+        return mailboxes.getObject().submit(key, () -> proxyInvocation.invocableClone().proceed());
+    }
+}
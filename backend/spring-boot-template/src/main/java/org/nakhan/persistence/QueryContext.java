@@ -0,0 +1,80 @@
+package org.nakhan.persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-thread context attached to JDBC statements: the repository method currently executing
+ * and, inside an HTTP request, how often each normalized statement ran.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class QueryContext {
+
+    static final String NO_REPOSITORY_METHOD = "none";
+
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+    private static final ThreadLocal<Map<String, int[]>> REQUEST_COUNTS = new ThreadLocal<>();
+    private static final ThreadLocal<long[]> STATEMENT_COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private QueryContext() {
+    }
+
+    /**
+     * Mark the start of a repository call.
+     *
+     * @param method name such as {@code UserRepository.findByEmail}
+     * @return the previous value, to be passed to {@link #restoreRepositoryMethod(String)}
+     */
+    public static String enterRepositoryMethod(String method) {
+        String previous = REPOSITORY_METHOD.get();
+        // keep the outermost repository method when repositories call each other
+        if (previous == null) {
+            REPOSITORY_METHOD.set(method);
+        }
+        return previous;
+    }
+
+    public static void restoreRepositoryMethod(String previous) {
+        if (previous == null) {
+            REPOSITORY_METHOD.remove();
+        }
+    }
+
+    public static String currentRepositoryMethod() {
+        String method = REPOSITORY_METHOD.get();
+        return method == null ? NO_REPOSITORY_METHOD : method;
+    }
+
+    /**
+     * Statements the current thread has run so far, counted while query statistics are enabled.
+     * The difference across a call tells whether it reached the database.
+     *
+     * @return the running count
+     */
+    public static long statementCount() {
+        return STATEMENT_COUNT.get()[0];
+    }
+
+    static void countStatement() {
+        STATEMENT_COUNT.get()[0]++;
+    }
+
+    static void beginRequest() {
+        REQUEST_COUNTS.set(new HashMap<>());
+    }
+
+    static Map<String, int[]> endRequest() {
+        Map<String, int[]> counts = REQUEST_COUNTS.get();
+        REQUEST_COUNTS.remove();
+        return counts;
+    }
+
+    static void countInRequest(String statementKey) {
+        Map<String, int[]> counts = REQUEST_COUNTS.get();
+        if (counts != null) {
+            counts.computeIfAbsent(statementKey, key -> new int[1])[0]++;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.nakhan.persistence;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+
+/**
+ * Wraps every {@link DataSource} bean in a datasource-proxy that reports to {@link QueryStatsRegistry}.
+ *
+ * Only statements are intercepted by default, so select statements report no rows. With
+ * {@code app.query-stats.count-select-rows=true} result sets are proxied as well to count the
+ * rows read, which puts a listener call on every {@code ResultSet} method; turn it on while
+ * investigating, not in production.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.query-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<QueryStatsRegistry> registry;
+    private final boolean countSelectRows;
+
+    public QueryStatsDataSourcePostProcessor(ObjectProvider<QueryStatsRegistry> registry,
+                                             @Value("${app.query-stats.count-select-rows:false}") boolean countSelectRows) {
+        this.registry = registry;
+        this.countSelectRows = countSelectRows;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        QueryStatsListener listener = new QueryStatsListener(registry.getObject());
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .listener(listener);
+        if (countSelectRows) {
+            builder.proxyResultSet().methodListener(listener);
+        }
+        return builder.build();
+    }
+}
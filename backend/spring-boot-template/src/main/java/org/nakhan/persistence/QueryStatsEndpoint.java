@@ -0,0 +1,35 @@
+package org.nakhan.persistence;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for per-statement latency and rows, the slow query log and N+1 suspects
+ * ({@code GET /actuator/queries}); {@code DELETE} resets all statistics.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueryStatsEndpoint {
+
+    private final QueryStatsRegistry registry;
+
+    public QueryStatsEndpoint(QueryStatsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> queries() {
+        return registry.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        registry.reset();
+    }
+}
@@ -0,0 +1,127 @@
+package org.nakhan.persistence;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * datasource-proxy listener feeding {@link QueryStatsRegistry}.
+ *
+ * Statement latency is measured around execution. Rows are the update count for writes; for
+ * queries they are counted from {@code ResultSet.next()} calls and attributed to the statement
+ * when its result set is closed or the thread runs its next statement.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class QueryStatsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String START_NANOS = "queryStats.startNanos";
+
+    private final QueryStatsRegistry registry;
+    private final ThreadLocal<PendingRows> pendingRows = ThreadLocal.withInitial(PendingRows::new);
+
+    public QueryStatsListener(QueryStatsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        pendingRows.get().flush();
+        QueryContext.countStatement();
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        StatementStats stats = registry.statsFor(queryInfoList.get(0).getQuery(), QueryContext.currentRepositoryMethod());
+        registry.recordExecution(stats, elapsed, execInfo.isSuccess(), () -> parameterShape(queryInfoList));
+        QueryContext.countInRequest(stats.getSql());
+
+        Object result = execInfo.getResult();
+        if (result instanceof Integer count) {
+            stats.addRows(Math.max(0, count));
+        } else if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(0, count);
+            }
+            stats.addRows(total);
+        } else if (result instanceof ResultSet) {
+            pendingRows.get().stats = stats;
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof ResultSet)) {
+            return;
+        }
+        String method = executionContext.getMethod().getName();
+        if ("next".equals(method)) {
+            if (Boolean.TRUE.equals(executionContext.getResult())) {
+                pendingRows.get().rows++;
+            }
+        } else if ("close".equals(method)) {
+            pendingRows.get().flush();
+        }
+    }
+
+    private static List<String> parameterShape(List<QueryInfo> queryInfoList) {
+        List<List<ParameterSetOperation>> parameters = queryInfoList.get(0).getParametersList();
+        if (parameters.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ParameterSetOperation> operations = new ArrayList<>(parameters.get(0));
+        operations.sort((a, b) -> Integer.compare(index(a), index(b)));
+        List<String> shape = new ArrayList<>(operations.size());
+        for (ParameterSetOperation operation : operations) {
+            Object[] args = operation.getArgs();
+            if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+                shape.add("null");
+            } else if (args.length > 1 && args[1] != null) {
+                shape.add(args[1].getClass().getSimpleName());
+            } else {
+                shape.add(operation.getMethod().getName());
+            }
+        }
+        return shape;
+    }
+
+    private static int index(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        return args.length > 0 && args[0] instanceof Integer position ? position : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Rows read so far from the current thread's open result set.
+     */
+    private static final class PendingRows {
+        StatementStats stats;
+        long rows;
+
+        void flush() {
+            if (stats != null) {
+                stats.addRows(rows);
+            }
+            stats = null;
+            rows = 0;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.nakhan.persistence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-memory statistics for every normalized SQL statement, keyed by the repository method that
+ * issued it, plus a top-N slow query log and N+1 suspects detected per HTTP request.
+ *
+ * Recording is lock-free for known statements: two map lookups, adders and a concurrent
+ * histogram. Latency also goes to the {@code db.statement} timer, tagged only by statement type
+ * and repository method to keep metric cardinality bounded.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+public class QueryStatsRegistry {
+
+    private static final String OVERFLOW_SQL = "(other statements)";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlNormalizer normalizer = new SqlNormalizer();
+    private final Map<String, Map<String, StatementStats>> statements = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, NPlusOneSuspect> nPlusOneSuspects = new ConcurrentHashMap<>();
+    private final AtomicInteger statementCount = new AtomicInteger();
+    private final SlowQueryLog slowQueryLog;
+    private final int maxStatements;
+    private final int nPlusOneThreshold;
+
+    @Autowired
+    public QueryStatsRegistry(MeterRegistry meterRegistry,
+                              @Value("${app.query-stats.max-statements:500}") int maxStatements,
+                              @Value("${app.query-stats.slow-log-size:20}") int slowLogSize,
+                              @Value("${app.query-stats.slow-threshold-ms:50}") long slowThresholdMillis,
+                              @Value("${app.query-stats.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.slowQueryLog = new SlowQueryLog(slowLogSize, TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis));
+    }
+
+    /**
+     * Find or create the statistics bucket for a statement.
+     *
+     * @param rawSql SQL as sent to the driver
+     * @param repositoryMethod repository method issuing it
+     * @return the bucket to record into
+     */
+    StatementStats statsFor(String rawSql, String repositoryMethod) {
+        String sql = normalizer.normalize(rawSql);
+        Map<String, StatementStats> byMethod = statements.get(sql);
+        StatementStats stats = byMethod == null ? null : byMethod.get(repositoryMethod);
+        if (stats != null) {
+            return stats;
+        }
+        if (statementCount.get() >= maxStatements) {
+            sql = OVERFLOW_SQL;
+        }
+        String type = SqlNormalizer.statementType(sql);
+        String key = sql;
+        return statements.computeIfAbsent(sql, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(repositoryMethod, method -> {
+                    statementCount.incrementAndGet();
+                    return new StatementStats(key, type, method, timerFor(type, method));
+                });
+    }
+
+    void recordExecution(StatementStats stats, long elapsedNanos, boolean success,
+                         Supplier<List<String>> parameterShape) {
+        stats.record(elapsedNanos, success);
+        if (slowQueryLog.admits(elapsedNanos)) {
+            slowQueryLog.offer(new SlowQueryLog.Entry(stats.getSql(), stats.getRepositoryMethod(),
+                    parameterShape.get(), elapsedNanos));
+        }
+    }
+
+    /**
+     * Flag SELECT statements that ran at least the configured number of times in one request.
+     *
+     * @param route request method and matched route pattern
+     * @param counts executions per normalized statement during the request
+     */
+    void recordRequest(String route, Map<String, int[]> counts) {
+        if (counts == null) {
+            return;
+        }
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            int count = entry.getValue()[0];
+            if (count >= nPlusOneThreshold && "select".equals(SqlNormalizer.statementType(entry.getKey()))) {
+                nPlusOneSuspects.computeIfAbsent(route + '\u0000' + entry.getKey(),
+                        key -> new NPlusOneSuspect(route, entry.getKey())).record(count);
+            }
+        }
+    }
+
+    /**
+     * Everything recorded so far, heaviest statements first.
+     *
+     * @return statements, slow queries and N+1 suspects
+     */
+    public Map<String, Object> snapshot() {
+        List<StatementStats> all = new ArrayList<>();
+        statements.values().forEach(byMethod -> all.addAll(byMethod.values()));
+        all.sort(Comparator.comparingLong(StatementStats::getTotalNanos).reversed());
+
+        List<Map<String, Object>> statementSnapshots = new ArrayList<>(all.size());
+        all.forEach(stats -> statementSnapshots.add(stats.snapshot()));
+        List<Map<String, Object>> suspects = new ArrayList<>();
+        nPlusOneSuspects.values().forEach(suspect -> suspects.add(suspect.snapshot()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("statements", statementSnapshots);
+        snapshot.put("slowQueries", slowQueryLog.snapshot());
+        snapshot.put("nPlusOneSuspects", suspects);
+        return snapshot;
+    }
+
+    public void reset() {
+        statements.clear();
+        statementCount.set(0);
+        nPlusOneSuspects.clear();
+        slowQueryLog.clear();
+    }
+
+    private Timer timerFor(String type, String repositoryMethod) {
+        return timers.computeIfAbsent(type + ':' + repositoryMethod, key -> Timer.builder("db.statement")
+                .description("JDBC statement execution time")
+                .tag("type", type)
+                .tag("repository.method", repositoryMethod)
+                .register(meterRegistry));
+    }
+
+    /**
+     * A statement that repeatedly ran many times within a single request.
+     */
+    private static final class NPlusOneSuspect {
+        private final String route;
+        private final String sql;
+        private final LongAdder requests = new LongAdder();
+        private volatile int maxPerRequest;
+        private volatile Instant lastSeen;
+
+        NPlusOneSuspect(String route, String sql) {
+            this.route = route;
+            this.sql = sql;
+        }
+
+        void record(int count) {
+            requests.increment();
+            maxPerRequest = Math.max(maxPerRequest, count);
+            lastSeen = Instant.now();
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("route", route);
+            snapshot.put("sql", sql);
+            snapshot.put("requests", requests.sum());
+            snapshot.put("maxExecutionsPerRequest", maxPerRequest);
+            snapshot.put("lastSeen", String.valueOf(lastSeen));
+            return snapshot;
+        }
+    }
+}
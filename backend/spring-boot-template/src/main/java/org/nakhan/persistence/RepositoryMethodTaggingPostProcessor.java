@@ -0,0 +1,55 @@
+package org.nakhan.persistence;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adds an interceptor to every Spring Data repository that records the executing repository
+ * method in {@link QueryContext}, so JDBC statements can be attributed to it.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+public class RepositoryMethodTaggingPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                            new TaggingInterceptor(repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    /**
+     * Sets the repository method for the duration of the call; names are cached per method.
+     */
+    private static final class TaggingInterceptor implements MethodInterceptor {
+
+        private final String repositoryName;
+        private final Map<Method, String> names = new ConcurrentHashMap<>();
+
+        TaggingInterceptor(String repositoryName) {
+            this.repositoryName = repositoryName;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            String name = names.computeIfAbsent(invocation.getMethod(), method -> repositoryName + "." + method.getName());
+            String previous = QueryContext.enterRepositoryMethod(name);
+            try {
+                return invocation.proceed();
+            } finally {
+                QueryContext.restoreRepositoryMethod(previous);
+            }
+        }
+    }
+}
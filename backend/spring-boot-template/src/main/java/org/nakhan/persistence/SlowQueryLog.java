@@ -0,0 +1,89 @@
+package org.nakhan.persistence;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the N slowest statement executions seen since the last reset.
+ * Only bind-parameter types are kept, never values, so the log is safe to expose.
+ *
+ * Executions faster than the current N-th entry are rejected with a single volatile read, so the
+ * common case adds no synchronization.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class SlowQueryLog {
+
+    /**
+     * One logged execution.
+     */
+    static final class Entry {
+        final String sql;
+        final String repositoryMethod;
+        final List<String> parameterShape;
+        final long elapsedNanos;
+        final Instant at;
+
+        Entry(String sql, String repositoryMethod, List<String> parameterShape, long elapsedNanos) {
+            this.sql = sql;
+            this.repositoryMethod = repositoryMethod;
+            this.parameterShape = parameterShape;
+            this.elapsedNanos = elapsedNanos;
+            this.at = Instant.now();
+        }
+    }
+
+    private final int capacity;
+    private final long thresholdNanos;
+    private final List<Entry> entries = new ArrayList<>();
+    private volatile long admissionNanos;
+
+    SlowQueryLog(int capacity, long thresholdNanos) {
+        this.capacity = capacity;
+        this.thresholdNanos = thresholdNanos;
+        this.admissionNanos = thresholdNanos;
+    }
+
+    boolean admits(long elapsedNanos) {
+        return elapsedNanos >= admissionNanos;
+    }
+
+    synchronized void offer(Entry entry) {
+        if (entry.elapsedNanos < admissionNanos) {
+            return;
+        }
+        entries.add(entry);
+        entries.sort(Comparator.comparingLong((Entry e) -> e.elapsedNanos).reversed());
+        if (entries.size() > capacity) {
+            entries.remove(entries.size() - 1);
+        }
+        if (entries.size() == capacity) {
+            admissionNanos = Math.max(thresholdNanos, entries.get(capacity - 1).elapsedNanos);
+        }
+    }
+
+    synchronized List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> result = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("sql", entry.sql);
+            item.put("repositoryMethod", entry.repositoryMethod);
+            item.put("parameterTypes", entry.parameterShape);
+            item.put("elapsedMillis", TimeUnit.NANOSECONDS.toMicros(entry.elapsedNanos) / 1000.0);
+            item.put("at", entry.at.toString());
+            result.add(item);
+        }
+        return result;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        admissionNanos = thresholdNanos;
+    }
+}
@@ -0,0 +1,100 @@
+package org.nakhan.persistence;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces SQL text to a statement shape: literals become {@code ?}, whitespace collapses and
+ * {@code IN} lists fold to a single placeholder, so the same query with different values or list
+ * sizes aggregates under one key. Results are memoized because ORM-generated SQL repeats verbatim.
+ * The memo is a concurrent map, so a repeated statement is looked up without a lock. Once it holds
+ * more than {@value #MAX_CACHED} statements, one caller evicts the least recently used down to
+ * {@value #EVICT_TO}, so statements that embed literals cannot crowd out the ones that repeat.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class SqlNormalizer {
+
+    private static final int MAX_CACHED = 2048;
+    private static final int EVICT_TO = MAX_CACHED * 3 / 4;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private final ConcurrentHashMap<String, Cached> cache = new ConcurrentHashMap<>();
+    // advances on every miss only, so hits on a warm cache find their stamp current and write nothing
+    private final AtomicLong clock = new AtomicLong();
+    private final ReentrantLock evicting = new ReentrantLock();
+
+    String normalize(String sql) {
+        long now = clock.get();
+        Cached cached = cache.get(sql);
+        if (cached != null) {
+            if (cached.lastUsed != now) {
+                cached.lastUsed = now;
+            }
+            return cached.normalized;
+        }
+        String normalized = doNormalize(sql);
+        cache.putIfAbsent(sql, new Cached(normalized, clock.incrementAndGet()));
+        if (cache.size() > MAX_CACHED && evicting.tryLock()) {
+            try {
+                evictLeastRecentlyUsed();
+            } finally {
+                evicting.unlock();
+            }
+        }
+        return normalized;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        long[] stamps = cache.values().stream().mapToLong(cached -> cached.lastUsed).toArray();
+        if (stamps.length <= EVICT_TO) {
+            return;
+        }
+        Arrays.sort(stamps);
+        long oldestKept = stamps[stamps.length - EVICT_TO];
+        cache.values().removeIf(cached -> cached.lastUsed < oldestKept);
+    }
+
+    static String statementType(String normalizedSql) {
+        int end = normalizedSql.indexOf(' ');
+        String keyword = (end < 0 ? normalizedSql : normalizedSql.substring(0, end)).toLowerCase(Locale.ROOT);
+        switch (keyword) {
+            case "select":
+            case "with":
+                return "select";
+            case "insert":
+            case "update":
+            case "delete":
+            case "merge":
+                return keyword;
+            default:
+                return "other";
+        }
+    }
+
+    private static String doNormalize(String sql) {
+        String result = STRING_LITERAL.matcher(sql).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        result = WHITESPACE.matcher(result).replaceAll(" ").trim();
+        return IN_LIST.matcher(result).replaceAll("in (?...)");
+    }
+
+    private static final class Cached {
+
+        final String normalized;
+        volatile long lastUsed;
+
+        Cached(String normalized, long lastUsed) {
+            this.normalized = normalized;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.nakhan.persistence;
+
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated latency and row counts for one normalized statement issued by one repository method.
+ * The latency histogram is recorded in microseconds with two significant digits.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class StatementStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final String sql;
+    private final String type;
+    private final String repositoryMethod;
+    private final Timer timer;
+    private final Histogram latencyMicros = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 2);
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    StatementStats(String sql, String type, String repositoryMethod, Timer timer) {
+        this.sql = sql;
+        this.type = type;
+        this.repositoryMethod = repositoryMethod;
+        this.timer = timer;
+    }
+
+    void record(long elapsedNanos, boolean success) {
+        executions.increment();
+        totalNanos.add(elapsedNanos);
+        if (!success) {
+            errors.increment();
+        }
+        latencyMicros.recordValue(Math.min(MAX_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void addRows(long count) {
+        rows.add(count);
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    String getType() {
+        return type;
+    }
+
+    String getRepositoryMethod() {
+        return repositoryMethod;
+    }
+
+    long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    Map<String, Object> snapshot() {
+        long count = executions.sum();
+        Histogram copy = latencyMicros.copy();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("sql", sql);
+        snapshot.put("type", type);
+        snapshot.put("repositoryMethod", repositoryMethod);
+        snapshot.put("executions", count);
+        snapshot.put("errors", errors.sum());
+        snapshot.put("rows", rows.sum());
+        snapshot.put("rowsPerExecution", count == 0 ? 0.0 : (double) rows.sum() / count);
+        snapshot.put("totalMillis", TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()));
+        snapshot.put("p50Micros", copy.getValueAtPercentile(50));
+        snapshot.put("p95Micros", copy.getValueAtPercentile(95));
+        snapshot.put("p99Micros", copy.getValueAtPercentile(99));
+        snapshot.put("maxMicros", copy.getMaxValue());
+        return snapshot;
+    }
+}
@@ -0,0 +1,24 @@
+package org.nakhan.repository;
+
+import org.nakhan.entity.ArchivedUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+/**
+ * Repository interface for archived users in {@code users_archive}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Repository
+public interface ArchivedUserRepository extends JpaRepository<ArchivedUser, Long> {
+
+    Optional<ArchivedUser> findByUsername(String username);
+
+    Optional<ArchivedUser> findByEmail(String email);
+
+    boolean existsByUsername(String username);
+
+    boolean existsByEmail(String email);
+}
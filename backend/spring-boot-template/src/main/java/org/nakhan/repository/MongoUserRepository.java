@@ -0,0 +1,615 @@
+package org.nakhan.repository;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.CollationStrength;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.nakhan.dto.UserSummary;
+import org.nakhan.entity.User;
+import org.nakhan.id.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Filters.regex;
+import static com.mongodb.client.model.Indexes.ascending;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+
+/**
+ * {@link UserRepository} backed by the MongoDB {@code users} collection from
+ * {@code database/mongo/init-scripts/01-init.js}, active with the {@code mongo} profile.
+ *
+ * Documents use the user's Snowflake id as {@code _id} and the entity's property names as field
+ * names. Existence checks and the active-user page only read fields held in an index, so MongoDB
+ * answers them from the index without fetching documents. Lists are read through a cursor in
+ * batches of {@code app.user-store.mongo.fetch-size}, and batch writes go out as one unordered
+ * {@code bulkWrite}. Query-by-example is not supported. MongoDB keeps all users in the one
+ * collection, so the archive lookups always come back empty.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Repository
+@Primary
+@Profile("mongo")
+public class MongoUserRepository implements UserRepository {
+
+    static final String COLLECTION = "users";
+
+    private static final Collation CASE_INSENSITIVE = Collation.builder()
+            .locale("en")
+            .collationStrength(CollationStrength.SECONDARY)
+            .build();
+
+    // Every field of a UserSummary, in the order of the covering index
+    private static final Bson SUMMARY_FIELDS = fields(include("_id", "username", "email", "firstName", "lastName"));
+
+    private final MongoTemplate mongoTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+    private final int fetchSize;
+
+    @Autowired
+    public MongoUserRepository(MongoTemplate mongoTemplate,
+                               SnowflakeIdGenerator idGenerator,
+                               @Value("${app.user-store.mongo.fetch-size:1000}") int fetchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.idGenerator = idGenerator;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Create the indexes the queries rely on. Existing indexes with the same definition, such as
+     * those from the init script, are left as they are.
+     */
+    @PostConstruct
+    public void ensureIndexes() {
+        mongoTemplate.execute(COLLECTION, users -> users.createIndexes(List.of(
+                new IndexModel(ascending("username"), new IndexOptions().unique(true)),
+                new IndexModel(ascending("email"), new IndexOptions().unique(true)),
+                new IndexModel(ascending("active")),
+                new IndexModel(ascending("active", "_id"), new IndexOptions().name("active_id")),
+                new IndexModel(ascending("createdAt")),
+                new IndexModel(ascending("username"), new IndexOptions().name("username_ci").collation(CASE_INSENSITIVE)),
+                new IndexModel(ascending("email"), new IndexOptions().name("email_ci").collation(CASE_INSENSITIVE)),
+                new IndexModel(ascending("active", "username", "email", "firstName", "lastName", "_id"),
+                        new IndexOptions().name("active_username_summary")))));
+    }
+
+    // Queries
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return id == null ? Optional.empty() : findOne(eq("_id", id), null);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return findOne(eq("username", username), null);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return findOne(eq("email", email), null);
+    }
+
+    @Override
+    public Optional<User> findByEmailIgnoreCase(String email) {
+        return findOne(eq("email", email), CASE_INSENSITIVE);
+    }
+
+    @Override
+    public Optional<User> findByUsernameIgnoreCase(String username) {
+        return findOne(eq("username", username), CASE_INSENSITIVE);
+    }
+
+    @Override
+    public List<UserSummary> findActiveSummariesAfter(String after, Limit limit) {
+        return mongoTemplate.execute(COLLECTION, users -> {
+            FindIterable<Document> page = users.find(and(eq("active", true), gt("username", after)))
+                    .projection(SUMMARY_FIELDS)
+                    .sort(ascending("username"));
+            if (limit.isLimited()) {
+                page.limit(limit.max());
+            }
+            List<UserSummary> summaries = new ArrayList<>();
+            for (Document document : page) {
+                summaries.add(new MongoUserSummary(document));
+            }
+            return summaries;
+        });
+    }
+
+    @Override
+    public List<User> findByActive(Boolean active) {
+        return findList(eq("active", active), null, null);
+    }
+
+    @Override
+    public List<User> findByFirstNameContainingIgnoreCase(String firstName) {
+        return findList(regex("firstName", Pattern.quote(firstName), "i"), null, null);
+    }
+
+    @Override
+    public List<User> findByUsernameOrEmail(String username, String email) {
+        return findList(or(eq("username", username), eq("email", email)), null, null);
+    }
+
+    @Override
+    public List<User> findByUsernameIn(Collection<String> usernames) {
+        return findList(in("username", usernames), null, null);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return exists(eq("username", username), "username");
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return exists(eq("email", email), "email");
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return id != null && exists(eq("_id", id), "_id");
+    }
+
+    @Override
+    public long countByActive(Boolean active) {
+        return mongoTemplate.execute(COLLECTION, users -> users.countDocuments(eq("active", active),
+                new CountOptions().hint(ascending("active"))));
+    }
+
+    @Override
+    public List<Long> findActiveIdsAfter(Long after, Limit limit) {
+        return mongoTemplate.execute(COLLECTION, users -> {
+            FindIterable<Document> page = users.find(and(eq("active", true), gt("_id", after)))
+                    .projection(include("_id"))
+                    .sort(ascending("_id"))
+                    .hint(ascending("active", "_id"));
+            if (limit.isLimited()) {
+                page.limit(limit.max());
+            }
+            List<Long> ids = new ArrayList<>();
+            for (Document document : page) {
+                ids.add(document.getLong("_id"));
+            }
+            return ids;
+        });
+    }
+
+    @Override
+    public Stream<Long> streamIdsByActive(Boolean active) {
+        MongoCursor<Document> cursor = mongoTemplate.execute(COLLECTION, users -> users.find(eq("active", active))
+                .projection(include("_id"))
+                .hint(ascending("active", "_id"))
+                .batchSize(fetchSize)
+                .cursor());
+        Spliterator<Document> documents = Spliterators.spliteratorUnknownSize(cursor,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(documents, false).map(document -> document.getLong("_id")).onClose(cursor::close);
+    }
+
+    @Override
+    public long count() {
+        return mongoTemplate.execute(COLLECTION, MongoCollection::estimatedDocumentCount);
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        MongoCursor<Document> cursor = mongoTemplate.execute(COLLECTION,
+                users -> users.find().batchSize(fetchSize).cursor());
+        Spliterator<Document> documents = Spliterators.spliteratorUnknownSize(cursor,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(documents, false).map(MongoUserRepository::toUser).onClose(cursor::close);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return findList(new Document(), null, null);
+    }
+
+    @Override
+    public List<User> findAll(Sort sort) {
+        return findList(new Document(), toSort(sort), null);
+    }
+
+    @Override
+    public Page<User> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(pageable.getSort()));
+        }
+        List<User> content = findList(new Document(), toSort(pageable.getSort()), pageable);
+        return new PageImpl<>(content, pageable, count());
+    }
+
+    @Override
+    public List<User> findAllById(Iterable<Long> ids) {
+        return findList(in("_id", ids), null, null);
+    }
+
+    // Writes
+
+    @Override
+    public <S extends User> S save(S user) {
+        WriteModel<Document> write = toWrite(user);
+        mongoTemplate.execute(COLLECTION, users -> {
+            if (write instanceof InsertOneModel<Document> insert) {
+                users.insertOne(insert.getDocument());
+            } else {
+                ReplaceOneModel<Document> replace = (ReplaceOneModel<Document>) write;
+                users.replaceOne(replace.getFilter(), replace.getReplacement(), replace.getReplaceOptions());
+            }
+            return null;
+        });
+        return user;
+    }
+
+    @Override
+    public <S extends User> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        for (S user : entities) {
+            writes.add(toWrite(user));
+            saved.add(user);
+        }
+        if (!writes.isEmpty()) {
+            mongoTemplate.execute(COLLECTION, users -> users.bulkWrite(writes, new BulkWriteOptions().ordered(false)));
+        }
+        return saved;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        mongoTemplate.execute(COLLECTION, users -> users.deleteOne(eq("_id", id)));
+    }
+
+    @Override
+    public void delete(User user) {
+        deleteById(user.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        mongoTemplate.execute(COLLECTION, users -> users.deleteMany(in("_id", ids)));
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends User> entities) {
+        List<Long> ids = new ArrayList<>();
+        entities.forEach(user -> ids.add(user.getId()));
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAll() {
+        mongoTemplate.execute(COLLECTION, users -> users.deleteMany(new Document()));
+    }
+
+    // JPA specifics: writes are not deferred, so flushing has nothing to do
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public <S extends User> S saveAndFlush(S user) {
+        return save(user);
+    }
+
+    @Override
+    public <S extends User> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<User> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    public User getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
+    }
+
+    @Override
+    @Deprecated
+    public User getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public User getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    // Archive: MongoDB keeps every user in the users collection
+
+    @Override
+    public Optional<User> findArchivedById(Long id) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<User> findArchivedByUsername(String username) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<User> findArchivedByEmail(String email) {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean existsArchivedByUsername(String username) {
+        return false;
+    }
+
+    @Override
+    public boolean existsArchivedByEmail(String email) {
+        return false;
+    }
+
+    @Override
+    public boolean restoreArchived(Long id) {
+        return false;
+    }
+
+    @Override
+    public boolean deleteArchived(Long id) {
+        return false;
+    }
+
+    // Query by example
+
+    @Override
+    public <S extends User> Optional<S> findOne(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends User> List<S> findAll(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends User> List<S> findAll(Example<S> example, Sort sort) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends User> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends User> long count(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends User> boolean exists(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends User, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw queryByExampleNotSupported();
+    }
+
+    private static UnsupportedOperationException queryByExampleNotSupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the MongoDB user store");
+    }
+
+    // Helpers
+
+    private Optional<User> findOne(Bson filter, Collation collation) {
+        return mongoTemplate.execute(COLLECTION, users -> {
+            FindIterable<Document> found = users.find(filter).limit(1);
+            if (collation != null) {
+                found.collation(collation);
+            }
+            return Optional.ofNullable(found.first()).map(MongoUserRepository::toUser);
+        });
+    }
+
+    private List<User> findList(Bson filter, Bson sort, Pageable pageable) {
+        return mongoTemplate.execute(COLLECTION, users -> {
+            FindIterable<Document> found = users.find(filter).batchSize(fetchSize);
+            if (sort != null) {
+                found.sort(sort);
+            }
+            if (pageable != null) {
+                found.skip((int) pageable.getOffset()).limit(pageable.getPageSize());
+            }
+            List<User> result = new ArrayList<>();
+            try (MongoCursor<Document> cursor = found.cursor()) {
+                cursor.forEachRemaining(document -> result.add(toUser(document)));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Check for a match reading only the indexed field, so the query is covered by its index.
+     */
+    private boolean exists(Bson filter, String indexedField) {
+        Bson projection = "_id".equals(indexedField) ? include("_id") : fields(include(indexedField), new Document("_id", 0));
+        return mongoTemplate.execute(COLLECTION, users -> users.find(filter).projection(projection).limit(1).first() != null);
+    }
+
+    private static Bson toSort(Sort sort) {
+        if (sort.isUnsorted()) {
+            return null;
+        }
+        Document order = new Document();
+        sort.forEach(o -> order.append("id".equals(o.getProperty()) ? "_id" : o.getProperty(), o.isAscending() ? 1 : -1));
+        return order;
+    }
+
+    /**
+     * Prepare the write for a user, assigning the id and timestamps the JPA store would.
+     */
+    private WriteModel<Document> toWrite(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        if (user.getCreatedAt() == null) {
+            user.setCreatedAt(now);
+        }
+        if (user.getId() == null) {
+            user.setId(idGenerator.nextId());
+            user.setUpdatedAt(user.getUpdatedAt() == null ? now : user.getUpdatedAt());
+            return new InsertOneModel<>(toDocument(user));
+        }
+        user.setUpdatedAt(now);
+        return new ReplaceOneModel<>(eq("_id", user.getId()), toDocument(user), new ReplaceOptions().upsert(true));
+    }
+
+    /**
+     * Map a user to its document. Unset fields are left out, as the collection validator
+     * rejects {@code null} for typed fields.
+     */
+    static Document toDocument(User user) {
+        Document document = new Document("_id", user.getId())
+                .append("username", user.getUsername())
+                .append("email", user.getEmail())
+                .append("password", user.getPassword());
+        appendIfSet(document, "firstName", user.getFirstName());
+        appendIfSet(document, "lastName", user.getLastName());
+        appendIfSet(document, "active", user.getActive());
+        appendIfSet(document, "createdAt", toDate(user.getCreatedAt()));
+        appendIfSet(document, "updatedAt", toDate(user.getUpdatedAt()));
+        return document;
+    }
+
+    static User toUser(Document document) {
+        User user = new User();
+        user.setId(toId(document.get("_id")));
+        user.setUsername(document.getString("username"));
+        user.setEmail(document.getString("email"));
+        user.setPassword(document.getString("password"));
+        user.setFirstName(document.getString("firstName"));
+        user.setLastName(document.getString("lastName"));
+        user.setActive(document.getBoolean("active"));
+        user.setCreatedAt(toLocalDateTime(document.getDate("createdAt")));
+        user.setUpdatedAt(toLocalDateTime(document.getDate("updatedAt")));
+        return user;
+    }
+
+    private static Long toId(Object id) {
+        if (id instanceof Number number) {
+            return number.longValue();
+        }
+        throw new IllegalStateException("User document has a non-numeric _id: " + id);
+    }
+
+    private static void appendIfSet(Document document, String field, Object value) {
+        if (value != null) {
+            document.append(field, value);
+        }
+    }
+
+    private static Date toDate(LocalDateTime value) {
+        return value == null ? null : Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static LocalDateTime toLocalDateTime(Date value) {
+        return value == null ? null : LocalDateTime.ofInstant(value.toInstant(), ZoneId.systemDefault());
+    }
+
+    /**
+     * A {@link UserSummary} read from the covering index.
+     */
+    private static final class MongoUserSummary implements UserSummary {
+        private final Long id;
+        private final String username;
+        private final String email;
+        private final String firstName;
+        private final String lastName;
+
+        MongoUserSummary(Document document) {
+            this.id = toId(document.get("_id"));
+            this.username = document.getString("username");
+            this.email = document.getString("email");
+            this.firstName = document.getString("firstName");
+            this.lastName = document.getString("lastName");
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public String getFirstName() {
+            return firstName;
+        }
+
+        @Override
+        public String getLastName() {
+            return lastName;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.nakhan.repository;
+
+import org.nakhan.entity.User;
+import java.util.Optional;
+
+/**
+ * Repository fragment giving {@link UserRepository} access to users moved to the archive table.
+ * Implemented by {@link UserArchiveRepositoryImpl} and mixed into {@link UserRepository}.
+ *
+ * Archived users are returned as detached {@link User} copies; call {@link #restoreArchived(Long)}
+ * before changing one.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public interface UserArchiveRepository {
+
+    Optional<User> findArchivedById(Long id);
+
+    Optional<User> findArchivedByUsername(String username);
+
+    Optional<User> findArchivedByEmail(String email);
+
+    boolean existsArchivedByUsername(String username);
+
+    boolean existsArchivedByEmail(String email);
+
+    /**
+     * Move an archived user back to the users table.
+     *
+     * @param id the user ID
+     * @return true if the user was archived and has been restored
+     */
+    boolean restoreArchived(Long id);
+
+    /**
+     * Permanently delete an archived user.
+     *
+     * @param id the user ID
+     * @return true if an archived user was deleted
+     */
+    boolean deleteArchived(Long id);
+}
@@ -0,0 +1,85 @@
+package org.nakhan.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.nakhan.entity.ArchivedUser;
+import org.nakhan.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Optional;
+
+/**
+ * Archive lookups and moves between {@code users_archive} and {@code users}.
+ *
+ * Moves are native statements synchronized on the entity whose table they change, so Hibernate
+ * invalidates only that entity's query cache spaces instead of every cache region.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class UserArchiveRepositoryImpl implements UserArchiveRepository {
+
+    private static final String COLUMNS = "id, username, email, password, first_name, last_name, is_active, created_at, updated_at";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ArchivedUserRepository archivedUserRepository;
+
+    @Autowired
+    public UserArchiveRepositoryImpl(ArchivedUserRepository archivedUserRepository) {
+        this.archivedUserRepository = archivedUserRepository;
+    }
+
+    @Override
+    public Optional<User> findArchivedById(Long id) {
+        return id == null ? Optional.empty() : archivedUserRepository.findById(id).map(ArchivedUser::toUser);
+    }
+
+    @Override
+    public Optional<User> findArchivedByUsername(String username) {
+        return archivedUserRepository.findByUsername(username).map(ArchivedUser::toUser);
+    }
+
+    @Override
+    public Optional<User> findArchivedByEmail(String email) {
+        return archivedUserRepository.findByEmail(email).map(ArchivedUser::toUser);
+    }
+
+    @Override
+    public boolean existsArchivedByUsername(String username) {
+        return archivedUserRepository.existsByUsername(username);
+    }
+
+    @Override
+    public boolean existsArchivedByEmail(String email) {
+        return archivedUserRepository.existsByEmail(email);
+    }
+
+    @Override
+    @Transactional
+    public boolean restoreArchived(Long id) {
+        int restored = nativeUpdate(User.class, "INSERT INTO users (" + COLUMNS + ") SELECT " + COLUMNS
+                + " FROM users_archive WHERE id = ?1", id);
+        if (restored == 0) {
+            return false;
+        }
+        nativeUpdate(ArchivedUser.class, "DELETE FROM users_archive WHERE id = ?1", id);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteArchived(Long id) {
+        return nativeUpdate(ArchivedUser.class, "DELETE FROM users_archive WHERE id = ?1", id) > 0;
+    }
+
+    private int nativeUpdate(Class<?> entityClass, String sql, Long id) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(entityClass)
+                .setParameter(1, id)
+                .executeUpdate();
+    }
+}
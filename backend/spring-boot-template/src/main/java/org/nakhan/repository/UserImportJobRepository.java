@@ -0,0 +1,32 @@
+package org.nakhan.repository;
+
+import org.nakhan.entity.UserImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for user import jobs.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Repository
+public interface UserImportJobRepository extends JpaRepository<UserImportJob, Long> {
+
+    /**
+     * Find jobs in the given states, oldest first.
+     *
+     * @param statuses the job states
+     * @return matching jobs in creation order
+     */
+    List<UserImportJob> findByStatusInOrderByCreatedAtAsc(Collection<UserImportJob.Status> statuses);
+
+    /**
+     * Find the most recently created jobs.
+     *
+     * @return up to 20 jobs, newest first
+     */
+    List<UserImportJob> findTop20ByOrderByCreatedAtDesc();
+}
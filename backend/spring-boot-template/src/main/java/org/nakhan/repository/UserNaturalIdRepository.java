@@ -0,0 +1,23 @@
+package org.nakhan.repository;
+
+import org.nakhan.entity.User;
+import java.util.Optional;
+
+/**
+ * Repository fragment for lookups by the {@code username} natural id.
+ * Implemented by {@link UserNaturalIdRepositoryImpl} and mixed into {@link UserRepository}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public interface UserNaturalIdRepository {
+
+    /**
+     * Find a user by username through the natural-id API, served from the natural-id and
+     * second-level caches when the user has been loaded before.
+     *
+     * @param username the username to search for
+     * @return Optional containing the user if found
+     */
+    Optional<User> findByUsername(String username);
+}
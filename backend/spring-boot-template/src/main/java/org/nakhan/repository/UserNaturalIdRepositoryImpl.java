@@ -0,0 +1,35 @@
+package org.nakhan.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.nakhan.entity.User;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Optional;
+
+/**
+ * Natural-id lookups using Hibernate's {@code bySimpleNaturalId} API.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Runs in a read-only transaction so that callers outside one do not unwrap a session
+     * that the shared {@code EntityManager} has already closed.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -1,12 +1,19 @@
 package org.nakhan.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.nakhan.dto.UserSummary;
 import org.nakhan.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for User entity operations.
@@ -16,23 +23,48 @@ import java.util.Optional;
  * @version 1.0.0
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository, UserArchiveRepository {
 
     /**
-     * Find a user by username.
+     * Find a user by email address. Email is not the natural id (Hibernate allows one per
+     * entity), so the query is cacheable instead: the query cache keeps the matching id and
+     * the entity itself comes from the second-level cache.
      *
-     * @param username the username to search for
+     * @param email the email to search for
      * @return Optional containing the user if found
      */
-    Optional<User> findByUsername(String username);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<User> findByEmail(String email);
 
     /**
-     * Find a user by email address.
+     * Find a user by email address, ignoring case. Served by the {@code lower(email)} index.
      *
      * @param email the email to search for
      * @return Optional containing the user if found
      */
-    Optional<User> findByEmail(String email);
+    @Query("SELECT u FROM User u WHERE lower(u.email) = lower(:email)")
+    Optional<User> findByEmailIgnoreCase(@Param("email") String email);
+
+    /**
+     * Find a user by username, ignoring case. Served by the {@code lower(username)} index.
+     *
+     * @param username the username to search for
+     * @return Optional containing the user if found
+     */
+    @Query("SELECT u FROM User u WHERE lower(u.username) = lower(:username)")
+    Optional<User> findByUsernameIgnoreCase(@Param("username") String username);
+
+    /**
+     * Page through active users in username order with keyset pagination.
+     * Served by the partial covering index {@code idx_users_active_username}.
+     *
+     * @param after the last username of the previous page, or an empty string for the first page
+     * @param limit the page size
+     * @return the next page of active users
+     */
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.firstName AS firstName, "
+            + "u.lastName AS lastName FROM User u WHERE u.active = true AND u.username > :after ORDER BY u.username")
+    List<UserSummary> findActiveSummariesAfter(@Param("after") String after, Limit limit);
 
     /**
      * Find users by active status.
@@ -50,6 +82,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     List<User> findByFirstNameContainingIgnoreCase(String firstName);
 
+    /**
+     * Find the users with any of the given usernames in one {@code IN} query. Loading them puts
+     * both the entities and their username resolutions in the second-level cache.
+     *
+     * @param usernames the usernames to search for
+     * @return the matching users, in no particular order
+     */
+    List<User> findByUsernameIn(Collection<String> usernames);
+
     /**
      * Check if username exists.
      *
@@ -83,4 +124,42 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return number of users with the specified active status
      */
     long countByActive(Boolean active);
+
+    /**
+     * Page through active user ids in ascending order with keyset pagination.
+     *
+     * @param after the last id of the previous page
+     * @param limit the page size
+     * @return the next page of active user ids
+     */
+    @Query("SELECT u.id FROM User u WHERE u.active = true AND u.id > :after ORDER BY u.id")
+    List<Long> findActiveIdsAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Stream the ids of all users with the given status with a server-side cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     *
+     * @param active the active status
+     * @return stream over the matching user ids
+     */
+    @Query("SELECT u.id FROM User u WHERE u.active = :active")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Long> streamIdsByActive(@Param("active") Boolean active);
+
+    /**
+     * Stream all users with a server-side cursor, for building in-memory structures.
+     * Must be consumed inside a transaction and closed by the caller; loaded entities
+     * should be detached as they are consumed to keep the persistence context small.
+     *
+     * @return stream over all users
+     */
+    @Query("SELECT u FROM User u")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAll();
 }
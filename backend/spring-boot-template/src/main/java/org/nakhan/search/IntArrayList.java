@@ -0,0 +1,42 @@
+package org.nakhan.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints used for posting lists.
+ * Avoids the boxing overhead of {@code List<Integer>} for millions of entries.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class IntArrayList {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] values = EMPTY;
+    private int size;
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(4, size + (size >> 1)));
+        }
+        values[size++] = value;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Number of bytes retained by this list, including its backing array.
+     *
+     * @return estimated retained size in bytes
+     */
+    long retainedBytes() {
+        return 32 + 16 + 4L * values.length;
+    }
+}
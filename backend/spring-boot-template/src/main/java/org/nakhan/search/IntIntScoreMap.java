@@ -0,0 +1,117 @@
+package org.nakhan.search;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from document id to score, used to accumulate matches for one query.
+ * Keys are non-negative ints; {@code -1} marks an empty slot.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class IntIntScoreMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    IntIntScoreMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2) - 1) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Store the score for the key unless a higher score is already present.
+     */
+    void putMax(int key, int value) {
+        int slot = slotOf(keys, key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+        } else if (values[slot] < value) {
+            values[slot] = value;
+        }
+    }
+
+    int get(int key) {
+        int slot = slotOf(keys, key);
+        return keys[slot] == EMPTY ? 0 : values[slot];
+    }
+
+    boolean containsKey(int key) {
+        return keys[slotOf(keys, key)] != EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Keep only keys present in both maps, summing their scores.
+     *
+     * @param other the scores of the next query token
+     * @return a new map with the intersection
+     */
+    IntIntScoreMap intersectSum(IntIntScoreMap other) {
+        IntIntScoreMap smaller = size <= other.size ? this : other;
+        IntIntScoreMap larger = smaller == this ? other : this;
+        IntIntScoreMap result = new IntIntScoreMap(smaller.size);
+        for (int i = 0; i < smaller.keys.length; i++) {
+            int key = smaller.keys[i];
+            if (key != EMPTY) {
+                int slot = slotOf(larger.keys, key);
+                if (larger.keys[slot] != EMPTY) {
+                    result.putMax(key, smaller.values[i] + larger.values[slot]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Raw access for iteration: slot keys, with {@code -1} for empty slots.
+     */
+    int[] keySlots() {
+        return keys;
+    }
+
+    int valueAt(int slot) {
+        return values[slot];
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slotOf(int[] keys, int key) {
+        int mask = keys.length - 1;
+        int h = key * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
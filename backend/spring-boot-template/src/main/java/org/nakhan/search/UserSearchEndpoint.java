@@ -0,0 +1,38 @@
+package org.nakhan.search;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing memory accounting for the user search index
+ * ({@code GET /actuator/usersearch}) and triggering a rebuild ({@code POST /actuator/usersearch}).
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.search.index", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Endpoint(id = "usersearch")
+public class UserSearchEndpoint {
+
+    private final UserSearchService userSearchService;
+
+    public UserSearchEndpoint(UserSearchService userSearchService) {
+        this.userSearchService = userSearchService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return userSearchService.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        boolean started = userSearchService.rebuildAsync().getNow(0) != -1;
+        return Map.of("rebuildStarted", started);
+    }
+}
@@ -0,0 +1,71 @@
+package org.nakhan.search;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+/**
+ * A single ranked result from the in-memory user search index.
+ * Carries the stored display fields so results can be rendered without a database round trip.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class UserSearchHit {
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final Boolean active;
+    private final int score;
+
+    public UserSearchHit(Long id, String username, String email, String firstName,
+                         String lastName, Boolean active, int score) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.active = active;
+        this.score = score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSearchHit{" +
+                "id=" + id +
+                ", username='" + username + '\'' +
+                ", score=" + score +
+                '}';
+    }
+}
@@ -0,0 +1,487 @@
+package org.nakhan.search;
+
+import org.nakhan.entity.User;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over user names and emails for typo-tolerant search-as-you-type.
+ *
+ * Every user is a document with a dense int id. Usernames, email addresses and first/last names
+ * are split into lower-case tokens; each distinct token is a term with a primitive int posting list.
+ * A sorted term dictionary answers prefix queries. Edit-distance-1 (including adjacent
+ * transposition) fuzzy queries are answered by a trigram index over the terms, and for queries too
+ * short for trigrams to find every such term, by a deletion neighbourhood of the short terms.
+ *
+ * Updates append a new document and mark the previous one deleted, so readers never observe a
+ * half-written document. Deleted documents are only reclaimed by building a fresh index.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class UserSearchIndex {
+
+    private static final int EXACT_SCORE = 4;
+    private static final int PREFIX_SCORE = 2;
+    private static final int FUZZY_SCORE = 1;
+    private static final int MAX_PREFIX_EXPANSIONS = 128;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int MAX_QUERY_TOKENS = 8;
+    // an edit or transposition touches at most four trigrams, so any five grams of a query
+    // of five or more characters contain at least one gram of every term within one edit
+    private static final int FUZZY_CANDIDATE_GRAMS = 5;
+    // a token has as many trigrams as characters; shorter ones can lose them all to one edit
+    // ("cot", "act" share no trigram with "cat") and look up the deletion neighbourhood instead,
+    // which holds the terms that can be within one edit of them
+    private static final int MAX_NEIGHBOURHOOD_QUERY_LENGTH = FUZZY_CANDIDATE_GRAMS - 1;
+    private static final int MIN_NEIGHBOURHOOD_TERM_LENGTH = MIN_FUZZY_LENGTH - 1;
+    private static final int MAX_NEIGHBOURHOOD_TERM_LENGTH = MAX_NEIGHBOURHOOD_QUERY_LENGTH + 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term dictionary
+    private final TreeMap<String, Integer> termIds = new TreeMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final List<IntArrayList> postings = new ArrayList<>();
+    private final Map<String, IntArrayList> trigramTerms = new HashMap<>();
+    // short terms by themselves and by each single-character deletion of them
+    private final Map<String, IntArrayList> deletionTerms = new HashMap<>();
+
+    // stored documents
+    private final LongIntHashMap docByUserId;
+    private final BitSet deletedDocs = new BitSet();
+    private long[] docUserIds;
+    private String[] docUsernames;
+    private String[] docEmails;
+    private String[] docFirstNames;
+    private String[] docLastNames;
+    private boolean[] docActive;
+    private int docCount;
+    private int liveDocCount;
+
+    public UserSearchIndex() {
+        this(1024);
+    }
+
+    public UserSearchIndex(int expectedUsers) {
+        int capacity = Math.max(16, expectedUsers);
+        docByUserId = new LongIntHashMap(capacity);
+        docUserIds = new long[capacity];
+        docUsernames = new String[capacity];
+        docEmails = new String[capacity];
+        docFirstNames = new String[capacity];
+        docLastNames = new String[capacity];
+        docActive = new boolean[capacity];
+    }
+
+    /**
+     * Add or replace the document for a user.
+     *
+     * @param user the user to index; must have an id
+     */
+    public void index(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(user.getUsername(), tokens);
+        tokenize(user.getEmail(), tokens);
+        tokenize(user.getFirstName(), tokens);
+        tokenize(user.getLastName(), tokens);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(user.getId());
+            int doc = appendDocument(user);
+            for (String token : tokens) {
+                postings.get(termIdFor(token)).add(doc);
+            }
+            docByUserId.put(user.getId(), doc);
+            liveDocCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the document for a user, if present.
+     *
+     * @param userId the user id
+     */
+    public void remove(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search users matching every token of the query. Each token matches terms exactly,
+     * by prefix or within one edit; results are ordered by score, then shorter usernames.
+     *
+     * @param query free-text query as typed by the user
+     * @param limit maximum number of hits
+     * @return ranked hits, best first
+     */
+    public List<UserSearchHit> search(String query, int limit) {
+        Set<String> queryTokens = new LinkedHashSet<>();
+        tokenize(query, queryTokens);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            IntIntScoreMap scores = null;
+            int tokenCount = 0;
+            for (String token : queryTokens) {
+                if (++tokenCount > MAX_QUERY_TOKENS) {
+                    break;
+                }
+                IntIntScoreMap tokenScores = scoreToken(token);
+                scores = scores == null ? tokenScores : scores.intersectSum(tokenScores);
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return topHits(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fraction of stored documents that are deleted and only waiting for a rebuild.
+     *
+     * @return deleted documents divided by all stored documents
+     */
+    public double deletedRatio() {
+        lock.readLock().lock();
+        try {
+            return docCount == 0 ? 0.0 : (double) (docCount - liveDocCount) / docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimate the heap retained by the index, broken down by component.
+     * Strings are estimated with compact (Latin-1) storage.
+     *
+     * @return map of component name to bytes, plus document and term counts
+     */
+    public Map<String, Long> memoryUsage() {
+        lock.readLock().lock();
+        try {
+            long postingBytes = 0;
+            long postingEntries = 0;
+            for (IntArrayList list : postings) {
+                postingBytes += list.retainedBytes();
+                postingEntries += list.size();
+            }
+            long termBytes = 0;
+            for (String term : terms) {
+                // TreeMap entry + boxed id + String header and bytes, referenced twice
+                termBytes += 40 + 16 + stringBytes(term) + 8;
+            }
+            long trigramBytes = 0;
+            for (Map.Entry<String, IntArrayList> entry : trigramTerms.entrySet()) {
+                trigramBytes += 32 + stringBytes(entry.getKey()) + entry.getValue().retainedBytes();
+            }
+            long deletionBytes = 0;
+            for (Map.Entry<String, IntArrayList> entry : deletionTerms.entrySet()) {
+                deletionBytes += 32 + stringBytes(entry.getKey()) + entry.getValue().retainedBytes();
+            }
+            // id map, tombstones, id/active arrays and the four string reference arrays
+            long storedBytes = docByUserId.retainedBytes() + deletedDocs.size() / 8
+                    + 8L * docUserIds.length + docActive.length + 4L * 4 * docUserIds.length;
+            for (int doc = 0; doc < docCount; doc++) {
+                storedBytes += stringBytes(docUsernames[doc]) + stringBytes(docEmails[doc])
+                        + stringBytes(docFirstNames[doc]) + stringBytes(docLastNames[doc]);
+            }
+
+            Map<String, Long> usage = new LinkedHashMap<>();
+            usage.put("documents", (long) liveDocCount);
+            usage.put("deletedDocuments", (long) (docCount - liveDocCount));
+            usage.put("terms", (long) terms.size());
+            usage.put("postings", postingEntries);
+            usage.put("postingBytes", postingBytes);
+            usage.put("termDictionaryBytes", termBytes);
+            usage.put("trigramBytes", trigramBytes);
+            usage.put("deletionNeighbourhoodBytes", deletionBytes);
+            usage.put("storedFieldBytes", storedBytes);
+            usage.put("totalBytes", postingBytes + termBytes + trigramBytes + deletionBytes + storedBytes);
+            return usage;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IntIntScoreMap scoreToken(String token) {
+        IntIntScoreMap tokenScores = new IntIntScoreMap(64);
+        Integer exact = termIds.get(token);
+        if (exact != null) {
+            addPostings(exact, EXACT_SCORE, tokenScores);
+        }
+        int expansions = 0;
+        for (Integer termId : termIds.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+            if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            addPostings(termId, PREFIX_SCORE, tokenScores);
+        }
+        if (token.length() >= MIN_FUZZY_LENGTH) {
+            for (int termId : fuzzyCandidates(token)) {
+                addPostings(termId, FUZZY_SCORE, tokenScores);
+            }
+        }
+        return tokenScores;
+    }
+
+    private void addPostings(int termId, int score, IntIntScoreMap target) {
+        IntArrayList list = postings.get(termId);
+        for (int i = 0; i < list.size(); i++) {
+            int doc = list.get(i);
+            if (!deletedDocs.get(doc)) {
+                target.putMax(doc, score);
+            }
+        }
+    }
+
+    private int[] fuzzyCandidates(String token) {
+        List<IntArrayList> gramLists = new ArrayList<>();
+        if (token.length() <= MAX_NEIGHBOURHOOD_QUERY_LENGTH) {
+            // terms within one edit share the token or one of its deletions as a key
+            for (String key : deletionKeys(token)) {
+                IntArrayList list = deletionTerms.get(key);
+                if (list != null) {
+                    gramLists.add(list);
+                }
+            }
+        } else {
+            for (String gram : trigrams(token)) {
+                IntArrayList list = trigramTerms.get(gram);
+                if (list != null) {
+                    gramLists.add(list);
+                }
+            }
+            gramLists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            gramLists = gramLists.subList(0, Math.min(gramLists.size(), FUZZY_CANDIDATE_GRAMS));
+        }
+
+        IntIntScoreMap seen = new IntIntScoreMap(32);
+        IntArrayList matches = new IntArrayList();
+        for (IntArrayList list : gramLists) {
+            for (int i = 0; i < list.size(); i++) {
+                int termId = list.get(i);
+                if (seen.containsKey(termId)) {
+                    continue;
+                }
+                seen.putMax(termId, 1);
+                String term = terms.get(termId);
+                if (!term.equals(token) && withinOneEdit(token, term)) {
+                    matches.add(termId);
+                }
+            }
+        }
+        int[] result = new int[matches.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = matches.get(i);
+        }
+        return result;
+    }
+
+    private List<UserSearchHit> topHits(IntIntScoreMap scores, int limit) {
+        int[] slots = scores.keySlots();
+        int[] bestDocs = new int[Math.min(limit, scores.size())];
+        int[] bestScores = new int[bestDocs.length];
+        int found = 0;
+        for (int slot = 0; slot < slots.length; slot++) {
+            int doc = slots[slot];
+            if (doc < 0) {
+                continue;
+            }
+            int score = scores.valueAt(slot);
+            if (found == bestDocs.length && !ranksBefore(doc, score, bestDocs[found - 1], bestScores[found - 1])) {
+                continue;
+            }
+            // insertion into the small sorted top-k window
+            int pos = found == bestDocs.length ? found - 1 : found++;
+            while (pos > 0 && ranksBefore(doc, score, bestDocs[pos - 1], bestScores[pos - 1])) {
+                bestDocs[pos] = bestDocs[pos - 1];
+                bestScores[pos] = bestScores[pos - 1];
+                pos--;
+            }
+            bestDocs[pos] = doc;
+            bestScores[pos] = score;
+        }
+
+        List<UserSearchHit> hits = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            int doc = bestDocs[i];
+            hits.add(new UserSearchHit(docUserIds[doc], docUsernames[doc], docEmails[doc],
+                    docFirstNames[doc], docLastNames[doc], docActive[doc], bestScores[i]));
+        }
+        return hits;
+    }
+
+    private boolean ranksBefore(int doc, int score, int otherDoc, int otherScore) {
+        if (score != otherScore) {
+            return score > otherScore;
+        }
+        int length = docUsernames[doc] == null ? 0 : docUsernames[doc].length();
+        int otherLength = docUsernames[otherDoc] == null ? 0 : docUsernames[otherDoc].length();
+        if (length != otherLength) {
+            return length < otherLength;
+        }
+        return docUserIds[doc] < docUserIds[otherDoc];
+    }
+
+    private void removeLocked(Long userId) {
+        int doc = docByUserId.remove(userId);
+        if (doc != LongIntHashMap.MISSING) {
+            deletedDocs.set(doc);
+            liveDocCount--;
+        }
+    }
+
+    private int appendDocument(User user) {
+        if (docCount == docUserIds.length) {
+            int capacity = docCount + (docCount >> 1);
+            docUserIds = Arrays.copyOf(docUserIds, capacity);
+            docUsernames = Arrays.copyOf(docUsernames, capacity);
+            docEmails = Arrays.copyOf(docEmails, capacity);
+            docFirstNames = Arrays.copyOf(docFirstNames, capacity);
+            docLastNames = Arrays.copyOf(docLastNames, capacity);
+            docActive = Arrays.copyOf(docActive, capacity);
+        }
+        int doc = docCount++;
+        docUserIds[doc] = user.getId();
+        docUsernames[doc] = user.getUsername();
+        docEmails[doc] = user.getEmail();
+        docFirstNames[doc] = user.getFirstName();
+        docLastNames[doc] = user.getLastName();
+        docActive[doc] = Boolean.TRUE.equals(user.getActive());
+        return doc;
+    }
+
+    private int termIdFor(String token) {
+        Integer existing = termIds.get(token);
+        if (existing != null) {
+            return existing;
+        }
+        int termId = terms.size();
+        terms.add(token);
+        postings.add(new IntArrayList());
+        termIds.put(token, termId);
+        for (String gram : trigrams(token)) {
+            trigramTerms.computeIfAbsent(gram, g -> new IntArrayList()).add(termId);
+        }
+        if (token.length() >= MIN_NEIGHBOURHOOD_TERM_LENGTH && token.length() <= MAX_NEIGHBOURHOOD_TERM_LENGTH) {
+            for (String key : deletionKeys(token)) {
+                deletionTerms.computeIfAbsent(key, k -> new IntArrayList()).add(termId);
+            }
+        }
+        return termId;
+    }
+
+    static void tokenize(String value, Set<String> target) {
+        if (value == null) {
+            return;
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                target.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+    }
+
+    private static List<String> trigrams(String term) {
+        String padded = "^" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * The term itself and every distinct string left by deleting one of its characters. Two terms
+     * within one edit, adjacent transpositions included, always share one of these keys.
+     */
+    private static Set<String> deletionKeys(String term) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(term);
+        for (int i = 0; i < term.length(); i++) {
+            keys.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return keys;
+    }
+
+    /**
+     * Damerau-Levenshtein distance of at most one: a single insertion, deletion,
+     * substitution or swap of adjacent characters.
+     */
+    static boolean withinOneEdit(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < la && i < lb && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i == la && i == lb) {
+            return true;
+        }
+        if (la == lb) {
+            if (a.regionMatches(i + 1, b, i + 1, la - i - 1)) {
+                return true;
+            }
+            return i + 1 < la
+                    && a.charAt(i) == b.charAt(i + 1)
+                    && a.charAt(i + 1) == b.charAt(i)
+                    && a.regionMatches(i + 2, b, i + 2, la - i - 2);
+        }
+        if (la > lb) {
+            return a.regionMatches(i + 1, b, i, lb - i);
+        }
+        return b.regionMatches(i + 1, a, i, la - i);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+}
@@ -0,0 +1,199 @@
+package org.nakhan.search;
+
+import jakarta.persistence.EntityManager;
+import org.nakhan.entity.User;
+import org.nakhan.event.UserChangedEvent;
+import org.nakhan.event.UsersImportedEvent;
+import org.nakhan.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Service owning the in-memory user search index.
+ *
+ * The index is built in the background once the application is ready by streaming the users
+ * table, and kept current from {@link UserChangedEvent}s after each transaction commits.
+ * Writes that arrive while a rebuild is streaming are replayed onto the new index before it
+ * replaces the live one, so a rebuild never loses updates.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.search.index", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchService.class);
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final double compactionThreshold;
+
+    private volatile UserSearchIndex index = new UserSearchIndex();
+    private volatile boolean ready;
+    private volatile long lastBuildMillis;
+    private List<UserChangedEvent> pendingDuringRebuild;
+
+    @Autowired
+    public UserSearchService(UserRepository userRepository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.search.index.compaction-threshold:0.3}") double compactionThreshold) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.compactionThreshold = compactionThreshold;
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-search-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Search the index. Returns an empty list until the first build has completed.
+     *
+     * @param query free-text query
+     * @param limit maximum number of hits
+     * @return ranked hits
+     */
+    public List<UserSearchHit> search(String query, int limit) {
+        if (!ready) {
+            return Collections.emptyList();
+        }
+        return index.search(query, limit);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Start a background rebuild unless one is already running.
+     *
+     * @return future completing with the number of indexed users, or {@code -1} if a rebuild was already running
+     */
+    public CompletableFuture<Integer> rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(-1);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return rebuild();
+            } finally {
+                rebuilding.set(false);
+            }
+        }, rebuildExecutor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildAsync().exceptionally(e -> {
+            log.error("Initial user search index build failed", e);
+            return -1;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        synchronized (this) {
+            apply(index, event);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+        }
+        if (ready && index.deletedRatio() > compactionThreshold) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Bulk imports write rows without per-user events, so reload the index from the table.
+     */
+    @EventListener
+    public void onUsersImported(UsersImportedEvent event) {
+        rebuildAsync();
+    }
+
+    /**
+     * Memory accounting and state of the live index.
+     *
+     * @return index statistics
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("rebuilding", rebuilding.get());
+        stats.put("lastBuildMillis", lastBuildMillis);
+        stats.put("deletedRatio", index.deletedRatio());
+        stats.put("memory", index.memoryUsage());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private int rebuild() {
+        long start = System.currentTimeMillis();
+        UserSearchIndex fresh = new UserSearchIndex((int) Math.min(Integer.MAX_VALUE - 8, userRepository.count()));
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<User> users = userRepository.streamAll()) {
+                    users.forEach(user -> {
+                        fresh.index(user);
+                        entityManager.detach(user);
+                    });
+                }
+            });
+            synchronized (this) {
+                pendingDuringRebuild.forEach(event -> apply(fresh, event));
+                index = fresh;
+            }
+        } finally {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+        }
+        ready = true;
+        lastBuildMillis = System.currentTimeMillis() - start;
+        log.info("User search index built with {} users in {} ms", fresh.size(), lastBuildMillis);
+        return fresh.size();
+    }
+
+    private static void apply(UserSearchIndex target, UserChangedEvent event) {
+        if (event.isRemoval()) {
+            target.remove(event.getUserId());
+        } else {
+            target.index(event.getUser());
+        }
+    }
+}
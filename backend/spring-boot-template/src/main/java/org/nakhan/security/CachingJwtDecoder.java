@@ -0,0 +1,111 @@
+package org.nakhan.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link JwtDecoder} that remembers tokens it has already verified until they expire, so a
+ * client repeating a token skips the signature check and claim validation.
+ *
+ * Entries are keyed by the SHA-256 of the token rather than the token itself. The cache holds at
+ * most {@code maxSize} entries: a queue keeps the keys in the order they were cached, and once
+ * the bound is passed the oldest are evicted, so a miss costs the same however full the cache is.
+ * Expired entries are dropped when looked up, or evicted in turn. Tokens without an expiry are
+ * never cached.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final int maxSize;
+    private final Clock clock;
+    private final Map<String, Jwt> verified = new ConcurrentHashMap<>();
+    // keys in the order they were cached; may still hold keys of entries dropped on expiry
+    private final Queue<String> cachedOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, Clock clock, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.hits = Counter.builder("security.jwt.cache")
+            .tag("result", "hit")
+            .description("Bearer token lookups in the verified-token cache")
+            .register(meterRegistry);
+        this.misses = Counter.builder("security.jwt.cache")
+            .tag("result", "miss")
+            .description("Bearer token lookups in the verified-token cache")
+            .register(meterRegistry);
+        Gauge.builder("security.jwt.cache.size", verified, Map::size)
+            .description("Verified tokens held in the cache")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = sha256(token);
+        Instant now = clock.instant();
+        Jwt cached = verified.get(key);
+        if (cached != null) {
+            if (cached.getExpiresAt().isAfter(now)) {
+                hits.increment();
+                return cached;
+            }
+            verified.remove(key, cached);
+        }
+        misses.increment();
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(now) && verified.put(key, jwt) == null) {
+            cachedOrder.add(key);
+            queued.incrementAndGet();
+            evictOldest();
+        }
+        return jwt;
+    }
+
+    public int size() {
+        return verified.size();
+    }
+
+    /**
+     * Evict the oldest keys until the queue, and so the cache, is back within its bound.
+     */
+    private void evictOldest() {
+        while (queued.get() > maxSize) {
+            String oldest = cachedOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            verified.remove(oldest);
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
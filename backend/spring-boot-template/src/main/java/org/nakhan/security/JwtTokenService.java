@@ -0,0 +1,155 @@
+package org.nakhan.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Service issuing and verifying the application's RS256 access tokens.
+ *
+ * The signing key is generated locally. With {@code app.security.jwt.key-directory} set, the key
+ * pair is written there on first start and reused afterwards, so tokens survive restarts and
+ * can be shared by instances mounting the same directory; otherwise a new key is generated on
+ * every start. Verification goes through a {@link CachingJwtDecoder}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Service
+public class JwtTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenService.class);
+
+    private static final String KEY_FILE = "jwt-signing-key";
+
+    private final JwtEncoder encoder;
+    private final CachingJwtDecoder decoder;
+    private final String issuer;
+    private final Duration ttl;
+    private final Clock clock = Clock.systemUTC();
+
+    @Autowired
+    public JwtTokenService(MeterRegistry meterRegistry,
+                           @Value("${app.security.jwt.issuer:spring-boot-template}") String issuer,
+                           @Value("${app.security.jwt.ttl:PT15M}") Duration ttl,
+                           @Value("${app.security.jwt.key-directory:}") String keyDirectory,
+                           @Value("${app.security.jwt.cache-size:10000}") int cacheSize) {
+        this.issuer = issuer;
+        this.ttl = ttl;
+        KeyPair keyPair = keyDirectory.isBlank() ? generate() : loadOrGenerate(Paths.get(keyDirectory, KEY_FILE));
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        RSAKey jwk = new RSAKey.Builder(publicKey).privateKey((RSAPrivateKey) keyPair.getPrivate()).build();
+        this.encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwk)));
+        NimbusJwtDecoder nimbusDecoder = NimbusJwtDecoder.withPublicKey(publicKey).build();
+        nimbusDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        this.decoder = new CachingJwtDecoder(nimbusDecoder, cacheSize, clock, meterRegistry);
+    }
+
+    /**
+     * Issue an access token.
+     *
+     * @param subject the user ID, or the name of a configured account
+     * @param username the username
+     * @param scopes granted scopes
+     * @return the signed token
+     */
+    public String issue(String subject, String username, List<String> scopes) {
+        Instant now = clock.instant();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuer(issuer)
+            .subject(subject)
+            .claim("preferred_username", username)
+            .claim("scope", String.join(" ", scopes))
+            .issuedAt(now)
+            .expiresAt(now.plus(ttl))
+            .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    public JwtDecoder getDecoder() {
+        return decoder;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private static KeyPair generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate a JWT signing key", e);
+        }
+    }
+
+    /**
+     * The key file holds the Base64 private key (PKCS#8) and public key (X.509) on two lines.
+     */
+    private static KeyPair loadOrGenerate(Path file) {
+        try {
+            if (Files.exists(file)) {
+                List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+                KeyFactory factory = KeyFactory.getInstance("RSA");
+                return new KeyPair(
+                    factory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(lines.get(1)))),
+                    factory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(lines.get(0)))));
+            }
+            KeyPair keyPair = generate();
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temporary = file.resolveSibling(KEY_FILE + ".tmp");
+            Files.write(temporary, List.of(
+                Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()),
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded())), StandardCharsets.US_ASCII);
+            try {
+                Files.setPosixFilePermissions(temporary, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException e) {
+                log.debug("Cannot restrict permissions of {} on this file system", temporary);
+            }
+            Files.move(temporary, file);
+            log.info("Generated a JWT signing key in {}", file);
+            return keyPair;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read or write the JWT signing key " + file, e);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            throw new IllegalStateException("Invalid JWT signing key file " + file, e);
+        }
+    }
+}
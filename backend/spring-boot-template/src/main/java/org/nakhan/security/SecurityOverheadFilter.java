@@ -0,0 +1,79 @@
+package org.nakhan.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time each request spends in the Spring Security filter chain, as the timer
+ * {@code security.filter.chain} tagged with the chain that served it and whether the request
+ * got through.
+ *
+ * Registered just ahead of Spring Security, it stamps the start time on the request; the
+ * {@link #marker(String) marker} added at the end of each security chain records the time when
+ * the request reaches the application. Requests that never reach a marker were answered by
+ * Spring Security itself and are recorded as rejected.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class SecurityOverheadFilter implements Filter {
+
+    private static final String STARTED_AT = SecurityOverheadFilter.class.getName() + ".STARTED_AT";
+    private static final String RECORDED = SecurityOverheadFilter.class.getName() + ".RECORDED";
+
+    private final MeterRegistry meterRegistry;
+    private final Timer rejected;
+
+    public SecurityOverheadFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.rejected = timer(meterRegistry, "any", "rejected");
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        long startedAt = System.nanoTime();
+        request.setAttribute(STARTED_AT, startedAt);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.getAttribute(RECORDED) == null) {
+                rejected.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Filter to add as the last filter of a security chain.
+     *
+     * @param chainName the chain's tag value
+     * @return the marker filter
+     */
+    public Filter marker(String chainName) {
+        Timer passed = timer(meterRegistry, chainName, "passed");
+        return (request, response, chain) -> {
+            Object startedAt = request.getAttribute(STARTED_AT);
+            if (startedAt != null && request.getAttribute(RECORDED) == null) {
+                passed.record(System.nanoTime() - (long) startedAt, TimeUnit.NANOSECONDS);
+                request.setAttribute(RECORDED, Boolean.TRUE);
+            }
+            chain.doFilter(request, response);
+        };
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String chainName, String outcome) {
+        return Timer.builder("security.filter.chain")
+            .tag("chain", chainName)
+            .tag("outcome", outcome)
+            .description("Time spent in the Spring Security filter chain per request")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+}
@@ -1,12 +1,28 @@
 package org.nakhan.service;
 
+import org.nakhan.active.ActiveUserIndexService;
+import org.nakhan.credential.CredentialService;
+import org.nakhan.dto.UserSummary;
 import org.nakhan.entity.User;
+import org.nakhan.event.UserChangedEvent;
+import org.nakhan.metrics.TimedService;
+import org.nakhan.mutation.SerializedMutation;
 import org.nakhan.repository.UserRepository;
+import org.nakhan.snapshot.UserSnapshotService;
+import org.nakhan.warmup.HotKeyWarmUpService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service class for User entity operations.
@@ -17,13 +33,34 @@ import java.util.Optional;
  */
 @Service
 @Transactional
+@TimedService
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserSnapshotService userSnapshotService;
+    private final ActiveUserIndexService activeUserIndexService;
+    private final CredentialService credentialService;
+    private final HotKeyWarmUpService hotKeyWarmUpService;
+
+    // the proxy, so writes made once a hash completes get their own transaction and mailbox
+    private ObjectProvider<UserService> proxy;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                       UserSnapshotService userSnapshotService, ActiveUserIndexService activeUserIndexService,
+                       CredentialService credentialService, HotKeyWarmUpService hotKeyWarmUpService) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.userSnapshotService = userSnapshotService;
+        this.activeUserIndexService = activeUserIndexService;
+        this.credentialService = credentialService;
+        this.hotKeyWarmUpService = hotKeyWarmUpService;
+    }
+
+    @Autowired
+    public void setProxy(ObjectProvider<UserService> proxy) {
+        this.proxy = proxy;
     }
 
     /**
@@ -33,46 +70,148 @@ public class UserService {
      * @return the created user
      */
     public User createUser(User user) {
-        if (userRepository.existsByUsername(user.getUsername())) {
-            throw new RuntimeException("Username already exists");
+        checkAvailable(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.created(savedUser));
+        return savedUser;
+    }
+
+    /**
+     * Create a new user with a password, hashed on the credential executor.
+     * Duplicate usernames and emails are rejected before any hashing is done.
+     *
+     * @param user the user to create
+     * @param rawPassword the user's password
+     * @return future completing with the created user, or failing with a
+     *         {@code CredentialServiceBusyException} when hashing capacity is exhausted
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CompletableFuture<User> registerUser(User user, String rawPassword) {
+        checkAvailable(user);
+        return credentialService.hash(rawPassword).thenApply(hash -> {
+            user.setPassword(hash);
+            return self().createUser(user);
+        });
+    }
+
+    /**
+     * Replace a user's password.
+     *
+     * @param id the user ID
+     * @param rawPassword the new password
+     * @return future completing with the updated user
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CompletableFuture<User> changePassword(Long id, String rawPassword) {
+        return credentialService.hash(rawPassword).thenApply(hash -> self().storePassword(id, hash, null));
+    }
+
+    /**
+     * Update a user's details and password together. The password is hashed first, so a refused
+     * hash leaves the user unchanged, and both are then written in one transaction.
+     *
+     * @param id the user ID
+     * @param userDetails the updated user details
+     * @param rawPassword the new password
+     * @return future completing with the updated user
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CompletableFuture<User> updateUser(Long id, User userDetails, String rawPassword) {
+        return credentialService.hash(rawPassword).thenApply(hash -> self().storePassword(id, hash, userDetails));
+    }
+
+    /**
+     * Store an already hashed password, and the user's other details when given.
+     *
+     * @param id the user ID
+     * @param passwordHash the BCrypt hash of the new password
+     * @param userDetails the updated user details, or {@code null} to change the password only
+     * @return the updated user
+     */
+    @SerializedMutation
+    public User storePassword(Long id, String passwordHash, User userDetails) {
+        if (!CredentialService.isHash(passwordHash)) {
+            throw new IllegalArgumentException("Password must be stored as a BCrypt hash");
         }
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email already exists");
+        User user = findForWrite(id);
+        if (userDetails != null) {
+            applyDetails(user, userDetails);
         }
-        return userRepository.save(user);
+        user.setPassword(passwordHash);
+        return saveUpdated(user);
     }
 
     /**
-     * Get user by ID.
+     * Check an active user's password. A password stored as plain text or hashed at a lower cost
+     * than the current one is re-hashed once it has been verified.
+     *
+     * @param username the username
+     * @param rawPassword the password
+     * @return future completing with the user if the password matches
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CompletableFuture<Optional<User>> authenticate(String username, String rawPassword) {
+        Optional<User> found = userRepository.findByUsername(username)
+                .filter(user -> Boolean.TRUE.equals(user.getActive()));
+        if (found.isEmpty()) {
+            return credentialService.verifyUnknown(rawPassword).thenApply(ignored -> Optional.empty());
+        }
+        User user = found.get();
+        return credentialService.verify(rawPassword, user.getPassword()).thenCompose(matches -> {
+            if (!matches) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            if (!credentialService.needsUpgrade(user.getPassword())) {
+                return CompletableFuture.completedFuture(Optional.of(user));
+            }
+            return changePassword(user.getId(), rawPassword)
+                    .thenApply(Optional::of)
+                    .exceptionally(e -> Optional.of(user));
+        });
+    }
+
+    /**
+     * Get user by ID. Archived users are found too, as read-only copies.
+     * Right after a restart the user may come from the startup snapshot; no transaction is
+     * started here, so those lookups do not take a database connection. The id is counted
+     * towards the keys loaded into the cache at the next startup.
      *
      * @param id the user ID
      * @return Optional containing the user if found
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        hotKeyWarmUpService.recordId(id);
+        return userSnapshotService.findById(id)
+                .or(() -> userRepository.findById(id))
+                .or(() -> userRepository.findArchivedById(id));
     }
 
     /**
-     * Get user by username.
+     * Get user by username. Archived users are found too, as read-only copies.
+     * Right after a restart the user may come from the startup snapshot, and the username is
+     * counted for the next startup's warm-up, as for {@link #getUserById}.
      *
      * @param username the username
      * @return Optional containing the user if found
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        hotKeyWarmUpService.recordUsername(username);
+        return userSnapshotService.findByUsername(username)
+                .or(() -> userRepository.findByUsername(username))
+                .or(() -> userRepository.findArchivedByUsername(username));
     }
 
     /**
-     * Get user by email.
+     * Get user by email. Archived users are found too, as read-only copies.
      *
      * @param email the email
      * @return Optional containing the user if found
      */
     @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userRepository.findByEmail(email).or(() -> userRepository.findArchivedByEmail(email));
     }
 
     /**
@@ -95,6 +234,18 @@ public class UserService {
         return userRepository.findByActive(true);
     }
 
+    /**
+     * Get a page of active users in username order.
+     *
+     * @param after the last username of the previous page, or {@code null} for the first page
+     * @param limit the page size
+     * @return the next page of active users
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummary> getActiveUserPage(String after, int limit) {
+        return userRepository.findActiveSummariesAfter(after == null ? "" : after, Limit.of(limit));
+    }
+
     /**
      * Update user.
      *
@@ -102,29 +253,25 @@ public class UserService {
      * @param userDetails the updated user details
      * @return the updated user
      */
+    @SerializedMutation
     public User updateUser(Long id, User userDetails) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-
-        user.setUsername(userDetails.getUsername());
-        user.setEmail(userDetails.getEmail());
-        user.setFirstName(userDetails.getFirstName());
-        user.setLastName(userDetails.getLastName());
-        user.setActive(userDetails.getActive());
-
-        return userRepository.save(user);
+        User user = findForWrite(id);
+        applyDetails(user, userDetails);
+        return saveUpdated(user);
     }
 
     /**
-     * Delete user by ID.
+     * Delete user by ID, whether it is live or archived.
      *
      * @param id the user ID
      */
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
+        if (userRepository.existsById(id)) {
+            userRepository.deleteById(id);
+        } else if (!userRepository.deleteArchived(id)) {
             throw new RuntimeException("User not found with id: " + id);
         }
-        userRepository.deleteById(id);
+        eventPublisher.publishEvent(UserChangedEvent.deleted(id));
     }
 
     /**
@@ -133,11 +280,11 @@ public class UserService {
      * @param id the user ID
      * @return the deactivated user
      */
+    @SerializedMutation
     public User deactivateUser(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        User user = findForWrite(id);
         user.setActive(false);
-        return userRepository.save(user);
+        return saveUpdated(user);
     }
 
     /**
@@ -146,11 +293,11 @@ public class UserService {
      * @param id the user ID
      * @return the activated user
      */
+    @SerializedMutation
     public User activateUser(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        User user = findForWrite(id);
         user.setActive(true);
-        return userRepository.save(user);
+        return saveUpdated(user);
     }
 
     /**
@@ -165,13 +312,86 @@ public class UserService {
     }
 
     /**
-     * Get user count by active status.
+     * Get user count by active status, from the active user index once it is built.
      *
      * @param active the active status
      * @return number of users with the specified status
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long getUserCountByStatus(Boolean active) {
+        if (active != null) {
+            var count = activeUserIndexService.count(active);
+            if (count.isPresent()) {
+                return count.getAsLong();
+            }
+        }
         return userRepository.countByActive(active);
     }
+
+    /**
+     * Check which of the given users are active; unknown ids are reported inactive.
+     *
+     * @param ids the user IDs
+     * @return active status per ID, in the order given
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, Boolean> getActiveStatus(Collection<Long> ids) {
+        return activeUserIndexService.activeStatus(ids).orElseGet(() -> {
+            Map<Long, Boolean> status = new LinkedHashMap<>();
+            ids.forEach(id -> status.put(id, false));
+            userRepository.findAllById(ids).forEach(user -> status.put(user.getId(), Boolean.TRUE.equals(user.getActive())));
+            return status;
+        });
+    }
+
+    /**
+     * Page through active user IDs in ascending order with keyset pagination.
+     *
+     * @param after the last ID of the previous page, or {@code null} for the first page
+     * @param limit the page size
+     * @return the next page of active user IDs
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Long> getActiveUserIds(Long after, int limit) {
+        return activeUserIndexService.activeIdsAfter(after, limit)
+                .orElseGet(() -> userRepository.findActiveIdsAfter(after == null ? Long.MIN_VALUE : after, Limit.of(limit)));
+    }
+
+    private void checkAvailable(User user) {
+        if (userRepository.existsByUsername(user.getUsername())
+                || userRepository.existsArchivedByUsername(user.getUsername())) {
+            throw new RuntimeException("Username already exists");
+        }
+        if (userRepository.existsByEmail(user.getEmail())
+                || userRepository.existsArchivedByEmail(user.getEmail())) {
+            throw new RuntimeException("Email already exists");
+        }
+    }
+
+    /**
+     * Load a user for modification, moving it back from the archive first if needed.
+     */
+    private User findForWrite(Long id) {
+        return userRepository.findById(id)
+                .or(() -> userRepository.restoreArchived(id) ? userRepository.findById(id) : Optional.empty())
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+    }
+
+    private UserService self() {
+        return proxy != null ? proxy.getObject() : this;
+    }
+
+    private static void applyDetails(User user, User userDetails) {
+        user.setUsername(userDetails.getUsername());
+        user.setEmail(userDetails.getEmail());
+        user.setFirstName(userDetails.getFirstName());
+        user.setLastName(userDetails.getLastName());
+        user.setActive(userDetails.getActive());
+    }
+
+    private User saveUpdated(User user) {
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.updated(savedUser));
+        return savedUser;
+    }
 }
@@ -0,0 +1,249 @@
+package org.nakhan.snapshot;
+
+import org.nakhan.entity.User;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only view of a user snapshot file, memory-mapped so the data stays off the Java heap.
+ *
+ * Layout (big-endian, all offsets absolute):
+ * <pre>
+ * header    64 bytes   magic, format version, creation time, record count, section offsets,
+ *                      CRC32 of everything after the header, CRC32 of the header itself
+ * records   48 bytes   id, created/updated time, active flag, string offset and lengths;
+ *                      hottest user first
+ * id index  12 bytes   id and record offset, sorted by id
+ * names      8 bytes   username hash and record offset, sorted by hash
+ * strings              UTF-8 username, email, first and last name of each record
+ * </pre>
+ * Lookups binary-search an index with absolute reads and only allocate the returned user.
+ * Password hashes are not stored, so users found in a snapshot have no password.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class UserSnapshot {
+
+    static final int MAGIC = 0x55534E50; // "USNP"
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 48;
+    static final int ID_ENTRY_SIZE = 12;
+    static final int NAME_ENTRY_SIZE = 8;
+
+    // Header fields
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_CREATED_AT = 8;
+    static final int H_RECORD_COUNT = 16;
+    static final int H_RECORD_SIZE = 20;
+    static final int H_ID_INDEX = 24;
+    static final int H_NAME_INDEX = 28;
+    static final int H_STRINGS = 32;
+    static final int H_BODY_CRC = 40;
+    static final int H_HEADER_CRC = 48;
+
+    // Record fields
+    static final int R_ID = 0;
+    static final int R_CREATED_AT = 8;
+    static final int R_UPDATED_AT = 16;
+    static final int R_STRINGS = 24;
+    static final int R_LENGTHS = 28; // four shorts, -1 for null
+    static final int R_ACTIVE = 36;
+
+    static final long NO_TIME = Long.MIN_VALUE;
+    static final int FIELDS = 4;
+
+    private final ByteBuffer buffer;
+    private final Path path;
+    private final Instant createdAt;
+    private final int recordCount;
+    private final int idIndex;
+    private final int nameIndex;
+    private final int strings;
+
+    private UserSnapshot(ByteBuffer buffer, Path path) {
+        this.buffer = buffer;
+        this.path = path;
+        this.createdAt = Instant.ofEpochMilli(buffer.getLong(H_CREATED_AT));
+        this.recordCount = buffer.getInt(H_RECORD_COUNT);
+        this.idIndex = buffer.getInt(H_ID_INDEX);
+        this.nameIndex = buffer.getInt(H_NAME_INDEX);
+        this.strings = buffer.getInt(H_STRINGS);
+    }
+
+    /**
+     * Map a snapshot file and validate its version stamp and checksums.
+     *
+     * @param path the snapshot file
+     * @return the mapped snapshot
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the file is not a valid snapshot of the current format
+     */
+    public static UserSnapshot open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("User snapshot has an invalid size: " + channel.size());
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(H_MAGIC) != MAGIC) {
+            throw new IllegalStateException("Not a user snapshot: " + path);
+        }
+        if (buffer.getInt(H_VERSION) != FORMAT_VERSION || buffer.getInt(H_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IllegalStateException("Unsupported user snapshot format version " + buffer.getInt(H_VERSION));
+        }
+        if (buffer.getInt(H_HEADER_CRC) != (int) crc(buffer, 0, H_HEADER_CRC)) {
+            throw new IllegalStateException("User snapshot header checksum mismatch");
+        }
+        if (buffer.getLong(H_BODY_CRC) != crc(buffer, HEADER_SIZE, buffer.capacity())) {
+            throw new IllegalStateException("User snapshot checksum mismatch");
+        }
+        return new UserSnapshot(buffer, path);
+    }
+
+    static long crc(ByteBuffer buffer, int from, int to) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(from, to - from));
+        return crc.getValue();
+    }
+
+    /**
+     * Find a user by id.
+     *
+     * @param id the user id
+     * @return a detached copy of the snapshotted user
+     */
+    public Optional<User> findById(long id) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = buffer.getLong(idIndex + mid * ID_ENTRY_SIZE);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return Optional.of(read(buffer.getInt(idIndex + mid * ID_ENTRY_SIZE + 8)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Find a user by username, comparing the UTF-8 bytes in place.
+     *
+     * @param username the username
+     * @return a detached copy of the snapshotted user
+     */
+    public Optional<User> findByUsername(String username) {
+        byte[] wanted = username.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(wanted);
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getInt(nameIndex + mid * NAME_ENTRY_SIZE) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        for (int i = low; i < recordCount && buffer.getInt(nameIndex + i * NAME_ENTRY_SIZE) == hash; i++) {
+            int record = buffer.getInt(nameIndex + i * NAME_ENTRY_SIZE + 4);
+            if (usernameEquals(record, wanted)) {
+                return Optional.of(read(record));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Id of the record at a position, hottest first.
+     *
+     * @param position record position, from 0 to {@link #size()} - 1
+     * @return the user id
+     */
+    public long idAt(int position) {
+        return buffer.getLong(HEADER_SIZE + position * RECORD_SIZE + R_ID);
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public long byteSize() {
+        return buffer.capacity();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    static int hash(byte[] utf8) {
+        int hash = 0x811C9DC5;
+        for (byte b : utf8) {
+            hash = (hash ^ (b & 0xFF)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    private boolean usernameEquals(int record, byte[] wanted) {
+        if (buffer.getShort(record + R_LENGTHS) != wanted.length) {
+            return false;
+        }
+        int offset = strings + buffer.getInt(record + R_STRINGS);
+        for (int i = 0; i < wanted.length; i++) {
+            if (buffer.get(offset + i) != wanted[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private User read(int record) {
+        String[] values = new String[FIELDS];
+        int offset = strings + buffer.getInt(record + R_STRINGS);
+        for (int field = 0; field < FIELDS; field++) {
+            int length = buffer.getShort(record + R_LENGTHS + field * 2);
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                buffer.get(offset, bytes);
+                values[field] = new String(bytes, StandardCharsets.UTF_8);
+                offset += length;
+            }
+        }
+        User user = new User();
+        user.setId(buffer.getLong(record + R_ID));
+        user.setUsername(values[0]);
+        user.setEmail(values[1]);
+        user.setFirstName(values[2]);
+        user.setLastName(values[3]);
+        byte active = buffer.get(record + R_ACTIVE);
+        user.setActive(active == 2 ? null : active == 1);
+        user.setCreatedAt(time(buffer.getLong(record + R_CREATED_AT)));
+        user.setUpdatedAt(time(buffer.getLong(record + R_UPDATED_AT)));
+        return user;
+    }
+
+    private static LocalDateTime time(long epochMillis) {
+        return epochMillis == NO_TIME ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
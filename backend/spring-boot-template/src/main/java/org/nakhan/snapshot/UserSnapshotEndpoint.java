@@ -0,0 +1,36 @@
+package org.nakhan.snapshot;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+
+/**
+ * Actuator endpoint showing the state of the hot-user snapshot ({@code GET /actuator/usersnapshot})
+ * and writing a new one on demand ({@code POST /actuator/usersnapshot}).
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@Endpoint(id = "usersnapshot")
+public class UserSnapshotEndpoint {
+
+    private final UserSnapshotService userSnapshotService;
+
+    public UserSnapshotEndpoint(UserSnapshotService userSnapshotService) {
+        this.userSnapshotService = userSnapshotService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return userSnapshotService.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> write() {
+        int written = userSnapshotService.write();
+        return Map.of("written", written >= 0, "users", Math.max(written, 0));
+    }
+}
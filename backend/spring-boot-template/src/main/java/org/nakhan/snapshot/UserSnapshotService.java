@@ -0,0 +1,297 @@
+package org.nakhan.snapshot;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.nakhan.entity.User;
+import org.nakhan.event.UserChangedEvent;
+import org.nakhan.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service keeping a memory-mapped snapshot of the hot users so a restarted instance can serve
+ * lookups by id and username before its second-level cache is warm.
+ *
+ * The most recently changed active users, up to {@code app.snapshot.max-users}, are written to
+ * {@code app.snapshot.directory} every {@code app.snapshot.write-interval}. At startup a valid
+ * snapshot no older than {@code app.snapshot.max-age} is mapped and answers lookups without
+ * touching the database, while a background task loads its users into the second-level cache
+ * hottest first. Once that is done the snapshot is retired and the live cache takes over. Users
+ * changed in the meantime are never served from the snapshot. Password hashes are left out of the
+ * snapshot; lookups served from it do not need them.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Service
+public class UserSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSnapshotService.class);
+
+    private static final String FILE_NAME = "users.snapshot";
+
+    private static final String SELECT_HOT_USERS = "SELECT id, username, email, first_name, last_name, "
+            + "is_active, created_at, updated_at FROM users WHERE is_active = true ORDER BY updated_at DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final UserSnapshotWriter writer = new UserSnapshotWriter(Clock.systemUTC());
+    private final boolean enabled;
+    private final Path path;
+    private final int maxUsers;
+    private final Duration maxAge;
+    private final int warmUpBatchSize;
+    private final Duration warmUpPause;
+    private final ExecutorService warmUpExecutor;
+    private final Set<Long> changedSinceSnapshot = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+
+    private volatile UserSnapshot serving;
+    private volatile Instant lastWriteAt;
+    private volatile int lastWriteUsers;
+    private volatile long lastWriteMillis;
+
+    @Autowired
+    public UserSnapshotService(JdbcTemplate jdbcTemplate,
+                               UserRepository userRepository,
+                               @Value("${app.snapshot.enabled:false}") boolean enabled,
+                               @Value("${app.snapshot.directory:${user.home}/.spring-boot-template/user-snapshot}") String directory,
+                               @Value("${app.snapshot.max-users:50000}") int maxUsers,
+                               @Value("${app.snapshot.max-age:PT24H}") Duration maxAge,
+                               @Value("${app.snapshot.warm-up-batch-size:500}") int warmUpBatchSize,
+                               @Value("${app.snapshot.warm-up-pause:PT0.05S}") Duration warmUpPause) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.path = Paths.get(directory, FILE_NAME);
+        this.maxUsers = maxUsers;
+        this.maxAge = maxAge;
+        this.warmUpBatchSize = warmUpBatchSize;
+        this.warmUpPause = warmUpPause;
+        this.warmUpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-snapshot-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Map the snapshot left by the previous run, if it is valid and recent enough.
+     */
+    @PostConstruct
+    public void load() {
+        if (!enabled || !Files.exists(path)) {
+            return;
+        }
+        try {
+            UserSnapshot snapshot = UserSnapshot.open(path);
+            Duration age = Duration.between(snapshot.getCreatedAt(), Instant.now());
+            if (age.compareTo(maxAge) > 0) {
+                log.info("Ignoring user snapshot {} written {} ago", path, age);
+                return;
+            }
+            serving = snapshot;
+            log.info("Serving {} users from snapshot {} written {} ago", snapshot.size(), path, age);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable user snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Find a user in the snapshot while it is being served.
+     *
+     * @param id the user id
+     * @return the snapshotted user, or empty if not served from the snapshot
+     */
+    public Optional<User> findById(Long id) {
+        UserSnapshot snapshot = serving;
+        if (snapshot == null || id == null || changedSinceSnapshot.contains(id)) {
+            return Optional.empty();
+        }
+        return counted(snapshot.findById(id));
+    }
+
+    /**
+     * Find a user by username in the snapshot while it is being served.
+     *
+     * @param username the username
+     * @return the snapshotted user, or empty if not served from the snapshot
+     */
+    public Optional<User> findByUsername(String username) {
+        UserSnapshot snapshot = serving;
+        if (snapshot == null || username == null) {
+            return Optional.empty();
+        }
+        return counted(snapshot.findByUsername(username).filter(user -> !changedSinceSnapshot.contains(user.getId())));
+    }
+
+    /**
+     * Load the snapshot's users into the second-level cache in the background, then retire it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        UserSnapshot snapshot = serving;
+        if (snapshot == null) {
+            return;
+        }
+        warmUpExecutor.execute(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                for (int from = 0; from < snapshot.size() && serving == snapshot; from += warmUpBatchSize) {
+                    List<Long> ids = new ArrayList<>(warmUpBatchSize);
+                    for (int i = from; i < Math.min(snapshot.size(), from + warmUpBatchSize); i++) {
+                        ids.add(snapshot.idAt(i));
+                    }
+                    userRepository.findAllById(ids);
+                    Thread.sleep(warmUpPause.toMillis());
+                }
+                log.info("Loaded {} snapshot users into the cache in {} ms", snapshot.size(),
+                        System.currentTimeMillis() - start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("User snapshot warm-up stopped: {}", e.getMessage());
+            } finally {
+                retire();
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (serving != null) {
+            changedSinceSnapshot.add(event.getUserId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.snapshot.write-interval:PT5M}",
+               initialDelayString = "${app.snapshot.write-interval:PT5M}")
+    public void scheduledWrite() {
+        write();
+    }
+
+    /**
+     * Write a new snapshot of the hot users.
+     *
+     * @return number of users written, or {@code -1} if snapshots are disabled or a write is
+     *         already in progress
+     */
+    public int write() {
+        if (!enabled || !writing.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            List<User> users = jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(SELECT_HOT_USERS);
+                statement.setFetchSize(1000);
+                statement.setInt(1, maxUsers);
+                return statement;
+            }, (resultSet, row) -> {
+                User user = new User();
+                user.setId(resultSet.getLong("id"));
+                user.setUsername(resultSet.getString("username"));
+                user.setEmail(resultSet.getString("email"));
+                user.setFirstName(resultSet.getString("first_name"));
+                user.setLastName(resultSet.getString("last_name"));
+                user.setActive(resultSet.getBoolean("is_active"));
+                user.setCreatedAt(toLocalDateTime(resultSet.getTimestamp("created_at")));
+                user.setUpdatedAt(toLocalDateTime(resultSet.getTimestamp("updated_at")));
+                return user;
+            });
+            writer.write(path, users);
+            lastWriteAt = Instant.now();
+            lastWriteUsers = users.size();
+            lastWriteMillis = System.currentTimeMillis() - start;
+            log.debug("Wrote user snapshot with {} users in {} ms", users.size(), lastWriteMillis);
+            return users.size();
+        } catch (IOException e) {
+            log.warn("Could not write user snapshot {}: {}", path, e.getMessage());
+            return 0;
+        } finally {
+            writing.set(false);
+        }
+    }
+
+    /**
+     * Stop serving from the snapshot.
+     */
+    public void retire() {
+        if (serving != null) {
+            serving = null;
+            changedSinceSnapshot.clear();
+            log.info("User snapshot retired after {} hits", hits.sum());
+        }
+    }
+
+    /**
+     * State of the served snapshot and of the last write.
+     *
+     * @return snapshot statistics
+     */
+    public Map<String, Object> stats() {
+        UserSnapshot snapshot = serving;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("path", path.toString());
+        stats.put("serving", snapshot != null);
+        stats.put("servingUsers", snapshot == null ? 0 : snapshot.size());
+        stats.put("servingBytes", snapshot == null ? 0 : snapshot.byteSize());
+        stats.put("servingCreatedAt", snapshot == null ? null : snapshot.getCreatedAt().toString());
+        stats.put("changedSinceSnapshot", changedSinceSnapshot.size());
+        stats.put("hits", hits.sum());
+        stats.put("lastWriteAt", lastWriteAt == null ? null : lastWriteAt.toString());
+        stats.put("lastWriteUsers", lastWriteUsers);
+        stats.put("lastWriteMillis", lastWriteMillis);
+        return stats;
+    }
+
+    /**
+     * Write a last snapshot on shutdown, so the next start sees this instance's latest changes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        warmUpExecutor.shutdownNow();
+        write();
+    }
+
+    private Optional<User> counted(Optional<User> user) {
+        if (user.isPresent()) {
+            hits.increment();
+        }
+        return user;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,159 @@
+package org.nakhan.snapshot;
+
+import org.nakhan.entity.User;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.nakhan.snapshot.UserSnapshot.*;
+
+/**
+ * Writes user snapshot files in the layout described on {@link UserSnapshot}.
+ *
+ * The file is built in a memory-mapped temporary file next to the target and moved over it
+ * atomically once complete, so a reader never maps a partially written snapshot. On POSIX file
+ * systems the file and any directory created for it are readable by the owner only, as the
+ * snapshot holds the users' email addresses.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class UserSnapshotWriter {
+
+    private final Clock clock;
+
+    public UserSnapshotWriter(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Write a snapshot of the given users.
+     *
+     * @param target the snapshot file to replace
+     * @param users users in the order the snapshot should keep, hottest first
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path target, List<User> users) throws IOException {
+        int count = users.size();
+        byte[][][] strings = new byte[count][][];
+        long stringBytes = 0;
+        for (int i = 0; i < count; i++) {
+            strings[i] = encode(users.get(i));
+            for (byte[] value : strings[i]) {
+                stringBytes += value == null ? 0 : value.length;
+            }
+        }
+        long records = HEADER_SIZE;
+        long idIndex = records + (long) count * RECORD_SIZE;
+        long nameIndex = idIndex + (long) count * ID_ENTRY_SIZE;
+        long stringsStart = nameIndex + (long) count * NAME_ENTRY_SIZE;
+        long size = stringsStart + stringBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("User snapshot would exceed 2 GB: " + count + " users");
+        }
+
+        boolean posix = target.getFileSystem().supportedFileAttributeViews().contains("posix");
+        Path directory = target.toAbsolutePath().getParent();
+        if (posix) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } else {
+            Files.createDirectories(directory);
+        }
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        // Created afresh so a leftover temporary file cannot pass on wider permissions
+        Files.deleteIfExists(temporary);
+        FileAttribute<?>[] attributes = posix
+                ? new FileAttribute<?>[] {PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))}
+                : new FileAttribute<?>[0];
+        try (FileChannel channel = FileChannel.open(temporary, Set.of(StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE), attributes)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            // Records and strings, in the given order
+            long[] nameEntries = new long[count];
+            int stringOffset = 0;
+            for (int i = 0; i < count; i++) {
+                User user = users.get(i);
+                int record = (int) records + i * RECORD_SIZE;
+                buffer.putLong(record + R_ID, user.getId());
+                buffer.putLong(record + R_CREATED_AT, epochMillis(user.getCreatedAt()));
+                buffer.putLong(record + R_UPDATED_AT, epochMillis(user.getUpdatedAt()));
+                buffer.putInt(record + R_STRINGS, stringOffset);
+                for (int field = 0; field < FIELDS; field++) {
+                    byte[] value = strings[i][field];
+                    buffer.putShort(record + R_LENGTHS + field * 2, (short) (value == null ? -1 : value.length));
+                    if (value != null) {
+                        buffer.put((int) stringsStart + stringOffset, value);
+                        stringOffset += value.length;
+                    }
+                }
+                buffer.put(record + R_ACTIVE, (byte) (user.getActive() == null ? 2 : user.getActive() ? 1 : 0));
+                nameEntries[i] = ((long) hash(strings[i][0]) << 32) | (record & 0xFFFFFFFFL);
+            }
+
+            // Id index
+            Integer[] byId = IntStream.range(0, count).boxed().toArray(Integer[]::new);
+            Arrays.sort(byId, Comparator.comparingLong(i -> users.get(i).getId()));
+            for (int i = 0; i < count; i++) {
+                int entry = (int) idIndex + i * ID_ENTRY_SIZE;
+                buffer.putLong(entry, users.get(byId[i]).getId());
+                buffer.putInt(entry + 8, (int) records + byId[i] * RECORD_SIZE);
+            }
+
+            // Username hash index; the hash sorts as the high half of each entry
+            Arrays.sort(nameEntries);
+            for (int i = 0; i < count; i++) {
+                buffer.putLong((int) nameIndex + i * NAME_ENTRY_SIZE, nameEntries[i]);
+            }
+
+            buffer.putInt(H_MAGIC, MAGIC);
+            buffer.putInt(H_VERSION, FORMAT_VERSION);
+            buffer.putLong(H_CREATED_AT, clock.millis());
+            buffer.putInt(H_RECORD_COUNT, count);
+            buffer.putInt(H_RECORD_SIZE, RECORD_SIZE);
+            buffer.putInt(H_ID_INDEX, (int) idIndex);
+            buffer.putInt(H_NAME_INDEX, (int) nameIndex);
+            buffer.putInt(H_STRINGS, (int) stringsStart);
+            buffer.putLong(H_BODY_CRC, crc(buffer, HEADER_SIZE, (int) size));
+            buffer.putInt(H_HEADER_CRC, (int) crc(buffer, 0, H_HEADER_CRC));
+            buffer.force();
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[][] encode(User user) {
+        return new byte[][] {
+            utf8(user.getUsername()), utf8(user.getEmail()), utf8(user.getFirstName()), utf8(user.getLastName())
+        };
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Value too long for a user snapshot: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static long epochMillis(LocalDateTime value) {
+        return value == null ? NO_TIME : value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,60 @@
+package org.nakhan.suggest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A username or email of a user, in the order of the trie: by lower-cased UTF-8 bytes, then
+ * usernames before emails, then by user id. {@code original} is only kept when it differs from
+ * the lower-cased key.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+record SuggestKey(byte[] bytes, boolean email, long userId, String original) implements Comparable<SuggestKey> {
+
+    static SuggestKey of(long userId, boolean email, String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        return new SuggestKey(lower.getBytes(StandardCharsets.UTF_8), email, userId, lower.equals(value) ? null : value);
+    }
+
+    String value() {
+        return original != null ? original : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    boolean startsWith(byte[] prefix) {
+        return bytes.length >= prefix.length && Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    @Override
+    public int compareTo(SuggestKey other) {
+        return compare(bytes, email, userId, other.bytes, other.email, other.userId);
+    }
+
+    static int compare(byte[] bytes, boolean email, long userId, byte[] otherBytes, boolean otherEmail, long otherUserId) {
+        int cmp = Arrays.compareUnsigned(bytes, otherBytes);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Boolean.compare(email, otherEmail);
+        return cmp != 0 ? cmp : Long.compare(userId, otherUserId);
+    }
+
+    // byte[] components compare by identity otherwise, and the delta set relies on compareTo only
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SuggestKey key && compareTo(key) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(bytes) + Boolean.hashCode(email)) + Long.hashCode(userId);
+    }
+
+    @Override
+    public String toString() {
+        return "SuggestKey{" + value() + ", email=" + email + ", userId=" + userId + '}';
+    }
+}
@@ -0,0 +1,339 @@
+package org.nakhan.suggest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable radix trie over the usernames and emails of all users, laid out in flat arrays.
+ *
+ * Keys are lower-cased and stored as UTF-8 bytes. Each node holds the bytes of the edge leading
+ * to it, so a chain of single-child nodes is collapsed into one node and a key costs its bytes
+ * past the prefix it shares with its neighbours. Nodes are numbered breadth-first, which makes
+ * the children of a node, and their labels, contiguous: the arrays need no per-child pointers.
+ *
+ * Entries are numbered in key order, so all entries below a node form one range and a prefix
+ * lookup is a walk of at most the prefix length followed by reading the first entries of the
+ * range. An entry keeps only its user id, its field and its terminal node; the key is rebuilt
+ * from the labels on the way back up, and keys whose original case differs are kept aside.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class SuggestTrie {
+
+    private static final int[] EMPTY_RANGE = new int[] {0, 0};
+
+    // per node, in breadth-first order; labelOffset and firstChild have a trailing sentinel
+    private final byte[] labels;
+    private final int[] labelOffset;
+    private final int[] firstChild;
+    private final int[] parent;
+    private final int[] entryFrom;
+    private final int[] entryTo;
+
+    // per entry, in key order
+    private final long[] userIds;
+    private final BitSet emails;
+    private final int[] entryNode;
+    private final Map<Integer, String> originals;
+
+    private SuggestTrie(byte[] labels, int[] labelOffset, int[] firstChild, int[] parent, int[] entryFrom,
+                        int[] entryTo, long[] userIds, BitSet emails, int[] entryNode, Map<Integer, String> originals) {
+        this.labels = labels;
+        this.labelOffset = labelOffset;
+        this.firstChild = firstChild;
+        this.parent = parent;
+        this.entryFrom = entryFrom;
+        this.entryTo = entryTo;
+        this.userIds = userIds;
+        this.emails = emails;
+        this.entryNode = entryNode;
+        this.originals = originals;
+    }
+
+    /**
+     * An empty trie, for before the first build.
+     *
+     * @return a trie without keys
+     */
+    public static SuggestTrie empty() {
+        return new Builder().build();
+    }
+
+    /**
+     * The form keys are matched in.
+     *
+     * @param value a username, email or prefix
+     * @return its lower-case UTF-8 bytes
+     */
+    public static byte[] normalize(String value) {
+        return value.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Range of the entries whose key starts with the prefix.
+     *
+     * @param prefix a normalized prefix
+     * @return {@code [from, to)} in entry order, empty if no key matches
+     */
+    public int[] range(byte[] prefix) {
+        int node = 0;
+        int pos = 0;
+        while (pos < prefix.length) {
+            int child = child(node, prefix[pos]);
+            if (child < 0) {
+                return EMPTY_RANGE;
+            }
+            for (int i = labelOffset[child]; i < labelOffset[child + 1] && pos < prefix.length; i++, pos++) {
+                if (labels[i] != prefix[pos]) {
+                    return EMPTY_RANGE;
+                }
+            }
+            node = child;
+        }
+        return new int[] {entryFrom[node], entryTo[node]};
+    }
+
+    /**
+     * Whether the user has the key in the given field.
+     *
+     * @param key a normalized key
+     * @param email whether the key is an email rather than a username
+     * @param userId the user id
+     * @return true if the trie holds that entry
+     */
+    public boolean contains(byte[] key, boolean email, long userId) {
+        int[] range = range(key);
+        for (int entry = range[0]; entry < range[1] && keyLength(entry) == key.length; entry++) {
+            if (userIds[entry] == userId && emails.get(entry) == email) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long userId(int entry) {
+        return userIds[entry];
+    }
+
+    public boolean isEmail(int entry) {
+        return emails.get(entry);
+    }
+
+    /**
+     * The normalized key of an entry, rebuilt from the labels of its path.
+     *
+     * @param entry the entry
+     * @return the key's UTF-8 bytes
+     */
+    public byte[] key(int entry) {
+        byte[] key = new byte[keyLength(entry)];
+        int end = key.length;
+        for (int node = entryNode[entry]; node > 0; node = parent[node]) {
+            int length = labelOffset[node + 1] - labelOffset[node];
+            end -= length;
+            System.arraycopy(labels, labelOffset[node], key, end, length);
+        }
+        return key;
+    }
+
+    /**
+     * The key of an entry as it was added.
+     *
+     * @param entry the entry
+     * @return the username or email
+     */
+    public String value(int entry) {
+        String original = originals.get(entry);
+        return original != null ? original : new String(key(entry), StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return userIds.length;
+    }
+
+    public int nodeCount() {
+        return parent.length;
+    }
+
+    /**
+     * Retained bytes of the trie's arrays, assuming compressed oops.
+     *
+     * @return byte counts per part and in total
+     */
+    public Map<String, Long> memoryUsage() {
+        long nodeBytes = intArrayBytes(labelOffset.length) + intArrayBytes(firstChild.length)
+                + intArrayBytes(parent.length) + intArrayBytes(entryFrom.length) + intArrayBytes(entryTo.length);
+        long labelBytes = 16L + labels.length;
+        long entryBytes = 16L + 8L * userIds.length + 16 + emails.size() / 8 + intArrayBytes(entryNode.length);
+        long originalBytes = 0;
+        for (String original : originals.values()) {
+            // HashMap node + boxed entry + String header and bytes
+            originalBytes += 32 + 16 + 40 + original.length();
+        }
+        Map<String, Long> usage = new LinkedHashMap<>();
+        usage.put("keys", (long) size());
+        usage.put("nodes", (long) nodeCount());
+        usage.put("labelBytes", labelBytes);
+        usage.put("nodeBytes", nodeBytes);
+        usage.put("entryBytes", entryBytes);
+        usage.put("originalBytes", originalBytes);
+        usage.put("totalBytes", labelBytes + nodeBytes + entryBytes + originalBytes);
+        return usage;
+    }
+
+    private int keyLength(int entry) {
+        int length = 0;
+        for (int node = entryNode[entry]; node > 0; node = parent[node]) {
+            length += labelOffset[node + 1] - labelOffset[node];
+        }
+        return length;
+    }
+
+    /**
+     * The child whose label starts with the byte; children are sorted by their first byte.
+     */
+    private int child(int node, byte first) {
+        int low = firstChild[node];
+        int high = firstChild[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Byte.compareUnsigned(labels[labelOffset[mid]], first);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static long intArrayBytes(int length) {
+        return 16L + 4L * length;
+    }
+
+    /**
+     * Collects keys and builds the trie in one pass over them once sorted.
+     */
+    public static final class Builder {
+
+        private final List<SuggestKey> keys = new ArrayList<>();
+
+        /**
+         * Add a user's username or email.
+         *
+         * @param userId the user id
+         * @param email whether the value is an email rather than a username
+         * @param value the username or email; ignored if {@code null} or empty
+         * @return this builder
+         */
+        public Builder add(long userId, boolean email, String value) {
+            if (value != null && !value.isEmpty()) {
+                keys.add(SuggestKey.of(userId, email, value));
+            }
+            return this;
+        }
+
+        public SuggestTrie build() {
+            keys.sort(null);
+            int count = keys.size();
+            long[] userIds = new long[count];
+            BitSet emails = new BitSet(count);
+            int[] entryNode = new int[count];
+            Map<Integer, String> originals = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                SuggestKey key = keys.get(i);
+                userIds[i] = key.userId();
+                emails.set(i, key.email());
+                if (key.original() != null) {
+                    originals.put(i, key.original());
+                }
+            }
+
+            // a radix trie has at most two nodes per key, plus the root
+            int maxNodes = 2 * count + 1;
+            int[] labelOffset = new int[maxNodes + 1];
+            int[] firstChild = new int[maxNodes + 1];
+            int[] parent = new int[maxNodes];
+            int[] entryFrom = new int[maxNodes];
+            int[] entryTo = new int[maxNodes];
+            int[] depth = new int[maxNodes];
+            LabelBuffer labels = new LabelBuffer();
+
+            // the root covers every entry; nodes are expanded in id order, so ids are breadth-first
+            int nodes = 1;
+            entryTo[0] = count;
+            parent[0] = -1;
+            for (int node = 0; node < nodes; node++) {
+                firstChild[node] = nodes;
+                int from = entryFrom[node];
+                int to = entryTo[node];
+                int d = depth[node];
+                // keys ending at this node sort first in its range
+                while (from < to && keys.get(from).bytes().length == d) {
+                    entryNode[from++] = node;
+                }
+                while (from < to) {
+                    byte first = keys.get(from).bytes()[d];
+                    int end = from + 1;
+                    while (end < to && keys.get(end).bytes()[d] == first) {
+                        end++;
+                    }
+                    byte[] low = keys.get(from).bytes();
+                    byte[] high = keys.get(end - 1).bytes();
+                    int shared = d + 1;
+                    while (shared < low.length && shared < high.length && low[shared] == high[shared]) {
+                        shared++;
+                    }
+                    labelOffset[nodes] = labels.size();
+                    labels.append(low, d, shared - d);
+                    parent[nodes] = node;
+                    entryFrom[nodes] = from;
+                    entryTo[nodes] = end;
+                    depth[nodes] = shared;
+                    nodes++;
+                    from = end;
+                }
+            }
+            labelOffset[nodes] = labels.size();
+            firstChild[nodes] = nodes;
+            keys.clear();
+
+            return new SuggestTrie(labels.toArray(), Arrays.copyOf(labelOffset, nodes + 1),
+                    Arrays.copyOf(firstChild, nodes + 1), Arrays.copyOf(parent, nodes),
+                    Arrays.copyOf(entryFrom, nodes), Arrays.copyOf(entryTo, nodes),
+                    userIds, emails, entryNode, originals);
+        }
+    }
+
+    private static final class LabelBuffer {
+
+        private byte[] bytes = new byte[1024];
+        private int size;
+
+        void append(byte[] source, int offset, int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.nakhan.suggest;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing memory accounting for the autocomplete index
+ * ({@code GET /actuator/usersuggest}) and triggering a rebuild ({@code POST /actuator/usersuggest}).
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.suggest", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Endpoint(id = "usersuggest")
+public class UserSuggestEndpoint {
+
+    private final UserSuggestService userSuggestService;
+
+    public UserSuggestEndpoint(UserSuggestService userSuggestService) {
+        this.userSuggestService = userSuggestService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return userSuggestService.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        boolean started = userSuggestService.rebuildAsync().getNow(0) != -1;
+        return Map.of("rebuildStarted", started);
+    }
+}
@@ -0,0 +1,188 @@
+package org.nakhan.suggest;
+
+import org.nakhan.entity.User;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Username and email autocomplete over an immutable {@link SuggestTrie} plus a small delta of
+ * the writes made since the trie was built.
+ *
+ * A written user's trie entries are hidden and its current keys go into a sorted delta, so a
+ * lookup merges the trie range and the delta range in key order and returns the first matches.
+ * Writes that leave the username and email as the trie has them, such as activations, cost
+ * nothing. The delta only grows until the next build folds it into a fresh trie.
+ *
+ * Lookups run without locks alongside writes. A lookup may miss a user while it is being written,
+ * but never returns a key the user no longer has once the write has returned.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class UserSuggestIndex {
+
+    private static final SuggestKey[] NO_KEYS = new SuggestKey[0];
+
+    private final SuggestTrie base;
+    // users written since the base was built, with their current keys
+    private final ConcurrentMap<Long, SuggestKey[]> changedUsers = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<SuggestKey> delta = new ConcurrentSkipListSet<>();
+    private volatile int deltaKeys;
+
+    public UserSuggestIndex() {
+        this(SuggestTrie.empty());
+    }
+
+    public UserSuggestIndex(SuggestTrie base) {
+        this.base = base;
+    }
+
+    /**
+     * Usernames and emails starting with the prefix, ignoring case, in key order.
+     *
+     * @param prefix the prefix as typed
+     * @param limit maximum number of suggestions
+     * @return the first matches, empty for an empty prefix
+     */
+    public List<UserSuggestion> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        byte[] normalized = SuggestTrie.normalize(prefix);
+        int[] range = base.range(normalized);
+        int entry = nextVisible(range[0], range[1]);
+        Iterator<SuggestKey> fresh = delta.tailSet(new SuggestKey(normalized, false, Long.MIN_VALUE, null)).iterator();
+        SuggestKey nextFresh = nextMatching(fresh, normalized);
+
+        List<UserSuggestion> suggestions = new ArrayList<>(Math.min(limit, 16));
+        while (suggestions.size() < limit && (entry < range[1] || nextFresh != null)) {
+            boolean takeFresh = nextFresh != null && (entry >= range[1] || SuggestKey.compare(nextFresh.bytes(),
+                    nextFresh.email(), nextFresh.userId(), base.key(entry), base.isEmail(entry), base.userId(entry)) < 0);
+            if (takeFresh) {
+                suggestions.add(suggestion(nextFresh.userId(), nextFresh.value(), nextFresh.email()));
+                nextFresh = nextMatching(fresh, normalized);
+            } else {
+                suggestions.add(suggestion(base.userId(entry), base.value(entry), base.isEmail(entry)));
+                entry = nextVisible(entry + 1, range[1]);
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Take in a created or updated user.
+     *
+     * @param user the user as written
+     */
+    public synchronized void index(User user) {
+        long userId = user.getId();
+        List<SuggestKey> keys = new ArrayList<>(2);
+        if (user.getUsername() != null && !user.getUsername().isEmpty()) {
+            keys.add(SuggestKey.of(userId, false, user.getUsername()));
+        }
+        if (user.getEmail() != null && !user.getEmail().isEmpty()) {
+            keys.add(SuggestKey.of(userId, true, user.getEmail()));
+        }
+        if (!changedUsers.containsKey(userId)
+                && keys.stream().allMatch(key -> base.contains(key.bytes(), key.email(), userId))) {
+            return;
+        }
+        replace(userId, keys.toArray(NO_KEYS));
+    }
+
+    /**
+     * Drop a deleted or archived user.
+     *
+     * @param userId the user id
+     */
+    public synchronized void remove(Long userId) {
+        replace(userId, NO_KEYS);
+    }
+
+    /**
+     * Keys in the trie, including those hidden by later writes.
+     *
+     * @return the trie size
+     */
+    public int baseSize() {
+        return base.size();
+    }
+
+    /**
+     * Keys written since the trie was built.
+     *
+     * @return the delta size
+     */
+    public int deltaSize() {
+        return deltaKeys;
+    }
+
+    /**
+     * Estimated retained bytes of the trie and the delta, and what that comes to per million keys.
+     *
+     * @return byte counts and key counts
+     */
+    public Map<String, Long> memoryUsage() {
+        Map<String, Long> usage = new LinkedHashMap<>(base.memoryUsage());
+        long deltaBytes = 0;
+        for (SuggestKey key : delta) {
+            // skip list node and index share + record + byte array, plus the original if kept
+            deltaBytes += 48 + 32 + 16 + key.bytes().length + (key.original() == null ? 0 : 40 + key.original().length());
+        }
+        // map node + boxed id + key array, per written user
+        deltaBytes += 64L * changedUsers.size();
+        long totalBytes = usage.get("totalBytes") + deltaBytes;
+        long keys = base.size() + deltaKeys;
+        usage.put("deltaKeys", (long) deltaKeys);
+        usage.put("deltaBytes", deltaBytes);
+        usage.put("totalBytes", totalBytes);
+        usage.put("bytesPerMillionKeys", keys == 0 ? 0 : totalBytes * 1_000_000 / keys);
+        return usage;
+    }
+
+    private void replace(long userId, SuggestKey[] keys) {
+        // hide the trie entries first, so lookups never return them alongside the new keys
+        SuggestKey[] previous = changedUsers.put(userId, keys);
+        int removed = 0;
+        if (previous != null) {
+            for (SuggestKey key : previous) {
+                delta.remove(key);
+            }
+            removed = previous.length;
+        }
+        for (SuggestKey key : keys) {
+            delta.add(key);
+        }
+        deltaKeys += keys.length - removed;
+    }
+
+    private int nextVisible(int entry, int to) {
+        if (changedUsers.isEmpty()) {
+            return entry;
+        }
+        while (entry < to && changedUsers.containsKey(base.userId(entry))) {
+            entry++;
+        }
+        return entry;
+    }
+
+    private static SuggestKey nextMatching(Iterator<SuggestKey> keys, byte[] prefix) {
+        if (keys.hasNext()) {
+            SuggestKey key = keys.next();
+            if (key.startsWith(prefix)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static UserSuggestion suggestion(long userId, String value, boolean email) {
+        return new UserSuggestion(userId, value, email ? UserSuggestion.EMAIL : UserSuggestion.USERNAME);
+    }
+}
@@ -0,0 +1,205 @@
+package org.nakhan.suggest;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.nakhan.entity.User;
+import org.nakhan.event.UserChangedEvent;
+import org.nakhan.event.UsersImportedEvent;
+import org.nakhan.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Service owning the username and email autocomplete index.
+ *
+ * The trie is built in the background once the application is ready by streaming the users
+ * table, and the writes committed since go into the index's delta from {@link UserChangedEvent}s.
+ * Once the delta holds {@code app.suggest.rebuild-threshold} keys, a fresh trie is built in the
+ * background; writes that arrive while it is streaming are replayed onto the new index before it
+ * replaces the live one, so a rebuild never loses updates.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.suggest", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserSuggestService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSuggestService.class);
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final int rebuildThreshold;
+
+    private volatile UserSuggestIndex index = new UserSuggestIndex();
+    private volatile boolean ready;
+    private volatile long lastBuildMillis;
+    private List<UserChangedEvent> pendingDuringRebuild;
+
+    @Autowired
+    public UserSuggestService(UserRepository userRepository,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.suggest.rebuild-threshold:10000}") int rebuildThreshold) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildThreshold = rebuildThreshold;
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-suggest-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Usernames and emails starting with the prefix. Returns an empty list until the first build
+     * has completed.
+     *
+     * @param prefix the prefix as typed
+     * @param limit maximum number of suggestions
+     * @return the first matches in key order
+     */
+    public List<UserSuggestion> suggest(String prefix, int limit) {
+        if (!ready) {
+            return Collections.emptyList();
+        }
+        return index.suggest(prefix, limit);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Start a background rebuild unless one is already running.
+     *
+     * @return future completing with the number of keys in the new trie, or {@code -1} if a rebuild was already running
+     */
+    public CompletableFuture<Integer> rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(-1);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return rebuild();
+            } finally {
+                rebuilding.set(false);
+            }
+        }, rebuildExecutor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildAsync().exceptionally(e -> {
+            log.error("Initial user suggest index build failed", e);
+            return -1;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        synchronized (this) {
+            apply(index, event);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+        }
+        if (ready && index.deltaSize() >= rebuildThreshold) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Bulk imports write rows without per-user events, so reload the index from the table.
+     */
+    @EventListener
+    public void onUsersImported(UsersImportedEvent event) {
+        rebuildAsync();
+    }
+
+    /**
+     * Memory accounting and state of the live index.
+     *
+     * @return index statistics
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("rebuilding", rebuilding.get());
+        stats.put("lastBuildMillis", lastBuildMillis);
+        stats.put("rebuildThreshold", rebuildThreshold);
+        stats.put("memory", index.memoryUsage());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private int rebuild() {
+        long start = System.currentTimeMillis();
+        SuggestTrie.Builder builder = new SuggestTrie.Builder();
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<User> users = userRepository.streamAll()) {
+                    users.forEach(user -> {
+                        builder.add(user.getId(), false, user.getUsername());
+                        builder.add(user.getId(), true, user.getEmail());
+                        entityManager.detach(user);
+                    });
+                }
+            });
+            UserSuggestIndex fresh = new UserSuggestIndex(builder.build());
+            synchronized (this) {
+                pendingDuringRebuild.forEach(event -> apply(fresh, event));
+                index = fresh;
+            }
+        } finally {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+        }
+        ready = true;
+        lastBuildMillis = System.currentTimeMillis() - start;
+        UserSuggestIndex built = index;
+        log.info("User suggest index built with {} keys ({} bytes per million keys) in {} ms",
+                built.baseSize(), built.memoryUsage().get("bytesPerMillionKeys"), lastBuildMillis);
+        return built.baseSize();
+    }
+
+    private static void apply(UserSuggestIndex target, UserChangedEvent event) {
+        if (event.isRemoval()) {
+            target.remove(event.getUserId());
+        } else {
+            target.index(event.getUser());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.nakhan.suggest;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+/**
+ * A username or email completing an autocomplete prefix, with the user it belongs to.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class UserSuggestion {
+
+    public static final String USERNAME = "username";
+    public static final String EMAIL = "email";
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final Long id;
+    private final String value;
+    private final String field;
+
+    public UserSuggestion(Long id, String value, String field) {
+        this.id = id;
+        this.value = value;
+        this.field = field;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * The username or email as stored.
+     *
+     * @return the completed value
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Which field matched: {@link #USERNAME} or {@link #EMAIL}.
+     *
+     * @return the field name
+     */
+    public String getField() {
+        return field;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSuggestion{" +
+                "id=" + id +
+                ", value='" + value + '\'' +
+                ", field=" + field +
+                '}';
+    }
+}
@@ -0,0 +1,305 @@
+package org.nakhan.warmup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.nakhan.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service that keeps the most-read user ids and usernames on disk and loads them into the
+ * second-level cache at startup, so a restarted instance does not send every first read to the
+ * database at once.
+ *
+ * {@code UserService} reports each lookup by id or username. Every
+ * {@code app.warm-up.write-interval}, and on shutdown, the hottest {@code app.warm-up.max-keys} of
+ * each kind are written to {@code app.warm-up.directory}. At startup, as an
+ * {@link ApplicationRunner}, the keys are loaded hottest first in {@code IN} queries of
+ * {@code app.warm-up.batch-size}, at most {@code app.warm-up.concurrency} at a time, for at most
+ * {@code app.warm-up.max-time}. Runners finish before the application reports itself ready, so
+ * the readiness probe only passes once the cache is warm.
+ *
+ * The hot-user snapshot ({@code UserSnapshotService}) covers the most recently changed users; this
+ * covers the most read ones.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@Service
+public class HotKeyWarmUpService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyWarmUpService.class);
+
+    private static final String FILE_NAME = "hot-user-keys.txt";
+
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final Path path;
+    private final int maxKeys;
+    private final int batchSize;
+    private final int concurrency;
+    private final Duration maxTime;
+    private final Duration hitRateWindow;
+    private final HotUserKeys hotKeys;
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final AtomicInteger loadedUsers = new AtomicInteger();
+    private final Timer warmUpTimer;
+
+    private volatile long[] windowStartCounts;
+    private volatile double windowHitRatio = Double.NaN;
+
+    @Autowired
+    public HotKeyWarmUpService(UserRepository userRepository,
+                               EntityManagerFactory entityManagerFactory,
+                               TaskScheduler taskScheduler,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.warm-up.enabled:false}") boolean enabled,
+                               @Value("${app.warm-up.directory:${java.io.tmpdir}/user-hot-keys}") String directory,
+                               @Value("${app.warm-up.max-keys:20000}") int maxKeys,
+                               @Value("${app.warm-up.tracked-keys:200000}") int trackedKeys,
+                               @Value("${app.warm-up.batch-size:500}") int batchSize,
+                               @Value("${app.warm-up.concurrency:4}") int concurrency,
+                               @Value("${app.warm-up.max-time:PT30S}") Duration maxTime,
+                               @Value("${app.warm-up.hit-rate-window:PT1M}") Duration hitRateWindow) {
+        this.userRepository = userRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.path = Paths.get(directory, FILE_NAME);
+        this.maxKeys = maxKeys;
+        this.batchSize = batchSize;
+        this.concurrency = Math.max(1, concurrency);
+        this.maxTime = maxTime;
+        this.hitRateWindow = hitRateWindow;
+        this.hotKeys = new HotUserKeys(trackedKeys);
+        this.warmUpTimer = Timer.builder("user.cache.warmup")
+            .description("Time spent loading the hot user keys into the cache at startup")
+            .register(meterRegistry);
+        Gauge.builder("user.cache.warmup.users", loadedUsers, AtomicInteger::get)
+            .description("Users loaded into the cache at startup")
+            .register(meterRegistry);
+        Gauge.builder("user.cache.warmup.hit.ratio", this, HotKeyWarmUpService::hitRatio)
+            .description("Second-level cache hit ratio over the first app.warm-up.hit-rate-window after startup")
+            .register(meterRegistry);
+    }
+
+    public void recordId(Long id) {
+        if (enabled) {
+            hotKeys.recordId(id);
+        }
+    }
+
+    public void recordUsername(String username) {
+        if (enabled) {
+            hotKeys.recordUsername(username);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warmUp();
+            startHitRateWindow();
+        }
+    }
+
+    /**
+     * Load the keys written by the previous run into the second-level cache.
+     *
+     * @return number of users loaded
+     */
+    public int warmUp() {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        HotUserKeys.Keys keys;
+        try {
+            keys = HotUserKeys.read(path, maxKeys);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable hot user keys {}: {}", path, e.getMessage());
+            return 0;
+        }
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, new WarmUpThreadFactory());
+        int loaded = 0;
+        int unfinished = 0;
+        try {
+            for (Future<Integer> batch : executor.invokeAll(batches(keys), maxTime.toMillis(), TimeUnit.MILLISECONDS)) {
+                try {
+                    loaded += batch.get();
+                } catch (CancellationException | ExecutionException e) {
+                    unfinished++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        warmUpTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        loadedUsers.set(loaded);
+        if (unfinished > 0) {
+            log.warn("Hot user key warm-up loaded {} users, {} batches failed or ran past {}", loaded, unfinished, maxTime);
+        } else {
+            log.info("Loaded {} of {} hot user keys into the cache in {} ms", loaded, keys.size(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        // Keep the keys in the next file even if this instance is stopped before they are read again
+        keys.ids().forEach(hotKeys::recordId);
+        keys.usernames().forEach(hotKeys::recordUsername);
+        return loaded;
+    }
+
+    @Scheduled(fixedDelayString = "${app.warm-up.write-interval:PT1M}",
+               initialDelayString = "${app.warm-up.write-interval:PT1M}")
+    public void scheduledWrite() {
+        write();
+    }
+
+    /**
+     * Write the hottest keys. Without reads since the last write, as when idle or shutting down
+     * right after a scheduled write, the file is left as it is.
+     *
+     * @return number of keys written, or {@code -1} if disabled or a write is already in progress
+     */
+    public int write() {
+        if (!enabled || !writing.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            if (!hotKeys.readSinceDrain()) {
+                return 0;
+            }
+            HotUserKeys.Keys keys = hotKeys.drainHottest(maxKeys);
+            if (keys.isEmpty()) {
+                return 0;
+            }
+            HotUserKeys.write(path, keys);
+            log.debug("Wrote {} hot user keys to {}", keys.size(), path);
+            return keys.size();
+        } catch (IOException e) {
+            log.warn("Could not write hot user keys {}: {}", path, e.getMessage());
+            return 0;
+        } finally {
+            writing.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        write();
+    }
+
+    /**
+     * Interleave id and username batches, so the hottest keys of both kinds are loaded first.
+     */
+    private List<Callable<Integer>> batches(HotUserKeys.Keys keys) {
+        List<Callable<Integer>> batches = new ArrayList<>();
+        List<Long> ids = keys.ids();
+        List<String> usernames = keys.usernames();
+        for (int from = 0; from < Math.max(ids.size(), usernames.size()); from += batchSize) {
+            if (from < ids.size()) {
+                List<Long> batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+                batches.add(() -> userRepository.findAllById(batch).size());
+            }
+            if (from < usernames.size()) {
+                List<String> batch = usernames.subList(from, Math.min(usernames.size(), from + batchSize));
+                batches.add(() -> userRepository.findByUsernameIn(batch).size());
+            }
+        }
+        return batches;
+    }
+
+    /**
+     * Measure the cache hit ratio from now until the end of the window. Needs Hibernate statistics.
+     */
+    private void startHitRateWindow() {
+        Statistics statistics = statistics();
+        if (!statistics.isStatisticsEnabled()) {
+            log.debug("Hibernate statistics are off, the warm-up hit ratio is not recorded");
+            return;
+        }
+        windowStartCounts = cacheCounts(statistics);
+        taskScheduler.schedule(() -> {
+            windowHitRatio = currentWindowRatio();
+            windowStartCounts = null;
+        }, Instant.now().plus(hitRateWindow));
+    }
+
+    /**
+     * The ratio so far while the window is open, then the ratio over the whole window.
+     */
+    private double hitRatio() {
+        return windowStartCounts != null ? currentWindowRatio() : windowHitRatio;
+    }
+
+    private double currentWindowRatio() {
+        long[] start = windowStartCounts;
+        if (start == null) {
+            return Double.NaN;
+        }
+        long[] now = cacheCounts(statistics());
+        long hits = now[0] - start[0];
+        long misses = now[1] - start[1];
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+
+    /**
+     * Hits and misses of the entity and natural-id caches.
+     */
+    private static long[] cacheCounts(Statistics statistics) {
+        return new long[] {
+            statistics.getSecondLevelCacheHitCount() + statistics.getNaturalIdCacheHitCount(),
+            statistics.getSecondLevelCacheMissCount() + statistics.getNaturalIdCacheMissCount()
+        };
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static final class WarmUpThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "hot-key-warm-up-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
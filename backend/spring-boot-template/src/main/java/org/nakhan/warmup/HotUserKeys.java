@@ -0,0 +1,182 @@
+package org.nakhan.warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Access counts of user ids and usernames, and the file the hottest of them are kept in.
+ *
+ * At most {@code maxTracked} keys of each kind are counted; once full, reads of new keys are
+ * ignored until {@link #drainHottest} has halved the counts and dropped the keys that reached
+ * zero, so keys that are no longer read age out and make room. The file is plain text, one key
+ * per line and hottest first:
+ * <pre>
+ * # hot user keys, 2026-01-01T00:00:00Z
+ * id 123456789
+ * username alice
+ * </pre>
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class HotUserKeys {
+
+    private static final String ID_PREFIX = "id ";
+    private static final String USERNAME_PREFIX = "username ";
+
+    private final int maxTracked;
+    private final Map<Long, AtomicInteger> ids = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> usernames = new ConcurrentHashMap<>();
+    private final AtomicBoolean readSinceDrain = new AtomicBoolean();
+
+    public HotUserKeys(int maxTracked) {
+        this.maxTracked = maxTracked;
+    }
+
+    public void recordId(Long id) {
+        if (id != null) {
+            increment(ids, id);
+        }
+    }
+
+    public void recordUsername(String username) {
+        if (username != null && username.indexOf('\n') < 0 && username.indexOf('\r') < 0) {
+            increment(usernames, username);
+        }
+    }
+
+    public int trackedKeys() {
+        return ids.size() + usernames.size();
+    }
+
+    /**
+     * Whether any key was read since the last {@link #drainHottest}.
+     */
+    public boolean readSinceDrain() {
+        return readSinceDrain.get();
+    }
+
+    /**
+     * The most-read keys of each kind, then halve all counts.
+     *
+     * @param max the number of keys of each kind to return
+     * @return ids and usernames, hottest first
+     */
+    public Keys drainHottest(int max) {
+        readSinceDrain.set(false);
+        return new Keys(drainHottest(ids, max), drainHottest(usernames, max));
+    }
+
+    /**
+     * Write keys to a file, replacing it atomically.
+     *
+     * @param path the file to replace
+     * @param keys the keys, hottest first
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, Keys keys) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            writer.write("# hot user keys, " + Instant.now());
+            writer.newLine();
+            for (Long id : keys.ids()) {
+                writer.write(ID_PREFIX + id);
+                writer.newLine();
+            }
+            for (String username : keys.usernames()) {
+                writer.write(USERNAME_PREFIX + username);
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read keys written by {@link #write}. Unrecognised lines are skipped.
+     *
+     * @param path the file
+     * @param max the number of keys of each kind to read
+     * @return ids and usernames, hottest first
+     * @throws IOException if the file cannot be read
+     */
+    public static Keys read(Path path, int max) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.startsWith(ID_PREFIX) && ids.size() < max) {
+                try {
+                    ids.add(Long.parseLong(line.substring(ID_PREFIX.length())));
+                } catch (NumberFormatException e) {
+                    // malformed line, skipped
+                }
+            } else if (line.startsWith(USERNAME_PREFIX) && usernames.size() < max) {
+                usernames.add(line.substring(USERNAME_PREFIX.length()));
+            }
+        }
+        return new Keys(ids, usernames);
+    }
+
+    private <K> void increment(Map<K, AtomicInteger> counts, K key) {
+        if (!readSinceDrain.get()) {
+            readSinceDrain.set(true);
+        }
+        AtomicInteger count = counts.get(key);
+        if (count == null) {
+            if (counts.size() >= maxTracked) {
+                return;
+            }
+            count = counts.computeIfAbsent(key, ignored -> new AtomicInteger());
+        }
+        count.incrementAndGet();
+    }
+
+    private static <K> List<K> drainHottest(Map<K, AtomicInteger> counts, int max) {
+        PriorityQueue<Map.Entry<K, Integer>> hottest = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<K, AtomicInteger> entry : counts.entrySet()) {
+            int count = entry.getValue().getAndUpdate(value -> value / 2);
+            if (count / 2 == 0) {
+                counts.remove(entry.getKey(), entry.getValue());
+            }
+            if (count > 0 && max > 0 && (hottest.size() < max || count > hottest.peek().getValue())) {
+                hottest.add(Map.entry(entry.getKey(), count));
+                if (hottest.size() > max) {
+                    hottest.poll();
+                }
+            }
+        }
+        List<K> keys = new ArrayList<>(hottest.size());
+        while (!hottest.isEmpty()) {
+            keys.add(hottest.poll().getKey());
+        }
+        Collections.reverse(keys);
+        return keys;
+    }
+
+    /**
+     * User ids and usernames, hottest first.
+     */
+    public record Keys(List<Long> ids, List<String> usernames) {
+
+        public boolean isEmpty() {
+            return ids.isEmpty() && usernames.isEmpty();
+        }
+
+        public int size() {
+            return ids.size() + usernames.size();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+-- Baseline schema for H2 (development); keep in step with db/migration/postgresql
+
+CREATE TABLE users (
+    id BIGINT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    is_active BOOLEAN DEFAULT TRUE,
+    created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE id_node_leases (
+    node_id INTEGER PRIMARY KEY,
+    owner VARCHAR(128) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE user_import_jobs (
+    id BIGINT PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    file_path VARCHAR(1024) NOT NULL,
+    columns VARCHAR(1024) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    total_bytes BIGINT NOT NULL,
+    committed_bytes BIGINT NOT NULL,
+    rows_read BIGINT NOT NULL,
+    rows_imported BIGINT NOT NULL,
+    rows_skipped BIGINT NOT NULL,
+    rows_rejected BIGINT NOT NULL,
+    processing_millis BIGINT NOT NULL,
+    rejection_sample VARCHAR(4000),
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP(6),
+    started_at TIMESTAMP(6),
+    finished_at TIMESTAMP(6)
+);
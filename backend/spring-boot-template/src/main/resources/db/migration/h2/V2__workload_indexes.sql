@@ -0,0 +1,5 @@
+-- H2 has neither partial, covering nor expression indexes; these composite
+-- indexes are the nearest equivalents of db/migration/postgresql/V2
+
+CREATE INDEX idx_users_active_username ON users (is_active, username);
+CREATE INDEX idx_users_inactive_updated ON users (is_active, updated_at);
@@ -0,0 +1,13 @@
+-- Cold storage for long-inactive users; see db/migration/postgresql/V3
+CREATE TABLE users_archive (
+    id BIGINT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    is_active BOOLEAN,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    archived_at TIMESTAMP(6) NOT NULL
+);
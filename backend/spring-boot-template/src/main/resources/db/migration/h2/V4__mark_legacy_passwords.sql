@@ -0,0 +1,12 @@
+-- Marks legacy plain-text passwords and disables malformed hashes; see db/migration/postgresql/V4
+UPDATE users SET password = '!'
+WHERE password LIKE '$2%' AND NOT REGEXP_LIKE(password, '^\$2[aby]\$\d\d\$[./A-Za-z0-9]{53}$');
+
+UPDATE users SET password = '{noop}' || password
+WHERE password NOT LIKE '$2%' AND password <> '!' AND password NOT LIKE '{noop}%';
+
+UPDATE users_archive SET password = '!'
+WHERE password LIKE '$2%' AND NOT REGEXP_LIKE(password, '^\$2[aby]\$\d\d\$[./A-Za-z0-9]{53}$');
+
+UPDATE users_archive SET password = '{noop}' || password
+WHERE password NOT LIKE '$2%' AND password <> '!' AND password NOT LIKE '{noop}%';
@@ -0,0 +1,61 @@
+-- Baseline schema for PostgreSQL
+-- Ids are 64-bit Snowflake ids assigned by the application, not by a sequence.
+-- UNIQUE constraints create their own indexes, so username and email need no extra ones.
+
+CREATE TABLE users (
+    id BIGINT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    is_active BOOLEAN DEFAULT true,
+    created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE users IS 'User accounts for the Full Stack Java Developer Toolkit';
+COMMENT ON COLUMN users.username IS 'Unique username for user authentication';
+COMMENT ON COLUMN users.email IS 'Unique email address for user communication';
+COMMENT ON COLUMN users.is_active IS 'Flag indicating if the user account is active';
+
+CREATE OR REPLACE FUNCTION update_updated_at_column()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at = CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER update_users_updated_at
+    BEFORE UPDATE ON users
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Leases on Snowflake node ids, one per running application instance
+CREATE TABLE id_node_leases (
+    node_id INTEGER PRIMARY KEY,
+    owner VARCHAR(128) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL
+);
+
+-- Bulk CSV user imports; committed_bytes is the resume checkpoint
+CREATE TABLE user_import_jobs (
+    id BIGINT PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    file_path VARCHAR(1024) NOT NULL,
+    columns VARCHAR(1024) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    total_bytes BIGINT NOT NULL,
+    committed_bytes BIGINT NOT NULL,
+    rows_read BIGINT NOT NULL,
+    rows_imported BIGINT NOT NULL,
+    rows_skipped BIGINT NOT NULL,
+    rows_rejected BIGINT NOT NULL,
+    processing_millis BIGINT NOT NULL,
+    rejection_sample VARCHAR(4000),
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP(6),
+    started_at TIMESTAMP(6),
+    finished_at TIMESTAMP(6)
+);
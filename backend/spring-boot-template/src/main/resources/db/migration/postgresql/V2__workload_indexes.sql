@@ -0,0 +1,17 @@
+-- Indexes shaped by the UserRepository workload (see UserIndexBenchmark for plans and timings)
+
+-- Active user listing (findActiveSummariesAfter): partial, so inactive rows cost nothing,
+-- and covering, so a keyset page is an index-only scan without heap fetches.
+-- Counting active users is left to a sequential scan: they are most of the table.
+CREATE INDEX idx_users_active_username ON users (username)
+    INCLUDE (id, email, first_name, last_name)
+    WHERE is_active;
+
+-- Inactive users are the minority: countByActive(false) and findByActive(false)
+-- scan only them, oldest change first
+CREATE INDEX idx_users_inactive_updated ON users (updated_at)
+    WHERE NOT is_active;
+
+-- Case-insensitive lookups (findByUsernameIgnoreCase, findByEmailIgnoreCase)
+CREATE INDEX idx_users_username_lower ON users (lower(username));
+CREATE INDEX idx_users_email_lower ON users (lower(email));
@@ -0,0 +1,19 @@
+-- Cold storage for long-inactive users, moved out of users by UserArchivalService.
+-- A separate table rather than a partition of users: PostgreSQL only enforces UNIQUE across
+-- partitions when the partition key is part of the constraint, which would make username and
+-- email unique per partition instead of globally. Archived rows are never updated in place,
+-- so pages are packed full.
+CREATE TABLE users_archive (
+    id BIGINT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    is_active BOOLEAN,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    archived_at TIMESTAMP(6) NOT NULL
+) WITH (fillfactor = 100);
+
+COMMENT ON TABLE users_archive IS 'Inactive user accounts moved out of users; restored on reactivation';
@@ -0,0 +1,16 @@
+-- CredentialService only takes a stored password as plain text when it carries the {noop}
+-- marker. Passwords stored before hashing was introduced get the marker here, so they keep
+-- working until they are re-hashed on the next login. Values that look like a BCrypt hash but
+-- are not a complete one, such as the truncated hashes of the old sample data, are made
+-- unusable instead of being taken for plain text.
+UPDATE users SET password = '!'
+WHERE password LIKE '$2%' AND password !~ '^\$2[aby]\$\d\d\$[./A-Za-z0-9]{53}$';
+
+UPDATE users SET password = '{noop}' || password
+WHERE password NOT LIKE '$2%' AND password <> '!' AND password NOT LIKE '{noop}%';
+
+UPDATE users_archive SET password = '!'
+WHERE password LIKE '$2%' AND password !~ '^\$2[aby]\$\d\d\$[./A-Za-z0-9]{53}$';
+
+UPDATE users_archive SET password = '{noop}' || password
+WHERE password NOT LIKE '$2%' AND password <> '!' AND password NOT LIKE '{noop}%';
@@ -0,0 +1,8 @@
+-- Sample users for the Docker environment (enabled by the docker profile)
+-- Fixed small ids cannot collide with generated ids, which start far above them.
+-- The password '!' matches no input; the admin sets one with PUT /api/users/{id}.
+INSERT INTO users (id, username, email, password, first_name, last_name, is_active) VALUES
+(1, 'admin', 'admin@fullstack.local', '!', 'Admin', 'User', true),
+(2, 'testuser', 'test@fullstack.local', '!', 'Test', 'User', true),
+(3, 'demo', 'demo@fullstack.local', '!', 'Demo', 'User', false)
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,90 @@
+package org.nakhan.benchmark;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.nakhan.SpringBootTemplateApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-web application context for the benchmarks that go through the real stores.
+ *
+ * The {@code jpa} store runs on the configured datasource (in-memory H2 unless
+ * {@code BENCHMARK_JDBC_URL} is set). The {@code mongo} store activates the {@code mongo} profile
+ * against {@code BENCHMARK_MONGO_URI}, or an in-memory stand-in speaking the MongoDB wire
+ * protocol. Background work that would compete with the measured threads is switched off.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final MongoServer mongoServer;
+
+    private BenchmarkContext(ConfigurableApplicationContext context, MongoServer mongoServer) {
+        this.context = context;
+        this.mongoServer = mongoServer;
+    }
+
+    /**
+     * Start the application on a store.
+     *
+     * @param store {@code jpa} or {@code mongo}
+     * @param extraArguments further {@code --name=value} arguments
+     * @return the started context
+     */
+    static BenchmarkContext start(String store, String... extraArguments) {
+        // Passed as command line arguments, so they take precedence over the profile's properties
+        List<String> arguments = new ArrayList<>(List.of(
+                "--app.search.index.enabled=false",
+                "--app.query-stats.enabled=false",
+                "--app.archive.enabled=false",
+                "--app.import.enabled=false",
+                "--app.id.node-allocation=explicit",
+                "--app.id.node-id=1",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.org.nakhan=INFO",
+                "--logging.level.org.springframework.web=INFO"));
+        arguments.addAll(List.of(extraArguments));
+        String jdbcUrl = System.getenv("BENCHMARK_JDBC_URL");
+        if (jdbcUrl != null) {
+            arguments.add("--spring.datasource.url=" + jdbcUrl);
+            arguments.add("--spring.datasource.username=" + System.getenv().getOrDefault("BENCHMARK_JDBC_USER", "postgres"));
+            arguments.add("--spring.datasource.password=" + System.getenv().getOrDefault("BENCHMARK_JDBC_PASSWORD", ""));
+        }
+        MongoServer mongoServer = null;
+        if ("mongo".equals(store)) {
+            String mongoUri = System.getenv("BENCHMARK_MONGO_URI");
+            if (mongoUri == null) {
+                mongoServer = new MongoServer(new MemoryBackend());
+                mongoServer.bind();
+                mongoUri = "mongodb://" + mongoServer.getLocalAddress().getHostString() + ":"
+                        + mongoServer.getLocalAddress().getPort() + "/benchmark";
+            }
+            arguments.add("--spring.data.mongodb.uri=" + mongoUri);
+        }
+
+        SpringApplicationBuilder application = new SpringApplicationBuilder(SpringBootTemplateApplication.class)
+                .web(WebApplicationType.NONE);
+        if ("mongo".equals(store)) {
+            application.profiles("mongo");
+        }
+        return new BenchmarkContext(application.run(arguments.toArray(String[]::new)), mongoServer);
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        if (mongoServer != null) {
+            mongoServer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.nakhan.benchmark;
+
+import org.nakhan.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the Snowflake id generator, uncontended and with all cores issuing ids.
+ * Run with {@code mvn -Pbenchmark -DskipTests verify -Dbenchmark.includes=SnowflakeIdGeneratorBenchmark}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnowflakeIdGeneratorBenchmark {
+
+    private SnowflakeIdGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new SnowflakeIdGenerator(1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long singleThread() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long contended() {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,216 @@
+package org.nakhan.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.openjdk.jmh.annotations.*;
+import org.postgresql.PGConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the {@code UserRepository} queries on PostgreSQL with and without the workload
+ * indexes from {@code V2__workload_indexes.sql}. The setup prints each query's plan, so the
+ * index-only, partial and expression index scans can be compared with the plans they replace.
+ *
+ * Uses the database in {@code BENCHMARK_JDBC_URL} (with {@code BENCHMARK_JDBC_USER} and
+ * {@code BENCHMARK_JDBC_PASSWORD}) or starts a PostgreSQL container. The benchmark works in its
+ * own {@code index_benchmark} schema, which it drops and migrates on every trial.
+ * Run with {@code mvn -Pbenchmark -DskipTests verify -Dbenchmark.includes=UserIndexBenchmark}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserIndexBenchmark {
+
+    private static final String SCHEMA = "index_benchmark";
+
+    // The statements Hibernate generates for the repository methods
+    private static final String ACTIVE_PAGE = "select u1_0.id,u1_0.username,u1_0.email,u1_0.first_name,u1_0.last_name "
+            + "from users u1_0 where u1_0.is_active=true and u1_0.username>? order by u1_0.username fetch first ? rows only";
+    private static final String COUNT_BY_ACTIVE = "select count(u1_0.id) from users u1_0 where u1_0.is_active=?";
+    private static final String FIND_BY_INACTIVE = "select u1_0.id,u1_0.is_active,u1_0.created_at,u1_0.email,"
+            + "u1_0.first_name,u1_0.last_name,u1_0.password,u1_0.updated_at,u1_0.username from users u1_0 where u1_0.is_active=?";
+    private static final String EMAIL_IGNORE_CASE = "select u1_0.id,u1_0.is_active,u1_0.created_at,u1_0.email,"
+            + "u1_0.first_name,u1_0.last_name,u1_0.password,u1_0.updated_at,u1_0.username from users u1_0 "
+            + "where lower(u1_0.email)=lower(?)";
+    private static final String USERNAME_IGNORE_CASE = "select u1_0.id,u1_0.is_active,u1_0.created_at,u1_0.email,"
+            + "u1_0.first_name,u1_0.last_name,u1_0.password,u1_0.updated_at,u1_0.username from users u1_0 "
+            + "where lower(u1_0.username)=lower(?)";
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    @Param({"200000"})
+    public int users;
+
+    @Param({"0.05"})
+    public double inactiveRatio;
+
+    private PostgreSQLContainer<?> container;
+    private Connection connection;
+    private PreparedStatement activePage;
+    private PreparedStatement countByActive;
+    private PreparedStatement findByInactive;
+    private PreparedStatement emailIgnoreCase;
+    private PreparedStatement usernameIgnoreCase;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String url = System.getenv("BENCHMARK_JDBC_URL");
+        String user = System.getenv().getOrDefault("BENCHMARK_JDBC_USER", "postgres");
+        String password = System.getenv().getOrDefault("BENCHMARK_JDBC_PASSWORD", "");
+        if (url == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine");
+            container.start();
+            url = container.getJdbcUrl();
+            user = container.getUsername();
+            password = container.getPassword();
+        }
+
+        // V1 creates the tables; V2, the index migration under test, runs on the loaded table
+        // as it would on an existing database
+        Flyway flyway = flyway(url, user, password, MigrationVersion.fromVersion("1"));
+        flyway.clean();
+        flyway.migrate();
+        connection = DriverManager.getConnection(url, user, password);
+        connection.setSchema(SCHEMA);
+        load();
+        if (indexed) {
+            flyway(url, user, password, MigrationVersion.LATEST).migrate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM ANALYZE users");
+        }
+
+        activePage = connection.prepareStatement(ACTIVE_PAGE);
+        countByActive = connection.prepareStatement(COUNT_BY_ACTIVE);
+        findByInactive = connection.prepareStatement(FIND_BY_INACTIVE);
+        emailIgnoreCase = connection.prepareStatement(EMAIL_IGNORE_CASE);
+        usernameIgnoreCase = connection.prepareStatement(USERNAME_IGNORE_CASE);
+        printPlans();
+    }
+
+    private static Flyway flyway(String url, String user, String password, MigrationVersion target) {
+        return Flyway.configure()
+                .dataSource(url, user, password)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration/postgresql")
+                .target(target)
+                .cleanDisabled(false)
+                .load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    /** {@code findActiveSummariesAfter}: partial covering index, index-only scan. */
+    @Benchmark
+    public int activeUserPage() throws SQLException {
+        activePage.setString(1, username(ThreadLocalRandom.current().nextInt(users)));
+        activePage.setInt(2, 50);
+        return drain(activePage);
+    }
+
+    /** {@code countByActive(true)}: most users are active, so this stays a sequential scan. */
+    @Benchmark
+    public int countActive() throws SQLException {
+        countByActive.setBoolean(1, true);
+        return drain(countByActive);
+    }
+
+    /** {@code findByActive(false)}: partial index over the few inactive users. */
+    @Benchmark
+    public int findInactive() throws SQLException {
+        findByInactive.setBoolean(1, false);
+        return drain(findByInactive);
+    }
+
+    /** {@code findByEmailIgnoreCase}: {@code lower(email)} expression index. */
+    @Benchmark
+    public int findByEmailIgnoreCase() throws SQLException {
+        emailIgnoreCase.setString(1, email(ThreadLocalRandom.current().nextInt(users)).toUpperCase(Locale.ROOT));
+        return drain(emailIgnoreCase);
+    }
+
+    /** {@code findByUsernameIgnoreCase}: {@code lower(username)} expression index. */
+    @Benchmark
+    public int findByUsernameIgnoreCase() throws SQLException {
+        usernameIgnoreCase.setString(1, username(ThreadLocalRandom.current().nextInt(users)).toLowerCase(Locale.ROOT));
+        return drain(usernameIgnoreCase);
+    }
+
+    private void load() throws Exception {
+        StringBuilder csv = new StringBuilder(users * 96);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < users; i++) {
+            boolean active = random.nextDouble() >= inactiveRatio;
+            csv.append(i + 1).append(',').append(username(i)).append(',').append(email(i))
+                    .append(",!password,First").append(i % 1000).append(",Last").append(i % 5000)
+                    .append(',').append(active).append('\n');
+        }
+        connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                "COPY users (id, username, email, password, first_name, last_name, is_active) FROM STDIN WITH (FORMAT csv)",
+                new StringReader(csv.toString()));
+    }
+
+    private void printPlans() throws SQLException {
+        System.out.println();
+        explain("activeUserPage", ACTIVE_PAGE, username(users / 2), 50);
+        explain("countActive", COUNT_BY_ACTIVE, true);
+        explain("findInactive", FIND_BY_INACTIVE, false);
+        explain("findByEmailIgnoreCase", EMAIL_IGNORE_CASE, email(users / 2).toUpperCase(Locale.ROOT));
+        explain("findByUsernameIgnoreCase", USERNAME_IGNORE_CASE, username(users / 2).toLowerCase(Locale.ROOT));
+    }
+
+    private void explain(String name, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            System.out.println("# Plan for " + name + " (indexed=" + indexed + ")");
+            try (ResultSet plan = statement.executeQuery()) {
+                while (plan.next()) {
+                    System.out.println("#   " + plan.getString(1));
+                }
+            }
+        }
+    }
+
+    private static int drain(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String username(int i) {
+        return "User" + Integer.toString(i * 7919 % 1_000_003, 36);
+    }
+
+    private static String email(int i) {
+        return username(i).toLowerCase(Locale.ROOT) + "@example.com";
+    }
+}
@@ -0,0 +1,93 @@
+package org.nakhan.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.nakhan.entity.User;
+import org.nakhan.json.UserJsonWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation per response of writing a list of users with the application's
+ * {@code ObjectMapper} and with the lean {@link UserJsonWriter}, both into a stream that
+ * discards the bytes, as a servlet response stream would after copying them.
+ * The {@code benchmark} profile runs JMH with {@code -prof gc}, so the results include
+ * {@code gc.alloc.rate.norm}, the bytes allocated per operation.
+ * Run with {@code mvn -Pbenchmark -DskipTests verify -Dbenchmark.includes=UserJsonBenchmark}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int users;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final byte[] buffer = new byte[8192];
+    private List<User> payload;
+    private DiscardingOutputStream out;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        out = new DiscardingOutputStream(blackhole);
+        payload = new ArrayList<>(users);
+        LocalDateTime created = LocalDateTime.of(2026, 1, 1, 9, 30, 15, 123_456_000);
+        for (int i = 0; i < users; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", "$2a$10$" + "x".repeat(53));
+            user.setId(370_323_506_301_673_472L + i * 4096L);
+            user.setFirstName("First" + i % 1000);
+            user.setLastName(i % 3 == 0 ? null : "Lästname" + i % 5000);
+            user.setCreatedAt(created.plusSeconds(i));
+            user.setUpdatedAt(created.plusSeconds(i).plusNanos(789_000));
+            payload.add(user);
+        }
+    }
+
+    @Benchmark
+    public void objectMapper() throws IOException {
+        objectMapper.writeValue(out, payload);
+    }
+
+    @Benchmark
+    public void lean() throws IOException {
+        UserJsonWriter writer = new UserJsonWriter(out, buffer);
+        writer.writeValue(payload);
+        writer.flush();
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        DiscardingOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.nakhan.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.nakhan.controller.UserController;
+import org.nakhan.dto.UserDto;
+import org.nakhan.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation of the per-request work of {@code POST /api/users} and {@code PUT /api/users/{id}}
+ * outside the service layer: reading the JSON body into a {@link UserDto}, validating it, mapping
+ * it to a {@link User} and writing the single-user response. {@code handleCreate} chains the four
+ * steps the way the controller does.
+ * Run with {@code mvn -Pbenchmark -DskipTests verify -Dbenchmark.includes=UserRequestBenchmark}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRequestBenchmark {
+
+    private static final byte[] BODY = ("{\"username\":\"johndoe\",\"email\":\"john.doe@example.com\","
+            + "\"password\":\"correct-horse\",\"firstName\":\"John\",\"lastName\":\"Doe\",\"active\":true}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private UserDto validDto;
+    private UserDto invalidDto;
+    private User created;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validDto = objectMapper.readValue(BODY, UserDto.class);
+        invalidDto = new UserDto("jd", "not-an-email", "J".repeat(120), "Doe");
+        invalidDto.setPassword("short");
+        created = UserController.toUser(validDto);
+        created.setId(370_323_506_301_673_472L);
+        created.setCreatedAt(LocalDateTime.of(2026, 1, 1, 9, 30, 15, 123_456_000));
+        created.setUpdatedAt(created.getCreatedAt());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public UserDto readBody() throws IOException {
+        return objectMapper.readValue(BODY, UserDto.class);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDto>> validateValid() {
+        return validator.validate(validDto);
+    }
+
+    /** Four violations, each building its message and property path. */
+    @Benchmark
+    public Set<ConstraintViolation<UserDto>> validateInvalid() {
+        return validator.validate(invalidDto);
+    }
+
+    @Benchmark
+    public User toUser() {
+        return UserController.toUser(validDto);
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws IOException {
+        return objectMapper.writeValueAsBytes(created);
+    }
+
+    @Benchmark
+    public byte[] handleCreate() throws IOException {
+        UserDto dto = objectMapper.readValue(BODY, UserDto.class);
+        if (!validator.validate(dto).isEmpty()) {
+            throw new IllegalStateException("Benchmark body is invalid");
+        }
+        User user = UserController.toUser(dto);
+        user.setId(created.getId());
+        user.setCreatedAt(created.getCreatedAt());
+        user.setUpdatedAt(created.getUpdatedAt());
+        return objectMapper.writeValueAsBytes(user);
+    }
+}
@@ -0,0 +1,119 @@
+package org.nakhan.benchmark;
+
+import org.nakhan.active.ActiveUserIndexService;
+import org.nakhan.entity.User;
+import org.nakhan.repository.UserRepository;
+import org.nakhan.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency and allocation of the {@code UserService} operations behind the user endpoints, with
+ * their transactions, events and caches, on the H2-backed JPA store and on the in-memory MongoDB
+ * stand-in set up by {@link BenchmarkContext}.
+ * Compared with {@link UserStoreBenchmark}, the difference is the service layer's own cost.
+ * Run with {@code mvn -Pbenchmark -DskipTests verify -Dbenchmark.includes=UserServiceBenchmark}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"jpa", "mongo"})
+    public String store;
+
+    @Param({"10000"})
+    public int users;
+
+    private BenchmarkContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private long[] ids;
+    private final AtomicLong created = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(store);
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        userRepository.deleteAllInBatch();
+        ids = new long[users];
+        for (int from = 0; from < users; from += 1000) {
+            List<User> chunk = new ArrayList<>(1000);
+            for (int i = from; i < Math.min(users, from + 1000); i++) {
+                chunk.add(user(i));
+            }
+            List<User> saved = userRepository.saveAll(chunk);
+            for (int i = 0; i < saved.size(); i++) {
+                ids[from + i] = saved.get(i).getId();
+            }
+        }
+        // Bulk inserts publish no change events, so the active user index is rebuilt from the store
+        context.getBean(ActiveUserIndexService.class).rebuildAsync().join();
+        created.set(users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        userRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> getUserById() {
+        return userService.getUserById(ids[ThreadLocalRandom.current().nextInt(users)]);
+    }
+
+    @Benchmark
+    public Optional<User> getUserByUsername() {
+        return userService.getUserByUsername(username(ThreadLocalRandom.current().nextInt(users)));
+    }
+
+    /** Served by the active user index rather than a count query. */
+    @Benchmark
+    public long getUserCountByStatus() {
+        return userService.getUserCountByStatus(true);
+    }
+
+    @Benchmark
+    public List<Long> getActiveUserIds() {
+        return userService.getActiveUserIds(ids[ThreadLocalRandom.current().nextInt(users)], 50);
+    }
+
+    /** Uniqueness checks, insert and change event; the password is set directly, without BCrypt. */
+    @Benchmark
+    public User createUser() {
+        return userService.createUser(user((int) created.getAndIncrement()));
+    }
+
+    @Benchmark
+    public User updateUser() {
+        int i = ThreadLocalRandom.current().nextInt(users);
+        User details = user(i);
+        details.setLastName("Updated" + ThreadLocalRandom.current().nextInt(1000));
+        return userService.updateUser(ids[i], details);
+    }
+
+    private static User user(int i) {
+        User user = new User(username(i), username(i) + "@example.com", "!password");
+        user.setFirstName("First" + i % 1000);
+        user.setLastName("Last" + i % 5000);
+        user.setActive(i % 20 != 0);
+        return user;
+    }
+
+    private static String username(int i) {
+        return "user" + Integer.toString(i, 36);
+    }
+}
@@ -0,0 +1,116 @@
+package org.nakhan.benchmark;
+
+import org.nakhan.dto.UserSummary;
+import org.nakhan.entity.User;
+import org.nakhan.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Limit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput and latency of the {@code UserRepository} operations on the JPA store and on the
+ * MongoDB store of the {@code mongo} profile, through the same application context either way.
+ *
+ * The stores are set up by {@link BenchmarkContext}; the JPA store keeps its second-level cache.
+ * The in-memory MongoDB stand-in has no query planner, so numbers against it show client and
+ * mapping overhead rather than mongod's index performance.
+ * Run with {@code mvn -Pbenchmark -DskipTests verify -Dbenchmark.includes=UserStoreBenchmark}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserStoreBenchmark {
+
+    @Param({"jpa", "mongo"})
+    public String store;
+
+    @Param({"20000"})
+    public int users;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private BenchmarkContext context;
+    private UserRepository userRepository;
+    private final AtomicLong inserted = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(store);
+        userRepository = context.getBean(UserRepository.class);
+        userRepository.deleteAllInBatch();
+        for (int from = 0; from < users; from += 1000) {
+            List<User> chunk = new ArrayList<>(1000);
+            for (int i = from; i < Math.min(users, from + 1000); i++) {
+                chunk.add(user(i));
+            }
+            userRepository.saveAll(chunk);
+        }
+        inserted.set(users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        userRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> findByUsername() {
+        return userRepository.findByUsername(username(ThreadLocalRandom.current().nextInt(users)));
+    }
+
+    @Benchmark
+    public Optional<User> findByEmail() {
+        return userRepository.findByEmail(email(ThreadLocalRandom.current().nextInt(users)));
+    }
+
+    /** Covered by the unique email index on both stores. */
+    @Benchmark
+    public boolean existsByEmail() {
+        return userRepository.existsByEmail(email(ThreadLocalRandom.current().nextInt(users)));
+    }
+
+    /** Keyset page of 50 active users, read from the covering index. */
+    @Benchmark
+    public List<UserSummary> activeUserPage() {
+        return userRepository.findActiveSummariesAfter(username(ThreadLocalRandom.current().nextInt(users)), Limit.of(50));
+    }
+
+    /** One {@code saveAll} of new users: a JDBC batch on JPA, one {@code bulkWrite} on MongoDB. */
+    @Benchmark
+    public List<User> saveBatch() {
+        List<User> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(user((int) inserted.getAndIncrement()));
+        }
+        return userRepository.saveAll(batch);
+    }
+
+    private static User user(int i) {
+        User user = new User(username(i), email(i), "!password");
+        user.setFirstName("First" + i % 1000);
+        user.setLastName("Last" + i % 5000);
+        user.setActive(i % 20 != 0);
+        return user;
+    }
+
+    private static String username(int i) {
+        return "user" + Integer.toString(i, 36);
+    }
+
+    private static String email(int i) {
+        return username(i) + "@example.com";
+    }
+}
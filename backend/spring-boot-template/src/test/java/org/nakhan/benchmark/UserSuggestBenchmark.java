@@ -0,0 +1,81 @@
+package org.nakhan.benchmark;
+
+import org.nakhan.suggest.SuggestTrie;
+import org.nakhan.suggest.UserSuggestIndex;
+import org.nakhan.suggest.UserSuggestion;
+import org.openjdk.jmh.annotations.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation of a top-10 autocomplete lookup on the {@link UserSuggestIndex} trie and
+ * on a {@code TreeMap} of the same keys, for usernames and emails of {@code users} users.
+ * The trie's memory per million keys is printed once per trial.
+ * Run with {@code mvn -Pbenchmark -DskipTests verify -Dbenchmark.includes=UserSuggestBenchmark}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSuggestBenchmark {
+
+    private static final String[] DOMAINS = {"example.com", "gmail.com", "company.org", "mail.net"};
+
+    @Param({"100000", "1000000"})
+    public int users;
+
+    private UserSuggestIndex trie;
+    private NavigableMap<String, Long> treeMap;
+    private String[] prefixes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SuggestTrie.Builder builder = new SuggestTrie.Builder();
+        treeMap = new TreeMap<>();
+        for (long id = 0; id < users; id++) {
+            String name = Long.toString(id * 2_654_435_761L % 1_000_000_007L, 36);
+            String username = "user_" + name;
+            String email = name + "@" + DOMAINS[(int) (id % DOMAINS.length)];
+            builder.add(id, false, username).add(id, true, email);
+            treeMap.put(username, id);
+            treeMap.put(email, id);
+        }
+        trie = new UserSuggestIndex(builder.build());
+        System.out.println("Trie memory: " + trie.memoryUsage());
+
+        prefixes = new String[4096];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = Long.toString(i * 40_503L % 1_000_000_007L, 36);
+            prefixes[i] = i % 2 == 0 ? "user_" + name.substring(0, 1 + i % 3) : name.substring(0, 1 + i % 2);
+        }
+    }
+
+    @Benchmark
+    public List<UserSuggestion> trie() {
+        return trie.suggest(prefixes[next++ & (prefixes.length - 1)], 10);
+    }
+
+    @Benchmark
+    public List<String> treeMap() {
+        String prefix = prefixes[next++ & (prefixes.length - 1)].toLowerCase(Locale.ROOT);
+        List<String> matches = new ArrayList<>(10);
+        for (Map.Entry<String, Long> entry : treeMap.tailMap(prefix, true).entrySet()) {
+            if (matches.size() == 10 || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            matches.add(entry.getKey());
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,296 @@
+package org.nakhan.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.nakhan.SpringBootTemplateApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end HTTP load test of the user API.
+ *
+ * Starts the application on a random port (in-memory H2, or the database in
+ * {@code LOADTEST_JDBC_URL}), or drives the instance at {@code LOADTEST_TARGET} instead. Seeds the
+ * scenario's synthetic users through the bulk CSV import unless they are already there, then
+ * sends the scenario's request mix at a fixed arrival rate: requests start on schedule whether
+ * or not earlier ones have completed, and latency is measured from the scheduled start, so a
+ * stalled server shows up as latency instead of as a lower request rate.
+ *
+ * Results are printed and written to {@code target/loadtest/<scenario>-<time>/}.
+ * Run with {@code mvn -Ploadtest -DskipTests verify -Dloadtest.scenario=read-heavy}.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class LoadTest {
+
+    private static final int ID_PAGE_SIZE = 500;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestScenario scenario;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private LoadTest(LoadTestScenario scenario) {
+        this.scenario = scenario;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestScenario scenario = LoadTestScenario.load(args.length > 0 ? args[0] : "smoke");
+        String target = System.getenv("LOADTEST_TARGET");
+        ConfigurableApplicationContext context = target == null ? start(scenario) : null;
+        try {
+            URI baseUri = URI.create(target != null ? target
+                    : "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/");
+            String adminUser = System.getenv().getOrDefault("LOADTEST_ADMIN_USER",
+                    context != null ? context.getEnvironment().getProperty("spring.security.user.name") : "admin");
+            String adminPassword = System.getenv().getOrDefault("LOADTEST_ADMIN_PASSWORD",
+                    context != null ? context.getEnvironment().getProperty("spring.security.user.password") : "admin123");
+            new LoadTest(scenario).run(baseUri, adminUser, adminPassword);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestScenario scenario) {
+        // A devtools restart would re-run this main method with the application's arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Tokens must outlive the run, which uses a single one
+        Duration runTime = scenario.getWarmUp().plus(scenario.getDuration()).plusMinutes(30);
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--app.security.jwt.ttl=" + runTime,
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.org.nakhan=INFO",
+                "--logging.level.org.springframework.web=INFO",
+                "--logging.level.org.springframework.security=INFO"));
+        String jdbcUrl = System.getenv("LOADTEST_JDBC_URL");
+        if (jdbcUrl != null) {
+            arguments.add("--spring.datasource.url=" + jdbcUrl);
+            arguments.add("--spring.datasource.username=" + System.getenv().getOrDefault("LOADTEST_JDBC_USER", "postgres"));
+            arguments.add("--spring.datasource.password=" + System.getenv().getOrDefault("LOADTEST_JDBC_PASSWORD", ""));
+        }
+        arguments.addAll(scenario.getApplicationArguments());
+        return new SpringApplicationBuilder(SpringBootTemplateApplication.class).run(arguments.toArray(String[]::new));
+    }
+
+    private void run(URI baseUri, String adminUser, String adminPassword) throws Exception {
+        String token = adminToken(baseUri, adminUser, adminPassword);
+        seed(baseUri, token);
+        long[] ids = activeIds(baseUri, token);
+        LoadTestOperation.Target target = new LoadTestOperation.Target(baseUri, token, scenario.getUsers(), ids, new AtomicLong());
+        if (scenario.getMix().containsKey(LoadTestOperation.INSTANT_SEARCH)) {
+            awaitSearchIndex(target);
+        }
+
+        log("Running %s: %.0f req/s, %s warm-up, %s measured, mix %s", scenario.getName(), scenario.getRate(),
+                scenario.getWarmUp(), scenario.getDuration(), scenario.getMix());
+        LoadTestReport report = new LoadTestReport(scenario.getMix().keySet());
+        Random arrivals = new Random();
+        long start = System.nanoTime();
+        long measureFrom = start + scenario.getWarmUp().toNanos();
+        long end = measureFrom + scenario.getDuration().toNanos();
+        for (long scheduled = start; scheduled < end; scheduled += scenario.nextGapNanos(arrivals)) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(target, report, scheduled, scheduled >= measureFrom);
+        }
+        long drainUntil = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(50);
+        }
+
+        report.print(System.out, scenario.getDuration());
+        Path directory = Path.of(System.getProperty("loadtest.output", "target/loadtest"),
+                scenario.getName() + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        report.write(directory, scenario, scenario.getDuration(), environment(baseUri, ids.length));
+        log("Wrote %s", directory.toAbsolutePath());
+    }
+
+    private void send(LoadTestOperation.Target target, LoadTestReport report, long scheduled, boolean measured) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LoadTestOperation operation = scenario.pick(random);
+        if (inFlight.get() >= scenario.getMaxInFlight()) {
+            if (measured) {
+                report.recordDropped(operation);
+            }
+            return;
+        }
+        HttpRequest request = operation.request(target, random).timeout(REQUEST_TIMEOUT).build();
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long latency = System.nanoTime() - scheduled;
+            inFlight.decrementAndGet();
+            if (!measured) {
+                return;
+            }
+            if (error != null) {
+                report.recordError(operation);
+            } else {
+                report.recordResponse(operation, latency, response.statusCode());
+            }
+        });
+    }
+
+    private String adminToken(URI baseUri, String username, String password) throws IOException, InterruptedException {
+        String credentials = Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/api/auth/token"))
+                .header("Authorization", "Basic " + credentials)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not get an admin token: HTTP " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("accessToken").asText();
+    }
+
+    /**
+     * Import the synthetic users unless the store already holds at least as many users.
+     */
+    private void seed(URI baseUri, String token) throws IOException, InterruptedException {
+        long existing = count(baseUri, token, true) + count(baseUri, token, false);
+        if (existing >= scenario.getUsers()) {
+            log("Store already has %d users, not seeding", existing);
+            return;
+        }
+        Path csv = Files.createTempFile("loadtest-users-", ".csv");
+        try {
+            long startedAt = System.nanoTime();
+            SyntheticUsers.writeCsv(csv, scenario.getUsers());
+            HttpResponse<String> submitted = client.send(HttpRequest.newBuilder(baseUri.resolve("/api/users/imports?fileName=loadtest.csv"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "text/csv")
+                    .POST(HttpRequest.BodyPublishers.ofFile(csv))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (submitted.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Import was refused: HTTP " + submitted.statusCode() + " " + submitted.body());
+            }
+            String jobId = objectMapper.readTree(submitted.body()).get("id").asText();
+            while (true) {
+                Thread.sleep(1000);
+                JsonNode job = getJson(baseUri, token, "/api/users/imports/" + jobId);
+                String status = job.get("status").asText();
+                log("Seeding: %s, %d rows imported, %d skipped, %d rejected", status, job.get("rowsImported").asLong(),
+                        job.get("rowsSkipped").asLong(), job.get("rowsRejected").asLong());
+                if ("FAILED".equals(status)) {
+                    throw new IllegalStateException("Seeding failed: " + job.get("lastError").asText());
+                }
+                if ("COMPLETED".equals(status)) {
+                    break;
+                }
+            }
+            // Counts and id pages come from the active user index, which is rebuilt after an import
+            for (int attempt = 0; count(baseUri, token, true) + count(baseUri, token, false) < scenario.getUsers(); attempt++) {
+                if (attempt == 600) {
+                    throw new IllegalStateException("Seeded users did not show up in the user counts");
+                }
+                Thread.sleep(1000);
+            }
+            log("Seeded %d users in %d s", scenario.getUsers(), Duration.ofNanos(System.nanoTime() - startedAt).toSeconds());
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    private long[] activeIds(URI baseUri, String token) throws IOException, InterruptedException {
+        long[] ids = new long[scenario.getUsers()];
+        int count = 0;
+        String after = "";
+        while (count < ids.length) {
+            JsonNode page = getJson(baseUri, token, "/api/users/active/ids?limit=" + ID_PAGE_SIZE + after);
+            if (page.isEmpty()) {
+                break;
+            }
+            for (JsonNode id : page) {
+                if (count < ids.length) {
+                    ids[count++] = id.asLong();
+                }
+            }
+            after = "&after=" + page.get(page.size() - 1).asText();
+        }
+        if (count == 0) {
+            throw new IllegalStateException("No active users to read");
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private void awaitSearchIndex(LoadTestOperation.Target target) throws IOException, InterruptedException {
+        for (int attempt = 0; attempt < 600; attempt++) {
+            HttpResponse<Void> response = client.send(target.get("/api/users/search/instant?q=lt").build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 503) {
+                return;
+            }
+            if (attempt % 10 == 0) {
+                log("Waiting for the search index");
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("Search index did not become ready");
+    }
+
+    private long count(URI baseUri, String token, boolean active) throws IOException, InterruptedException {
+        return getJson(baseUri, token, "/api/users/count?active=" + active).asLong();
+    }
+
+    private JsonNode getJson(URI baseUri, String token, String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned HTTP " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private Map<String, Object> environment(URI baseUri, int activeIds) {
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("applicationVersion", System.getProperty("loadtest.version", "unknown"));
+        environment.put("target", baseUri.toString());
+        if (System.getenv("LOADTEST_TARGET") == null) {
+            environment.put("database", System.getenv().getOrDefault("LOADTEST_JDBC_URL", "in-memory H2"));
+        }
+        environment.put("seededUsers", scenario.getUsers());
+        environment.put("activeIdsSampled", activeIds);
+        environment.put("javaVersion", System.getProperty("java.version"));
+        environment.put("processors", Runtime.getRuntime().availableProcessors());
+        environment.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        return environment;
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.println("[loadtest] " + String.format(format, args));
+    }
+}
@@ -0,0 +1,118 @@
+package org.nakhan.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Requests a load test scenario can mix, each named as in the scenario's {@code mix.*} keys.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+enum LoadTestOperation {
+
+    /** {@code GET /api/users/{id}} for a random seeded active user. */
+    READ_BY_ID("read-by-id") {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.get("/api/users/" + target.ids()[random.nextInt(target.ids().length)]);
+        }
+    },
+
+    /** {@code GET /api/users/username/{username}} for a random seeded user. */
+    READ_BY_USERNAME("read-by-username") {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.get("/api/users/username/" + SyntheticUsers.username(random.nextInt(target.users())));
+        }
+    },
+
+    /** {@code GET /api/users/search?firstName=}, matching about one in {@value SyntheticUsers#FIRST_NAMES} users. */
+    SEARCH("search") {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.get("/api/users/search?firstName=" + SyntheticUsers.firstName(random.nextInt(target.users())));
+        }
+    },
+
+    /** {@code GET /api/users/search/instant?q=} with a five-character username prefix. */
+    INSTANT_SEARCH("instant-search") {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            String username = SyntheticUsers.username(random.nextInt(target.users()));
+            return target.get("/api/users/search/instant?q=" + encode(username.substring(0, Math.min(5, username.length()))));
+        }
+    },
+
+    /** {@code GET /api/users/active/page}, 50 users after a random username. */
+    LIST("list") {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            return target.get("/api/users/active/page?limit=50&after="
+                    + SyntheticUsers.username(random.nextInt(target.users())));
+        }
+    },
+
+    /** {@code POST /api/users} of a new user, including the BCrypt hash of its password. */
+    CREATE("create") {
+        @Override
+        HttpRequest.Builder request(Target target, Random random) {
+            long n = target.created().incrementAndGet();
+            String username = "lt" + Long.toString(System.currentTimeMillis(), 36) + Long.toString(n, 36);
+            String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@load.test\","
+                    + "\"password\":\"load-test-password\",\"firstName\":\"Load\",\"lastName\":\"Test\"}";
+            return target.builder("/api/users")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    };
+
+    private final String key;
+
+    LoadTestOperation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    abstract HttpRequest.Builder request(Target target, Random random);
+
+    static LoadTestOperation forKey(String key) {
+        for (LoadTestOperation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown load test operation: " + key);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The application under test and the seeded data requests are drawn from.
+     *
+     * @param baseUri the application's base URI
+     * @param token bearer token sent with every request
+     * @param users number of seeded synthetic users
+     * @param ids ids of seeded active users
+     * @param created sequence for the usernames of created users
+     */
+    record Target(URI baseUri, String token, int users, long[] ids, AtomicLong created) {
+
+        HttpRequest.Builder builder(String path) {
+            return HttpRequest.newBuilder(baseUri.resolve(path)).header("Authorization", "Bearer " + token);
+        }
+
+        HttpRequest.Builder get(String path) {
+            return builder(path).header("Accept", "application/json").GET();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.nakhan.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and response counts per operation for the measured part of a run.
+ *
+ * Latency runs from the time a request was scheduled to start to the time its response
+ * completed, so time spent queued behind slow responses is included rather than omitted.
+ * Only 2xx responses are recorded in the histograms; other statuses, transport errors and
+ * requests dropped at the in-flight limit are counted separately.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class LoadTestReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<LoadTestOperation, OperationStats> operations = new EnumMap<>(LoadTestOperation.class);
+
+    LoadTestReport(Iterable<LoadTestOperation> mixed) {
+        mixed.forEach(operation -> operations.put(operation, new OperationStats()));
+    }
+
+    void recordResponse(LoadTestOperation operation, long latencyNanos, int status) {
+        OperationStats stats = operations.get(operation);
+        stats.statuses.computeIfAbsent(status, ignored -> new LongAdder()).increment();
+        if (status >= 200 && status < 300) {
+            stats.latency.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        }
+    }
+
+    void recordError(LoadTestOperation operation) {
+        operations.get(operation).errors.increment();
+    }
+
+    void recordDropped(LoadTestOperation operation) {
+        operations.get(operation).dropped.increment();
+    }
+
+    /**
+     * Print a summary table.
+     *
+     * @param out where to print
+     * @param measured the measured duration
+     */
+    void print(PrintStream out, Duration measured) {
+        out.printf("%-17s %9s %9s %10s %10s %10s %10s %8s %8s%n",
+                "operation", "ok", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "non-2xx", "dropped");
+        double seconds = measured.toMillis() / 1000.0;
+        operations.forEach((operation, stats) -> {
+            Histogram latency = stats.latency;
+            out.printf("%-17s %9d %9.1f %10.2f %10.2f %10.2f %10.2f %8d %8d%n",
+                    operation.key(), latency.getTotalCount(), latency.getTotalCount() / seconds,
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)), millis(latency.getMaxValue()),
+                    stats.failed(), stats.dropped.sum());
+        });
+    }
+
+    /**
+     * Write {@code summary.json} and one HdrHistogram percentile distribution ({@code .hgrm})
+     * per operation, which HdrHistogram's plotter can overlay across runs.
+     *
+     * @param directory the run's output directory
+     * @param scenario the scenario that was run
+     * @param measured the measured duration
+     * @param environment details of the machine and application under test
+     * @throws IOException if the files cannot be written
+     */
+    void write(Path directory, LoadTestScenario scenario, Duration measured, Map<String, Object> environment)
+            throws IOException {
+        Files.createDirectories(directory);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("scenario", scenario.getName());
+        summary.put("finishedAt", Instant.now().toString());
+        summary.put("targetRate", scenario.getRate());
+        summary.put("measuredSeconds", measured.toMillis() / 1000.0);
+        summary.put("environment", environment);
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Map.Entry<LoadTestOperation, OperationStats> entry : operations.entrySet()) {
+            OperationStats stats = entry.getValue();
+            Histogram latency = stats.latency;
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("ok", latency.getTotalCount());
+            result.put("throughput", latency.getTotalCount() / (measured.toMillis() / 1000.0));
+            result.put("p50Millis", millis(latency.getValueAtPercentile(50)));
+            result.put("p99Millis", millis(latency.getValueAtPercentile(99)));
+            result.put("p999Millis", millis(latency.getValueAtPercentile(99.9)));
+            result.put("maxMillis", millis(latency.getMaxValue()));
+            Map<String, Long> statuses = new TreeMap<>();
+            stats.statuses.forEach((status, count) -> statuses.put(String.valueOf(status), count.sum()));
+            result.put("statuses", statuses);
+            result.put("errors", stats.errors.sum());
+            result.put("dropped", stats.dropped.sum());
+            results.put(entry.getKey().key(), result);
+
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().key() + ".hgrm")))) {
+                latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        summary.put("operations", results);
+        summary.put("scenarioSource", scenario.getSource());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve("summary.json").toFile(), summary);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class OperationStats {
+
+        final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+
+        long failed() {
+            long failed = errors.sum();
+            for (Map.Entry<Integer, LongAdder> entry : statuses.entrySet()) {
+                if (entry.getKey() < 200 || entry.getKey() >= 300) {
+                    failed += entry.getValue().sum();
+                }
+            }
+            return failed;
+        }
+    }
+}
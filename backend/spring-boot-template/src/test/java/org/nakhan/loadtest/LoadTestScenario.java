@@ -0,0 +1,155 @@
+package org.nakhan.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * A load test scenario, read from a properties file:
+ * <pre>
+ * users=1000000               synthetic users to seed (skipped if the store already has them)
+ * rate=500                    request starts per second, independent of response times
+ * arrivals=poisson            poisson (exponential gaps) or constant
+ * warm-up=PT30S               run at the target rate before measuring
+ * duration=PT2M               measured time
+ * max-in-flight=2000          requests beyond this are counted as dropped instead of sent
+ * mix.read-by-id=50           relative weight of each {@link LoadTestOperation}
+ * application.&lt;property&gt;=   passed to an application started by the harness
+ * </pre>
+ * Scenarios live in {@code src/test/resources/loadtest}, so runs of different releases on the
+ * same machine use the same load.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class LoadTestScenario {
+
+    private static final String APPLICATION_PREFIX = "application.";
+    private static final String MIX_PREFIX = "mix.";
+
+    private final String name;
+    private final String source;
+    private final int users;
+    private final double rate;
+    private final boolean poisson;
+    private final Duration warmUp;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final Map<LoadTestOperation, Integer> mix = new EnumMap<>(LoadTestOperation.class);
+    private final List<String> applicationArguments = new ArrayList<>();
+    private final LoadTestOperation[] weighted;
+
+    private LoadTestScenario(String name, String source) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(source));
+        this.name = name;
+        this.source = source;
+        this.users = Integer.parseInt(properties.getProperty("users", "100000"));
+        this.rate = Double.parseDouble(properties.getProperty("rate", "200"));
+        this.poisson = switch (properties.getProperty("arrivals", "poisson")) {
+            case "poisson" -> true;
+            case "constant" -> false;
+            default -> throw new IllegalArgumentException("arrivals must be poisson or constant");
+        };
+        this.warmUp = Duration.parse(properties.getProperty("warm-up", "PT30S"));
+        this.duration = Duration.parse(properties.getProperty("duration", "PT1M"));
+        this.maxInFlight = Integer.parseInt(properties.getProperty("max-in-flight", "2000"));
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(MIX_PREFIX)) {
+                int weight = Integer.parseInt(properties.getProperty(key));
+                if (weight > 0) {
+                    mix.put(LoadTestOperation.forKey(key.substring(MIX_PREFIX.length())), weight);
+                }
+            } else if (key.startsWith(APPLICATION_PREFIX)) {
+                applicationArguments.add("--" + key.substring(APPLICATION_PREFIX.length()) + "=" + properties.getProperty(key));
+            }
+        }
+        if (mix.isEmpty() || users < 1 || rate <= 0) {
+            throw new IllegalArgumentException("Scenario " + name + " needs users, a rate and at least one mix.* weight");
+        }
+        // One slot per unit of weight, so picking an operation is a single array read
+        this.weighted = mix.entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(LoadTestOperation[]::new);
+    }
+
+    /**
+     * Load a scenario by name from {@code src/test/resources/loadtest}, or from a file path.
+     *
+     * @param nameOrPath scenario name without extension, or a path to a properties file
+     * @return the scenario
+     * @throws IOException if it cannot be read
+     */
+    static LoadTestScenario load(String nameOrPath) throws IOException {
+        Path path = Path.of(nameOrPath);
+        if (Files.isRegularFile(path)) {
+            String fileName = path.getFileName().toString();
+            return new LoadTestScenario(fileName.replaceFirst("\\.properties$", ""), Files.readString(path));
+        }
+        try (InputStream in = LoadTestScenario.class.getResourceAsStream("/loadtest/" + nameOrPath + ".properties")) {
+            if (in == null) {
+                throw new IllegalArgumentException("No load test scenario " + nameOrPath);
+            }
+            return new LoadTestScenario(nameOrPath, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Nanoseconds from one request start to the next.
+     */
+    long nextGapNanos(Random random) {
+        double mean = 1e9 / rate;
+        return poisson ? (long) (-Math.log(1 - random.nextDouble()) * mean) : (long) mean;
+    }
+
+    LoadTestOperation pick(Random random) {
+        return weighted[random.nextInt(weighted.length)];
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getSource() {
+        return source;
+    }
+
+    int getUsers() {
+        return users;
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    Duration getWarmUp() {
+        return warmUp;
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    Map<LoadTestOperation, Integer> getMix() {
+        return mix;
+    }
+
+    List<String> getApplicationArguments() {
+        return applicationArguments;
+    }
+}
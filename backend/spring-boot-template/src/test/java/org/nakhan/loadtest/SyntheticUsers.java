@@ -0,0 +1,70 @@
+package org.nakhan.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Deterministic synthetic users: user {@code i} always has the same username, email and names,
+ * so requests can be generated from the index alone against a dataset seeded by an earlier run.
+ *
+ * First names are fixed-width codes, so a first-name search matches about
+ * {@code users / FIRST_NAMES} users however large the dataset is.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+final class SyntheticUsers {
+
+    static final int FIRST_NAMES = 50_000;
+    static final int LAST_NAMES = 5_000;
+
+    private SyntheticUsers() {
+    }
+
+    static String username(int i) {
+        return "lt" + Integer.toString(i, 36);
+    }
+
+    static String email(int i) {
+        return username(i) + "@load.test";
+    }
+
+    static String firstName(int i) {
+        return String.format("F%05d", i % FIRST_NAMES);
+    }
+
+    static String lastName(int i) {
+        return String.format("L%04d", i % LAST_NAMES);
+    }
+
+    /** One user in twenty is inactive. */
+    static boolean active(int i) {
+        return i % 20 != 0;
+    }
+
+    /**
+     * Write users {@code 0} to {@code count - 1} as a CSV file for the bulk import endpoint.
+     * No password column is written, so the imported users get unusable passwords and the
+     * import does not spend time hashing.
+     *
+     * @param file the file to write
+     * @param count number of users
+     * @throws IOException if the file cannot be written
+     */
+    static void writeCsv(Path file, int count) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("username,email,first_name,last_name,active\n");
+            StringBuilder line = new StringBuilder(96);
+            for (int i = 0; i < count; i++) {
+                line.setLength(0);
+                line.append(username(i)).append(',').append(email(i)).append(',')
+                        .append(firstName(i)).append(',').append(lastName(i)).append(',')
+                        .append(active(i)).append('\n');
+                writer.append(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.nakhan.testing.integration;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.dto.UserSummary;
+import org.nakhan.entity.User;
+import org.nakhan.repository.MongoUserRepository;
+import org.nakhan.repository.UserRepository;
+import org.nakhan.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the MongoDB user store, run against an in-memory MongoDB server.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@SpringBootTest
+@ActiveProfiles("mongo")
+@DisplayName("MongoUserRepository Integration Tests")
+class MongoUserRepositoryIntegrationTest {
+
+    private static final MongoServer mongo = new MongoServer(new MemoryBackend());
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> "mongodb://" + hostAndPort() + "/fullstack_dev");
+    }
+
+    private static synchronized String hostAndPort() {
+        if (mongo.getLocalAddress() == null) {
+            mongo.bind();
+        }
+        return mongo.getLocalAddress().getHostString() + ":" + mongo.getLocalAddress().getPort();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        mongo.shutdownNow();
+    }
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should replace the JPA repository with the MongoDB store")
+    void shouldUseMongoStore() {
+        assertThat(userRepository).isInstanceOf(MongoUserRepository.class);
+    }
+
+    @Test
+    @DisplayName("Should save and find users by id, username and email")
+    void shouldSaveAndFindUser() {
+        // Given
+        User user = new User("mongouser", "mongo@example.com", "password123");
+        user.setFirstName("Mongo");
+
+        // When
+        User saved = userRepository.save(user);
+
+        // Then
+        assertThat(saved.getId()).isNotNull();
+        assertThat(userRepository.findById(saved.getId())).get()
+            .extracting(User::getUsername, User::getFirstName, User::getActive)
+            .containsExactly("mongouser", "Mongo", true);
+        assertThat(userRepository.findByUsername("mongouser")).isPresent();
+        assertThat(userRepository.findByEmail("mongo@example.com")).isPresent();
+        assertThat(userRepository.existsByUsername("mongouser")).isTrue();
+        assertThat(userRepository.existsByEmail("other@example.com")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should update users in place and delete them")
+    void shouldUpdateAndDelete() {
+        // Given
+        User saved = userRepository.save(new User("updatable", "updatable@example.com", "password123"));
+
+        // When
+        saved.setActive(false);
+        userRepository.save(saved);
+
+        // Then
+        assertThat(userRepository.count()).isEqualTo(1);
+        assertThat(userRepository.countByActive(false)).isEqualTo(1);
+
+        userRepository.deleteById(saved.getId());
+        assertThat(userRepository.existsById(saved.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should write batches in bulk and stream them back")
+    void shouldSaveAllAndStream() {
+        // Given
+        List<User> users = IntStream.range(0, 250)
+            .mapToObj(i -> new User("bulk" + i, "bulk" + i + "@example.com", "password123"))
+            .toList();
+
+        // When
+        userRepository.saveAll(users);
+
+        // Then
+        try (Stream<User> stream = userRepository.streamAll()) {
+            assertThat(stream.count()).isEqualTo(250);
+        }
+        assertThat(userRepository.findByFirstNameContainingIgnoreCase("x")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should page through active users in username order")
+    void shouldPageActiveSummaries() {
+        // Given
+        userRepository.saveAll(List.of(
+            new User("carol", "carol@example.com", "password123"),
+            new User("alice", "alice@example.com", "password123"),
+            new User("bob", "bob@example.com", "password123")));
+
+        // When
+        List<UserSummary> firstPage = userRepository.findActiveSummariesAfter("", Limit.of(2));
+        List<UserSummary> secondPage = userRepository.findActiveSummariesAfter("bob", Limit.of(2));
+
+        // Then
+        assertThat(firstPage).extracting(UserSummary::getUsername).containsExactly("alice", "bob");
+        assertThat(secondPage).extracting(UserSummary::getUsername).containsExactly("carol");
+        assertThat(firstPage.get(0).getEmail()).isEqualTo("alice@example.com");
+    }
+
+    @Test
+    @DisplayName("Should keep the UserService duplicate checks")
+    void shouldRejectDuplicatesThroughService() {
+        // Given
+        userService.createUser(new User("unique", "unique@example.com", "password123"));
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUser(new User("unique", "another@example.com", "password123")))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessage("Username already exists");
+        assertThat(userService.getUserByUsername("unique")).isPresent();
+    }
+}
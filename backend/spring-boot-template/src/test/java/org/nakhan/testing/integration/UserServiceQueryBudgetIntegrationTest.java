@@ -0,0 +1,180 @@
+package org.nakhan.testing.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.active.ActiveUserIndexService;
+import org.nakhan.entity.User;
+import org.nakhan.service.UserService;
+import org.nakhan.testing.queries.ExpectQueries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Statement budgets for the {@link UserService} flows on the default H2 database, so an
+ * added lookup or an N+1 fails the build with the SQL that ran.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@SpringBootTest
+@DisplayName("UserService Query Budget Integration Tests")
+class UserServiceQueryBudgetIntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ActiveUserIndexService activeUserIndexService;
+
+    private User existing;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = "budget" + SEQUENCE.incrementAndGet();
+        existing = userService.createUser(newUser("existing-" + suffix));
+        activeUserIndexService.rebuildAsync().join();
+    }
+
+    @Test
+    @ExpectQueries(select = 4, insert = 1)
+    @DisplayName("Should check username and email in the live and archived tables, then insert once")
+    void createUser() {
+        // When
+        User created = userService.createUser(newUser("created-" + suffix));
+
+        // Then
+        assertThat(created.getId()).isNotNull();
+    }
+
+    @Test
+    @ExpectQueries(select = 8, insert = 1, allThreads = true)
+    @DisplayName("Should check availability before hashing and again before the insert")
+    void registerUser() {
+        // When
+        User registered = userService.registerUser(newUser("registered-" + suffix), "secret123").join();
+
+        // Then
+        assertThat(registered.getPassword()).startsWith("$2");
+    }
+
+    @Test
+    @ExpectQueries
+    @DisplayName("Should find a cached user by id without a query")
+    void getUserById() {
+        // When / Then
+        assertThat(userService.getUserById(existing.getId())).isPresent();
+    }
+
+    @Test
+    @ExpectQueries(select = 2)
+    @DisplayName("Should look in the live and archived tables for an unknown id")
+    void getUnknownUserById() {
+        // When / Then
+        assertThat(userService.getUserById(-1L)).isEmpty();
+    }
+
+    @Test
+    @ExpectQueries
+    @DisplayName("Should find a cached user by username through the natural-id cache")
+    void getUserByUsername() {
+        // When / Then
+        assertThat(userService.getUserByUsername(existing.getUsername())).isPresent();
+    }
+
+    @Test
+    @ExpectQueries(select = 1)
+    @DisplayName("Should find a user by email with one select")
+    void getUserByEmail() {
+        // When / Then
+        assertThat(userService.getUserByEmail(existing.getEmail())).isPresent();
+    }
+
+    @Test
+    @ExpectQueries(update = 1)
+    @DisplayName("Should update a cached user with one update")
+    void updateUser() {
+        // Given
+        User details = newUser("existing-" + suffix);
+        details.setFirstName("Renamed");
+
+        // When / Then
+        assertThat(userService.updateUser(existing.getId(), details).getFirstName()).isEqualTo("Renamed");
+    }
+
+    @Test
+    @ExpectQueries(update = 1, allThreads = true)
+    @DisplayName("Should update a cached user and its password with one update")
+    void updateUserWithPassword() {
+        // Given
+        User details = newUser("existing-" + suffix);
+        details.setFirstName("Renamed");
+
+        // When
+        User updated = userService.updateUser(existing.getId(), details, "secret123").join();
+
+        // Then
+        assertThat(updated.getFirstName()).isEqualTo("Renamed");
+        assertThat(updated.getPassword()).startsWith("$2");
+    }
+
+    @Test
+    @ExpectQueries(update = 1)
+    @DisplayName("Should deactivate a cached user with one update")
+    void deactivateUser() {
+        // When / Then
+        assertThat(userService.deactivateUser(existing.getId()).getActive()).isFalse();
+    }
+
+    @Test
+    @ExpectQueries(select = 1, delete = 1)
+    @DisplayName("Should check the user exists, then delete once")
+    void deleteUser() {
+        // When / Then
+        assertThatCode(() -> userService.deleteUser(existing.getId())).doesNotThrowAnyException();
+    }
+
+    @Test
+    @ExpectQueries(select = 1)
+    @DisplayName("Should search users by first name with one select")
+    void searchUsersByFirstName() {
+        // When / Then
+        assertThat(userService.searchUsersByFirstName("Budget")).isNotEmpty();
+    }
+
+    @Test
+    @ExpectQueries(select = 1)
+    @DisplayName("Should page active users with one select")
+    void getActiveUserPage() {
+        // When / Then
+        assertThat(userService.getActiveUserPage(null, 10)).isNotEmpty();
+    }
+
+    @Test
+    @ExpectQueries
+    @DisplayName("Should answer counts, id pages and status checks from the active user index")
+    void activeUserIndexReads() {
+        // When
+        long active = userService.getUserCountByStatus(true);
+        List<Long> ids = userService.getActiveUserIds(null, 10);
+
+        // Then
+        assertThat(active).isPositive();
+        assertThat(ids).isNotEmpty();
+        assertThat(userService.getActiveStatus(List.of(existing.getId()))).containsEntry(existing.getId(), true);
+    }
+
+    private User newUser(String username) {
+        User user = new User(username, username + "@budget.test", "secret123");
+        user.setFirstName("Budget");
+        user.setLastName("Test");
+        user.setActive(true);
+        return user;
+    }
+}
@@ -0,0 +1,178 @@
+package org.nakhan.testing.mockito;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.nakhan.bulkhead.ConnectionBudgetExhaustedException;
+import org.nakhan.controller.OverloadExceptionHandler;
+import org.nakhan.controller.UserController;
+import org.nakhan.dto.UserDto;
+import org.nakhan.entity.User;
+import org.nakhan.limiter.DatabaseOverloadedException;
+import org.nakhan.service.UserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.CannotCreateTransactionException;
+import java.sql.SQLTransientConnectionException;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mockito tests for how UserController answers failed and shed requests.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserController Mockito Tests")
+class UserControllerTest {
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private UserController userController;
+
+    private UserDto userDto;
+
+    @BeforeEach
+    void setUp() {
+        userDto = new UserDto();
+        userDto.setUsername("testuser");
+        userDto.setEmail("test@example.com");
+        userDto.setPassword("password123");
+        userDto.setFirstName("Test");
+        userDto.setLastName("User");
+        userDto.setActive(true);
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when the limiter rejects a delete")
+    void shouldAnswerServiceUnavailableWhenDeleteIsRejected() {
+        // Given
+        doThrow(new DatabaseOverloadedException()).when(userService).deleteUser(1L);
+
+        // When
+        ResponseEntity<Void> response = userController.deleteUser(1L);
+
+        // Then
+        assertShed(response);
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when the limiter rejects an activation")
+    void shouldAnswerServiceUnavailableWhenActivateIsRejected() {
+        // Given
+        when(userService.activateUser(1L)).thenThrow(new DatabaseOverloadedException());
+        when(userService.deactivateUser(1L)).thenThrow(new DatabaseOverloadedException());
+
+        // When / Then
+        assertShed(userController.activateUser(1L));
+        assertShed(userController.deactivateUser(1L));
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when the limiter rejects an update without a password")
+    void shouldAnswerServiceUnavailableWhenUpdateIsRejected() {
+        // Given
+        userDto.setPassword(null);
+        when(userService.updateUser(eq(1L), any(User.class))).thenThrow(new DatabaseOverloadedException());
+
+        // When
+        ResponseEntity<User> response = userController.updateUser(1L, userDto).join();
+
+        // Then
+        assertShed(response);
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when the limiter rejects the availability check of a create")
+    void shouldAnswerServiceUnavailableWhenCreateIsRejected() {
+        // Given
+        when(userService.registerUser(any(User.class), eq("password123"))).thenThrow(new DatabaseOverloadedException());
+
+        // When
+        ResponseEntity<User> response = userController.createUser(userDto).join();
+
+        // Then
+        assertShed(response);
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when the compartment's connection budget is used up on a write")
+    void shouldAnswerServiceUnavailableWhenWriteFindsNoConnection() {
+        // Given
+        when(userService.activateUser(1L)).thenThrow(budgetExhausted());
+
+        // When
+        ResponseEntity<User> response = userController.activateUser(1L);
+
+        // Then
+        assertShed(response);
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when the compartment's connection budget is used up on a read")
+    void shouldAnswerServiceUnavailableWhenReadFindsNoConnection() throws Exception {
+        // Given
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(new OverloadExceptionHandler())
+                .build();
+        when(userService.getUserById(1L)).thenThrow(budgetExhausted());
+
+        // When / Then
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    @DisplayName("Should leave other connection failures of a read to the default error handling")
+    void shouldNotShedOtherConnectionFailures() {
+        // Given
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(new OverloadExceptionHandler())
+                .build();
+        when(userService.getUserById(1L)).thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager",
+                new SQLTransientConnectionException("Connection is not available")));
+
+        // When / Then
+        assertThatThrownBy(() -> mockMvc.perform(get("/api/users/1")))
+                .hasRootCauseInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    @DisplayName("Should still answer 404 when the user does not exist")
+    void shouldAnswerNotFoundForMissingUser() {
+        // Given
+        doThrow(new RuntimeException("User not found with id: 1")).when(userService).deleteUser(1L);
+
+        // When
+        ResponseEntity<Void> response = userController.deleteUser(1L);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getHeaders().containsKey(HttpHeaders.RETRY_AFTER)).isFalse();
+    }
+
+    private static CannotCreateTransactionException budgetExhausted() {
+        return new CannotCreateTransactionException("Could not open JPA EntityManager",
+                new ConnectionBudgetExhaustedException("write"));
+    }
+
+    private static void assertShed(ResponseEntity<?> response) {
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+}
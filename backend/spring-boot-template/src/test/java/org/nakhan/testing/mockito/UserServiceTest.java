@@ -7,12 +7,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.nakhan.active.ActiveUserIndexService;
+import org.nakhan.credential.CredentialService;
 import org.nakhan.entity.User;
+import org.nakhan.event.UserChangedEvent;
 import org.nakhan.repository.UserRepository;
 import org.nakhan.service.UserService;
+import org.nakhan.snapshot.UserSnapshotService;
+import org.nakhan.warmup.HotKeyWarmUpService;
+import org.springframework.context.ApplicationEventPublisher;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -31,9 +38,26 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserSnapshotService userSnapshotService;
+
+    @Mock
+    private ActiveUserIndexService activeUserIndexService;
+
+    @Mock
+    private CredentialService credentialService;
+
+    @Mock
+    private HotKeyWarmUpService hotKeyWarmUpService;
+
     @InjectMocks
     private UserService userService;
 
+    private static final String HASH = "$2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW";
+
     private User testUser;
 
     @BeforeEach
@@ -242,6 +266,26 @@ class UserServiceTest {
         verify(userRepository).save(testUser);
     }
 
+    @Test
+    @DisplayName("Should restore an archived user before activating it")
+    void shouldRestoreArchivedUserWhenActivating() {
+        // Given
+        testUser.setActive(false);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty()).thenReturn(Optional.of(testUser));
+        when(userRepository.restoreArchived(1L)).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // When
+        User result = userService.activateUser(1L);
+
+        // Then
+        assertThat(result.getActive()).isTrue();
+
+        verify(userRepository).restoreArchived(1L);
+        verify(userRepository, times(2)).findById(1L);
+        verify(userRepository).save(testUser);
+    }
+
     @Test
     @DisplayName("Should search users by first name")
     void shouldSearchUsersByFirstName() {
@@ -274,6 +318,86 @@ class UserServiceTest {
         verify(userRepository).countByActive(true);
     }
 
+    @Test
+    @DisplayName("Should save a registered user with the hashed password")
+    void shouldRegisterUserWithHashedPassword() {
+        // Given
+        when(credentialService.hash("password123")).thenReturn(CompletableFuture.completedFuture(HASH));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        User result = userService.registerUser(testUser, "password123").join();
+
+        // Then
+        assertThat(result.getPassword()).isEqualTo(HASH);
+        verify(eventPublisher).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should upgrade a legacy password after a successful login")
+    void shouldUpgradeLegacyPasswordOnLogin() {
+        // Given
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(credentialService.verify("password123", "password123")).thenReturn(CompletableFuture.completedFuture(true));
+        when(credentialService.needsUpgrade("password123")).thenReturn(true);
+        when(credentialService.hash("password123")).thenReturn(CompletableFuture.completedFuture(HASH));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Optional<User> result = userService.authenticate("testuser", "password123").join();
+
+        // Then
+        assertThat(result).get().extracting(User::getPassword).isEqualTo(HASH);
+        verify(userRepository).save(testUser);
+    }
+
+    @Test
+    @DisplayName("Should save a new password and details of a user together")
+    void shouldUpdateUserWithPassword() {
+        // Given
+        User details = new User();
+        details.setUsername("renamed");
+        details.setEmail("renamed@example.com");
+        details.setActive(true);
+        when(credentialService.hash("secret123")).thenReturn(CompletableFuture.completedFuture(HASH));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        User result = userService.updateUser(1L, details, "secret123").join();
+
+        // Then
+        assertThat(result.getUsername()).isEqualTo("renamed");
+        assertThat(result.getPassword()).isEqualTo(HASH);
+        verify(userRepository, times(1)).save(testUser);
+    }
+
+    @Test
+    @DisplayName("Should refuse to store a password that is not a BCrypt hash")
+    void shouldRefuseUnhashedPassword() {
+        // When / Then
+        assertThatThrownBy(() -> userService.storePassword(1L, "password123", null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a wrong password without rehashing")
+    void shouldRejectWrongPassword() {
+        // Given
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(credentialService.verify("wrong", "password123")).thenReturn(CompletableFuture.completedFuture(false));
+
+        // When
+        Optional<User> result = userService.authenticate("testuser", "wrong").join();
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(credentialService, never()).hash(anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     // Helper method to create another user for testing
     private User createAnotherUser() {
         User anotherUser = new User();
@@ -0,0 +1,49 @@
+package org.nakhan.testing.queries;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Statement budget for a test running in a Spring application context: the test fails unless
+ * it runs exactly this many statements of each kind, and the failure lists the SQL it ran.
+ * <pre>
+ * &#64;Test
+ * &#64;ExpectQueries(select = 4, insert = 1)
+ * void shouldCreateUser() { ... }
+ * </pre>
+ * Only the test method body is counted, not {@code @BeforeEach} set-up. A JDBC batch counts
+ * as one statement. Statements run by other threads are counted only with
+ * {@link #allThreads()}, for flows that finish on an executor; wait for them inside the test.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ * @see QueryCountExtension
+ */
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(QueryCountExtension.class)
+public @interface ExpectQueries {
+
+    int select() default 0;
+
+    int insert() default 0;
+
+    int update() default 0;
+
+    int delete() default 0;
+
+    /**
+     * Statements of any other kind, such as {@code MERGE} or DDL.
+     */
+    int other() default 0;
+
+    /**
+     * Count statements from every thread instead of only the test's own.
+     */
+    boolean allThreads() default false;
+}
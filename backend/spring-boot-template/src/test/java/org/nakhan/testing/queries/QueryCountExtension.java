@@ -0,0 +1,88 @@
+package org.nakhan.testing.queries;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the statement budget of tests annotated with {@link ExpectQueries}, by recording
+ * what runs through the application context's datasource-proxies between the end of
+ * {@code @BeforeEach} and the end of the test method.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryCountExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        ExpectQueries expected = expectation(context);
+        List<QueryRecorder> recorders = recorders(SpringExtension.getApplicationContext(context));
+        recorders.forEach(recorder -> recorder.start(expected.allThreads()));
+        context.getStore(NAMESPACE).put(QueryRecorder.class, recorders);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterTestExecution(ExtensionContext context) {
+        List<QueryRecorder> recorders = context.getStore(NAMESPACE).remove(QueryRecorder.class, List.class);
+        List<QueryRecorder.RecordedQuery> queries = new ArrayList<>();
+        recorders.forEach(recorder -> queries.addAll(recorder.stop()));
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        Map<QueryRecorder.Kind, Integer> expected = budget(expectation(context));
+        Map<QueryRecorder.Kind, Integer> actual = new EnumMap<>(QueryRecorder.Kind.class);
+        expected.keySet().forEach(kind -> actual.put(kind, 0));
+        queries.forEach(query -> actual.merge(query.kind(), 1, Integer::sum));
+        if (!expected.equals(actual)) {
+            throw new AssertionFailedError("Expected " + describe(expected) + " but ran " + describe(actual) + ":"
+                + queries.stream().map(query -> "\n  " + query).collect(Collectors.joining()),
+                describe(expected), describe(actual));
+        }
+    }
+
+    private static ExpectQueries expectation(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), ExpectQueries.class)
+            .orElseThrow(() -> new IllegalStateException("No @ExpectQueries on " + context.getDisplayName()));
+    }
+
+    private static List<QueryRecorder> recorders(ApplicationContext applicationContext) {
+        List<QueryRecorder> recorders = applicationContext.getBeansOfType(ProxyDataSource.class).values().stream()
+            .map(QueryRecorder::of)
+            .toList();
+        if (recorders.isEmpty()) {
+            throw new IllegalStateException("@ExpectQueries needs the datasource-proxy installed by app.query-stats.enabled=true");
+        }
+        return recorders;
+    }
+
+    private static Map<QueryRecorder.Kind, Integer> budget(ExpectQueries expected) {
+        Map<QueryRecorder.Kind, Integer> budget = new EnumMap<>(QueryRecorder.Kind.class);
+        budget.put(QueryRecorder.Kind.SELECT, expected.select());
+        budget.put(QueryRecorder.Kind.INSERT, expected.insert());
+        budget.put(QueryRecorder.Kind.UPDATE, expected.update());
+        budget.put(QueryRecorder.Kind.DELETE, expected.delete());
+        budget.put(QueryRecorder.Kind.OTHER, expected.other());
+        return budget;
+    }
+
+    private static String describe(Map<QueryRecorder.Kind, Integer> counts) {
+        return counts.entrySet().stream()
+            .map(entry -> entry.getKey().name().toLowerCase(Locale.ROOT) + "=" + entry.getValue())
+            .collect(Collectors.joining(", ", "{", "}"));
+    }
+}
@@ -0,0 +1,128 @@
+package org.nakhan.testing.queries;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.ChainListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records the statements run through an application's datasource-proxy, which
+ * {@code QueryStatsDataSourcePostProcessor} puts around every {@code DataSource} bean.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+public final class QueryRecorder implements QueryExecutionListener {
+
+    /**
+     * Kinds of statement, by their first keyword.
+     */
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+        static Kind of(String sql) {
+            String keyword = sql.stripLeading().split("\\s", 2)[0].toLowerCase(Locale.ROOT);
+            return switch (keyword) {
+                case "select", "with", "values" -> SELECT;
+                case "insert" -> INSERT;
+                case "update" -> UPDATE;
+                case "delete" -> DELETE;
+                default -> OTHER;
+            };
+        }
+    }
+
+    /**
+     * One executed statement.
+     *
+     * @param kind its kind
+     * @param sql its SQL
+     * @param batchSize the number of parameter sets, 1 for a statement outside a batch
+     * @param thread the name of the thread that ran it
+     */
+    public record RecordedQuery(Kind kind, String sql, int batchSize, String thread) {
+
+        @Override
+        public String toString() {
+            return "[" + kind.name().toLowerCase(Locale.ROOT) + (batchSize > 1 ? " x" + batchSize : "") + "] "
+                + sql + (thread.equals(Thread.currentThread().getName()) ? "" : "  (thread " + thread + ")");
+        }
+    }
+
+    private final List<RecordedQuery> queries = new ArrayList<>();
+    private volatile boolean recording;
+    private volatile Thread owner;
+
+    private QueryRecorder() {
+    }
+
+    /**
+     * Find the recorder attached to a datasource-proxy, attaching one on first use.
+     *
+     * @param dataSource the application's data source
+     * @return its recorder
+     * @throws IllegalStateException if the data source is not proxied (app.query-stats.enabled=false)
+     */
+    public static synchronized QueryRecorder of(ProxyDataSource dataSource) {
+        QueryExecutionListener listener = dataSource.getProxyConfig().getQueryListener();
+        if (!(listener instanceof ChainListener chain)) {
+            throw new IllegalStateException("The data source has no listener chain to join");
+        }
+        for (QueryExecutionListener existing : chain.getListeners()) {
+            if (existing instanceof QueryRecorder recorder) {
+                return recorder;
+            }
+        }
+        QueryRecorder recorder = new QueryRecorder();
+        chain.addListener(recorder);
+        return recorder;
+    }
+
+    /**
+     * Start recording, discarding anything recorded before.
+     *
+     * @param allThreads record statements from every thread, not only the calling one
+     */
+    public synchronized void start(boolean allThreads) {
+        queries.clear();
+        owner = allThreads ? null : Thread.currentThread();
+        recording = true;
+    }
+
+    /**
+     * Stop recording.
+     *
+     * @return the statements run since {@link #start(boolean)}, in order
+     */
+    public synchronized List<RecordedQuery> stop() {
+        recording = false;
+        return List.copyOf(queries);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Thread thread = Thread.currentThread();
+        if (!recording || (owner != null && owner != thread)) {
+            return;
+        }
+        List<RecordedQuery> executed = new ArrayList<>(queryInfoList.size());
+        for (QueryInfo queryInfo : queryInfoList) {
+            String sql = queryInfo.getQuery();
+            executed.add(new RecordedQuery(Kind.of(sql), sql, Math.max(1, queryInfo.getParametersList().size()),
+                thread.getName()));
+        }
+        synchronized (this) {
+            if (recording) {
+                queries.addAll(executed);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.nakhan.testing.unit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.active.ActiveUserIndex;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the active user bitmap index.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("ActiveUserIndex Unit Tests")
+class ActiveUserIndexTest {
+
+    // Snowflake-sized ids, spread over several bitmap containers
+    private static final long BASE = 7_212_345_678_901_234_567L;
+
+    @Test
+    @DisplayName("Should count ids per status and move them between statuses")
+    void shouldCountAndMoveIds() {
+        // Given
+        ActiveUserIndex index = new ActiveUserIndex();
+        for (long i = 0; i < 10_000; i++) {
+            index.set(BASE + i * 4096, i % 10 != 0);
+        }
+
+        // When
+        index.set(BASE, true);
+        index.set(BASE + 4096, false);
+        index.set(BASE + 4096, false);
+        index.remove(BASE + 2 * 4096);
+        index.remove(BASE + 2 * 4096);
+
+        // Then
+        assertThat(index.count(true)).isEqualTo(9_000 + 1 - 1 - 1);
+        assertThat(index.count(false)).isEqualTo(1_000 - 1 + 1);
+        assertThat(index.isActive(BASE)).isTrue();
+        assertThat(index.isActive(BASE + 4096)).isFalse();
+        assertThat(index.isActive(BASE + 2 * 4096)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should page through active ids in ascending order")
+    void shouldPageActiveIds() {
+        // Given
+        ActiveUserIndex index = new ActiveUserIndex();
+        List.of(BASE + 5, BASE + 1, BASE + 3, BASE + 70_000).forEach(id -> index.set(id, true));
+        index.set(BASE + 2, false);
+
+        // When
+        List<Long> first = index.activeIdsAfter(null, 2);
+        List<Long> second = index.activeIdsAfter(first.get(1), 2);
+        List<Long> last = index.activeIdsAfter(second.get(1), 2);
+
+        // Then
+        assertThat(first).containsExactly(BASE + 1, BASE + 3);
+        assertThat(second).containsExactly(BASE + 5, BASE + 70_000);
+        assertThat(last).isEmpty();
+        assertThat(index.activeIdsAfter(Long.MAX_VALUE, 2)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report the status of each requested id and the drift between indexes")
+    void shouldReportStatusAndDrift() {
+        // Given
+        ActiveUserIndex live = new ActiveUserIndex();
+        ActiveUserIndex rebuilt = new ActiveUserIndex();
+        live.set(BASE + 1, true);
+        live.set(BASE + 2, true);
+        rebuilt.set(BASE + 2, true);
+        rebuilt.set(BASE + 3, true);
+
+        // When
+        Map<Long, Boolean> status = live.activeStatus(List.of(BASE + 3, BASE + 1, 42L));
+
+        // Then
+        assertThat(status).containsExactly(Map.entry(BASE + 3, false), Map.entry(BASE + 1, true), Map.entry(42L, false));
+        assertThat(rebuilt.activeDifference(live)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should compress dense id ranges into runs")
+    void shouldCompressDenseRanges() {
+        // Given
+        ActiveUserIndex index = new ActiveUserIndex();
+        for (long i = 0; i < 100_000; i++) {
+            index.set(BASE + i, true);
+        }
+
+        // When
+        index.optimize();
+
+        // Then
+        assertThat(index.count(true)).isEqualTo(100_000);
+        assertThat(index.sizeInBytes()).isLessThan(2_000);
+    }
+}
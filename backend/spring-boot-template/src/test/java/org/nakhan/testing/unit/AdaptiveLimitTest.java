@@ -0,0 +1,109 @@
+package org.nakhan.testing.unit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.limiter.AdaptiveLimit;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the gradient concurrency limit.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("AdaptiveLimit Unit Tests")
+class AdaptiveLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(4);
+
+    @Test
+    @DisplayName("Should raise the limit while round-trip times stay flat")
+    void shouldGrowWhileLatencyIsFlat() {
+        // Given
+        AdaptiveLimit limit = limit(1000);
+
+        // When
+        sample(limit, FAST, 30);
+
+        // Then
+        assertThat(limit.getLimit()).isGreaterThan(10);
+        assertThat(limit.getNoLoadRtt()).isEqualTo(FAST);
+    }
+
+    @Test
+    @DisplayName("Should cut the limit back when round-trip times climb")
+    void shouldShrinkWhenLatencyClimbs() {
+        // Given
+        AdaptiveLimit limit = limit(1000);
+        sample(limit, FAST, 10);
+        int beforeSlowdown = limit.getLimit();
+
+        // When
+        sample(limit, SLOW, 30);
+
+        // Then
+        assertThat(limit.getLimit()).isLessThan(beforeSlowdown);
+        assertThat(limit.getRtt()).isGreaterThan(3 * FAST);
+    }
+
+    @Test
+    @DisplayName("Should leave the limit alone while most of it is unused")
+    void shouldIgnoreSamplesWhileAppLimited() {
+        // Given
+        AdaptiveLimit limit = limit(1000);
+
+        // When
+        for (int i = 0; i < 30; i++) {
+            limit.onSample(i % 2 == 0 ? FAST : SLOW, 1);
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should back off multiplicatively on drops, down to the minimum")
+    void shouldBackOffOnDrops() {
+        // Given
+        AdaptiveLimit limit = limit(1000);
+
+        // When
+        int afterOneDrop = limit.onDrop();
+        for (int i = 0; i < 50; i++) {
+            limit.onDrop();
+        }
+
+        // Then
+        assertThat(afterOneDrop).isEqualTo(9);
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should forget the no-load round-trip time and drop to a probing limit every probe interval")
+    void shouldProbeNoLoadLatency() {
+        // Given
+        AdaptiveLimit limit = new AdaptiveLimit(16, 2, 50, 1.5, 0.2, 0.9, 5);
+        sample(limit, FAST, 4);
+
+        // When
+        int probing = limit.onSample(SLOW, limit.getLimit());
+
+        // Then
+        assertThat(probing).isLessThanOrEqualTo(5);
+        assertThat(limit.getNoLoadRtt()).isZero();
+        limit.onSample(SLOW, probing);
+        assertThat(limit.getNoLoadRtt()).isEqualTo(SLOW);
+    }
+
+    private static AdaptiveLimit limit(int probeInterval) {
+        return new AdaptiveLimit(10, 2, 50, 1.5, 0.2, 0.9, probeInterval);
+    }
+
+    private static void sample(AdaptiveLimit limit, long rtt, int times) {
+        for (int i = 0; i < times; i++) {
+            limit.onSample(rtt, limit.getLimit());
+        }
+    }
+}
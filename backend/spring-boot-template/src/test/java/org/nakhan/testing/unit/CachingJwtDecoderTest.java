@@ -0,0 +1,174 @@
+package org.nakhan.testing.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.security.CachingJwtDecoder;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the verified-token cache in front of the JWT decoder.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("CachingJwtDecoder Unit Tests")
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeats from the cache")
+    void shouldCacheVerifiedTokens() {
+        // Given
+        CachingJwtDecoder decoder = decoder(NOW, 10);
+
+        // When
+        Jwt first = decoder.decode("token-a.60");
+        Jwt second = decoder.decode("token-a.60");
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+        assertThat(meterRegistry.get("security.jwt.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should verify again once a cached token has expired")
+    void shouldNotServeExpiredTokens() {
+        // Given
+        MutableClock clock = new MutableClock(NOW);
+        CachingJwtDecoder decoder = new CachingJwtDecoder(verifyingDecoder(clock), 10, clock, meterRegistry);
+        decoder.decode("token-a.60");
+
+        // When
+        clock.now = NOW.plusSeconds(61);
+
+        // Then
+        assertThatThrownBy(() -> decoder.decode("token-a.60")).isInstanceOf(BadJwtException.class);
+        assertThat(decoder.size()).isZero();
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest token at the size bound and never cache rejected tokens")
+    void shouldStayBounded() {
+        // Given
+        CachingJwtDecoder decoder = decoder(NOW, 2);
+
+        // When
+        decoder.decode("token-a.60");
+        decoder.decode("token-b.60");
+        decoder.decode("token-c.60");
+        decoder.decode("token-c.60");
+
+        // Then
+        assertThat(decoder.size()).isEqualTo(2);
+        assertThat(verifications).hasValue(3);
+        assertThatThrownBy(() -> decoder.decode("forged")).isInstanceOf(BadJwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should keep caching new tokens when more live tokens arrive than fit")
+    void shouldKeepCachingPastTheBound() {
+        // Given
+        CachingJwtDecoder decoder = decoder(NOW, 100);
+        for (int i = 0; i < 1000; i++) {
+            decoder.decode("token-" + i + ".60");
+        }
+        verifications.set(0);
+
+        // When
+        for (int i = 900; i < 1000; i++) {
+            decoder.decode("token-" + i + ".60");
+        }
+        decoder.decode("token-0.60");
+
+        // Then
+        assertThat(decoder.size()).isEqualTo(100);
+        assertThat(verifications).hasValue(1);
+        assertThat(meterRegistry.get("security.jwt.cache").tag("result", "hit").counter().count()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should not let tokens dropped on expiry shrink the cache")
+    void shouldRecoverRoomOfExpiredTokens() {
+        // Given
+        MutableClock clock = new MutableClock(NOW);
+        CachingJwtDecoder decoder = new CachingJwtDecoder(verifyingDecoder(clock), 2, clock, meterRegistry);
+        decoder.decode("token-a.10");
+        clock.now = NOW.plusSeconds(11);
+        assertThatThrownBy(() -> decoder.decode("token-a.10")).isInstanceOf(BadJwtException.class);
+
+        // When
+        decoder.decode("token-b.60");
+        decoder.decode("token-c.60");
+        verifications.set(0);
+        decoder.decode("token-b.60");
+        decoder.decode("token-c.60");
+
+        // Then
+        assertThat(decoder.size()).isEqualTo(2);
+        assertThat(verifications).hasValue(0);
+    }
+
+    private CachingJwtDecoder decoder(Instant now, int maxSize) {
+        MutableClock clock = new MutableClock(now);
+        return new CachingJwtDecoder(verifyingDecoder(clock), maxSize, clock, meterRegistry);
+    }
+
+    /**
+     * Stand-in for signature verification: "name.seconds" is valid for that many seconds after
+     * {@code issuedAt}, and expired tokens are rejected as a real decoder would.
+     */
+    private JwtDecoder verifyingDecoder(Clock clock) {
+        return token -> {
+            verifications.incrementAndGet();
+            int dot = token.lastIndexOf('.');
+            if (dot < 0) {
+                throw new BadJwtException("Invalid signature");
+            }
+            Instant expiresAt = NOW.plusSeconds(Long.parseLong(token.substring(dot + 1)));
+            if (!expiresAt.isAfter(clock.instant())) {
+                throw new BadJwtException("Jwt expired");
+            }
+            return Jwt.withTokenValue(token).header("alg", "RS256").subject(token)
+                .issuedAt(NOW).expiresAt(expiresAt).build();
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.nakhan.testing.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.bulkhead.Compartment;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for bulkhead compartments and their queueing-delay shedding.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("Compartment Unit Tests")
+class CompartmentTest {
+
+    private static final Duration TARGET = Duration.ofMillis(5);
+    private static final Duration INTERVAL = Duration.ofMillis(200);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Should admit requests up to its permits without queueing")
+    void shouldAdmitUpToPermits() throws Exception {
+        // Given
+        Compartment compartment = compartment(2, System::nanoTime);
+
+        // When
+        Compartment.Permit first = compartment.acquire(false);
+        Compartment.Permit second = compartment.acquire(false);
+
+        // Then
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(meterRegistry.get("bulkhead.active").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should hand a released permit to a waiting request")
+    void shouldHandOverReleasedPermit() throws Exception {
+        // Given
+        Compartment compartment = compartment(1, System::nanoTime);
+        Compartment.Permit held = compartment.acquire(false);
+        CompletableFuture<Compartment.Permit> waiting = CompletableFuture.supplyAsync(() -> acquire(compartment, false));
+        awaitQueued(1);
+
+        // When
+        held.release();
+        held.release();
+
+        // Then
+        assertThat(waiting.get(1, TimeUnit.SECONDS)).isNotNull();
+        assertThat(meterRegistry.get("bulkhead.active").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should shed after the interval while the queue has recently been empty")
+    void shouldAllowIntervalWhenNotOverloaded() throws Exception {
+        // Given
+        Compartment compartment = compartment(1, System::nanoTime);
+        compartment.acquire(false);
+
+        // When
+        long start = System.nanoTime();
+        Compartment.Permit shed = compartment.acquire(false);
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertThat(shed).isNull();
+        assertThat(waitedMillis).isGreaterThanOrEqualTo(INTERVAL.toMillis() - 10);
+        assertThat(rejections("queue-delay")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should shed after the target delay once the queue has not been empty for an interval")
+    void shouldShedAtTargetWhenOverloaded() throws Exception {
+        // Given
+        Compartment compartment = compartment(1, now::get);
+        compartment.acquire(false);
+        CompletableFuture<Compartment.Permit> standing = CompletableFuture.supplyAsync(() -> acquire(compartment, false));
+        awaitQueued(1);
+        now.addAndGet(INTERVAL.toNanos() + 1);
+
+        // When
+        long start = System.nanoTime();
+        Compartment.Permit shed = compartment.acquire(false);
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertThat(shed).isNull();
+        assertThat(waitedMillis).isLessThan(INTERVAL.toMillis() / 2);
+        standing.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should serve priority requests before queued ones")
+    void shouldServePriorityFirst() throws Exception {
+        // Given
+        Compartment compartment = new Compartment("test", 1, 1, TARGET, Duration.ofSeconds(5), Duration.ofSeconds(5),
+                Duration.ofMillis(10), meterRegistry, System::nanoTime);
+        Compartment.Permit held = compartment.acquire(false);
+        CompletableFuture<Compartment.Permit> normal = CompletableFuture.supplyAsync(() -> acquire(compartment, false));
+        awaitQueued(1);
+        CompletableFuture<Compartment.Permit> priority = CompletableFuture.supplyAsync(() -> acquire(compartment, true));
+        awaitQueued(2);
+
+        // When
+        held.release();
+
+        // Then
+        assertThat(priority.get(1, TimeUnit.SECONDS)).isNotNull();
+        assertThat(normal).isNotDone();
+        priority.get().release();
+        assertThat(normal.get(1, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    private Compartment compartment(int permits, LongSupplier clock) {
+        return new Compartment("test", permits, 1, TARGET, INTERVAL, Duration.ofSeconds(1), Duration.ofMillis(10),
+                meterRegistry, clock);
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("bulkhead.rejected").tag("reason", reason).counter().count();
+    }
+
+    private void awaitQueued(int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (meterRegistry.get("bulkhead.queued").gauge().value() < queued && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static Compartment.Permit acquire(Compartment compartment, boolean priority) {
+        try {
+            return compartment.acquire(priority);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
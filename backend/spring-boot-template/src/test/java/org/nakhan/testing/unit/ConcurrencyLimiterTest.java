@@ -0,0 +1,142 @@
+package org.nakhan.testing.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.limiter.AdaptiveLimit;
+import org.nakhan.limiter.ConcurrencyLimiter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the concurrency limiter, including its behavior in front of a simulated database
+ * whose calls slow down once more of them run than it has capacity for.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("ConcurrencyLimiter Unit Tests")
+class ConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should reject a call over the limit after the queue wait")
+    void shouldRejectOverLimit() throws Exception {
+        // Given
+        ConcurrencyLimiter limiter = fixedLimiter(1);
+        limiter.acquire();
+
+        // When
+        long start = System.nanoTime();
+        ConcurrencyLimiter.Permit rejected = limiter.acquire();
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertThat(rejected).isNull();
+        assertThat(waitedMillis).isGreaterThanOrEqualTo(15);
+        assertThat(meterRegistry.get("db.limiter.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should admit a queued call when one in flight completes")
+    void shouldAdmitQueuedCall() throws Exception {
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", new AdaptiveLimit(1, 1, 1, 1.5, 0.2, 0.9, 1000),
+                Duration.ofSeconds(5), meterRegistry, System::nanoTime);
+        ConcurrencyLimiter.Permit held = limiter.acquire();
+        CompletableFuture<ConcurrencyLimiter.Permit> waiting = CompletableFuture.supplyAsync(() -> acquire(limiter));
+        awaitQueued();
+
+        // When
+        held.success();
+        held.dropped();
+
+        // Then
+        assertThat(waiting.get(1, TimeUnit.SECONDS)).isNotNull();
+        assertThat(meterRegistry.get("db.limiter.dropped").counter().count()).isZero();
+        assertThat(meterRegistry.get("db.limiter.inflight").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should settle near the database's capacity and follow it down when it shrinks")
+    void shouldTrackDatabaseCapacity() throws Exception {
+        // Given
+        SimulatedDatabase database = new SimulatedDatabase(TimeUnit.MILLISECONDS.toNanos(2), 3);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", new AdaptiveLimit(12, 1, 20, 1.5, 0.2, 0.9, 200),
+                Duration.ZERO, meterRegistry, database::now);
+
+        // When
+        double atCapacityThree = database.run(limiter, 100, 100);
+        database.capacity = 1;
+        double atCapacityOne = database.run(limiter, 100, 100);
+
+        // Then
+        assertThat(atCapacityThree).isBetween(4.0, 9.0);
+        assertThat(atCapacityOne).isLessThan(atCapacityThree - 1);
+        assertThat(meterRegistry.get("db.limiter.rtt").tag("estimate", "no-load").timeGauge().value(TimeUnit.MILLISECONDS))
+            .isGreaterThanOrEqualTo(2);
+    }
+
+    private ConcurrencyLimiter fixedLimiter(int limit) {
+        return new ConcurrencyLimiter("test", new AdaptiveLimit(limit, limit, limit, 1.5, 0.2, 0.9, 1000),
+                Duration.ofMillis(20), meterRegistry, System::nanoTime);
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (meterRegistry.get("db.limiter.queued").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static ConcurrencyLimiter.Permit acquire(ConcurrencyLimiter limiter) {
+        try {
+            return limiter.acquire();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A database stand-in on a simulated clock: in each round every call the limiter admits runs
+     * at once, taking {@code baseNanos} while at most {@code capacity} run together and
+     * proportionally longer beyond that, as if they shared the capacity.
+     * {@link #run} reports the mean number of calls in flight once the limit has had time to settle.
+     */
+    private static final class SimulatedDatabase {
+
+        private final long baseNanos;
+        private int capacity;
+        private long now;
+
+        SimulatedDatabase(long baseNanos, int capacity) {
+            this.baseNanos = baseNanos;
+            this.capacity = capacity;
+        }
+
+        long now() {
+            return now;
+        }
+
+        double run(ConcurrencyLimiter limiter, int settleRounds, int measuredRounds) throws InterruptedException {
+            long measured = 0;
+            for (int round = 0; round < settleRounds + measuredRounds; round++) {
+                List<ConcurrencyLimiter.Permit> admitted = new ArrayList<>();
+                for (ConcurrencyLimiter.Permit permit = limiter.acquire(); permit != null; permit = limiter.acquire()) {
+                    admitted.add(permit);
+                }
+                now += baseNanos * Math.max(admitted.size(), capacity) / capacity;
+                admitted.forEach(ConcurrencyLimiter.Permit::success);
+                if (round >= settleRounds) {
+                    measured += admitted.size();
+                }
+            }
+            return (double) measured / measuredRounds;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.nakhan.testing.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.credential.CredentialService;
+import org.nakhan.credential.CredentialServiceBusyException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the bounded credential hashing service.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("CredentialService Unit Tests")
+class CredentialServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CredentialService credentialService;
+
+    @AfterEach
+    void tearDown() {
+        credentialService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hash, verify and flag weaker hashes and marked plain text for upgrade")
+    void shouldHashAndVerify() {
+        // Given
+        credentialService = new CredentialService(meterRegistry, 1, 10, Duration.ofMillis(1), 5, 5);
+        CredentialService stronger = new CredentialService(new SimpleMeterRegistry(), 1, 10, Duration.ofMillis(1), 6, 6);
+
+        // When
+        String hash = credentialService.hash("password123").join();
+
+        // Then
+        assertThat(hash).startsWith("$2a$05$");
+        assertThat(credentialService.verify("password123", hash).join()).isTrue();
+        assertThat(credentialService.verify("wrong", hash).join()).isFalse();
+        assertThat(credentialService.verify("password123", "{noop}password123").join()).isTrue();
+        assertThat(credentialService.verifyUnknown("password123").join()).isFalse();
+        assertThat(credentialService.needsUpgrade(hash)).isFalse();
+        assertThat(credentialService.needsUpgrade("{noop}password123")).isTrue();
+        assertThat(stronger.needsUpgrade(hash)).isTrue();
+        assertThat(meterRegistry.get("credentials.operation").tag("operation", "verify").timer().count()).isEqualTo(4);
+        stronger.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should never match a stored value that is neither a hash nor marked plain text")
+    void shouldNeverMatchMalformedHash() {
+        // Given
+        credentialService = new CredentialService(meterRegistry, 1, 10, Duration.ofMillis(1), 5, 5);
+        String truncated = "$2a$10$N9qo8uLOickgx2ZMRZoMye";
+        String hash = credentialService.hash("password123").join();
+
+        // When & Then
+        assertThat(credentialService.verify(truncated, truncated).join()).isFalse();
+        assertThat(credentialService.verify("password123", "password123").join()).isFalse();
+        assertThat(credentialService.verify("!", CredentialService.UNUSABLE_PASSWORD).join()).isFalse();
+        assertThat(credentialService.verify("", "").join()).isFalse();
+        assertThat(credentialService.verify(hash.substring(0, 59), hash.substring(0, 59)).join()).isFalse();
+        assertThat(credentialService.needsUpgrade(truncated)).isFalse();
+        assertThat(credentialService.needsUpgrade(CredentialService.UNUSABLE_PASSWORD)).isFalse();
+        assertThat(CredentialService.isHash(hash)).isTrue();
+        assertThat(CredentialService.isHash(truncated)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should refuse work once every thread and queue slot is taken")
+    void shouldRejectWhenSaturated() {
+        // Given
+        credentialService = new CredentialService(meterRegistry, 1, 1, Duration.ofMillis(1), 13, 13);
+
+        // When
+        CompletableFuture<String> running = credentialService.hash("first");
+        CompletableFuture<String> queued = credentialService.hash("second");
+        CompletableFuture<String> refused = credentialService.hash("third");
+
+        // Then
+        assertThat(running).isNotDone();
+        assertThat(queued).isNotDone();
+        assertThatThrownBy(refused::join)
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(CredentialServiceBusyException.class);
+        assertThat(meterRegistry.get("credentials.rejected").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,76 @@
+package org.nakhan.testing.unit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nakhan.imports.CsvRecordReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the resumable CSV reader used by bulk user imports.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("CsvRecordReader Unit Tests")
+class CsvRecordReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should parse quoted fields with commas, quotes and line breaks")
+    void shouldParseQuotedFields() throws IOException {
+        // Given
+        Path file = write("username,note\r\njdoe,\"Doe, \"\"JD\"\"\nline two\"\r\n\r\njsmith,\n");
+
+        // When & Then
+        try (CsvRecordReader reader = new CsvRecordReader(file, 0, 8)) {
+            assertThat(reader.next()).containsExactly("username", "note");
+            assertThat(reader.next()).containsExactly("jdoe", "Doe, \"JD\"\nline two");
+            assertThat(reader.next()).containsExactly("jsmith", "");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should resume from the offset reported after a record")
+    void shouldResumeFromCheckpoint() throws IOException {
+        // Given
+        Path file = write("username\nélodie\njdoe\njsmith");
+        long checkpoint;
+        try (CsvRecordReader reader = new CsvRecordReader(file, 0, 16)) {
+            reader.next();
+            reader.next();
+            checkpoint = reader.position();
+        }
+
+        // When & Then
+        try (CsvRecordReader reader = new CsvRecordReader(file, checkpoint, 16)) {
+            assertThat(reader.next()).containsExactly("jdoe");
+            assertThat(reader.next()).containsExactly("jsmith");
+            assertThat(reader.next()).isNull();
+            assertThat(reader.position()).isEqualTo(Files.size(file));
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip a UTF-8 byte order mark")
+    void shouldSkipByteOrderMark() throws IOException {
+        // Given
+        Path file = write("\uFEFFusername,email\n");
+
+        // When & Then
+        try (CsvRecordReader reader = new CsvRecordReader(file, 0, 64)) {
+            assertThat(reader.next()).containsExactly("username", "email");
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.write(directory.resolve("users.csv"), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
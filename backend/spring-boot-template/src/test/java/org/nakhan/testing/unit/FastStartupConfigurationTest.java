@@ -0,0 +1,65 @@
+package org.nakhan.testing.unit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.config.FastStartupConfiguration;
+import org.springframework.boot.LazyInitializationBeanFactoryPostProcessor;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the lazy initialization exclusions of the fast-startup profile.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("FastStartupConfiguration Unit Tests")
+class FastStartupConfigurationTest {
+
+    private static final List<String> CREATED = new ArrayList<>();
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> {
+                context.getEnvironment().setActiveProfiles(FastStartupConfiguration.PROFILE);
+                context.addBeanFactoryPostProcessor(new LazyInitializationBeanFactoryPostProcessor());
+            })
+            .withUserConfiguration(FastStartupConfiguration.class)
+            .withBean("scheduledJob", ScheduledJob.class)
+            .withBean("plainService", PlainService.class);
+
+    @Test
+    @DisplayName("Should create beans with scheduled methods at startup and others on first use")
+    void shouldKeepScheduledBeansEager() {
+        // Given
+        CREATED.clear();
+
+        contextRunner.run(context -> {
+            // When / Then
+            assertThat(CREATED).containsExactly("scheduledJob");
+
+            context.getBean(PlainService.class);
+            assertThat(CREATED).containsExactly("scheduledJob", "plainService");
+        });
+    }
+
+    static class ScheduledJob {
+
+        ScheduledJob() {
+            CREATED.add("scheduledJob");
+        }
+
+        @Scheduled(fixedDelay = 60_000)
+        void run() {
+        }
+    }
+
+    static class PlainService {
+
+        PlainService() {
+            CREATED.add("plainService");
+        }
+    }
+}
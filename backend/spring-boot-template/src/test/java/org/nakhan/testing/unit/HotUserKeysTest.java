@@ -0,0 +1,120 @@
+package org.nakhan.testing.unit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nakhan.warmup.HotUserKeys;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the access counts and file of hot user keys.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("HotUserKeys Unit Tests")
+class HotUserKeysTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should return the most-read keys of each kind, hottest first")
+    void shouldReturnHottestKeys() {
+        // Given
+        HotUserKeys keys = new HotUserKeys(100);
+        read(keys, 1L, 5);
+        read(keys, 2L, 9);
+        read(keys, 3L, 1);
+        keys.recordUsername("alice");
+        keys.recordUsername("bob");
+        keys.recordUsername("bob");
+
+        // When
+        HotUserKeys.Keys hottest = keys.drainHottest(2);
+
+        // Then
+        assertThat(hottest.ids()).containsExactly(2L, 1L);
+        assertThat(hottest.usernames()).containsExactly("bob", "alice");
+    }
+
+    @Test
+    @DisplayName("Should halve counts on each drain so keys no longer read age out")
+    void shouldAgeOutColdKeys() {
+        // Given
+        HotUserKeys keys = new HotUserKeys(100);
+        read(keys, 1L, 4);
+        read(keys, 2L, 1);
+
+        // When
+        keys.drainHottest(10);
+        read(keys, 3L, 1);
+        HotUserKeys.Keys second = keys.drainHottest(10);
+
+        // Then
+        assertThat(second.ids()).containsExactly(1L, 3L);
+        assertThat(keys.drainHottest(10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should report whether any key was read since the last drain")
+    void shouldTrackReadsSinceDrain() {
+        // Given
+        HotUserKeys keys = new HotUserKeys(100);
+        keys.recordUsername("alice");
+
+        // When
+        boolean beforeDrain = keys.readSinceDrain();
+        keys.drainHottest(10);
+
+        // Then
+        assertThat(beforeDrain).isTrue();
+        assertThat(keys.readSinceDrain()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should ignore new keys once the tracking limit is reached")
+    void shouldBoundTrackedKeys() {
+        // Given
+        HotUserKeys keys = new HotUserKeys(2);
+
+        // When
+        read(keys, 1L, 1);
+        read(keys, 2L, 1);
+        read(keys, 3L, 5);
+        read(keys, 1L, 1);
+
+        // Then
+        assertThat(keys.trackedKeys()).isEqualTo(2);
+        assertThat(keys.drainHottest(10).ids()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should read back the keys it wrote, up to the limit of each kind")
+    void shouldRoundTripFile() throws Exception {
+        // Given
+        Path path = directory.resolve("keys").resolve("hot-user-keys.txt");
+        HotUserKeys.write(path, new HotUserKeys.Keys(List.of(3L, 1L, 2L), List.of("carol", "user name")));
+        Files.writeString(path, "id not-a-number\n", StandardOpenOption.APPEND);
+
+        // When
+        HotUserKeys.Keys all = HotUserKeys.read(path, 10);
+        HotUserKeys.Keys limited = HotUserKeys.read(path, 1);
+
+        // Then
+        assertThat(all.ids()).containsExactly(3L, 1L, 2L);
+        assertThat(all.usernames()).containsExactly("carol", "user name");
+        assertThat(limited.ids()).containsExactly(3L);
+        assertThat(limited.usernames()).containsExactly("carol");
+    }
+
+    private static void read(HotUserKeys keys, Long id, int times) {
+        for (int i = 0; i < times; i++) {
+            keys.recordId(id);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package org.nakhan.testing.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.mutation.MutationMailboxes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for per-key mutation mailboxes, including a hot-row test against a database stand-in
+ * that holds a row lock per key until commit.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("MutationMailboxes Unit Tests")
+class MutationMailboxesTest {
+
+    private static final int HOT_UPDATES = 20;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger batches = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should run the mutations of one key one at a time")
+    void shouldSerializeMutationsOfOneKey() throws Exception {
+        // Given
+        MutationMailboxes mailboxes = mailboxes(32);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        int[] counter = new int[1];
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            calls.add(executor.submit(() -> submit(mailboxes, 1L, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                counter[0]++;
+                running.decrementAndGet();
+                return null;
+            })));
+        }
+        for (Future<Object> call : calls) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(counter[0]).isEqualTo(200);
+        assertThat(meterRegistry.get("mutation.mailbox.keys").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should run mutations of different keys in parallel")
+    void shouldRunDifferentKeysInParallel() throws Exception {
+        // Given
+        MutationMailboxes mailboxes = mailboxes(32);
+        CountDownLatch otherKeyDone = new CountDownLatch(1);
+
+        // When
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> submit(mailboxes, 1L,
+                () -> otherKeyDone.await(5, TimeUnit.SECONDS)));
+        Object second = submit(mailboxes, 2L, () -> {
+            otherKeyDone.countDown();
+            return "done";
+        });
+
+        // Then
+        assertThat(second).isEqualTo("done");
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should merge mutations queued behind a running one into one batch")
+    void shouldMergeQueuedMutations() throws Exception {
+        // Given
+        MutationMailboxes mailboxes = mailboxes(32);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> submit(mailboxes, 1L, () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        List<CompletableFuture<Integer>> queued = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int value = i;
+            queued.add(CompletableFuture.supplyAsync(() -> submit(mailboxes, 1L, () -> value)));
+        }
+        awaitQueued(3);
+
+        // When
+        release.countDown();
+
+        // Then
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 3; i++) {
+            assertThat(queued.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i);
+        }
+        assertThat(batches.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("mutation.mailbox.batch").summary().max()).isEqualTo(3);
+        assertThat(meterRegistry.get("mutation.mailbox.contended").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should run the mutations of a failed batch again one by one")
+    void shouldRetryFailedBatchAlone() throws Exception {
+        // Given
+        MutationMailboxes mailboxes = mailboxes(32);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> submit(mailboxes, 1L, () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Integer> good = CompletableFuture.supplyAsync(() -> submit(mailboxes, 1L, runs::incrementAndGet));
+        awaitQueued(1);
+        CompletableFuture<Integer> bad = CompletableFuture.supplyAsync(() -> submit(mailboxes, 1L, () -> {
+            throw new IllegalStateException("User not found with id: 1");
+        }));
+        awaitQueued(2);
+
+        // When
+        release.countDown();
+
+        // Then
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(good.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS))
+            .hasRootCauseInstanceOf(IllegalStateException.class)
+            .hasRootCauseMessage("User not found with id: 1");
+        assertThat(meterRegistry.get("mutation.mailbox.retried").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should write a hot row once per batch instead of once per update")
+    void shouldMergeHotRowUpdatesIntoOneTransaction() throws Exception {
+        // Given
+        RowLockDatabase direct = new RowLockDatabase();
+        RowLockDatabase merged = new RowLockDatabase();
+        MutationMailboxes mailboxes = new MutationMailboxes("stress", 32, merged::transaction, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HOT_UPDATES + 1);
+        Future<Object> running = executor.submit(() -> submit(mailboxes, 0L, () -> {
+            merged.update(0L);
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        List<Future<Object>> queued = new ArrayList<>();
+        for (int i = 0; i < HOT_UPDATES; i++) {
+            queued.add(executor.submit(() -> submit(mailboxes, 0L, () -> merged.update(0L))));
+        }
+        awaitQueued(HOT_UPDATES);
+
+        // When
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        for (Future<Object> call : queued) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        for (int i = 0; i <= HOT_UPDATES; i++) {
+            direct.update(0L);
+        }
+
+        // Then
+        assertThat(merged.updates.get()).isEqualTo(direct.updates.get()).isEqualTo(HOT_UPDATES + 1);
+        assertThat(direct.commits.get()).isEqualTo(HOT_UPDATES + 1);
+        assertThat(direct.rowWrites.get()).isEqualTo(HOT_UPDATES + 1);
+        assertThat(merged.commits.get()).isEqualTo(2);
+        assertThat(merged.rowWrites.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("mutation.mailbox.batch").summary().max()).isEqualTo(HOT_UPDATES);
+    }
+
+    private MutationMailboxes mailboxes(int maxBatch) {
+        return new MutationMailboxes("test", maxBatch, batch -> {
+            batches.incrementAndGet();
+            batch.run();
+        }, meterRegistry);
+    }
+
+    private void awaitQueued(int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("mutation.mailbox.queued").gauge().value() < queued && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static <T> T submit(MutationMailboxes mailboxes, Object key, MutationMailboxes.Mutation<T> mutation) {
+        try {
+            return mailboxes.submit(key, mutation);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A database stand-in: an update takes its row's lock, held until commit. Updates inside a
+     * transaction only mark their row dirty, as Hibernate's dirty checking writes an entity once at
+     * flush, so a transaction writes each of its rows once.
+     */
+    private static final class RowLockDatabase {
+
+        private final Map<Long, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+        private final ThreadLocal<List<Long>> transaction = new ThreadLocal<>();
+        final AtomicInteger updates = new AtomicInteger();
+        final AtomicInteger commits = new AtomicInteger();
+        final AtomicInteger rowWrites = new AtomicInteger();
+
+        Object update(long key) {
+            updates.incrementAndGet();
+            List<Long> dirty = transaction.get();
+            if (dirty != null) {
+                if (!dirty.contains(key)) {
+                    lock(key);
+                    dirty.add(key);
+                }
+                return null;
+            }
+            lock(key);
+            try {
+                commit(1);
+            } finally {
+                rowLocks.get(key).unlock();
+            }
+            return null;
+        }
+
+        void transaction(Runnable batch) {
+            List<Long> dirty = new ArrayList<>();
+            transaction.set(dirty);
+            try {
+                batch.run();
+                commit(dirty.size());
+            } finally {
+                transaction.remove();
+                for (Long key : dirty) {
+                    rowLocks.get(key).unlock();
+                }
+            }
+        }
+
+        private void lock(long key) {
+            rowLocks.computeIfAbsent(key, k -> new ReentrantLock(true)).lock();
+        }
+
+        private void commit(int rows) {
+            rowWrites.addAndGet(rows);
+            commits.incrementAndGet();
+        }
+    }
+}
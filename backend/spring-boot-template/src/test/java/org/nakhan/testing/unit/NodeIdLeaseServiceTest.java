@@ -0,0 +1,87 @@
+package org.nakhan.testing.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.id.NodeIdLeaseService;
+import org.nakhan.id.SnowflakeIdGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for node id leases on an in-memory H2 database.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("NodeIdLeaseService Unit Tests")
+class NodeIdLeaseServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private NodeIdLeaseService leaseService;
+    private SnowflakeIdGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:leases;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS id_node_leases");
+        jdbcTemplate.execute("CREATE TABLE id_node_leases (node_id INTEGER PRIMARY KEY, owner VARCHAR(128) NOT NULL, "
+                + "expires_at TIMESTAMP(6) NOT NULL)");
+        leaseService = new NodeIdLeaseService(jdbcTemplate, "node-a", Duration.ofMinutes(10), Duration.ofSeconds(30));
+        generator = new SnowflakeIdGenerator(leaseService.claim());
+        leaseService.attach(generator);
+    }
+
+    @Test
+    @DisplayName("Should keep issuing ids while the lease is renewed")
+    void shouldRenewHeldLease() {
+        // When
+        boolean held = leaseService.renew();
+
+        // Then
+        assertThat(held).isTrue();
+        assertThat(SnowflakeIdGenerator.nodeIdOf(generator.nextId())).isEqualTo(leaseService.getNodeId());
+    }
+
+    @Test
+    @DisplayName("Should refuse ids after losing the lease until a new node id is claimed")
+    void shouldSuspendUntilNewNodeIdIsClaimed() {
+        // Given
+        long lost = leaseService.getNodeId();
+        jdbcTemplate.update("UPDATE id_node_leases SET owner = 'node-b' WHERE node_id = ?", lost);
+        leaseAllOthers(lost);
+
+        // When
+        boolean heldAfterLoss = leaseService.renew();
+
+        // Then
+        assertThat(heldAfterLoss).isFalse();
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+
+        // When
+        jdbcTemplate.update("DELETE FROM id_node_leases WHERE node_id = ?", (lost + 1) % (SnowflakeIdGenerator.MAX_NODE_ID + 1));
+        boolean heldAfterClaim = leaseService.renew();
+
+        // Then
+        assertThat(heldAfterClaim).isTrue();
+        assertThat(leaseService.getNodeId()).isNotEqualTo(lost);
+        assertThat(SnowflakeIdGenerator.nodeIdOf(generator.nextId())).isEqualTo(leaseService.getNodeId());
+    }
+
+    private void leaseAllOthers(long except) {
+        Timestamp expiry = Timestamp.from(Instant.now().plus(Duration.ofMinutes(10)));
+        List<Object[]> rows = new ArrayList<>();
+        for (long nodeId = 0; nodeId <= SnowflakeIdGenerator.MAX_NODE_ID; nodeId++) {
+            if (nodeId != except) {
+                rows.add(new Object[] {nodeId, "node-c", expiry});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO id_node_leases (node_id, owner, expires_at) VALUES (?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,107 @@
+package org.nakhan.testing.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.persistence.QueryContext;
+import org.nakhan.persistence.QueryStatsDataSourcePostProcessor;
+import org.nakhan.persistence.QueryStatsRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for per-statement query statistics collected through the proxied data source.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("Query Statistics Unit Tests")
+class QueryStatsListenerTest {
+
+    private QueryStatsRegistry registry;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        registry = new QueryStatsRegistry(new SimpleMeterRegistry(), 500, 5, 0, 5);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("queryStatsRegistry", registry);
+        QueryStatsDataSourcePostProcessor postProcessor =
+                new QueryStatsDataSourcePostProcessor(beanFactory.getBeanProvider(QueryStatsRegistry.class), true);
+        DataSource target = new DriverManagerDataSource("jdbc:h2:mem:querystats;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate((DataSource) postProcessor.postProcessAfterInitialization(target, "dataSource"));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS items");
+        jdbcTemplate.execute("CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(50))");
+        jdbcTemplate.update("INSERT INTO items VALUES (1, 'a'), (2, 'b'), (3, 'c')");
+        registry.reset();
+    }
+
+    @Test
+    @DisplayName("Should group statements differing only in literals")
+    void shouldNormalizeLiterals() {
+        // When
+        jdbcTemplate.queryForList("SELECT name FROM items WHERE id = 1");
+        jdbcTemplate.queryForList("SELECT name FROM items WHERE id = 2");
+
+        // Then
+        assertThat(statements())
+            .singleElement()
+            .satisfies(stats -> {
+                assertThat(stats.get("sql")).isEqualTo("SELECT name FROM items WHERE id = ?");
+                assertThat(stats.get("executions")).isEqualTo(2L);
+            });
+    }
+
+    @Test
+    @DisplayName("Should count rows read and rows written")
+    void shouldCountRows() {
+        // When
+        jdbcTemplate.queryForList("SELECT name FROM items");
+        jdbcTemplate.update("UPDATE items SET name = ? WHERE id > ?", "z", 1);
+
+        // Then
+        assertThat(statements())
+            .extracting(stats -> stats.get("type") + ":" + stats.get("rows"))
+            .containsExactlyInAnyOrder("select:3", "update:2");
+    }
+
+    @Test
+    @DisplayName("Should attribute statements to the active repository method")
+    void shouldTagRepositoryMethod() {
+        // When
+        String previous = QueryContext.enterRepositoryMethod("ItemRepository.findAll");
+        try {
+            jdbcTemplate.queryForList("SELECT name FROM items");
+        } finally {
+            QueryContext.restoreRepositoryMethod(previous);
+        }
+
+        // Then
+        assertThat(statements()).extracting(stats -> stats.get("repositoryMethod"))
+            .containsExactly("ItemRepository.findAll");
+    }
+
+    @Test
+    @DisplayName("Should log slow statements with their parameter shape")
+    void shouldLogParameterShape() {
+        // When
+        jdbcTemplate.queryForList("SELECT name FROM items WHERE id = ? AND name = ?", 1, "a");
+
+        // Then
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> slow = (List<Map<String, Object>>) registry.snapshot().get("slowQueries");
+        assertThat(slow).singleElement()
+            .satisfies(entry -> assertThat(entry.get("parameterTypes")).isEqualTo(List.of("Integer", "String")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> statements() {
+        return (List<Map<String, Object>>) registry.snapshot().get("statements");
+    }
+}
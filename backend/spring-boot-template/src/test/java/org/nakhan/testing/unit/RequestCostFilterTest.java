@@ -0,0 +1,77 @@
+package org.nakhan.testing.unit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.metrics.RequestCostFilter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import java.nio.charset.StandardCharsets;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for per-request allocation and CPU accounting.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("RequestCostFilter Unit Tests")
+class RequestCostFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should record allocated bytes and CPU time per route")
+    void shouldRecordCostPerRoute() throws Exception {
+        // Given
+        RequestCostFilter filter = new RequestCostFilter(meterRegistry, 100, false, 5);
+
+        // When
+        perform(filter, "/api/users/1", 1_000_000);
+        MockHttpServletResponse response = perform(filter, "/api/users/2", 1_000_000);
+
+        // Then
+        DistributionSummary allocation = meterRegistry.get("http.server.requests.allocation")
+            .tag("method", "GET").tag("uri", "/api/users/{id}").summary();
+        assertThat(allocation.count()).isEqualTo(2);
+        assertThat(allocation.max()).isGreaterThanOrEqualTo(1_000_000);
+        assertThat(meterRegistry.get("http.server.requests.cpu").tag("uri", "/api/users/{id}").timer().count())
+            .isEqualTo(2);
+        assertThat(response.getHeader("X-Request-Cost")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should add cost headers and keep the body when debugging is enabled")
+    void shouldAddDebugHeaders() throws Exception {
+        // Given
+        RequestCostFilter filter = new RequestCostFilter(meterRegistry, 100, true, 2);
+        perform(filter, "/api/users/1", 4_000_000);
+        perform(filter, "/api/users/2", 10);
+
+        // When
+        MockHttpServletResponse response = perform(filter, "/api/users/3", 2_000_000);
+
+        // Then
+        assertThat(response.getHeader("X-Request-Cost")).matches("bytes=\\d+;cpu-us=\\d+");
+        assertThat(response.getHeader("X-Request-Cost-Worst"))
+            .startsWith("GET /api/users/{id} bytes=")
+            .containsOnlyOnce(", ");
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":\"3\"}");
+    }
+
+    private static MockHttpServletResponse perform(RequestCostFilter filter, String path, int allocate)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+            byte[] garbage = new byte[allocate];
+            res.getOutputStream().write(("{\"id\":\"" + path.substring(path.lastIndexOf('/') + 1) + "\"}")
+                .getBytes(StandardCharsets.UTF_8));
+            assertThat(garbage).hasSize(allocate);
+        });
+        return response;
+    }
+}
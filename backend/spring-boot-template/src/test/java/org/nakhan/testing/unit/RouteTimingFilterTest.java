@@ -0,0 +1,101 @@
+package org.nakhan.testing.unit;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.metrics.LatencyTimers;
+import org.nakhan.metrics.RouteTimingFilter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import java.time.Duration;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the per-route request timers.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("RouteTimingFilter Unit Tests")
+class RouteTimingFilterTest {
+
+    private static final String METRIC = "http.server.requests";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RouteTimingFilter filter = new RouteTimingFilter(
+            new LatencyTimers(meterRegistry, new Duration[] {Duration.ofMillis(10), Duration.ofMillis(100)}), 2);
+
+    @Test
+    @DisplayName("Should tag requests with the route pattern and status, with SLO buckets")
+    void shouldTimeByRoutePattern() throws Exception {
+        // When
+        perform("GET", "/api/users/1", "/api/users/{id}", 200);
+        perform("GET", "/api/users/2", "/api/users/{id}", 200);
+        perform("GET", "/api/users/3", "/api/users/{id}", 404);
+
+        // Then
+        Timer ok = timer("GET", "/api/users/{id}", "200");
+        assertThat(ok.count()).isEqualTo(2);
+        assertThat(ok.getId().getTag("outcome")).isEqualTo("SUCCESS");
+        assertThat(ok.takeSnapshot().histogramCounts()).extracting(CountAtBucket::bucket)
+            .containsExactly((double) Duration.ofMillis(10).toNanos(), (double) Duration.ofMillis(100).toNanos());
+        assertThat(timer("GET", "/api/users/{id}", "404").getId().getTag("outcome")).isEqualTo("CLIENT_ERROR");
+        assertThat(meterRegistry.find(METRIC).tag("uri", "/api/users/1").timer()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should tag routes beyond the limit as OTHER and unmatched requests by status")
+    void shouldBoundUriTags() throws Exception {
+        // When
+        perform("GET", "/a", "/a", 200);
+        perform("GET", "/b", "/b", 200);
+        perform("GET", "/c", "/c", 200);
+        perform("GET", "/missing", "/**", 404);
+        perform("GET", "/api/users", null, 401);
+        perform("BREW", "/a", "/a", 200);
+
+        // Then
+        assertThat(timer("GET", "OTHER", "200").count()).isEqualTo(1);
+        assertThat(timer("GET", "NOT_FOUND", "404").count()).isEqualTo(1);
+        assertThat(timer("GET", "UNKNOWN", "401").count()).isEqualTo(1);
+        assertThat(timer("OTHER", "/a", "200").count()).isEqualTo(1);
+        assertThat(meterRegistry.find(METRIC).tag("uri", "/c").timer()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should record a request that failed with an exception as 500")
+    void shouldRecordExceptionsAsServerErrors() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/users/1");
+        FilterChain failing = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+            throw new ServletException("boom");
+        };
+
+        // When / Then
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), failing))
+            .isInstanceOf(ServletException.class);
+        Timer failed = timer("DELETE", "/api/users/{id}", "500");
+        assertThat(failed.count()).isEqualTo(1);
+        assertThat(failed.getId().getTag("outcome")).isEqualTo("SERVER_ERROR");
+    }
+
+    private void perform(String method, String path, String pattern, int status) throws Exception {
+        filter.doFilter(new MockHttpServletRequest(method, path), new MockHttpServletResponse(), (request, response) -> {
+            if (pattern != null) {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+            }
+            ((MockHttpServletResponse) response).setStatus(status);
+        });
+    }
+
+    private Timer timer(String method, String uri, String status) {
+        return meterRegistry.get(METRIC)
+            .tag("method", method).tag("uri", uri).tag("status", status).timer();
+    }
+}
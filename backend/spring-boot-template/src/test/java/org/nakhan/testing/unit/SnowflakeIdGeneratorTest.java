@@ -0,0 +1,203 @@
+package org.nakhan.testing.unit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.id.NodeIdAllocator;
+import org.nakhan.id.SnowflakeIdGenerator;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the Snowflake id generator.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("SnowflakeIdGenerator Unit Tests")
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    @DisplayName("Should issue unique ids under contention")
+    void shouldIssueUniqueIdsUnderContention() throws Exception {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        int threads = 8;
+        int idsPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(() -> {
+                long[] ids = new long[idsPerThread];
+                for (int i = 0; i < idsPerThread; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            });
+        }
+
+        // When
+        Set<Long> unique = new HashSet<>();
+        try {
+            for (Future<long[]> future : executor.invokeAll(tasks)) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    unique.add(ids[i]);
+                    if (i > 0) {
+                        assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertThat(unique).hasSize(threads * idsPerThread);
+        assertThat(unique).allMatch(id -> SnowflakeIdGenerator.nodeIdOf(id) == 7);
+    }
+
+    @Test
+    @DisplayName("Should keep ids monotonic when the clock steps backwards")
+    void shouldTolerateSmallClockSkew() {
+        // Given
+        MutableClock clock = new MutableClock(SnowflakeIdGenerator.DEFAULT_EPOCH + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, SnowflakeIdGenerator.DEFAULT_EPOCH, 1_000, clock);
+        long before = generator.nextId();
+
+        // When
+        clock.millis -= 500;
+        long after = generator.nextId();
+
+        // Then
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("Should park rather than spin when the sequence runs out behind a backwards step")
+    void shouldParkWhileClockCatchesUp() throws Exception {
+        // Given
+        MutableClock clock = new MutableClock(SnowflakeIdGenerator.DEFAULT_EPOCH + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, SnowflakeIdGenerator.DEFAULT_EPOCH, 1_000, clock);
+        long last = generator.nextId();
+        clock.millis -= 500;
+        for (int i = 1; i < 1 << SnowflakeIdGenerator.SEQUENCE_BITS; i++) {
+            last = generator.nextId();
+        }
+        long[] waited = new long[1];
+        Thread caller = new Thread(() -> waited[0] = generator.nextId());
+
+        // When
+        caller.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (caller.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Thread.State waitingState = caller.getState();
+        clock.millis += 501;
+        caller.join(TimeUnit.SECONDS.toMillis(5));
+
+        // Then
+        assertThat(waitingState).isEqualTo(Thread.State.TIMED_WAITING);
+        assertThat(caller.isAlive()).isFalse();
+        assertThat(waited[0]).isGreaterThan(last);
+    }
+
+    @Test
+    @DisplayName("Should refuse ids when the clock is too far behind")
+    void shouldRefuseIdsBeyondMaxDrift() {
+        // Given
+        MutableClock clock = new MutableClock(SnowflakeIdGenerator.DEFAULT_EPOCH + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, SnowflakeIdGenerator.DEFAULT_EPOCH, 1_000, clock);
+        generator.nextId();
+
+        // When
+        clock.millis -= 5_000;
+
+        // Then
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should encode timestamp and node id")
+    void shouldEncodeTimestampAndNode() {
+        // Given
+        long now = SnowflakeIdGenerator.DEFAULT_EPOCH + 123_456;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1023, SnowflakeIdGenerator.DEFAULT_EPOCH,
+                1_000, new MutableClock(now));
+
+        // When
+        long id = generator.nextId();
+
+        // Then
+        assertThat(generator.timestampOf(id)).isEqualTo(Instant.ofEpochMilli(now));
+        assertThat(SnowflakeIdGenerator.nodeIdOf(id)).isEqualTo(1023);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(1024)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should derive node id from StatefulSet hostname ordinal")
+    void shouldDeriveNodeIdFromHostnameOrdinal() {
+        // When & Then
+        assertThat(NodeIdAllocator.fromHostnameOrdinal("backend-12")).hasValue(12);
+        assertThat(NodeIdAllocator.fromHostnameOrdinal("backend")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject an explicit node id that is not a number")
+    void shouldRejectMalformedExplicitNodeId() {
+        // Given
+        System.setProperty("app.id.node-id", "node-7");
+        try {
+            // When & Then
+            assertThatThrownBy(NodeIdAllocator::explicitNodeId)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("app.id.node-id")
+                    .hasMessageContaining("node-7");
+        } finally {
+            System.clearProperty("app.id.node-id");
+        }
+    }
+
+    /**
+     * Clock whose time can be moved by the test.
+     */
+    private static class MutableClock extends Clock {
+
+        volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.nakhan.testing.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.dto.UserDto;
+import org.nakhan.entity.User;
+import org.nakhan.json.UserJsonWriter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the hand-written user JSON encoder, checked byte for byte against the
+ * {@code ObjectMapper} configuration Spring Boot builds.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("UserJsonWriter Unit Tests")
+class UserJsonWriterTest {
+
+    // As configured by Spring Boot's JacksonAutoConfiguration
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    @Test
+    @DisplayName("Should write users exactly as the ObjectMapper does")
+    void shouldMatchObjectMapperForUsers() throws Exception {
+        // Given
+        List<User> users = new ArrayList<>();
+        users.add(user(370323506301673472L, "alice", "Alice", LocalDateTime.of(2026, 1, 2, 3, 4, 5)));
+        users.add(user(-42L, "quote\"back\\slash\u0001\b\t\n\f\r\u001F/", "Ünïcode 日本 😀",
+                LocalDateTime.of(999, 12, 31, 23, 59, 59, 120_000_000)));
+        users.add(user(Long.MIN_VALUE, "nanos", null, LocalDateTime.of(2026, 6, 1, 0, 0, 0, 1)));
+        User empty = new User();
+        empty.setActive(null);
+        users.add(empty);
+        users.add(null);
+
+        // When & Then
+        assertThat(lean(users)).isEqualTo(objectMapper.writeValueAsString(users));
+        assertThat(lean(users.get(0))).isEqualTo(objectMapper.writeValueAsString(users.get(0)));
+    }
+
+    @Test
+    @DisplayName("Should write user DTOs exactly as the ObjectMapper does")
+    void shouldMatchObjectMapperForDtos() throws Exception {
+        // Given
+        UserDto dto = new UserDto("dto", "dto@example.com", "Dee", null);
+        dto.setId(7L);
+        dto.setCreatedAt(LocalDateTime.of(2026, 3, 4, 5, 6, 7, 890));
+        dto.setActive(false);
+
+        // When & Then
+        assertThat(lean(Set.of(dto))).isEqualTo(objectMapper.writeValueAsString(Set.of(dto)));
+    }
+
+    @Test
+    @DisplayName("Should flush through small buffers without splitting characters")
+    void shouldStreamLargePayloadsThroughSmallBuffers() throws Exception {
+        // Given
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            users.add(user(i, "user" + i, "Ωmega 😀 " + "x".repeat(i % 97), LocalDateTime.of(2026, 1, 1, 0, 0)));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        UserJsonWriter writer = new UserJsonWriter(out, new byte[64]);
+        writer.writeValue(users);
+        writer.flush();
+
+        // Then
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(users));
+    }
+
+    @Test
+    @DisplayName("Should only support users, user DTOs and iterables of them")
+    void shouldReportSupportedTypes() {
+        assertThat(UserJsonWriter.supports(ResolvableType.forClass(User.class))).isTrue();
+        assertThat(UserJsonWriter.supports(ResolvableType.forClassWithGenerics(List.class, UserDto.class))).isTrue();
+        assertThat(UserJsonWriter.supports(ResolvableType.forClassWithGenerics(List.class, String.class))).isFalse();
+        assertThat(UserJsonWriter.supports(ResolvableType.forClass(List.class))).isFalse();
+    }
+
+    private static String lean(Object value) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UserJsonWriter writer = new UserJsonWriter(out, new byte[8192]);
+        writer.writeValue(value);
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static User user(long id, String username, String firstName, LocalDateTime createdAt) {
+        User user = new User(username, username + "@example.com", "secret123");
+        user.setId(id);
+        user.setFirstName(firstName);
+        user.setCreatedAt(createdAt);
+        user.setUpdatedAt(createdAt.plusNanos(1_000));
+        return user;
+    }
+}
@@ -0,0 +1,115 @@
+package org.nakhan.testing.unit;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nakhan.jfr.UserOperationEventAdvisor;
+import org.nakhan.metrics.TimedService;
+import org.springframework.aop.framework.ProxyFactory;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the JFR events recorded around {@link TimedService} methods.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("UserOperationEventAdvisor Unit Tests")
+class UserOperationEventAdvisorTest {
+
+    private static final String EVENT = "org.nakhan.UserOperation";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should record operation, key type, rows returned and outcome while a recording enables the event")
+    void shouldRecordUserOperations() throws Exception {
+        // Given
+        Users users = proxy();
+        Path file = directory.resolve("operations.jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT).withoutThreshold();
+            recording.start();
+            users.findByUsername("alice");
+            users.findAll();
+            users.count();
+            users.touch(7L);
+            assertThatThrownBy(() -> users.delete(7L)).isInstanceOf(IllegalStateException.class);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals(EVENT))
+            .toList();
+        assertThat(events).extracting(event -> event.getString("operation"))
+            .containsExactlyInAnyOrder("findByUsername", "findAll", "count", "touch", "delete");
+        RecordedEvent lookup = find(events, "findByUsername");
+        assertThat(lookup.getString("keyType")).isEqualTo("username");
+        assertThat(lookup.getLong("rows")).isEqualTo(1);
+        assertThat(lookup.getBoolean("succeeded")).isTrue();
+        RecordedEvent list = find(events, "findAll");
+        assertThat(list.getString("keyType")).isEqualTo("none");
+        assertThat(list.getLong("rows")).isEqualTo(3);
+        assertThat(find(events, "count").getLong("rows")).isEqualTo(-1);
+        assertThat(find(events, "touch").getLong("rows")).isEqualTo(-1);
+        assertThat(find(events, "delete").getBoolean("succeeded")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should pass calls through unchanged when no recording enables the event")
+    void shouldPassThroughWhenDisabled() {
+        // Given
+        Users users = proxy();
+
+        // When
+        Optional<String> user = users.findByUsername("alice");
+
+        // Then
+        assertThat(user).contains("alice");
+    }
+
+    private static Users proxy() {
+        ProxyFactory factory = new ProxyFactory(new Users());
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(new UserOperationEventAdvisor());
+        return (Users) factory.getProxy();
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String operation) {
+        return events.stream().filter(event -> event.getString("operation").equals(operation)).findFirst().orElseThrow();
+    }
+
+    @TimedService
+    public static class Users {
+
+        public Optional<String> findByUsername(String username) {
+            return Optional.of(username);
+        }
+
+        public List<String> findAll() {
+            return List.of("alice", "bob", "carol");
+        }
+
+        public long count() {
+            return 3;
+        }
+
+        public void touch(Long id) {
+        }
+
+        public void delete(Long id) {
+            throw new IllegalStateException("User not found with id: " + id);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.nakhan.testing.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.entity.User;
+import org.nakhan.search.UserSearchHit;
+import org.nakhan.search.UserSearchIndex;
+import java.util.List;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the in-memory user search index.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("UserSearchIndex Unit Tests")
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex();
+        index.index(user(1L, "jdoe", "john.doe@example.com", "John", "Doe"));
+        index.index(user(2L, "jsmith", "jane.smith@example.com", "Jane", "Smith"));
+        index.index(user(3L, "johnny", "johnny@test.com", "Johnny", "Walker"));
+    }
+
+    @Test
+    @DisplayName("Should rank exact matches before prefix matches")
+    void shouldRankExactBeforePrefix() {
+        // When
+        List<UserSearchHit> hits = index.search("john", 10);
+
+        // Then
+        assertThat(hits).extracting(UserSearchHit::getId).containsExactly(1L, 3L);
+        assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(1).getScore());
+    }
+
+    @Test
+    @DisplayName("Should match a single typo or transposition")
+    void shouldMatchSingleTypo() {
+        // When & Then
+        assertThat(index.search("smtih", 10)).extracting(UserSearchHit::getId).containsExactly(2L);
+        assertThat(index.search("walkr", 10)).extracting(UserSearchHit::getId).containsExactly(3L);
+        assertThat(index.search("xyzzy", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should match a typo or transposition in a short name")
+    void shouldMatchTypoInShortName() {
+        // Given
+        index.index(user(4L, "cat", "cat@example.com", "Cat", "Lee"));
+        index.index(user(5L, "mhiggins", "max@example.com", "Max", "Higgins"));
+
+        // When & Then
+        assertThat(index.search("cxt", 10)).extracting(UserSearchHit::getId).containsExactly(4L);
+        assertThat(index.search("act", 10)).extracting(UserSearchHit::getId).containsExactly(4L);
+        assertThat(index.search("lea", 10)).extracting(UserSearchHit::getId).containsExactly(4L);
+        assertThat(index.search("mxa", 10)).extracting(UserSearchHit::getId).containsExactly(5L);
+        assertThat(index.search("jaen", 10)).extracting(UserSearchHit::getId).containsExactly(2L);
+        assertThat(index.search("deo", 10)).extracting(UserSearchHit::getId).containsExactly(1L);
+        assertThat(index.search("qux", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should require every query token to match")
+    void shouldIntersectQueryTokens() {
+        // When
+        List<UserSearchHit> hits = index.search("jane smi", 10);
+
+        // Then
+        assertThat(hits).extracting(UserSearchHit::getUsername).containsExactly("jsmith");
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and removals")
+    void shouldReflectUpdatesAndRemovals() {
+        // When
+        index.index(user(2L, "jsmith", "jane.brown@example.com", "Jane", "Brown"));
+        index.remove(1L);
+
+        // Then
+        assertThat(index.search("smith", 10)).extracting(UserSearchHit::getId).containsExactly(2L);
+        assertThat(index.search("brown", 10)).extracting(UserSearchHit::getId).containsExactly(2L);
+        assertThat(index.search("doe", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.deletedRatio()).isGreaterThan(0.0);
+    }
+
+    @Test
+    @DisplayName("Should report memory usage")
+    void shouldReportMemoryUsage() {
+        // When & Then
+        assertThat(index.memoryUsage())
+            .containsEntry("documents", 3L)
+            .containsKey("totalBytes");
+        assertThat(index.memoryUsage().get("totalBytes")).isPositive();
+    }
+
+    private static User user(Long id, String username, String email, String firstName, String lastName) {
+        User user = new User(username, email, "password123");
+        user.setId(id);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setActive(true);
+        return user;
+    }
+}
@@ -0,0 +1,152 @@
+package org.nakhan.testing.unit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nakhan.entity.User;
+import org.nakhan.snapshot.UserSnapshot;
+import org.nakhan.snapshot.UserSnapshotWriter;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the memory-mapped user snapshot format.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("UserSnapshot Unit Tests")
+class UserSnapshotTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final UserSnapshotWriter writer = new UserSnapshotWriter(Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should find every user by id and username")
+    void shouldFindUsersByIdAndUsername() throws Exception {
+        // Given
+        List<User> users = IntStream.range(0, 1000)
+            .mapToObj(i -> user(1_000_000L - i * 7L, "user" + i, "Ünïcode " + i))
+            .toList();
+        Path file = directory.resolve("users.snapshot");
+        writer.write(file, users);
+
+        // When
+        UserSnapshot snapshot = UserSnapshot.open(file);
+
+        // Then
+        assertThat(snapshot.size()).isEqualTo(1000);
+        assertThat(snapshot.getCreatedAt()).isEqualTo(NOW);
+        assertThat(snapshot.idAt(0)).isEqualTo(1_000_000L);
+        for (User user : users) {
+            assertThat(snapshot.findById(user.getId())).get().usingRecursiveComparison()
+                .ignoringFields("password").isEqualTo(user);
+            assertThat(snapshot.findByUsername(user.getUsername())).get()
+                .extracting(User::getId).isEqualTo(user.getId());
+        }
+        assertThat(snapshot.findById(3L)).isEmpty();
+        assertThat(snapshot.findByUsername("nobody")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep unset fields unset")
+    void shouldKeepNullFields() throws Exception {
+        // Given
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("sparse");
+        user.setEmail("sparse@example.com");
+        user.setPassword("password123");
+        user.setActive(null);
+        Path file = directory.resolve("users.snapshot");
+        writer.write(file, List.of(user));
+
+        // When
+        User found = UserSnapshot.open(file).findById(42L).orElseThrow();
+
+        // Then
+        assertThat(found.getFirstName()).isNull();
+        assertThat(found.getActive()).isNull();
+        assertThat(found.getCreatedAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should leave password hashes out and keep the file private to its owner")
+    void shouldNotExposePasswordHashes() throws Exception {
+        // Given
+        Path file = directory.resolve("snapshots").resolve("users.snapshot");
+        writer.write(file, List.of(user(1L, "alice", "Alice")));
+
+        // When
+        User found = UserSnapshot.open(file).findById(1L).orElseThrow();
+
+        // Then
+        assertThat(found.getPassword()).isNull();
+        assertThat(new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1)).doesNotContain("$2a$10$hash");
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file))).isEqualTo("rw-------");
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file.getParent()))).isEqualTo("rwx------");
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a snapshot with corrupted data")
+    void shouldRejectCorruptedSnapshot() throws Exception {
+        // Given
+        Path file = directory.resolve("users.snapshot");
+        writer.write(file, List.of(user(1L, "alice", "Alice")));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(last ^ 0xFF);
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> UserSnapshot.open(file))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("checksum");
+    }
+
+    @Test
+    @DisplayName("Should reject a snapshot of another format version")
+    void shouldRejectOtherVersion() throws Exception {
+        // Given
+        Path file = directory.resolve("users.snapshot");
+        writer.write(file, List.of(user(1L, "alice", "Alice")));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(4);
+            raf.writeInt(99);
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> UserSnapshot.open(file))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("version 99");
+    }
+
+    private static User user(long id, String username, String firstName) {
+        User user = new User(username, username + "@example.com", "$2a$10$hash");
+        user.setId(id);
+        user.setFirstName(firstName);
+        user.setLastName("Last");
+        user.setActive(id % 2 == 0);
+        user.setCreatedAt(LocalDateTime.of(2025, 6, 1, 12, 0, 0));
+        user.setUpdatedAt(LocalDateTime.of(2025, 7, 1, 8, 30, 15));
+        return user;
+    }
+}
@@ -0,0 +1,131 @@
+package org.nakhan.testing.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.nakhan.entity.User;
+import org.nakhan.suggest.SuggestTrie;
+import org.nakhan.suggest.UserSuggestIndex;
+import org.nakhan.suggest.UserSuggestion;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the username and email autocomplete index.
+ *
+ * @author Full Stack Java Developer Toolkit
+ * @version 1.0.0
+ */
+@DisplayName("UserSuggestIndex Unit Tests")
+class UserSuggestIndexTest {
+
+    private UserSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSuggestIndex(new SuggestTrie.Builder()
+            .add(1L, false, "ann").add(1L, true, "ann@example.com")
+            .add(2L, false, "Anna").add(2L, true, "anna.smith@example.com")
+            .add(3L, false, "annabel").add(3L, true, "bel@test.com")
+            .add(4L, false, "zoë").add(4L, true, "zoe@example.com")
+            .build());
+    }
+
+    @Test
+    @DisplayName("Should complete usernames and emails in key order, ignoring case")
+    void shouldCompletePrefixInKeyOrder() {
+        // When
+        List<UserSuggestion> suggestions = index.suggest("ANN", 10);
+
+        // Then
+        assertThat(suggestions).extracting(UserSuggestion::getValue)
+            .containsExactly("ann", "ann@example.com", "Anna", "anna.smith@example.com", "annabel");
+        assertThat(suggestions).extracting(UserSuggestion::getField)
+            .containsExactly("username", "email", "username", "email", "username");
+        assertThat(index.suggest("anna", 2)).extracting(UserSuggestion::getId).containsExactly(2L, 2L);
+        assertThat(index.suggest("zoë", 10)).extracting(UserSuggestion::getId).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Should return nothing for an empty or unknown prefix")
+    void shouldReturnNothingForUnknownPrefix() {
+        // When & Then
+        assertThat(index.suggest("", 10)).isEmpty();
+        assertThat(index.suggest("annx", 10)).isEmpty();
+        assertThat(index.suggest("annabelle", 10)).isEmpty();
+        assertThat(new UserSuggestIndex().suggest("a", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should merge writes since the build with the trie")
+    void shouldMergeDeltaWithTrie() {
+        // When
+        index.index(user(5L, "annette", "annette@example.com"));
+        index.index(user(2L, "hannah", "anna.smith@example.com"));
+        index.remove(1L);
+
+        // Then
+        assertThat(index.suggest("ann", 10)).extracting(UserSuggestion::getValue)
+            .containsExactly("anna.smith@example.com", "annabel", "annette", "annette@example.com");
+        assertThat(index.suggest("han", 10)).extracting(UserSuggestion::getId).containsExactly(2L);
+        assertThat(index.deltaSize()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should not grow the delta for writes that keep the username and email")
+    void shouldIgnoreWritesKeepingKeys() {
+        // When
+        User anna = user(2L, "Anna", "anna.smith@example.com");
+        anna.setActive(false);
+        index.index(anna);
+
+        // Then
+        assertThat(index.deltaSize()).isZero();
+        assertThat(index.suggest("anna", 10)).extracting(UserSuggestion::getId).containsExactly(2L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should answer lookups in microseconds and report memory per million keys")
+    void shouldAnswerLargeIndexQuickly() {
+        // Given
+        SuggestTrie.Builder builder = new SuggestTrie.Builder();
+        String[] domains = {"example.com", "gmail.com", "company.org", "mail.net"};
+        for (long id = 0; id < 100_000; id++) {
+            String name = Long.toString(id * 2_654_435_761L % 1_000_000_007L, 36);
+            builder.add(id, false, "user_" + name);
+            builder.add(id, true, name + "@" + domains[(int) (id % domains.length)]);
+        }
+        UserSuggestIndex large = new UserSuggestIndex(builder.build());
+        String[] prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = ThreadLocalRandom.current().nextBoolean() ? "user_" + (char) ('a' + i % 26) : Integer.toString(i % 36, 36);
+        }
+
+        // When
+        int found = 0;
+        for (int i = 0; i < 20_000; i++) {
+            found += large.suggest(prefixes[i % prefixes.length], 10).size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < 20_000; i++) {
+            found += large.suggest(prefixes[i % prefixes.length], 10).size();
+        }
+        long micros = (System.nanoTime() - start) / 20_000 / 1_000;
+        Map<String, Long> memory = large.memoryUsage();
+
+        // Then
+        assertThat(found).isPositive();
+        assertThat(micros).isLessThan(100);
+        assertThat(memory.get("keys")).isEqualTo(200_000);
+        // a sorted String[] with a long[] of ids takes about 70 bytes a key here
+        assertThat(memory.get("bytesPerMillionKeys")).isLessThan(60_000_000);
+    }
+
+    private static User user(Long id, String username, String email) {
+        User user = new User(username, email, "password");
+        user.setId(id);
+        return user;
+    }
+}
@@ -58,14 +58,21 @@ db.createCollection('users', {
 db.users.createIndex({ "username": 1 }, { unique: true });
 db.users.createIndex({ "email": 1 }, { unique: true });
 db.users.createIndex({ "active": 1 });
+db.users.createIndex({ "active": 1, "_id": 1 }, { name: "active_id" });
 db.users.createIndex({ "createdAt": 1 });
+// Case-insensitive lookups and the covered active-user page of the backend's "mongo" profile
+db.users.createIndex({ "username": 1 }, { name: "username_ci", collation: { locale: "en", strength: 2 } });
+db.users.createIndex({ "email": 1 }, { name: "email_ci", collation: { locale: "en", strength: 2 } });
+db.users.createIndex({ "active": 1, "username": 1, "email": 1, "firstName": 1, "lastName": 1, "_id": 1 },
+  { name: "active_username_summary" });
 
-// Insert sample users
+// Insert sample users (numeric ids, like the backend's Snowflake ids)
 db.users.insertMany([
   {
+    _id: NumberLong(1),
     username: 'admin',
     email: 'admin@fullstack.local',
-    password: '$2a$10$N9qo8uLOickgx2ZMRZoMye', // bcrypt hash for 'password'
+    password: '!', // matches no password; the admin sets one with PUT /api/users/{id}
     firstName: 'Admin',
     lastName: 'User',
     active: true,
@@ -73,9 +80,10 @@ db.users.insertMany([
     updatedAt: new Date()
   },
   {
+    _id: NumberLong(2),
     username: 'testuser',
     email: 'test@fullstack.local',
-    password: '$2a$10$N9qo8uLOickgx2ZMRZoMye',
+    password: '!',
     firstName: 'Test',
     lastName: 'User',
     active: true,
@@ -83,9 +91,10 @@ db.users.insertMany([
     updatedAt: new Date()
   },
   {
+    _id: NumberLong(3),
     username: 'demo',
     email: 'demo@fullstack.local',
-    password: '$2a$10$N9qo8uLOickgx2ZMRZoMye',
+    password: '!',
     firstName: 'Demo',
     lastName: 'User',
     active: false,